@@ -1,24 +1,56 @@
 package com.restaurant.restaurantapp.Controller;
 
+import com.restaurant.restaurantapp.DTO.DashboardSnapshotDTO;
 import com.restaurant.restaurantapp.DTO.DashboardStatsDTO;
-import com.restaurant.restaurantapp.Service.DashboardService;
+import com.restaurant.restaurantapp.DTO.PrepTimeStatsDTO;
+import com.restaurant.restaurantapp.DTO.TopDishesDTO;
+import com.restaurant.restaurantapp.Service.DashboardSnapshotService;
+import com.restaurant.restaurantapp.Service.PrepTimeService;
+import com.restaurant.restaurantapp.Service.TopDishesService;
+import com.restaurant.restaurantapp.model.PrepTimeScope;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin/dashboard") // All endpoints here are for the admin dashboard
 @RequiredArgsConstructor
 public class DashboardController {
 
-    private final DashboardService dashboardService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final TopDishesService topDishesService;
+    private final PrepTimeService prepTimeService;
 
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')") // Only Admins can see this
     public ResponseEntity<DashboardStatsDTO> getStats() {
-        return ResponseEntity.ok(dashboardService.getDashboardStats());
+        return ResponseEntity.ok(dashboardSnapshotService.getLatest().getStats());
+    }
+
+    // The whole dashboard as last built; live updates are published on /topic/dashboard/snapshot
+    @GetMapping("/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<DashboardSnapshotDTO> getSnapshot() {
+        return ResponseEntity.ok(dashboardSnapshotService.getLatest());
+    }
+
+    // Best sellers over the last hour and last 24 hours; also pushed to /topic/dashboard/top-dishes
+    @GetMapping("/top-dishes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TopDishesDTO> getTopDishes(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(topDishesService.getTopDishes(limit));
+    }
+
+    // Kitchen prep-time percentiles per dish (default) or per station, e.g. ?scope=STATION
+    @GetMapping("/prep-times")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PrepTimeStatsDTO>> getPrepTimes(@RequestParam(defaultValue = "DISH") PrepTimeScope scope) {
+        return ResponseEntity.ok(prepTimeService.getStats(scope));
     }
-}
\ No newline at end of file
+}
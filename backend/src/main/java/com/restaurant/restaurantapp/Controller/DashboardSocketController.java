@@ -0,0 +1,22 @@
+package com.restaurant.restaurantapp.Controller;
+
+import com.restaurant.restaurantapp.DTO.DashboardSnapshotDTO;
+import com.restaurant.restaurantapp.Service.DashboardSnapshotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+// STOMP counterpart of DashboardController: lets a dashboard that has just connected get the
+// current snapshot straight away instead of waiting for the next publish on /topic/dashboard/snapshot.
+@Controller
+@RequiredArgsConstructor
+public class DashboardSocketController {
+
+    private final DashboardSnapshotService dashboardSnapshotService;
+
+    // Subscribing to /app/dashboard/snapshot replies once, to this session only, with the cached snapshot
+    @SubscribeMapping("/dashboard/snapshot")
+    public DashboardSnapshotDTO currentSnapshot() {
+        return dashboardSnapshotService.getLatest();
+    }
+}
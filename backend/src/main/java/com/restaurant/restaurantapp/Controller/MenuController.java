@@ -5,6 +5,7 @@ import com.restaurant.restaurantapp.DTO.DishDTO;
 import com.restaurant.restaurantapp.DTO.DishRequestDTO;
 import com.restaurant.restaurantapp.model.Category;
 import com.restaurant.restaurantapp.Service.MenuService;
+import com.restaurant.restaurantapp.Service.TopDishesService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -27,6 +28,7 @@ public class MenuController {
 
     private static final Logger log = LoggerFactory.getLogger(MenuController.class);
     private final MenuService menuService;
+    private final TopDishesService topDishesService;
 
     // --- Category Endpoints ---
 
@@ -78,14 +80,21 @@ public class MenuController {
     @PreAuthorize("permitAll()")
     public ResponseEntity<List<DishDTO>> getDishes(
             @RequestParam(required = false) Long categoryId,
-            @RequestParam(required = false, defaultValue = "true") boolean availableOnly) {
-        log.info("GET /api/menu/dishes?categoryId={}&availableOnly={}", categoryId, availableOnly);
+            @RequestParam(required = false, defaultValue = "true") boolean availableOnly,
+            @RequestParam(required = false) String sort) {
+        log.info("GET /api/menu/dishes?categoryId={}&availableOnly={}&sort={}", categoryId, availableOnly, sort);
+        List<DishDTO> dishes;
         if (availableOnly && categoryId != null) {
-            return ResponseEntity.ok(menuService.getAvailableDishesByCategoryId(categoryId));
+            dishes = menuService.getAvailableDishesByCategoryId(categoryId);
         } else {
             // Handle getting all dishes or all dishes in a category (regardless of availability)
-            return ResponseEntity.ok(menuService.getAllDishes(categoryId));
+            dishes = menuService.getAllDishes(categoryId);
         }
+        // sort=popularity puts today's best sellers first
+        if ("popularity".equalsIgnoreCase(sort)) {
+            dishes = topDishesService.sortByPopularity(dishes);
+        }
+        return ResponseEntity.ok(dishes);
     }
 
     @GetMapping("/dishes/{id}")
@@ -4,6 +4,8 @@ package com.restaurant.restaurantapp.Controller;
 import com.restaurant.restaurantapp.DTO.*;
 import com.restaurant.restaurantapp.model.OrderStatus;
 import com.restaurant.restaurantapp.model.OrderItemStatus;
+import com.restaurant.restaurantapp.Service.BillService;
+import com.restaurant.restaurantapp.Service.KitchenQueueService;
 import com.restaurant.restaurantapp.Service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +26,8 @@ public class OrderController {
 
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
     private final OrderService orderService;
+    private final BillService billService;
+    private final KitchenQueueService kitchenQueueService;
 
     /**
      * Creates a new Order (starts a new tab).
@@ -144,4 +148,24 @@ public class OrderController {
         CustomerOrderStatusDto statusDto = orderService.getOrderStatusByPublicTrackingId(publicTrackingId);
         return ResponseEntity.ok(statusDto);
     }
-}
\ No newline at end of file
+
+    /**
+     * Endpoint for customers to view the bill frozen when they asked to pay.
+     */
+    @GetMapping("/status/{publicTrackingId}/bill")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<BillDTO> getBillByPublicId(@PathVariable String publicTrackingId) {
+        log.info("GET /api/orders/status/{}/bill", publicTrackingId);
+        return ResponseEntity.ok(billService.getLatestBill(publicTrackingId));
+    }
+
+    /**
+     * Current wait-time estimate for an order. Updates are also pushed on /topic/orders/{publicTrackingId};
+     * this is for the first paint and for clients without a socket.
+     */
+    @GetMapping("/status/{publicTrackingId}/eta")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<OrderEtaDTO> getEtaByPublicId(@PathVariable String publicTrackingId) {
+        return ResponseEntity.ok(kitchenQueueService.getEta(publicTrackingId));
+    }
+}
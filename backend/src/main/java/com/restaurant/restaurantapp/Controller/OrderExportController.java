@@ -0,0 +1,65 @@
+package com.restaurant.restaurantapp.Controller;
+
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Service.OrderExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@PreAuthorize("hasRole('ADMIN')")
+public class OrderExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportController.class);
+
+    private final OrderExportService orderExportService;
+    private final long exportTimeoutMillis;
+
+    public OrderExportController(OrderExportService orderExportService,
+                                 @Value("${orders.export.timeout-ms:600000}") long exportTimeoutMillis) {
+        this.orderExportService = orderExportService;
+        this.exportTimeoutMillis = exportTimeoutMillis;
+    }
+
+    // Streams every order line opened in [from, to] as CSV (format=csv) or gzipped CSV (format=csv.gz).
+    // Runs as an async task with its own timeout, so only exports get the long limit.
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) {
+        log.info("GET /api/admin/orders/export?from={}&to={}&format={}", from, to, format);
+        boolean gzip;
+        if ("csv".equalsIgnoreCase(format)) {
+            gzip = false;
+        } else if ("csv.gz".equalsIgnoreCase(format) || "gzip".equalsIgnoreCase(format)) {
+            gzip = true;
+        } else {
+            throw new InvalidRequestException("Unknown export format '" + format + "'. Use csv or csv.gz.");
+        }
+        orderExportService.validateRange(from, to);
+
+        response.setContentType(gzip ? "application/gzip" : "text/csv; charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(OrderExportService.fileName(from, to, gzip)).build().toString());
+        // The response is written directly, so there is nothing left to render once the task completes.
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            orderExportService.exportCsv(from, to, gzip, response.getOutputStream());
+            return null;
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.restaurant.restaurantapp.Controller;
+
+import com.restaurant.restaurantapp.DTO.OrderTopicMessage;
+import com.restaurant.restaurantapp.Service.OrderService;
+import com.restaurant.restaurantapp.Service.WebSocketService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.stereotype.Controller;
+
+// Catch-up for customers following /topic/orders/{publicTrackingId}, which otherwise only carries
+// deltas: fetched on connect and again whenever the client notices a sequence gap.
+@Controller
+@RequiredArgsConstructor
+public class OrderSocketController {
+
+    private final OrderService orderService;
+    private final WebSocketService webSocketService;
+
+    // Subscribing to /app/orders/{publicTrackingId}/snapshot replies once, to this session only:
+    // the messages missed since the "epoch"/"since" SUBSCRIBE headers if still buffered, else a snapshot
+    @SubscribeMapping("/orders/{publicTrackingId}/snapshot")
+    public OrderTopicMessage currentSnapshot(@DestinationVariable String publicTrackingId,
+                                             @Header(name = "epoch", required = false) Long epoch,
+                                             @Header(name = "since", required = false) Long since) {
+        return webSocketService.orderSync(publicTrackingId, epoch, since,
+                () -> orderService.getOrderStatusByPublicTrackingId(publicTrackingId));
+    }
+}
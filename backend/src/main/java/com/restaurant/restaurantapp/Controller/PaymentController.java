@@ -4,10 +4,12 @@ import com.restaurant.restaurantapp.DTO.CreateRazorpayOrderRequestDTO;
 import com.restaurant.restaurantapp.DTO.CreateRazorpayOrderResponseDTO;
 import com.restaurant.restaurantapp.DTO.PaymentVerificationRequestDTO;
 import com.restaurant.restaurantapp.DTO.PaymentVerificationResponseDto; 
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Exception.PaymentProviderException;
 import com.restaurant.restaurantapp.Exception.ResourceNotFoundException;
 import com.restaurant.restaurantapp.Service.PaymentService;
+import com.restaurant.restaurantapp.Service.PaymentWebhookService;
 
-import com.razorpay.RazorpayException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -17,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -29,6 +32,7 @@ public class PaymentController {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
     private final PaymentService paymentService;
+    private final PaymentWebhookService paymentWebhookService;
 
     @PostMapping("/create-razorpay-order")
     @PreAuthorize("permitAll()")
@@ -37,11 +41,11 @@ public class PaymentController {
         try {
             CreateRazorpayOrderResponseDTO responseDTO = paymentService.createRazorpayOrder(requestDTO);
             return ResponseEntity.ok(responseDTO);
-        } catch (RazorpayException e) {
-            log.error("Razorpay API error while creating order: {}", e.getMessage(), e);
+        } catch (PaymentProviderException e) {
+            log.error("Razorpay API error while creating order: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
-                    .body(Map.of("message", "Error communicating with payment provider: " + e.getMessage()));
-        } catch (IllegalArgumentException | ResourceNotFoundException e) {
+                    .body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException | ResourceNotFoundException | InvalidRequestException e) {
             log.warn("Failed to create Razorpay order due to client error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
         } catch (Exception e) {
@@ -85,4 +89,20 @@ public class PaymentController {
         }
     }
     // ----------------------
-}
\ No newline at end of file
+
+    // Provider-to-server notification. We only verify and store here, and acknowledge at once;
+    // the inbox worker completes the order, so a closed browser tab can't leave it unpaid.
+    @PostMapping("/webhook")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<?> receiveWebhook(@RequestBody String payload,
+                                            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+                                            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        try {
+            paymentWebhookService.ingest(payload, signature, eventId);
+            return ResponseEntity.ok(Map.of("status", "accepted"));
+        } catch (InvalidRequestException e) {
+            log.warn("Rejected payment webhook: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
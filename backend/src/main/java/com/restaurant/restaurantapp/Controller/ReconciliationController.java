@@ -0,0 +1,44 @@
+package com.restaurant.restaurantapp.Controller;
+
+import com.restaurant.restaurantapp.DTO.ReconciliationReportDTO;
+import com.restaurant.restaurantapp.Exception.ResourceNotFoundException;
+import com.restaurant.restaurantapp.Service.PaymentReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/reconciliation")
+@RequiredArgsConstructor
+public class ReconciliationController {
+
+    private final PaymentReconciliationService reconciliationService;
+
+    // Report from the nightly job (or the last manual run) for the given day
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReconciliationReportDTO> getReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        ReconciliationReportDTO report = reconciliationService.getReport(date);
+        if (report == null) {
+            throw new ResourceNotFoundException("No reconciliation report for " + date + ". Run one first.");
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    // Re-runs reconciliation for a day, e.g. after fixing an order by hand
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReconciliationReportDTO> run(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(reconciliationService.reconcile(date));
+    }
+}
@@ -0,0 +1,91 @@
+package com.restaurant.restaurantapp.Controller;
+
+import com.restaurant.restaurantapp.DTO.AvailableTableDTO;
+import com.restaurant.restaurantapp.DTO.ReservationDTO;
+import com.restaurant.restaurantapp.DTO.ReservationRequestDTO;
+import com.restaurant.restaurantapp.DTO.WaitlistEntryDTO;
+import com.restaurant.restaurantapp.DTO.WaitlistRequestDTO;
+import com.restaurant.restaurantapp.Service.ReservationService;
+import com.restaurant.restaurantapp.model.WaitlistStatus;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservations")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('STAFF', 'ADMIN')") // Reservations and the waitlist are run by front-of-house staff
+public class ReservationController {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationController.class);
+    private final ReservationService reservationService;
+
+    /**
+     * Tables that can seat the party and have no booking overlapping the window.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<AvailableTableDTO>> getAvailability(
+            @RequestParam int partySize,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("GET /api/reservations/availability?partySize={}&start={}", partySize, start);
+        return ResponseEntity.ok(reservationService.findAvailableTables(partySize, start, end));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReservationDTO>> getReservations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        log.info("GET /api/reservations?date={}", date);
+        return ResponseEntity.ok(reservationService.getReservationsForDay(date));
+    }
+
+    @PostMapping
+    public ResponseEntity<ReservationDTO> createReservation(@Valid @RequestBody ReservationRequestDTO requestDTO) {
+        log.info("POST /api/reservations");
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.createReservation(requestDTO));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReservationDTO> cancelReservation(@PathVariable Long id) {
+        log.info("DELETE /api/reservations/{}", id);
+        return ResponseEntity.ok(reservationService.cancelReservation(id));
+    }
+
+    @PostMapping("/{id}/seat")
+    public ResponseEntity<ReservationDTO> seatReservation(@PathVariable Long id) {
+        log.info("POST /api/reservations/{}/seat", id);
+        return ResponseEntity.ok(reservationService.seatReservation(id));
+    }
+
+    // --- Waitlist ---
+
+    @GetMapping("/waitlist")
+    public ResponseEntity<List<WaitlistEntryDTO>> getWaitlist(
+            @RequestParam(defaultValue = "WAITING") WaitlistStatus status) {
+        log.info("GET /api/reservations/waitlist?status={}", status);
+        return ResponseEntity.ok(reservationService.getWaitlist(status));
+    }
+
+    @PostMapping("/waitlist")
+    public ResponseEntity<WaitlistEntryDTO> addToWaitlist(@Valid @RequestBody WaitlistRequestDTO requestDTO) {
+        log.info("POST /api/reservations/waitlist");
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.addToWaitlist(requestDTO));
+    }
+
+    @DeleteMapping("/waitlist/{id}")
+    public ResponseEntity<Void> cancelWaitlistEntry(@PathVariable Long id) {
+        log.info("DELETE /api/reservations/waitlist/{}", id);
+        reservationService.cancelWaitlistEntry(id);
+        return ResponseEntity.noContent().build();
+    }
+}
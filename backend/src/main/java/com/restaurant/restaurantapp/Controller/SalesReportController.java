@@ -0,0 +1,67 @@
+package com.restaurant.restaurantapp.Controller;
+
+import com.restaurant.restaurantapp.DTO.CategorySalesDTO;
+import com.restaurant.restaurantapp.DTO.DishSalesDTO;
+import com.restaurant.restaurantapp.DTO.RollupBackfillStatusDTO;
+import com.restaurant.restaurantapp.DTO.SalesBucketDTO;
+import com.restaurant.restaurantapp.Service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/sales")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class SalesReportController {
+
+    private final SalesRollupService salesRollupService;
+
+    // One row per hour in [start, end) that had completed orders
+    @GetMapping("/hourly")
+    public ResponseEntity<List<SalesBucketDTO>> getHourlySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(salesRollupService.getHourlySales(start, end));
+    }
+
+    // Per-dish totals over [start, end), best sellers first
+    @GetMapping("/dishes")
+    public ResponseEntity<List<DishSalesDTO>> getDishSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(salesRollupService.getDishSales(start, end));
+    }
+
+    // Per-category totals over [start, end), best sellers first
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategorySalesDTO>> getCategorySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        return ResponseEntity.ok(salesRollupService.getCategorySales(start, end));
+    }
+
+    // Rebuilds the rollups from raw orders for [from, to], e.g. once after deploying or after fixing old orders
+    @PostMapping("/backfill")
+    public ResponseEntity<RollupBackfillStatusDTO> startBackfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(salesRollupService.startBackfill(from, to));
+    }
+
+    @GetMapping("/backfill")
+    public ResponseEntity<RollupBackfillStatusDTO> getBackfillStatus() {
+        return ResponseEntity.ok(salesRollupService.getBackfillStatus());
+    }
+}
@@ -1,7 +1,9 @@
 package com.restaurant.restaurantapp.Controller;
 
+import com.restaurant.restaurantapp.DTO.SeatSuggestionDTO;
 import com.restaurant.restaurantapp.DTO.TableDTO;
 import com.restaurant.restaurantapp.DTO.TableRequestDTO;
+import com.restaurant.restaurantapp.Service.SeatAssignmentService;
 import com.restaurant.restaurantapp.Service.TableService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/tables")
@@ -23,6 +26,7 @@ public class TableController {
 
     private static final Logger log = LoggerFactory.getLogger(TableController.class);
     private final TableService tableService;
+    private final SeatAssignmentService seatAssignmentService;
 
     // --- Customer Facing ---
     @GetMapping("/qr/{qrCodeIdentifier}")
@@ -37,6 +41,19 @@ public class TableController {
 
 
     // --- Admin/Internal Facing (Assumed Admin for all modifications) ---
+
+    /**
+     * Endpoint for hosts seating a walk-in party: best free tables (or adjacent table combinations) first.
+     */
+    @GetMapping("/seat-suggestions")
+    @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
+    public ResponseEntity<List<SeatSuggestionDTO>> getSeatSuggestions(
+            @RequestParam int partySize,
+            @RequestParam(defaultValue = "3") int limit) {
+        log.info("GET /api/tables/seat-suggestions?partySize={}", partySize);
+        return ResponseEntity.ok(seatAssignmentService.suggestSeating(partySize, limit));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('STAFF', 'ADMIN')")
     public ResponseEntity<TableDTO> getTableById(@PathVariable Long id) {
@@ -0,0 +1,25 @@
+package com.restaurant.restaurantapp.Controller;
+
+import com.restaurant.restaurantapp.DTO.WebSocketMetricsDTO;
+import com.restaurant.restaurantapp.config.WebSocketMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/websocket")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class WebSocketMetricsController {
+
+    private final WebSocketMetrics webSocketMetrics;
+
+    // Sessions, channel queue depths, drops, evictions and subscribers per destination
+    @GetMapping("/metrics")
+    public ResponseEntity<WebSocketMetricsDTO> getMetrics() {
+        return ResponseEntity.ok(webSocketMetrics.snapshot());
+    }
+}
@@ -0,0 +1,14 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableTableDTO {
+    private Long tableId;
+    private String tableNumber;
+    private int capacity;
+}
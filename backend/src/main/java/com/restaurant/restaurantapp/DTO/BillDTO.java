@@ -0,0 +1,28 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillDTO {
+    private Long billId;
+    private Long internalOrderId;
+    private String publicTrackingId;
+    private String tableNumber;
+    private List<BillLineDTO> items;
+    private BigDecimal subtotal;
+    private BigDecimal taxRate;
+    private BigDecimal taxAmount;
+    private BigDecimal total;
+    private long amountInPaise;
+    private String currency;
+    private String contentHash;
+    private LocalDateTime issuedAt;
+}
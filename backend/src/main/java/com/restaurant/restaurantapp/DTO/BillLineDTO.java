@@ -0,0 +1,18 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BillLineDTO {
+    private Long dishId;
+    private String dishName;
+    private int quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal lineTotal;
+}
@@ -1,4 +1,5 @@
 package com.restaurant.restaurantapp.DTO;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
 import com.restaurant.restaurantapp.model.OrderStatus;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -18,6 +19,7 @@ public class CustomerOrderStatusDto {
     private OrderStatus status;
     private LocalDateTime orderTime;
     private BigDecimal totalPrice;
+    private String invoiceNumber; // Set once the order is COMPLETED
     // Optional: A simplified list of items
     private List<OrderItemSimpleDto> items;
     // You might want a timestamp for when the status was last updated, if you store that
@@ -33,5 +35,7 @@ public class CustomerOrderStatusDto {
         private int quantity;
         private BigDecimal pricePerItem;
         private BigDecimal lineItemTotal;
+        private Long itemId;
+        private OrderItemStatus itemStatus;
     }
 }
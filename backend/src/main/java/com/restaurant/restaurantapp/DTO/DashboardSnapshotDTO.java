@@ -0,0 +1,21 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Everything the admin dashboard shows, built once per interval and shared by every viewer.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DashboardSnapshotDTO {
+    private long version;                 // Bumped only when the content changes
+    private DashboardStatsDTO stats;
+    private List<TopDishDTO> topDishesLastHour;
+    private List<TopDishDTO> topDishesLast24Hours;
+    private List<PrepTimeStatsDTO> stationPrepTimes;
+    private LocalDateTime generatedAt;
+}
@@ -1,9 +1,12 @@
 package com.restaurant.restaurantapp.DTO;
+import com.restaurant.restaurantapp.model.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -14,4 +17,10 @@ public class DashboardStatsDTO {
     private long totalDishesCount;
     private long totalTablesCount;
 
-}
\ No newline at end of file
+    // --- Live counters (see LiveStatsService) ---
+    private long todaysRevenueInPaise;
+    private long todaysCompletedOrdersCount;
+    private BigDecimal averageOrderValue; // Revenue / completed orders, 0 when nothing is completed yet
+    private Map<OrderStatus, Long> todaysOrdersByStatus;
+    private LocalDateTime lastReconciledAt;
+}
@@ -0,0 +1,18 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DishSalesDTO {
+    private Long dishId;
+    private String dishName;
+    private Long quantity;
+    private BigDecimal revenue;
+    private Long orderCount;
+}
@@ -0,0 +1,32 @@
+package com.restaurant.restaurantapp.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One field-level change inside an OrderTopicMessage delta, e.g. {"op":"ITEM_STATUS","itemId":12,"value":"READY"}.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderChangeDTO {
+
+    public static final String ORDER_STATUS = "ORDER_STATUS";
+    public static final String INVOICE_NUMBER = "INVOICE_NUMBER";
+    public static final String ITEM_STATUS = "ITEM_STATUS";
+    public static final String ITEM_QUANTITY = "ITEM_QUANTITY";
+
+    private String op;
+    private Long itemId;     // Only for item changes
+    private String dishName; // Only for item changes, so clients can say what changed without a lookup
+    private Object value;
+
+    public static OrderChangeDTO order(String op, Object value) {
+        return new OrderChangeDTO(op, null, null, value);
+    }
+
+    public static OrderChangeDTO item(String op, Long itemId, String dishName, Object value) {
+        return new OrderChangeDTO(op, itemId, dishName, value);
+    }
+}
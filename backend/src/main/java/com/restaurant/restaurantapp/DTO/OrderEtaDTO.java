@@ -0,0 +1,32 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Pushed on /topic/orders/{publicTrackingId} inside an ETA OrderTopicMessage; "type" is kept for REST callers.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderEtaDTO {
+    private String type = "ETA";
+    private String publicTrackingId;
+    private LocalDateTime estimatedReadyAt; // null once nothing is waiting on the kitchen
+    private long minutesRemaining;
+    private int itemsAhead;                 // Other tables' dishes queued before this order's first waiting dish
+    private List<ItemEta> items;
+    private LocalDateTime computedAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ItemEta {
+        private Long dishId;
+        private String dishName;
+        private int quantity;
+        private LocalDateTime estimatedReadyAt;
+    }
+}
@@ -0,0 +1,19 @@
+package com.restaurant.restaurantapp.DTO;
+
+import com.restaurant.restaurantapp.model.OrderStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * The payment-relevant columns of one order, read by the reconciliation job without loading the entity.
+ */
+@Value
+public class OrderPaymentRow {
+    Long orderId;
+    OrderStatus status;
+    BigDecimal totalPrice;
+    String razorpayOrderId;
+    String razorpayPaymentId;
+    Long billedAmountInPaise; // From the latest bill snapshot; null for orders billed before snapshots existed
+}
@@ -16,5 +16,6 @@ public class OrderResponseDTO {
     private OrderStatus status;
     private BigDecimal totalPrice;
     private String notes;
+    private String invoiceNumber; // Set once the order is COMPLETED
     private List<OrderItemResponseDTO> items;
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.restaurant.restaurantapp.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Envelope for everything published on /topic/orders/{publicTrackingId}.
+ * seq increases by one per message for an order within one server epoch. A client that sees a
+ * different epoch or a skipped seq has missed something and should re-sync by subscribing to
+ * /app/orders/{publicTrackingId}/snapshot, passing the last epoch and seq it applied as "epoch" and
+ * "since" headers. The reply is a REPLAY of the missed messages when the server still has them all,
+ * otherwise a SNAPSHOT of the whole order.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderTopicMessage {
+
+    public static final int SCHEMA_VERSION = 1;
+
+    public static final String SNAPSHOT = "SNAPSHOT";
+    public static final String DELTA = "DELTA";
+    public static final String ETA = "ETA";
+    public static final String REPLAY = "REPLAY";
+
+    private int v = SCHEMA_VERSION;
+    private long epoch;                      // Changes when the server restarts; sequences restart with it
+    private long seq;
+    private String kind;
+    private Long orderId;
+    private List<OrderChangeDTO> changes;    // DELTA
+    private CustomerOrderStatusDto snapshot; // SNAPSHOT
+    private OrderEtaDTO eta;                 // ETA
+    private List<OrderTopicMessage> messages; // REPLAY, oldest first; seq is that of the last one
+}
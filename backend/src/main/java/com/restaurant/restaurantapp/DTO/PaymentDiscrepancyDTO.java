@@ -0,0 +1,19 @@
+package com.restaurant.restaurantapp.DTO;
+
+import com.restaurant.restaurantapp.model.DiscrepancyType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentDiscrepancyDTO {
+    private DiscrepancyType type;
+    private Long orderId; // null for settlements we can't tie to an order
+    private String razorpayOrderId;
+    private String razorpayPaymentId;
+    private Long expectedAmountInPaise;
+    private Long settledAmountInPaise;
+    private String detail;
+}
@@ -0,0 +1,22 @@
+package com.restaurant.restaurantapp.DTO;
+
+import com.restaurant.restaurantapp.model.PrepStage;
+import com.restaurant.restaurantapp.model.PrepTimeScope;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PrepTimeStatsDTO {
+    private PrepTimeScope scope;
+    private Long id;          // Dish id or category id
+    private String name;
+    private PrepStage stage;
+    private long count;       // Items measured
+    private long p50Seconds;
+    private long p90Seconds;
+    private long p99Seconds;
+    private long maxSeconds;
+}
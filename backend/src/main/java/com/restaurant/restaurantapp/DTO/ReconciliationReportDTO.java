@@ -0,0 +1,22 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationReportDTO {
+    private LocalDate businessDate;
+    private LocalDateTime generatedAt;
+    private long ordersScanned;
+    private long settlementsScanned;
+    private long matched;
+    private long discrepancyCount; // Can exceed discrepancies.size() when the list was capped
+    private List<PaymentDiscrepancyDTO> discrepancies;
+}
@@ -0,0 +1,23 @@
+package com.restaurant.restaurantapp.DTO;
+
+import com.restaurant.restaurantapp.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+    private Long id;
+    private Long tableId;
+    private String tableNumber;
+    private String customerName;
+    private String contactPhone;
+    private int partySize;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private ReservationStatus status;
+}
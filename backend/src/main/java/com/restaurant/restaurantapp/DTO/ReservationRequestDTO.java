@@ -0,0 +1,26 @@
+package com.restaurant.restaurantapp.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class ReservationRequestDTO {
+    @NotBlank(message = "Customer name cannot be blank")
+    private String customerName;
+
+    private String contactPhone;
+
+    @Positive(message = "Party size must be positive")
+    private int partySize;
+
+    @NotNull(message = "Start time cannot be null")
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime; // Optional: defaults to the standard sitting length
+
+    private Long tableId; // Optional: when missing, the best fitting free table is picked
+}
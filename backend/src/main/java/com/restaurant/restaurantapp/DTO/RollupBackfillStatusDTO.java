@@ -0,0 +1,23 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupBackfillStatusDTO {
+    private boolean running;
+    private LocalDate from;
+    private LocalDate to;
+    private LocalDate lastCompletedDay; // Resume point if the job is interrupted
+    private int daysDone;
+    private int daysTotal;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
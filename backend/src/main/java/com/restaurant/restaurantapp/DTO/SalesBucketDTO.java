@@ -0,0 +1,18 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesBucketDTO {
+    private LocalDateTime bucketStart;
+    private long orderCount;
+    private long itemQuantity;
+    private BigDecimal revenue;
+}
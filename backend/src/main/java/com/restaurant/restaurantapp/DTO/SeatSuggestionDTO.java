@@ -0,0 +1,18 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatSuggestionDTO {
+    private List<Long> tableIds;       // One table, or several adjacent tables pushed together
+    private List<String> tableNumbers;
+    private int totalCapacity;
+    private int spareSeats;            // totalCapacity - partySize, lower is a better fit
+    private boolean combined;
+}
@@ -0,0 +1,15 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopDishDTO {
+    private Long dishId;
+    private String dishName;
+    private long quantity;       // Estimated units ordered in the window (never under the true count, even across buckets)
+    private long maxOverestimate; // quantity - maxOverestimate is a guaranteed lower bound
+}
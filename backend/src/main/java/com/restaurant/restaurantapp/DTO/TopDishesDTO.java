@@ -0,0 +1,17 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopDishesDTO {
+    private List<TopDishDTO> lastHour;
+    private List<TopDishDTO> last24Hours;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,23 @@
+package com.restaurant.restaurantapp.DTO;
+
+import com.restaurant.restaurantapp.model.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryDTO {
+    private Long id;
+    private String customerName;
+    private String contactPhone;
+    private int partySize;
+    private LocalDateTime requestedAt;
+    private WaitlistStatus status;
+    private Long assignedTableId;
+    private String assignedTableNumber;
+    private LocalDateTime promotedAt;
+}
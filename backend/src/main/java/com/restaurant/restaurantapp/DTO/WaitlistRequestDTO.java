@@ -0,0 +1,16 @@
+package com.restaurant.restaurantapp.DTO;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class WaitlistRequestDTO {
+    @NotBlank(message = "Customer name cannot be blank")
+    private String customerName;
+
+    private String contactPhone;
+
+    @Positive(message = "Party size must be positive")
+    private int partySize;
+}
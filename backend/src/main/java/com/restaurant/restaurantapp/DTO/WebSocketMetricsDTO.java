@@ -0,0 +1,33 @@
+package com.restaurant.restaurantapp.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WebSocketMetricsDTO {
+    private int liveSessions;
+    private Map<String, Integer> liveSessionsByTransport; // websocket, sockjs-websocket, sockjs-streaming, sockjs-polling
+    private long sessionsOpened;                    // Since startup
+    private long slowSessionsEvicted;               // Closed for exceeding the send buffer or time limit
+    private ChannelStats inbound;                   // Client -> server frames
+    private ChannelStats outbound;                  // Server -> client frames
+    private Map<String, Integer> subscribersByDestination;
+    private LocalDateTime measuredAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ChannelStats {
+        private int poolSize;
+        private int activeThreads;
+        private int queueDepth;
+        private long completed;
+        private long dropped; // Rejected because the queue was full
+    }
+}
@@ -0,0 +1,15 @@
+package com.restaurant.restaurantapp.Exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // The payment provider failed, timed out or is being shed
+public class PaymentProviderException extends RuntimeException {
+    public PaymentProviderException(String message) {
+        super(message);
+    }
+
+    public PaymentProviderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
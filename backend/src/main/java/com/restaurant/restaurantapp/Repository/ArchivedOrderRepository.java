@@ -0,0 +1,43 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.ArchivedOrder;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    Page<ArchivedOrder> findByTableId(Long tableId, Pageable pageable);
+    Page<ArchivedOrder> findByStatus(OrderStatus status, Pageable pageable);
+    Page<ArchivedOrder> findByTableIdAndStatus(Long tableId, OrderStatus status, Pageable pageable);
+
+    Optional<ArchivedOrder> findByPublicTrackingId(String publicTrackingId);
+
+    // Copies a batch of orders into the archive. ON CONFLICT makes a re-run over the same ids harmless.
+    @Modifying
+    @Query(value = "INSERT INTO customer_orders_archive (id, table_id, table_number, razorpay_order_id, razorpay_payment_id, paid_at, " +
+            "invoice_number, order_time, status, total_price, notes, public_tracking_id, archived_at) " +
+            "SELECT o.id, o.table_id, t.table_number, o.razorpay_order_id, o.razorpay_payment_id, o.paid_at, " +
+            "o.invoice_number, o.order_time, o.status, o.total_price, o.notes, o.public_tracking_id, now() " +
+            "FROM customer_orders o LEFT JOIN restaurant_tables t ON t.id = o.table_id WHERE o.id IN (:orderIds) " +
+            "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copyOrders(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (id, order_id, dish_id, dish_name, quantity, price, item_status, " +
+            "queued_at, started_at, ready_at, delivered_at) " +
+            "SELECT oi.id, oi.order_id, oi.dish_id, d.name, oi.quantity, oi.price, oi.item_status, " +
+            "oi.queued_at, oi.started_at, oi.ready_at, oi.delivered_at " +
+            "FROM order_items oi LEFT JOIN dishes d ON d.id = oi.dish_id WHERE oi.order_id IN (:orderIds) " +
+            "ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int copyItems(@Param("orderIds") List<Long> orderIds);
+}
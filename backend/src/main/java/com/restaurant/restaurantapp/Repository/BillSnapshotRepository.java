@@ -0,0 +1,16 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.BillSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface BillSnapshotRepository extends JpaRepository<BillSnapshot, Long> {
+
+    // Latest bill wins when a tab was billed more than once
+    Optional<BillSnapshot> findFirstByOrderIdOrderByIdDesc(Long orderId);
+
+    Optional<BillSnapshot> findFirstByPublicTrackingIdOrderByIdDesc(String publicTrackingId);
+}
@@ -0,0 +1,20 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.InvoiceCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface InvoiceCounterRepository extends JpaRepository<InvoiceCounter, LocalDate> {
+
+    // Creates the day's counter or bumps it, and returns the new value, in one statement.
+    // The row stays locked until the caller's transaction ends, so a rollback gives the number back.
+    @Query(value = "INSERT INTO invoice_counters (business_date, last_number) VALUES (:businessDate, 1) " +
+            "ON CONFLICT (business_date) DO UPDATE SET last_number = invoice_counters.last_number + 1 " +
+            "RETURNING last_number", nativeQuery = true)
+    long allocateNext(@Param("businessDate") LocalDate businessDate);
+}
@@ -1,20 +1,27 @@
 package com.restaurant.restaurantapp.Repository;
 
+import com.restaurant.restaurantapp.DTO.OrderPaymentRow;
 import com.restaurant.restaurantapp.model.Order;
 import com.restaurant.restaurantapp.model.OrderItem;
 import com.restaurant.restaurantapp.model.OrderItemStatus;
 import com.restaurant.restaurantapp.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -39,8 +46,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     boolean existsByRestaurantTableId(Long tableId);
 
+    boolean existsByRestaurantTableIdAndStatusIn(Long tableId, Collection<OrderStatus> statuses);
+
     Optional<Order> findByPublicTrackingId(String publicTrackingId);
 
+    Optional<Order> findByRazorpayOrderId(String razorpayOrderId);
+
     // --- UPDATED QUERY for Today's Revenue ---
     // Revenue is recognized when an order is COMPLETED (i.e., fully paid and closed).
     @Query("SELECT COALESCE(SUM(o.totalPrice), 0) FROM Order o WHERE o.status = 'COMPLETED' AND o.orderTime >= :startOfDay")
@@ -50,8 +61,47 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT COUNT(o) FROM Order o WHERE o.orderTime >= :startOfDay")
     long countTodaysOrders(@Param("startOfDay") LocalDateTime startOfDay);
 
+    // [status, count] pairs for today's orders, used to re-seed the live dashboard counters
+    @Query("SELECT o.status, COUNT(o) FROM Order o WHERE o.orderTime >= :startOfDay GROUP BY o.status")
+    List<Object[]> countTodaysOrdersByStatus(@Param("startOfDay") LocalDateTime startOfDay);
+
     List<Order> findByStatus(OrderStatus status);
 
+    // Next batch of closed orders old enough to archive, in id order so a run can carry on after the last batch.
+    @Query(value = "SELECT id FROM customer_orders WHERE status IN ('COMPLETED', 'CANCELLED') " +
+            "AND order_time < :cutoff AND id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Removes archived orders; the items go first because of their foreign key.
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:orderIds)", nativeQuery = true)
+    int deleteItemsOfOrders(@Param("orderIds") List<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM customer_orders WHERE id IN (:orderIds)", nativeQuery = true)
+    int deleteOrdersByIds(@Param("orderIds") List<Long> orderIds);
+
+    // Links a provider order in one short UPDATE, only while the order is still waiting for payment.
+    @Modifying
+    @Query("UPDATE Order o SET o.razorpayOrderId = :razorpayOrderId WHERE o.id = :orderId AND o.status = com.restaurant.restaurantapp.model.OrderStatus.AWAITING_PAYMENT")
+    int linkRazorpayOrderIfAwaitingPayment(@Param("orderId") Long orderId, @Param("razorpayOrderId") String razorpayOrderId);
+
+    // Streams the payment-relevant orders for one capture day as plain rows through a server-side cursor:
+    // orders paid online within [start, end) (by order time for those paid before paidAt was recorded), and every
+    // bill still awaiting payment that has a provider order, since its capture may have happened that day.
+    // Must be consumed inside a transaction and closed; rows are not managed, so the persistence context stays empty.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.restaurant.restaurantapp.DTO.OrderPaymentRow(o.id, o.status, o.totalPrice, o.razorpayOrderId, o.razorpayPaymentId, " +
+            "(SELECT b.amountInPaise FROM BillSnapshot b WHERE b.id = (SELECT MAX(b2.id) FROM BillSnapshot b2 WHERE b2.orderId = o.id))) " +
+            "FROM Order o WHERE (o.status = com.restaurant.restaurantapp.model.OrderStatus.COMPLETED " +
+            "AND ((o.paidAt >= :start AND o.paidAt < :end) OR (o.paidAt IS NULL AND o.orderTime >= :start AND o.orderTime < :end))) " +
+            "OR (o.status = com.restaurant.restaurantapp.model.OrderStatus.AWAITING_PAYMENT AND o.razorpayOrderId IS NOT NULL)")
+    Stream<OrderPaymentRow> streamPaymentRows(@Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end);
+
     // This is the important query for the "Open Tab" check
     Optional<Order> findByRestaurantTableIdAndStatus(Long tableId, OrderStatus status);
 }
\ No newline at end of file
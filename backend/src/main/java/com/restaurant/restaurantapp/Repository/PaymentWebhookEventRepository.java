@@ -0,0 +1,18 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.PaymentWebhookEvent;
+import com.restaurant.restaurantapp.model.WebhookEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    // Oldest first, so events for the same payment are applied in arrival order
+    List<PaymentWebhookEvent> findByStatusOrderByIdAsc(WebhookEventStatus status, Pageable pageable);
+
+    boolean existsByEventId(String eventId);
+}
@@ -0,0 +1,9 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.PrepTimeHistogram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PrepTimeHistogramRepository extends JpaRepository<PrepTimeHistogram, Long> {
+}
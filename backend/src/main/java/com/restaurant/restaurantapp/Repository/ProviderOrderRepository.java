@@ -0,0 +1,13 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.ProviderOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProviderOrderRepository extends JpaRepository<ProviderOrder, Long> {
+
+    Optional<ProviderOrder> findByProviderOrderId(String providerOrderId);
+}
@@ -0,0 +1,21 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.Reservation;
+import com.restaurant.restaurantapp.model.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    // Used at startup to load every booking that can still clash with a new one
+    List<Reservation> findByStatusInAndEndTimeAfter(Collection<ReservationStatus> statuses, LocalDateTime after);
+
+    List<Reservation> findByRestaurantTableIdAndStatus(Long tableId, ReservationStatus status);
+
+    List<Reservation> findByStartTimeGreaterThanEqualAndStartTimeLessThanOrderByStartTimeAsc(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,79 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.DTO.CategorySalesDTO;
+import com.restaurant.restaurantapp.DTO.DishSalesDTO;
+import com.restaurant.restaurantapp.model.SalesRollupHourlyDish;
+import com.restaurant.restaurantapp.model.SalesRollupKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupHourlyDishRepository extends JpaRepository<SalesRollupHourlyDish, SalesRollupKey> {
+
+    // Adds (sign = 1) or takes back (sign = -1) one order's lines in its hour x dish buckets.
+    // Each dish's revenue is its share of the billed total, so tax is spread pro rata over the dishes. Shares are
+    // rounded to paise and the rounding remainder goes to the order's largest dish, so an order's dish revenues
+    // add up exactly to the billed total that sales_rollup_hourly counts.
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_hourly_dish (bucket_start, dish_id, category_id, quantity, revenue, order_count) " +
+            "SELECT b.bucket, b.dish_id, b.category_id, :sign * b.quantity, " +
+            ":sign * (b.rounded + CASE WHEN ROW_NUMBER() OVER (ORDER BY b.rounded DESC, b.dish_id) = 1 " +
+            "THEN b.total - SUM(b.rounded) OVER () ELSE 0 END), :sign " +
+            "FROM (SELECT l.bucket, l.dish_id, d.category_id, SUM(l.quantity) AS quantity, " +
+            "COALESCE(ROUND(SUM(l.billed), 2), 0) AS rounded, MAX(l.total) AS total " +
+            "FROM (SELECT date_trunc('hour', o.order_time) AS bucket, COALESCE(o.total_price, 0) AS total, oi.dish_id, oi.quantity, " +
+            "oi.quantity * oi.price * o.total_price / NULLIF(SUM(oi.quantity * oi.price) OVER (), 0) AS billed " +
+            "FROM customer_orders o JOIN order_items oi ON oi.order_id = o.id WHERE o.id = :orderId) l " +
+            "JOIN dishes d ON d.id = l.dish_id GROUP BY l.bucket, l.dish_id, d.category_id) b " +
+            "ON CONFLICT (bucket_start, dish_id) DO UPDATE SET " +
+            "category_id = EXCLUDED.category_id, " +
+            "quantity = sales_rollup_hourly_dish.quantity + EXCLUDED.quantity, " +
+            "revenue = sales_rollup_hourly_dish.revenue + EXCLUDED.revenue, " +
+            "order_count = sales_rollup_hourly_dish.order_count + EXCLUDED.order_count", nativeQuery = true)
+    int applyOrder(@Param("orderId") Long orderId, @Param("sign") int sign);
+
+    // Recomputes every hour x dish in [start, end) from the raw rows, live and archived; callers delete the range first.
+    // Shares are rounded per order exactly as applyOrder does, so a rebuilt day matches one built by live upserts.
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_hourly_dish (bucket_start, dish_id, category_id, quantity, revenue, order_count) " +
+            "SELECT s.bucket, s.dish_id, MAX(s.category_id), SUM(s.quantity), SUM(s.revenue), COUNT(*) " +
+            "FROM (SELECT b.bucket, b.dish_id, b.category_id, b.quantity, " +
+            "b.rounded + CASE WHEN ROW_NUMBER() OVER (PARTITION BY b.order_id ORDER BY b.rounded DESC, b.dish_id) = 1 " +
+            "THEN b.total - SUM(b.rounded) OVER (PARTITION BY b.order_id) ELSE 0 END AS revenue " +
+            "FROM (SELECT l.bucket, l.order_id, l.dish_id, MAX(d.category_id) AS category_id, SUM(l.quantity) AS quantity, " +
+            "COALESCE(ROUND(SUM(l.billed), 2), 0) AS rounded, MAX(l.total) AS total " +
+            "FROM (SELECT date_trunc('hour', o.order_time) AS bucket, o.id AS order_id, COALESCE(o.total_price, 0) AS total, " +
+            "oi.dish_id, oi.quantity, " +
+            "oi.quantity * oi.price * o.total_price / NULLIF(SUM(oi.quantity * oi.price) OVER (PARTITION BY o.id), 0) AS billed " +
+            "FROM (SELECT id, order_time, status, total_price FROM customer_orders " +
+            "UNION ALL SELECT id, order_time, status, total_price FROM customer_orders_archive) o " +
+            "JOIN (SELECT order_id, dish_id, quantity, price FROM order_items " +
+            "UNION ALL SELECT order_id, dish_id, quantity, price FROM order_items_archive) oi ON oi.order_id = o.id " +
+            "WHERE o.status = 'COMPLETED' AND o.order_time >= :start AND o.order_time < :end) l " +
+            "JOIN dishes d ON d.id = l.dish_id " +
+            "GROUP BY l.bucket, l.order_id, l.dish_id) b) s " +
+            "GROUP BY s.bucket, s.dish_id", nativeQuery = true)
+    int rebuildRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollupHourlyDish r WHERE r.bucketStart >= :start AND r.bucketStart < :end")
+    int deleteRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.restaurant.restaurantapp.DTO.DishSalesDTO(r.dishId, d.name, SUM(r.quantity), SUM(r.revenue), SUM(r.orderCount)) " +
+            "FROM SalesRollupHourlyDish r LEFT JOIN Dish d ON d.id = r.dishId " +
+            "WHERE r.bucketStart >= :start AND r.bucketStart < :end " +
+            "GROUP BY r.dishId, d.name ORDER BY SUM(r.revenue) DESC")
+    List<DishSalesDTO> sumByDish(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.restaurant.restaurantapp.DTO.CategorySalesDTO(r.categoryId, c.name, SUM(r.quantity), SUM(r.revenue)) " +
+            "FROM SalesRollupHourlyDish r LEFT JOIN Category c ON c.id = r.categoryId " +
+            "WHERE r.bucketStart >= :start AND r.bucketStart < :end " +
+            "GROUP BY r.categoryId, c.name ORDER BY SUM(r.revenue) DESC")
+    List<CategorySalesDTO> sumByCategory(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
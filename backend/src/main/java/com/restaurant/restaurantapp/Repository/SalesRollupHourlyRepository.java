@@ -0,0 +1,55 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.DTO.SalesBucketDTO;
+import com.restaurant.restaurantapp.model.SalesRollupHourly;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupHourlyRepository extends JpaRepository<SalesRollupHourly, LocalDateTime> {
+
+    // Adds (sign = 1) or takes back (sign = -1) one order's totals in its hour bucket. Revenue is the billed total.
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_hourly (bucket_start, order_count, item_quantity, revenue) " +
+            "SELECT date_trunc('hour', o.order_time), :sign, " +
+            ":sign * COALESCE((SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.order_id = o.id), 0), :sign * COALESCE(o.total_price, 0) " +
+            "FROM customer_orders o WHERE o.id = :orderId " +
+            "ON CONFLICT (bucket_start) DO UPDATE SET " +
+            "order_count = sales_rollup_hourly.order_count + EXCLUDED.order_count, " +
+            "item_quantity = sales_rollup_hourly.item_quantity + EXCLUDED.item_quantity, " +
+            "revenue = sales_rollup_hourly.revenue + EXCLUDED.revenue", nativeQuery = true)
+    int applyOrder(@Param("orderId") Long orderId, @Param("sign") int sign);
+
+    // Recomputes every hour in [start, end) from the raw rows, live and archived; callers delete the range first.
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_hourly (bucket_start, order_count, item_quantity, revenue) " +
+            "SELECT date_trunc('hour', o.order_time), COUNT(*), COALESCE(SUM(q.quantity), 0), COALESCE(SUM(o.total_price), 0) " +
+            "FROM (SELECT id, order_time, status, total_price FROM customer_orders " +
+            "UNION ALL SELECT id, order_time, status, total_price FROM customer_orders_archive) o " +
+            "LEFT JOIN LATERAL (SELECT SUM(i.quantity) AS quantity FROM (SELECT order_id, quantity FROM order_items " +
+            "UNION ALL SELECT order_id, quantity FROM order_items_archive) i WHERE i.order_id = o.id) q ON true " +
+            "WHERE o.status = 'COMPLETED' AND o.order_time >= :start AND o.order_time < :end " +
+            "GROUP BY date_trunc('hour', o.order_time)", nativeQuery = true)
+    int rebuildRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Transaction-scoped advisory locks on one day of rollups: live upserts share it, a rebuild of the day takes it exclusively.
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(:namespace, :day)", nativeQuery = true)
+    Integer lockDayShared(@Param("namespace") int namespace, @Param("day") int day);
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:namespace, :day)", nativeQuery = true)
+    Integer lockDay(@Param("namespace") int namespace, @Param("day") int day);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollupHourly r WHERE r.bucketStart >= :start AND r.bucketStart < :end")
+    int deleteRange(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.restaurant.restaurantapp.DTO.SalesBucketDTO(r.bucketStart, r.orderCount, r.itemQuantity, r.revenue) " +
+            "FROM SalesRollupHourly r WHERE r.bucketStart >= :start AND r.bucketStart < :end ORDER BY r.bucketStart")
+    List<SalesBucketDTO> findBuckets(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
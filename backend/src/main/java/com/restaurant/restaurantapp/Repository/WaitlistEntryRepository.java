@@ -0,0 +1,18 @@
+package com.restaurant.restaurantapp.Repository;
+
+import com.restaurant.restaurantapp.model.WaitlistEntry;
+import com.restaurant.restaurantapp.model.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatusOrderByRequestedAtAsc(WaitlistStatus status);
+
+    // The longest-waiting party that fits at a table of the given capacity
+    Optional<WaitlistEntry> findFirstByStatusAndPartySizeLessThanEqualOrderByRequestedAtAsc(WaitlistStatus status, int capacity);
+}
@@ -0,0 +1,143 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.restaurantapp.DTO.BillDTO;
+import com.restaurant.restaurantapp.DTO.BillLineDTO;
+import com.restaurant.restaurantapp.Exception.ResourceNotFoundException;
+import com.restaurant.restaurantapp.Repository.BillSnapshotRepository;
+import com.restaurant.restaurantapp.model.BillSnapshot;
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Freezes the bill when the customer asks to pay. Everything after that point (payment creation,
+ * the bill page) reads the single snapshot row instead of re-walking the order's items, and a
+ * dish price edited mid-checkout can no longer change what the customer is charged.
+ * Freezing also sets the order's totalPrice to the bill total, tax included, so revenue, the sales
+ * rollups and reconciliation all count the amount actually billed.
+ */
+@Service
+@Transactional
+public class BillService {
+
+    private static final Logger log = LoggerFactory.getLogger(BillService.class);
+
+    private static final TypeReference<List<BillLineDTO>> LINES_TYPE = new TypeReference<>() {
+    };
+
+    private final BillSnapshotRepository billSnapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final BigDecimal taxRate;
+    private final String currency;
+
+    public BillService(BillSnapshotRepository billSnapshotRepository,
+                       ObjectMapper objectMapper,
+                       @Value("${billing.tax-rate:0.00}") BigDecimal taxRate,
+                       @Value("${billing.currency:INR}") String currency) {
+        this.billSnapshotRepository = billSnapshotRepository;
+        this.objectMapper = objectMapper;
+        this.taxRate = taxRate;
+        this.currency = currency;
+    }
+
+    /**
+     * Writes the snapshot for an order that is being billed and makes its total the order's totalPrice.
+     * Must run in the same transaction as the status change.
+     */
+    public BillSnapshot freeze(Order order) {
+        List<BillLineDTO> lines = order.getItems().stream()
+                .map(this::toLine)
+                .sorted(Comparator.comparing(BillLineDTO::getDishId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.toList());
+        BigDecimal subtotal = lines.stream().map(BillLineDTO::getLineTotal).reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal taxAmount = subtotal.multiply(taxRate).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal total = subtotal.add(taxAmount);
+
+        BillSnapshot snapshot = new BillSnapshot();
+        snapshot.setOrderId(order.getId());
+        snapshot.setPublicTrackingId(order.getPublicTrackingId());
+        snapshot.setTableNumber(order.getRestaurantTable() != null ? order.getRestaurantTable().getTableNumber() : null);
+        snapshot.setLineItemsJson(writeLines(lines));
+        snapshot.setSubtotal(subtotal);
+        snapshot.setTaxRate(taxRate);
+        snapshot.setTaxAmount(taxAmount);
+        snapshot.setTotal(total);
+        snapshot.setAmountInPaise(total.movePointRight(2).longValueExact());
+        snapshot.setCurrency(currency);
+        snapshot.setContentHash(contentHash(snapshot));
+
+        BillSnapshot saved = billSnapshotRepository.save(snapshot);
+        order.setTotalPrice(total);
+        log.info("Bill frozen for order {}: {} {} ({} line(s)), hash {}", order.getId(), total, currency, lines.size(), saved.getContentHash());
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public BillDTO getLatestBill(String publicTrackingId) {
+        BillSnapshot snapshot = billSnapshotRepository.findFirstByPublicTrackingIdOrderByIdDesc(publicTrackingId)
+                .orElseThrow(() -> new ResourceNotFoundException("No bill has been issued for tracking ID: " + publicTrackingId));
+        return toDto(snapshot);
+    }
+
+    public BillDTO toDto(BillSnapshot snapshot) {
+        try {
+            return new BillDTO(snapshot.getId(), snapshot.getOrderId(), snapshot.getPublicTrackingId(), snapshot.getTableNumber(),
+                    objectMapper.readValue(snapshot.getLineItemsJson(), LINES_TYPE), snapshot.getSubtotal(), snapshot.getTaxRate(),
+                    snapshot.getTaxAmount(), snapshot.getTotal(), snapshot.getAmountInPaise(), snapshot.getCurrency(),
+                    snapshot.getContentHash(), snapshot.getIssuedAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt line items in bill snapshot " + snapshot.getId(), e);
+        }
+    }
+
+    private BillLineDTO toLine(OrderItem item) {
+        BigDecimal lineTotal = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+        return new BillLineDTO(item.getDish().getId(), item.getDish().getName(), item.getQuantity(), item.getPrice(), lineTotal);
+    }
+
+    private String writeLines(List<BillLineDTO> lines) {
+        try {
+            return objectMapper.writeValueAsString(lines);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize bill lines", e);
+        }
+    }
+
+    private static String contentHash(BillSnapshot snapshot) {
+        String canonical = String.join("|",
+                String.valueOf(snapshot.getOrderId()),
+                snapshot.getPublicTrackingId(),
+                String.valueOf(snapshot.getTableNumber()),
+                snapshot.getLineItemsJson(),
+                snapshot.getSubtotal().toPlainString(),
+                snapshot.getTaxRate().toPlainString(),
+                snapshot.getTaxAmount().toPlainString(),
+                snapshot.getTotal().toPlainString(),
+                String.valueOf(snapshot.getAmountInPaise()),
+                snapshot.getCurrency());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,29 +1,35 @@
 package com.restaurant.restaurantapp.Service;
 
 import com.restaurant.restaurantapp.DTO.DashboardStatsDTO;
-import com.restaurant.restaurantapp.Repository.*;
+import com.restaurant.restaurantapp.model.OrderStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.LocalDateTime;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
-    private final OrderRepository orderRepository;
-    private final DishRepository dishRepository;
-    private final RestaurantTableRepository tableRepository;
+    private final LiveStatsService liveStatsService;
 
+    // Reads the live counters only; no queries on the request path.
     public DashboardStatsDTO getDashboardStats() {
-        LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+        LiveStatsService.Snapshot live = liveStatsService.snapshot();
+        long completed = live.getOrdersByStatus().getOrDefault(OrderStatus.COMPLETED, 0L);
+        BigDecimal revenue = BigDecimal.valueOf(live.getRevenuePaise(), 2);
 
         DashboardStatsDTO stats = new DashboardStatsDTO();
-        stats.setTodaysRevenue(orderRepository.findTodaysRevenue(startOfDay));
-        stats.setTodaysOrdersCount(orderRepository.countTodaysOrders(startOfDay));
-        stats.setTotalDishesCount(dishRepository.count());
-        stats.setTotalTablesCount(tableRepository.count());
-
+        stats.setTodaysRevenue(revenue);
+        stats.setTodaysOrdersCount(live.getOrdersOpened());
+        stats.setTotalDishesCount(live.getDishCount());
+        stats.setTotalTablesCount(live.getTableCount());
+        stats.setTodaysRevenueInPaise(live.getRevenuePaise());
+        stats.setTodaysCompletedOrdersCount(completed);
+        stats.setAverageOrderValue(completed == 0 ? BigDecimal.ZERO.setScale(2)
+                : revenue.divide(BigDecimal.valueOf(completed), 2, RoundingMode.HALF_UP));
+        stats.setTodaysOrdersByStatus(live.getOrdersByStatus());
+        stats.setLastReconciledAt(live.getLastReconciledAt());
         return stats;
     }
-}
\ No newline at end of file
+}
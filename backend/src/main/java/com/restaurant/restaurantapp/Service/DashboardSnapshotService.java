@@ -0,0 +1,85 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.DashboardSnapshotDTO;
+import com.restaurant.restaurantapp.DTO.DashboardStatsDTO;
+import com.restaurant.restaurantapp.DTO.PrepTimeStatsDTO;
+import com.restaurant.restaurantapp.DTO.TopDishesDTO;
+import com.restaurant.restaurantapp.model.PrepTimeScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds the admin dashboard once per interval and publishes it on /topic/dashboard/snapshot.
+ * Viewers never trigger a build: REST reads and late subscribers get the cached snapshot, so the
+ * cost of the dashboard is the same for one admin or fifty. A snapshot is only published when its
+ * content changed since the last one.
+ */
+@Service
+public class DashboardSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardSnapshotService.class);
+
+    private static final int TOP_DISHES_LIMIT = 10;
+
+    private final DashboardService dashboardService;
+    private final TopDishesService topDishesService;
+    private final PrepTimeService prepTimeService;
+    private final WebSocketService webSocketService;
+    private final AtomicReference<DashboardSnapshotDTO> latest = new AtomicReference<>();
+
+    public DashboardSnapshotService(DashboardService dashboardService,
+                                    TopDishesService topDishesService,
+                                    PrepTimeService prepTimeService,
+                                    WebSocketService webSocketService) {
+        this.dashboardService = dashboardService;
+        this.topDishesService = topDishesService;
+        this.prepTimeService = prepTimeService;
+        this.webSocketService = webSocketService;
+    }
+
+    /**
+     * The most recent snapshot; only built on the spot if the scheduler hasn't produced one yet.
+     */
+    public DashboardSnapshotDTO getLatest() {
+        DashboardSnapshotDTO snapshot = latest.get();
+        return snapshot != null ? snapshot : refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.interval-ms:5000}")
+    public void publishSnapshot() {
+        DashboardSnapshotDTO before = latest.get();
+        DashboardSnapshotDTO after = refresh();
+        if (before == null || after.getVersion() != before.getVersion()) {
+            webSocketService.sendDashboardUpdate("snapshot", after);
+        }
+    }
+
+    // Builds a candidate and keeps the previous snapshot (and version) if nothing changed.
+    private synchronized DashboardSnapshotDTO refresh() {
+        DashboardStatsDTO stats = dashboardService.getDashboardStats();
+        TopDishesDTO topDishes = topDishesService.getTopDishes(TOP_DISHES_LIMIT);
+        List<PrepTimeStatsDTO> stations = prepTimeService.getStats(PrepTimeScope.STATION);
+
+        DashboardSnapshotDTO previous = latest.get();
+        if (previous != null
+                && Objects.equals(previous.getStats(), stats)
+                && Objects.equals(previous.getTopDishesLastHour(), topDishes.getLastHour())
+                && Objects.equals(previous.getTopDishesLast24Hours(), topDishes.getLast24Hours())
+                && Objects.equals(previous.getStationPrepTimes(), stations)) {
+            return previous;
+        }
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        DashboardSnapshotDTO snapshot = new DashboardSnapshotDTO(version, stats, topDishes.getLastHour(),
+                topDishes.getLast24Hours(), stations, LocalDateTime.now());
+        latest.set(snapshot);
+        log.debug("Dashboard snapshot v{} built.", version);
+        return snapshot;
+    }
+}
@@ -0,0 +1,53 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Repository.InvoiceCounterRepository;
+import com.restaurant.restaurantapp.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hands out gapless, per-day invoice numbers when an order is completed.
+ * The number comes from a single counter row per day, bumped with one atomic upsert inside the
+ * completing transaction: a rollback returns the number, and concurrent checkouts only queue on
+ * that row for the rest of their (short) transaction rather than on a table lock or MAX()+1 scan.
+ */
+@Service
+@RequiredArgsConstructor
+public class InvoiceService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceService.class);
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final InvoiceCounterRepository invoiceCounterRepository;
+
+    /**
+     * Gives the order its invoice number unless it already has one. Call it as the last step
+     * before saving the COMPLETED order, so the counter row is held for as little time as possible.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void assignInvoiceNumber(Order order) {
+        if (order.getInvoiceNumber() != null) {
+            return;
+        }
+        LocalDate businessDate = LocalDate.now();
+        order.setInvoiceNumber(format(businessDate, allocate(businessDate)));
+        log.info("Order {} issued invoice {}", order.getId(), order.getInvoiceNumber());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long allocate(LocalDate businessDate) {
+        return invoiceCounterRepository.allocateNext(businessDate);
+    }
+
+    public static String format(LocalDate businessDate, long number) {
+        return String.format("INV-%s-%05d", businessDate.format(DAY_FORMAT), number);
+    }
+}
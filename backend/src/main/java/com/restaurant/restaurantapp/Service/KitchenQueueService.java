@@ -0,0 +1,390 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.OrderEtaDTO;
+import com.restaurant.restaurantapp.Repository.OrderItemRepository;
+import com.restaurant.restaurantapp.event.OrderItemStatusEvent;
+import com.restaurant.restaurantapp.event.OrderItemsAddedEvent;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.model.OrderItem;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.PrepStage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Live wait-time estimates for customers.
+ * The kitchen queue (items waiting or being cooked) is mirrored in memory from item events,
+ * in the order the kitchen works it. An estimate replays that queue over the configured number
+ * of cooks using each dish's median cooking time from {@link PrepTimeService}, so an item's ETA
+ * reflects both its own prep time and everything queued ahead of it.
+ * Each waiting ticket keeps the cooks' state after it was assigned, so a change to a waiting item
+ * only replays the tickets from its position onward; a change to what is on the stove, and the
+ * periodic refresh (cooking runs over), replay the whole queue. Orders whose estimate moved get it
+ * pushed on /topic/orders/{publicTrackingId} before the lock is released, so pushes leave in the
+ * order they were computed. Nothing is re-read from the database after startup.
+ */
+@Service
+public class KitchenQueueService {
+
+    private static final Logger log = LoggerFactory.getLogger(KitchenQueueService.class);
+
+    private final OrderItemRepository orderItemRepository;
+    private final PrepTimeService prepTimeService;
+    private final WebSocketService webSocketService;
+    private final int cooks;
+    private final Duration defaultCookTime;
+
+    // All guarded by "this".
+    private final TreeMap<QueuePosition, Ticket> queue = new TreeMap<>();
+    private final Map<Long, Map<Long, Ticket>> ticketsByOrder = new HashMap<>(); // orderId -> dishId -> ticket
+    private final Map<String, OrderEtaDTO> published = new HashMap<>();         // Last estimate per order
+    private final Map<Long, String> touchedOrders = new HashMap<>();             // orderId -> trackingId, since the last replay
+    private LocalDateTime[] cooksFreeAtStart; // Sorted; when each cook is done with what is on the stove
+    private QueuePosition dirtyFrom;          // Earliest waiting position changed since the last replay
+    private boolean dirtyAll;
+    private long sequence;
+
+    public KitchenQueueService(OrderItemRepository orderItemRepository,
+                               PrepTimeService prepTimeService,
+                               WebSocketService webSocketService,
+                               @Value("${kitchen.eta.cooks:3}") int cooks,
+                               @Value("${kitchen.eta.default-cook-seconds:600}") long defaultCookSeconds) {
+        this.orderItemRepository = orderItemRepository;
+        this.prepTimeService = prepTimeService;
+        this.webSocketService = webSocketService;
+        this.cooks = Math.max(1, cooks);
+        this.defaultCookTime = Duration.ofSeconds(defaultCookSeconds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildQueue() {
+        List<OrderItem> pending = orderItemRepository.findByItemStatusIn(
+                List.of(OrderItemStatus.NEEDS_PREPARATION, OrderItemStatus.IN_PROGRESS));
+        synchronized (this) {
+            for (Ticket ticket : new ArrayList<>(queue.values())) {
+                remove(ticket);
+            }
+            for (OrderItem item : pending) {
+                Ticket ticket = enqueue(item.getOrder().getId(), item.getOrder().getPublicTrackingId(),
+                        item.getDish().getId(), item.getDish().getName(), item.getQuantity(),
+                        item.getQueuedAt() != null ? item.getQueuedAt() : item.getOrder().getOrderTime());
+                if (item.getItemStatus() == OrderItemStatus.IN_PROGRESS) {
+                    ticket.status = OrderItemStatus.IN_PROGRESS;
+                    ticket.startedAt = item.getStartedAt() != null ? item.getStartedAt() : LocalDateTime.now();
+                }
+            }
+            dirtyAll = true;
+            publishChanges(LocalDateTime.now());
+        }
+        log.info("Kitchen queue rebuilt with {} item(s).", pending.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemsAdded(OrderItemsAddedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderItemsAddedEvent.Line line : event.getLines()) {
+            if (line.getItemStatus() != OrderItemStatus.NEEDS_PREPARATION && line.getItemStatus() != OrderItemStatus.IN_PROGRESS) {
+                continue; // Topped up a line the kitchen has already finished
+            }
+            Ticket existing = find(event.getOrderId(), line.getDishId());
+            if (existing != null) {
+                existing.quantity += line.getQuantity();
+                touch(existing);
+            } else {
+                enqueue(event.getOrderId(), event.getPublicTrackingId(), line.getDishId(), line.getDishName(), line.getQuantity(), now);
+            }
+        }
+        publishChanges(now);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemStatusChanged(OrderItemStatusEvent event) {
+        Ticket ticket = find(event.getOrderId(), event.getDishId());
+        switch (event.getNewStatus()) {
+            case NEEDS_PREPARATION -> {
+                // Sent back: it rejoins the queue at its new queued time.
+                remove(ticket);
+                enqueue(event.getOrderId(), event.getPublicTrackingId(), event.getDishId(), event.getDishName(),
+                        event.getQuantity(), event.getQueuedAt() != null ? event.getQueuedAt() : LocalDateTime.now());
+            }
+            case IN_PROGRESS -> {
+                if (ticket == null) {
+                    ticket = enqueue(event.getOrderId(), event.getPublicTrackingId(), event.getDishId(), event.getDishName(),
+                            event.getQuantity(), event.getQueuedAt() != null ? event.getQueuedAt() : LocalDateTime.now());
+                }
+                touch(ticket);
+                ticket.status = OrderItemStatus.IN_PROGRESS;
+                ticket.startedAt = event.getStartedAt() != null ? event.getStartedAt() : LocalDateTime.now();
+                dirtyAll = true; // The stove changed: every waiting item starts from a different point
+            }
+            case READY, DELIVERED -> remove(ticket);
+        }
+        publishChanges(LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderLifecycle(OrderLifecycleEvent event) {
+        if (event.getNewStatus() != OrderStatus.COMPLETED && event.getNewStatus() != OrderStatus.CANCELLED) {
+            return;
+        }
+        Map<Long, Ticket> tickets = ticketsByOrder.get(event.getOrderId());
+        if (tickets == null) {
+            return;
+        }
+        for (Ticket ticket : new ArrayList<>(tickets.values())) {
+            remove(ticket);
+        }
+        publishChanges(LocalDateTime.now());
+    }
+
+    /**
+     * The latest estimate for an order; an order with nothing waiting on the kitchen gets an empty estimate.
+     */
+    public synchronized OrderEtaDTO getEta(String publicTrackingId) {
+        OrderEtaDTO eta = published.get(publicTrackingId);
+        return eta != null ? eta : idle(publicTrackingId);
+    }
+
+    // Cooking overruns move estimates even when nothing happens in the kitchen, so re-check regularly.
+    @Scheduled(fixedDelayString = "${kitchen.eta.refresh-ms:30000}")
+    public synchronized void refresh() {
+        dirtyAll = true;
+        publishChanges(LocalDateTime.now());
+    }
+
+    // --- Estimation (callers hold the lock) ---
+
+    /**
+     * Replays the changed part of the queue and pushes every affected order whose estimate moved.
+     * publishOrderEta only hands the estimate to the coalescing buffer, so it is cheap to call under the lock.
+     */
+    private void publishChanges(LocalDateTime now) {
+        Map<Long, String> affected = new HashMap<>(touchedOrders);
+        touchedOrders.clear();
+        if (dirtyAll || cooksFreeAtStart == null) {
+            replayAll(now, affected);
+        } else if (dirtyFrom != null) {
+            replayFrom(dirtyFrom, now, affected);
+        }
+        dirtyAll = false;
+        dirtyFrom = null;
+
+        for (Map.Entry<Long, String> order : affected.entrySet()) {
+            Map<Long, Ticket> tickets = ticketsByOrder.get(order.getKey());
+            if (tickets == null) {
+                if (published.remove(order.getValue()) != null) {
+                    webSocketService.publishOrderEta(idle(order.getValue())); // Everything for this order has left the kitchen
+                }
+                continue;
+            }
+            OrderEtaDTO eta = orderEta(tickets.values(), now);
+            OrderEtaDTO previous = published.put(eta.getPublicTrackingId(), eta);
+            if (hasMoved(previous, eta)) {
+                webSocketService.publishOrderEta(eta);
+            }
+        }
+    }
+
+    private void replayAll(LocalDateTime now, Map<Long, String> affected) {
+        Map<Long, Duration> cookTimes = new HashMap<>();
+        // Items on the stove keep a cook busy until they are done (or now, if they are running over).
+        List<LocalDateTime> busyUntil = new ArrayList<>();
+        for (Ticket ticket : queue.values()) {
+            if (ticket.status == OrderItemStatus.IN_PROGRESS) {
+                LocalDateTime done = ticket.startedAt.plus(cookTime(ticket.dishId, cookTimes));
+                ticket.readyAt = done.isAfter(now) ? done : now;
+                busyUntil.add(ticket.readyAt);
+                affected.put(ticket.orderId, ticket.publicTrackingId);
+            }
+        }
+        busyUntil.sort(null);
+        cooksFreeAtStart = new LocalDateTime[cooks];
+        for (int i = 0; i < cooks; i++) {
+            cooksFreeAtStart[i] = i < busyUntil.size() ? busyUntil.get(i) : now;
+        }
+        assignWaiting(queue.values(), cooksFreeAtStart.clone(), 0, cookTimes, affected);
+    }
+
+    private void replayFrom(QueuePosition from, LocalDateTime now, Map<Long, String> affected) {
+        Ticket previous = lastWaitingBefore(from);
+        LocalDateTime[] cooksFree = (previous != null ? previous.cooksFreeAfter : cooksFreeAtStart).clone();
+        for (int i = 0; i < cooksFree.length; i++) {
+            if (cooksFree[i].isBefore(now)) {
+                cooksFree[i] = now; // A cook who has been idle since the last replay can only start now
+            }
+        }
+        assignWaiting(queue.tailMap(from, true).values(), cooksFree, previous != null ? previous.waitingIndex + 1 : 0,
+                new HashMap<>(), affected);
+    }
+
+    // Waiting items go to whichever cook frees up first, in queue order; cooksFree is kept sorted.
+    private void assignWaiting(Collection<Ticket> tickets, LocalDateTime[] cooksFree, int waitingIndex,
+                               Map<Long, Duration> cookTimes, Map<Long, String> affected) {
+        for (Ticket ticket : tickets) {
+            if (ticket.status != OrderItemStatus.NEEDS_PREPARATION) {
+                continue;
+            }
+            LocalDateTime finish = cooksFree[0].plus(cookTime(ticket.dishId, cookTimes));
+            int slot = 0;
+            while (slot + 1 < cooksFree.length && cooksFree[slot + 1].isBefore(finish)) {
+                cooksFree[slot] = cooksFree[slot + 1];
+                slot++;
+            }
+            cooksFree[slot] = finish;
+            ticket.readyAt = finish;
+            ticket.waitingIndex = waitingIndex++;
+            ticket.cooksFreeAfter = Arrays.copyOf(cooksFree, cooksFree.length);
+            affected.put(ticket.orderId, ticket.publicTrackingId);
+        }
+    }
+
+    private Ticket lastWaitingBefore(QueuePosition position) {
+        Iterator<Ticket> earlier = queue.headMap(position, false).descendingMap().values().iterator();
+        while (earlier.hasNext()) {
+            Ticket ticket = earlier.next();
+            if (ticket.status == OrderItemStatus.NEEDS_PREPARATION) {
+                return ticket;
+            }
+        }
+        return null;
+    }
+
+    private static OrderEtaDTO orderEta(Collection<Ticket> tickets, LocalDateTime now) {
+        List<OrderEtaDTO.ItemEta> items = new ArrayList<>(tickets.size());
+        LocalDateTime orderReadyAt = null;
+        String trackingId = null;
+        int itemsAhead = -1;
+        for (Ticket ticket : tickets) {
+            items.add(new OrderEtaDTO.ItemEta(ticket.dishId, ticket.dishName, ticket.quantity, ticket.readyAt));
+            orderReadyAt = orderReadyAt == null || ticket.readyAt.isAfter(orderReadyAt) ? ticket.readyAt : orderReadyAt;
+            trackingId = ticket.publicTrackingId;
+            if (ticket.status == OrderItemStatus.NEEDS_PREPARATION && (itemsAhead < 0 || ticket.waitingIndex < itemsAhead)) {
+                itemsAhead = ticket.waitingIndex;
+            }
+        }
+        long minutes = Math.max(0, (Duration.between(now, orderReadyAt).toSeconds() + 59) / 60);
+        return new OrderEtaDTO("ETA", trackingId, orderReadyAt, minutes, Math.max(0, itemsAhead), items, now);
+    }
+
+    private Duration cookTime(Long dishId, Map<Long, Duration> cache) {
+        return cache.computeIfAbsent(dishId, id -> {
+            Duration median = prepTimeService.getMedian(id, PrepStage.COOKING);
+            return median != null ? median : defaultCookTime;
+        });
+    }
+
+    private static boolean hasMoved(OrderEtaDTO previous, OrderEtaDTO current) {
+        return previous == null
+                || previous.getMinutesRemaining() != current.getMinutesRemaining()
+                || previous.getItemsAhead() != current.getItemsAhead()
+                || previous.getItems().size() != current.getItems().size();
+    }
+
+    private static OrderEtaDTO idle(String publicTrackingId) {
+        return new OrderEtaDTO("ETA", publicTrackingId, null, 0, 0, List.of(), LocalDateTime.now());
+    }
+
+    // --- Queue maintenance (callers hold the lock) ---
+
+    private Ticket find(Long orderId, Long dishId) {
+        Map<Long, Ticket> tickets = ticketsByOrder.get(orderId);
+        return tickets == null ? null : tickets.get(dishId);
+    }
+
+    private Ticket enqueue(Long orderId, String publicTrackingId, Long dishId, String dishName, int quantity, LocalDateTime queuedAt) {
+        Ticket ticket = new Ticket(orderId, publicTrackingId, dishId, dishName, quantity,
+                new QueuePosition(queuedAt, sequence++));
+        queue.put(ticket.position, ticket);
+        ticketsByOrder.computeIfAbsent(orderId, id -> new LinkedHashMap<>()).put(dishId, ticket);
+        touch(ticket);
+        return ticket;
+    }
+
+    private void remove(Ticket ticket) {
+        if (ticket == null) {
+            return;
+        }
+        touch(ticket);
+        queue.remove(ticket.position);
+        Map<Long, Ticket> tickets = ticketsByOrder.get(ticket.orderId);
+        if (tickets != null) {
+            tickets.remove(ticket.dishId);
+            if (tickets.isEmpty()) {
+                ticketsByOrder.remove(ticket.orderId);
+            }
+        }
+    }
+
+    // Records what the next replay has to cover for a ticket that is being added, changed or removed.
+    private void touch(Ticket ticket) {
+        touchedOrders.put(ticket.orderId, ticket.publicTrackingId);
+        if (ticket.status == OrderItemStatus.IN_PROGRESS) {
+            dirtyAll = true;
+        } else if (dirtyFrom == null || ticket.position.compareTo(dirtyFrom) < 0) {
+            dirtyFrom = ticket.position;
+        }
+    }
+
+    // First queued, first cooked; the sequence breaks ties between items queued in the same instant.
+    private static final class QueuePosition implements Comparable<QueuePosition> {
+        private final LocalDateTime queuedAt;
+        private final long sequence;
+
+        private QueuePosition(LocalDateTime queuedAt, long sequence) {
+            this.queuedAt = queuedAt;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(QueuePosition other) {
+            int byTime = queuedAt.compareTo(other.queuedAt);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    // One line of a tab (dish on an order) that the kitchen still has to finish.
+    private static final class Ticket {
+        private final Long orderId;
+        private final String publicTrackingId;
+        private final Long dishId;
+        private final String dishName;
+        private final QueuePosition position;
+        private int quantity;
+        private OrderItemStatus status = OrderItemStatus.NEEDS_PREPARATION;
+        private LocalDateTime startedAt;
+        // Set by the last replay that reached this ticket.
+        private LocalDateTime readyAt;
+        private int waitingIndex;                // Waiting tickets ahead of this one
+        private LocalDateTime[] cooksFreeAfter;  // Cooks' state once this ticket was assigned, for replaying from the next one
+
+        private Ticket(Long orderId, String publicTrackingId, Long dishId, String dishName, int quantity, QueuePosition position) {
+            this.orderId = orderId;
+            this.publicTrackingId = publicTrackingId;
+            this.dishId = dishId;
+            this.dishName = dishName;
+            this.quantity = quantity;
+            this.position = position;
+        }
+    }
+}
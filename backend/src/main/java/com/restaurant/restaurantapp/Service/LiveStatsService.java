@@ -0,0 +1,210 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Repository.DishRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.event.MenuChangedEvent;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.event.TableChangedEvent;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Today's dashboard numbers, kept live in memory from order lifecycle events.
+ * Counters are striped adders so concurrent checkouts never contend on them, and the whole
+ * day lives in one bucket that is swapped out at the business-day boundary. A periodic job
+ * re-seeds the bucket from the database so any missed or doubled event is corrected; events that
+ * arrive while it queries are journaled and replayed onto the fresh bucket, so none are lost.
+ * Follows the same rules as the old queries: an order belongs to the day it was opened,
+ * and its revenue counts once it is COMPLETED.
+ */
+@Service
+@RequiredArgsConstructor
+public class LiveStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveStatsService.class);
+
+    private final OrderRepository orderRepository;
+    private final DishRepository dishRepository;
+    private final RestaurantTableRepository tableRepository;
+
+    private final AtomicReference<DayBucket> today = new AtomicReference<>(new DayBucket(LocalDate.now()));
+    private final AtomicLong dishCount = new AtomicLong();
+    private final AtomicLong tableCount = new AtomicLong();
+    private volatile LocalDateTime lastReconciledAt;
+
+    // Listeners share the read lock (they only touch adders); reconcile takes the write lock just to
+    // open the journal and, after its queries, to swap the bucket and replay what was journaled.
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private List<OrderLifecycleEvent> journal; // Guarded by swapLock; non-null while a reconcile is querying
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        if (event.getOrderTime() == null) {
+            return;
+        }
+        swapLock.readLock().lock();
+        try {
+            apply(event, current());
+            List<OrderLifecycleEvent> pending = journal;
+            if (pending != null) {
+                synchronized (pending) {
+                    pending.add(event);
+                }
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void apply(OrderLifecycleEvent event, DayBucket bucket) {
+        if (!event.getOrderTime().toLocalDate().equals(bucket.day)) {
+            return; // An older tab changing status today doesn't move today's numbers
+        }
+        if (event.getPreviousStatus() == null) {
+            bucket.ordersOpened.increment();
+        } else {
+            bucket.byStatus.get(event.getPreviousStatus()).decrement();
+        }
+        bucket.byStatus.get(event.getNewStatus()).increment();
+
+        long paise = toPaise(event.getTotalPrice());
+        if (event.getNewStatus() == OrderStatus.COMPLETED && event.getPreviousStatus() != OrderStatus.COMPLETED) {
+            bucket.revenuePaise.add(paise);
+        } else if (event.getPreviousStatus() == OrderStatus.COMPLETED && event.getNewStatus() != OrderStatus.COMPLETED) {
+            bucket.revenuePaise.add(-paise);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        // Admin edits are rare; a recount here keeps reads O(1) without guessing create vs update.
+        tableCount.set(tableRepository.count());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        dishCount.set(dishRepository.count());
+    }
+
+    /**
+     * Re-seeds today's counters from the database. Runs at startup and then periodically.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${dashboard.live.reconcile-ms:300000}", fixedDelayString = "${dashboard.live.reconcile-ms:300000}")
+    @Transactional(readOnly = true)
+    public synchronized void reconcile() {
+        swapLock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        LocalDate day = LocalDate.now();
+        LocalDateTime startOfDay = day.atStartOfDay();
+        DayBucket fresh = new DayBucket(day);
+        fresh.revenuePaise.add(toPaise(orderRepository.findTodaysRevenue(startOfDay)));
+        fresh.ordersOpened.add(orderRepository.countTodaysOrders(startOfDay));
+        for (Object[] row : orderRepository.countTodaysOrdersByStatus(startOfDay)) {
+            fresh.byStatus.get((OrderStatus) row[0]).add((Long) row[1]);
+        }
+        dishCount.set(dishRepository.count());
+        tableCount.set(tableRepository.count());
+
+        DayBucket previous;
+        swapLock.writeLock().lock();
+        try {
+            previous = today.getAndSet(fresh);
+            // Changes that landed while we were querying. The queries can only have seen one of these if it
+            // committed in the instant before its listener ran; counting that twice until the next
+            // reconcile is far rarer than dropping every change made during the queries.
+            for (OrderLifecycleEvent event : journal) {
+                apply(event, fresh);
+            }
+            journal = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        lastReconciledAt = LocalDateTime.now();
+        if (previous.day.equals(day) && previous.revenuePaise.sum() != fresh.revenuePaise.sum()) {
+            log.warn("Live revenue drifted from the database by {} paise; corrected.", fresh.revenuePaise.sum() - previous.revenuePaise.sum());
+        }
+    }
+
+    /**
+     * Point-in-time copy of today's counters.
+     */
+    public Snapshot snapshot() {
+        DayBucket bucket = current();
+        Map<OrderStatus, Long> byStatus = new EnumMap<>(OrderStatus.class);
+        bucket.byStatus.forEach((status, adder) -> byStatus.put(status, adder.sum()));
+        return new Snapshot(bucket.day, bucket.revenuePaise.sum(), bucket.ordersOpened.sum(), byStatus,
+                dishCount.get(), tableCount.get(), lastReconciledAt);
+    }
+
+    // Rolls over to a fresh bucket the first time it is touched on a new business day.
+    private DayBucket current() {
+        DayBucket bucket = today.get();
+        LocalDate now = LocalDate.now();
+        while (!bucket.day.equals(now)) {
+            DayBucket next = new DayBucket(now);
+            if (today.compareAndSet(bucket, next)) {
+                log.info("Live dashboard counters rolled over to {}", now);
+                return next;
+            }
+            bucket = today.get();
+        }
+        return bucket;
+    }
+
+    private static long toPaise(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValue();
+    }
+
+    private static final class DayBucket {
+        private final LocalDate day;
+        private final LongAdder revenuePaise = new LongAdder();
+        private final LongAdder ordersOpened = new LongAdder();
+        private final Map<OrderStatus, LongAdder> byStatus = new EnumMap<>(OrderStatus.class);
+
+        private DayBucket(LocalDate day) {
+            this.day = day;
+            for (OrderStatus status : OrderStatus.values()) {
+                byStatus.put(status, new LongAdder());
+            }
+        }
+    }
+
+    @Value
+    public static class Snapshot {
+        LocalDate day;
+        long revenuePaise;
+        long ordersOpened;
+        Map<OrderStatus, Long> ordersByStatus;
+        long dishCount;
+        long tableCount;
+        LocalDateTime lastReconciledAt;
+    }
+}
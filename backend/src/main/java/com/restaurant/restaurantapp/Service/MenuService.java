@@ -9,9 +9,11 @@ import com.restaurant.restaurantapp.model.Category;
 import com.restaurant.restaurantapp.model.Dish;
 import com.restaurant.restaurantapp.Repository.CategoryRepository;
 import com.restaurant.restaurantapp.Repository.DishRepository;
+import com.restaurant.restaurantapp.event.MenuChangedEvent;
 import lombok.RequiredArgsConstructor; // Lombok constructor injection
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -32,6 +34,7 @@ public class MenuService {
 
     private final CategoryRepository categoryRepository;
     private final DishRepository dishRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // --- Category Operations ---
 
@@ -106,6 +109,7 @@ public class MenuService {
         // Consider checking if category has dishes - prevent deletion? Or let cascade handle it?
         // For now, cascade will delete associated dishes as defined in Category entity.
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new MenuChangedEvent(null, id, true));
     }
 
     // --- Dish Operations ---
@@ -160,6 +164,7 @@ public class MenuService {
 
 
         Dish savedDish = dishRepository.save(dish);
+        eventPublisher.publishEvent(new MenuChangedEvent(savedDish.getId(), category.getId(), false));
         return mapDishToDTO(savedDish);
     }
 
@@ -191,6 +196,7 @@ public class MenuService {
             throw new ResourceNotFoundException("Dish not found with ID: " + id);
         }
         dishRepository.deleteById(id);
+        eventPublisher.publishEvent(new MenuChangedEvent(id, null, true));
     }
 
 
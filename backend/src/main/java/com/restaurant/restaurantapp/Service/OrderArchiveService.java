@@ -0,0 +1,90 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Repository.ArchivedOrderRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves COMPLETED and CANCELLED orders older than the retention period out of customer_orders
+ * and order_items into their archive tables, so the hot tables only hold recent history.
+ * Each batch is copied and deleted in its own short transaction, so a run can stop at any point
+ * (crash, deploy) and the next run simply carries on with whatever is still eligible.
+ * Reads that may hit old orders (order history, customer status lookups) fall back to the archive.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate batchTransaction;
+    private final int retentionDays;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrderArchiveService(OrderRepository orderRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${orders.archive.retention-days:90}") int retentionDays,
+                               @Value("${orders.archive.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${orders.archive.cron:0 15 4 * * *}")
+    public void archiveClosedOrders() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Order archival already running, skipping this trigger.");
+            return;
+        }
+        try {
+            LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+            long afterId = 0;
+            long archived = 0;
+            while (true) {
+                List<Long> batch = archiveBatch(cutoff, afterId);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                archived += batch.size();
+                afterId = batch.get(batch.size() - 1);
+            }
+            log.info("Archived {} order(s) closed before {}.", archived, cutoff);
+        } catch (RuntimeException e) {
+            // Everything up to the failed batch is already committed; the next run resumes from there.
+            log.error("Order archival stopped early: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Copies then deletes one batch atomically. Returns the ids handled, empty when there is nothing left.
+    private List<Long> archiveBatch(LocalDateTime cutoff, long afterId) {
+        return batchTransaction.execute(status -> {
+            List<Long> ids = orderRepository.findArchivableIds(cutoff, afterId, batchSize);
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            archivedOrderRepository.copyOrders(ids);
+            archivedOrderRepository.copyItems(ids);
+            orderRepository.deleteItemsOfOrders(ids);
+            orderRepository.deleteOrdersByIds(ids);
+            return ids;
+        });
+    }
+}
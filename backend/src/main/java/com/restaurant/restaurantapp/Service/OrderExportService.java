@@ -0,0 +1,250 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams order history (one row per line item, live and archived orders) as CSV for finance.
+ * Orders are read in keyset-paginated chunks on (order_time, id), each in its own short read-only
+ * transaction, and a chunk is written to the response only after its transaction has ended: a slow
+ * client never holds a pooled connection, and memory is bounded by one chunk whatever the range.
+ * No entities, no DTOs, no count query.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final String HEADER = "order_id,public_tracking_id,invoice_number,order_time,status,table_number,"
+            + "order_total,item_id,dish_id,dish_name,quantity,unit_price,line_total";
+
+    // The next chunk of live and archived orders after the (order_time, id) cursor, with their lines;
+    // orders without items still get one row, with the item columns empty.
+    private static final String CHUNK_SQL =
+            "SELECT o.id, o.public_tracking_id, o.invoice_number, o.order_time, o.status, o.table_number, o.total_price, "
+            + "i.id, i.dish_id, i.dish_name, i.quantity, i.price "
+            + "FROM ((SELECT c.id, c.public_tracking_id, c.invoice_number, c.order_time, c.status, t.table_number, c.total_price, "
+            + "FALSE AS archived FROM customer_orders c LEFT JOIN restaurant_tables t ON t.id = c.table_id "
+            + "WHERE c.order_time >= ? AND c.order_time < ? AND (c.order_time, c.id) > (?, ?) ORDER BY c.order_time, c.id LIMIT ?) "
+            + "UNION ALL "
+            + "(SELECT a.id, a.public_tracking_id, a.invoice_number, a.order_time, a.status, a.table_number, a.total_price, "
+            + "TRUE FROM customer_orders_archive a "
+            + "WHERE a.order_time >= ? AND a.order_time < ? AND (a.order_time, a.id) > (?, ?) ORDER BY a.order_time, a.id LIMIT ?) "
+            + "ORDER BY 4, 1 LIMIT ?) o "
+            + "LEFT JOIN (SELECT i.order_id, i.id, i.dish_id, d.name AS dish_name, i.quantity, i.price, FALSE AS archived "
+            + "FROM order_items i LEFT JOIN dishes d ON d.id = i.dish_id "
+            + "UNION ALL SELECT ia.order_id, ia.id, ia.dish_id, ia.dish_name, ia.quantity, ia.price, TRUE FROM order_items_archive ia) i "
+            + "ON i.order_id = o.id AND i.archived = o.archived "
+            + "ORDER BY o.order_time, o.id, i.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkOrders;
+    private final int maxRangeDays;
+
+    public OrderExportService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${orders.export.chunk-orders:500}") int chunkOrders,
+                              @Value("${orders.export.max-range-days:366}") int maxRangeDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setReadOnly(true);
+        this.chunkOrders = chunkOrders;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Rejects bad ranges up front, before the response has started and an error can still become a 400.
+     */
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException("'to' must not be before 'from'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidRequestException("Export range cannot exceed " + maxRangeDays + " days.");
+        }
+    }
+
+    /**
+     * Writes every line item of orders opened between {@code from} and {@code to} (inclusive) as CSV.
+     *
+     * @param gzip compress the output as it is written
+     * @return the number of data rows written
+     */
+    public long exportCsv(LocalDate from, LocalDate to, boolean gzip, OutputStream out) throws IOException {
+        validateRange(from, to);
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+        long startedAt = System.nanoTime();
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(HEADER);
+        writer.write('\n');
+
+        long rows = 0;
+        Chunk chunk = new Chunk(start, 0);
+        do {
+            chunk = readChunk(start, end, chunk.lastOrderTime, chunk.lastOrderId);
+            writer.write(chunk.csv.toString()); // Outside the chunk's transaction
+            rows += chunk.rows;
+        } while (chunk.orders == chunkOrders);
+        writer.flush();
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Exported {} order line(s) for {}..{} in {} ms ({} rows/s).", rows, from, to, millis, rows * 1000 / millis);
+        return rows;
+    }
+
+    // Reads and renders up to chunkOrders orders after the cursor; the connection goes back to the pool on return.
+    private Chunk readChunk(Timestamp start, Timestamp end, Timestamp afterTime, long afterId) {
+        PreparedStatementCreator query = connection -> {
+            PreparedStatement statement = connection.prepareStatement(CHUNK_SQL);
+            int index = 1;
+            for (int source = 0; source < 2; source++) {
+                statement.setTimestamp(index++, start);
+                statement.setTimestamp(index++, end);
+                statement.setTimestamp(index++, afterTime);
+                statement.setLong(index++, afterId);
+                statement.setInt(index++, chunkOrders);
+            }
+            statement.setInt(index, chunkOrders);
+            return statement;
+        };
+        ResultSetExtractor<Chunk> render = rs -> {
+            Chunk chunk = new Chunk(afterTime, afterId);
+            StringWriter csv = new StringWriter();
+            try {
+                while (rs.next()) {
+                    long orderId = rs.getLong(1);
+                    if (chunk.orders == 0 || orderId != chunk.lastOrderId) {
+                        chunk.orders++;
+                        chunk.lastOrderId = orderId;
+                        chunk.lastOrderTime = rs.getTimestamp(4);
+                    }
+                    writeRow(csv, rs);
+                    chunk.rows++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunk.csv = csv.getBuffer();
+            return chunk;
+        };
+        return chunkTransaction.execute(status -> jdbcTemplate.query(query, render));
+    }
+
+    private static void writeRow(Writer writer, ResultSet rs) throws IOException, SQLException {
+        writer.write(Long.toString(rs.getLong(1)));
+        writer.write(',');
+        writeText(writer, rs.getString(2));
+        writer.write(',');
+        writeText(writer, rs.getString(3));
+        writer.write(',');
+        Timestamp orderTime = rs.getTimestamp(4);
+        if (orderTime != null) {
+            writer.write(orderTime.toLocalDateTime().toString());
+        }
+        writer.write(',');
+        writeText(writer, rs.getString(5));
+        writer.write(',');
+        writeText(writer, rs.getString(6));
+        writer.write(',');
+        writeDecimal(writer, rs.getBigDecimal(7));
+        writer.write(',');
+        long itemId = rs.getLong(8);
+        if (!rs.wasNull()) {
+            writer.write(Long.toString(itemId));
+            writer.write(',');
+            writer.write(Long.toString(rs.getLong(9)));
+            writer.write(',');
+            writeText(writer, rs.getString(10));
+            writer.write(',');
+            int quantity = rs.getInt(11);
+            writer.write(Integer.toString(quantity));
+            writer.write(',');
+            BigDecimal price = rs.getBigDecimal(12);
+            writeDecimal(writer, price);
+            writer.write(',');
+            writeDecimal(writer, price != null ? price.multiply(BigDecimal.valueOf(quantity)) : null);
+        } else {
+            writer.write(",,,,,");
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: quote only when needed, doubling embedded quotes. Text that a spreadsheet would read as a
+    // formula gets a leading apostrophe, so a dish name like "=HYPERLINK(...)" stays plain text.
+    private static void writeText(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeDecimal(Writer writer, BigDecimal value) throws IOException {
+        if (value != null) {
+            writer.write(value.toPlainString());
+        }
+    }
+
+    // One chunk of rendered rows, and the (order_time, id) of its last order for the next chunk's cursor.
+    private static final class Chunk {
+        private StringBuffer csv = new StringBuffer();
+        private long rows;
+        private int orders;
+        private Timestamp lastOrderTime;
+        private long lastOrderId;
+
+        private Chunk(Timestamp lastOrderTime, long lastOrderId) {
+            this.lastOrderTime = lastOrderTime;
+            this.lastOrderId = lastOrderId;
+        }
+    }
+
+    public static String fileName(LocalDate from, LocalDate to, boolean gzip) {
+        return "orders-" + from + "-to-" + to + (gzip ? ".csv.gz" : ".csv");
+    }
+}
@@ -4,20 +4,32 @@ package com.restaurant.restaurantapp.Service;
 import com.restaurant.restaurantapp.DTO.*;
 import com.restaurant.restaurantapp.Exception.InvalidRequestException;
 import com.restaurant.restaurantapp.Exception.ResourceNotFoundException;
+import com.restaurant.restaurantapp.event.OrderChangesEvent;
+import com.restaurant.restaurantapp.event.OrderItemStatusEvent;
+import com.restaurant.restaurantapp.event.OrderItemsAddedEvent;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.event.StaffUpdateEvent;
 import com.restaurant.restaurantapp.model.*;
 import com.restaurant.restaurantapp.Repository.*;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,13 +43,21 @@ public class OrderService {
     private final DishRepository dishRepository;
     private final RestaurantTableRepository tableRepository;
     private final OrderItemRepository orderItemRepository;
-    private final WebSocketService webSocketService; // <<< Correctly Injected
+    private final ApplicationEventPublisher eventPublisher;
+    private final BillService billService;
+    private final InvoiceService invoiceService;
+    private final ArchivedOrderRepository archivedOrderRepository;
+
+    // Sort properties that exist on both Order and ArchivedOrder, so live and archived rows can be merged by them.
+    private static final Set<String> ARCHIVE_SORTABLE = Set.of("id", "orderTime", "status", "totalPrice", "invoiceNumber");
 
     // This is the private helper method for adding items to an order.
-    private void addItemsToOrderEntity(Order order, List<OrderItemRequestDTO> itemsToAdd) {
+    // Returns what was added, for OrderItemsAddedEvent once the order has been saved.
+    private List<OrderItemsAddedEvent.Line> addItemsToOrderEntity(Order order, List<OrderItemRequestDTO> itemsToAdd) {
         if (itemsToAdd == null || itemsToAdd.isEmpty()) {
             throw new InvalidRequestException("Item list cannot be empty.");
         }
+        List<OrderItemsAddedEvent.Line> added = new ArrayList<>(itemsToAdd.size());
         for (OrderItemRequestDTO itemDto : itemsToAdd) {
             Dish dish = dishRepository.findById(itemDto.getDishId())
                     .orElseThrow(() -> new ResourceNotFoundException("Dish not found: " + itemDto.getDishId()));
@@ -46,10 +66,12 @@ public class OrderService {
             }
 
             Optional<OrderItem> existingItemOpt = order.findItemByDishId(dish.getId());
+            OrderItemStatus lineStatus;
             if (existingItemOpt.isPresent()) {
                 OrderItem existingItem = existingItemOpt.get();
                 int newQuantity = existingItem.getQuantity() + itemDto.getQuantity();
                 existingItem.setQuantity(newQuantity);
+                lineStatus = existingItem.getItemStatus();
             } else {
                 OrderItem orderItem = new OrderItem();
                 orderItem.setDish(dish);
@@ -57,9 +79,12 @@ public class OrderService {
                 orderItem.setPrice(dish.getPrice());
                 orderItem.setItemStatus(OrderItemStatus.NEEDS_PREPARATION);
                 order.addItem(orderItem);
+                lineStatus = OrderItemStatus.NEEDS_PREPARATION;
             }
+            added.add(new OrderItemsAddedEvent.Line(dish.getId(), dish.getName(), itemDto.getQuantity(), lineStatus));
         }
         order.recalculateTotalPrice();
+        return added;
     }
 
     public OrderResponseDTO startNewOrder(OrderRequestDTO orderRequestDTO) {
@@ -75,8 +100,11 @@ public class OrderService {
         newOrder.setRestaurantTable(table);
         newOrder.setStatus(OrderStatus.OPEN);
         newOrder.setNotes(orderRequestDTO.getNotes());
-        addItemsToOrderEntity(newOrder, orderRequestDTO.getItems());
+        List<OrderItemsAddedEvent.Line> added = addItemsToOrderEntity(newOrder, orderRequestDTO.getItems());
         Order savedOrder = orderRepository.save(newOrder);
+        eventPublisher.publishEvent(OrderLifecycleEvent.of(savedOrder, null));
+        eventPublisher.publishEvent(new OrderItemsAddedEvent(savedOrder.getId(), savedOrder.getPublicTrackingId(), added));
+        publishKitchenItems(savedOrder, added);
         return mapOrderToResponseDTO(savedOrder);
     }
 
@@ -87,11 +115,28 @@ public class OrderService {
         if (existingOrder.getStatus() != OrderStatus.OPEN) {
             throw new InvalidRequestException("Cannot add items to an order that is not OPEN.");
         }
-        addItemsToOrderEntity(existingOrder, itemsToAdd);
-        Order savedOrder = orderRepository.save(existingOrder);
+        List<OrderItemsAddedEvent.Line> added = addItemsToOrderEntity(existingOrder, itemsToAdd);
+        // Flushed so that new lines have their IDs for the delta below
+        Order savedOrder = orderRepository.saveAndFlush(existingOrder);
+        eventPublisher.publishEvent(new OrderItemsAddedEvent(savedOrder.getId(), savedOrder.getPublicTrackingId(), added));
+        List<OrderChangeDTO> changes = new ArrayList<>(added.size());
+        for (OrderItemsAddedEvent.Line line : added) {
+            savedOrder.findItemByDishId(line.getDishId()).ifPresent(item -> changes.add(
+                    OrderChangeDTO.item(OrderChangeDTO.ITEM_QUANTITY, item.getId(), line.getDishName(), item.getQuantity())));
+        }
+        eventPublisher.publishEvent(new OrderChangesEvent(savedOrder.getPublicTrackingId(), savedOrder.getId(), changes));
+        publishKitchenItems(savedOrder, added);
         return mapOrderToResponseDTO(savedOrder);
     }
 
+    // New or topped-up lines appear on the kitchen screen with their current quantity.
+    private void publishKitchenItems(Order order, List<OrderItemsAddedEvent.Line> added) {
+        for (OrderItemsAddedEvent.Line line : added) {
+            order.findItemByDishId(line.getDishId()).ifPresent(item ->
+                    eventPublisher.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_KITCHEN, item.getId(), mapItemToKitchenDTO(item))));
+        }
+    }
+
     @Transactional(readOnly = true)
     public Optional<OrderResponseDTO> getActiveOrderForTable(Long tableId) {
         return orderRepository.findByRestaurantTableIdAndStatus(tableId, OrderStatus.OPEN)
@@ -100,30 +145,131 @@ public class OrderService {
 
     @Transactional(readOnly = true)
     public OrderResponseDTO getOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId).orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
-        return mapOrderToResponseDTO(order);
+        Optional<Order> order = orderRepository.findById(orderId);
+        if (order.isPresent()) {
+            return mapOrderToResponseDTO(order.get());
+        }
+        return archivedOrderRepository.findById(orderId)
+                .map(this::mapArchivedOrderToResponseDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
     }
 
+    /**
+     * Pages through live and archived orders (see OrderArchiveService) as one list in the requested sort.
+     * Both sources are read sorted the same way and merged, so the page is the slice at its offset of the
+     * merged order; that needs the first offset + size rows of each, so deep pages cost accordingly.
+     * Open and awaiting-payment orders are never archived, so those filters only read the live table.
+     * Any other filter must be paged: an unpaged read would have to load the whole archive.
+     */
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> getOrders(Long tableId, OrderStatus status, Pageable pageable) {
-        Page<Order> orderPage;
-        if (tableId != null && status != null) {
-            orderPage = orderRepository.findByRestaurantTableIdAndStatus(tableId, status, pageable);
-        } else if (tableId != null) {
-            orderPage = orderRepository.findByRestaurantTableId(tableId, pageable);
-        } else if (status != null) {
-            orderPage = orderRepository.findByStatus(status, pageable);
-        } else {
-            orderPage = orderRepository.findAll(pageable);
+        if (status == OrderStatus.OPEN || status == OrderStatus.AWAITING_PAYMENT) {
+            return findLive(tableId, status, pageable).map(this::mapOrderToResponseDTO);
+        }
+        if (pageable.isUnpaged()) {
+            throw new InvalidRequestException("Order history must be read a page at a time.");
+        }
+
+        Sort sort = mergeableSort(pageable.getSort());
+        int window = Math.toIntExact(pageable.getOffset() + pageable.getPageSize());
+        Page<Order> live = findLive(tableId, status, PageRequest.of(0, window, sort));
+        Page<ArchivedOrder> archived = findArchived(tableId, status, PageRequest.of(0, window, sort));
+        List<Order> liveRows = live.getContent();
+        List<ArchivedOrder> archivedRows = archived.getContent();
+
+        List<OrderResponseDTO> content = new ArrayList<>(pageable.getPageSize());
+        int nextLive = 0;
+        int nextArchived = 0;
+        for (long position = 0; content.size() < pageable.getPageSize()
+                && (nextLive < liveRows.size() || nextArchived < archivedRows.size()); position++) {
+            boolean takeLive = nextArchived >= archivedRows.size() || (nextLive < liveRows.size()
+                    && compareRows(sort, liveRows.get(nextLive), archivedRows.get(nextArchived)) <= 0);
+            if (position < pageable.getOffset()) {
+                if (takeLive) {
+                    nextLive++;
+                } else {
+                    nextArchived++;
+                }
+            } else if (takeLive) {
+                content.add(mapOrderToResponseDTO(liveRows.get(nextLive++)));
+            } else {
+                content.add(mapArchivedOrderToResponseDTO(archivedRows.get(nextArchived++)));
+            }
         }
-        return orderPage.map(this::mapOrderToResponseDTO);
+        return new PageImpl<>(content, pageable, live.getTotalElements() + archived.getTotalElements());
     }
 
     @Transactional(readOnly = true)
     public CustomerOrderStatusDto getOrderStatusByPublicTrackingId(String publicTrackingId) {
-        Order order = orderRepository.findByPublicTrackingId(publicTrackingId)
+        Optional<Order> order = orderRepository.findByPublicTrackingId(publicTrackingId);
+        if (order.isPresent()) {
+            return mapOrderToCustomerStatusDTO(order.get());
+        }
+        return archivedOrderRepository.findByPublicTrackingId(publicTrackingId)
+                .map(this::mapArchivedOrderToCustomerStatusDTO)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with tracking ID: " + publicTrackingId));
-        return mapOrderToCustomerStatusDTO(order);
+    }
+
+    private Page<Order> findLive(Long tableId, OrderStatus status, Pageable pageable) {
+        if (tableId != null && status != null) {
+            return orderRepository.findByRestaurantTableIdAndStatus(tableId, status, pageable);
+        } else if (tableId != null) {
+            return orderRepository.findByRestaurantTableId(tableId, pageable);
+        } else if (status != null) {
+            return orderRepository.findByStatus(status, pageable);
+        }
+        return orderRepository.findAll(pageable);
+    }
+
+    // Rejects sorts the archive can't follow, and adds the id as a tie-breaker so both sources agree on ties.
+    private static Sort mergeableSort(Sort requested) {
+        for (Sort.Order order : requested) {
+            if (!ARCHIVE_SORTABLE.contains(order.getProperty())) {
+                throw new InvalidRequestException("Orders cannot be sorted by '" + order.getProperty()
+                        + "'. Sortable fields: " + String.join(", ", new TreeSet<>(ARCHIVE_SORTABLE)) + ".");
+            }
+        }
+        return requested.getOrderFor("id") != null ? requested : requested.and(Sort.by("id"));
+    }
+
+    // Compares like the database does: nulls sort last ascending and first descending.
+    private static int compareRows(Sort sort, Order live, ArchivedOrder archived) {
+        for (Sort.Order order : sort) {
+            Comparable<Object> left = sortValue(order.getProperty(), live.getId(), live.getOrderTime(), live.getStatus(),
+                    live.getTotalPrice(), live.getInvoiceNumber());
+            Comparable<Object> right = sortValue(order.getProperty(), archived.getId(), archived.getOrderTime(), archived.getStatus(),
+                    archived.getTotalPrice(), archived.getInvoiceNumber());
+            int result = left == null ? (right == null ? 0 : 1) : (right == null ? -1 : left.compareTo(right));
+            if (result != 0) {
+                return order.isAscending() ? result : -result;
+            }
+        }
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> sortValue(String property, Long id, LocalDateTime orderTime, OrderStatus status,
+                                                BigDecimal totalPrice, String invoiceNumber) {
+        Comparable<?> value = switch (property) {
+            case "id" -> id;
+            case "orderTime" -> orderTime;
+            case "status" -> status != null ? status.name() : null; // Stored as the name, so sorted as text
+            case "totalPrice" -> totalPrice;
+            case "invoiceNumber" -> invoiceNumber;
+            default -> throw new IllegalArgumentException("Unsupported sort property: " + property);
+        };
+        return (Comparable<Object>) value;
+    }
+
+    private Page<ArchivedOrder> findArchived(Long tableId, OrderStatus status, Pageable pageable) {
+        if (tableId != null && status != null) {
+            return archivedOrderRepository.findByTableIdAndStatus(tableId, status, pageable);
+        } else if (tableId != null) {
+            return archivedOrderRepository.findByTableId(tableId, pageable);
+        } else if (status != null) {
+            return archivedOrderRepository.findByStatus(status, pageable);
+        }
+        return archivedOrderRepository.findAll(pageable);
     }
 
     // --- THIS METHOD IS NOW ENHANCED ---
@@ -131,30 +277,82 @@ public class OrderService {
         log.info("Updating order status for ID {} to {}", orderId, newStatus);
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + orderId));
+        OrderStatus previousStatus = order.getStatus();
+        // Completing takes the next gapless invoice number; a voided order must not consume one
+        if (previousStatus == OrderStatus.CANCELLED && newStatus == OrderStatus.COMPLETED) {
+            throw new InvalidRequestException("A cancelled order cannot be completed.");
+        }
         order.setStatus(newStatus);
+        // Staff closing an open tab directly bill it just as the customer's request-bill would
+        if (previousStatus == OrderStatus.OPEN && (newStatus == OrderStatus.AWAITING_PAYMENT || newStatus == OrderStatus.COMPLETED)) {
+            billService.freeze(order);
+        }
+        if (newStatus == OrderStatus.COMPLETED) {
+            invoiceService.assignInvoiceNumber(order);
+        }
         Order updatedOrder = orderRepository.save(order);
+        if (previousStatus != newStatus) {
+            eventPublisher.publishEvent(OrderLifecycleEvent.of(updatedOrder, previousStatus));
+        }
         OrderResponseDTO responseDto = mapOrderToResponseDTO(updatedOrder);
 
-        // Send a WebSocket message to the customer's bill page when payment is completed offline
-        if (newStatus == OrderStatus.COMPLETED) {
-            webSocketService.sendOrderStatusUpdate(updatedOrder.getPublicTrackingId(), responseDto);
+        // Tell the customer's pages and the staff bill list; the bill page moves on when payment is completed offline
+        if (previousStatus != newStatus) {
+            publishStatusChange(updatedOrder, previousStatus, responseDto);
         }
 
         return responseDto;
     }
 
+    /**
+     * Relays an order's new status (and its invoice number, once assigned) to the customer's pages after commit,
+     * and updates the staff bill list when the order enters or leaves AWAITING_PAYMENT.
+     * Shared by staff status updates and confirmed payments, so both paths tell everyone the same way.
+     */
+    public void publishStatusChange(Order order, OrderStatus previousStatus) {
+        publishStatusChange(order, previousStatus, null);
+    }
+
+    private void publishStatusChange(Order order, OrderStatus previousStatus, OrderResponseDTO mapped) {
+        List<OrderChangeDTO> changes = new ArrayList<>(2);
+        changes.add(OrderChangeDTO.order(OrderChangeDTO.ORDER_STATUS, order.getStatus()));
+        if (order.getInvoiceNumber() != null) {
+            changes.add(OrderChangeDTO.order(OrderChangeDTO.INVOICE_NUMBER, order.getInvoiceNumber()));
+        }
+        eventPublisher.publishEvent(new OrderChangesEvent(order.getPublicTrackingId(), order.getId(), changes));
+        // Staff bill list: entries come and go with AWAITING_PAYMENT
+        if (previousStatus == OrderStatus.AWAITING_PAYMENT || order.getStatus() == OrderStatus.AWAITING_PAYMENT) {
+            OrderResponseDTO dto = mapped != null ? mapped : mapOrderToResponseDTO(order);
+            eventPublisher.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_BILLS, dto.getId(), dto));
+        }
+    }
+
     // --- THIS METHOD IS NOW ENHANCED ---
     public OrderItemResponseDTO updateOrderItemStatus(Long itemId, OrderItemStatus newStatus) {
         log.info("Updating order item status for ID {} to {}", itemId, newStatus);
         OrderItem item = orderItemRepository.findById(itemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order item not found with ID: " + itemId));
-        item.setItemStatus(newStatus);
+        OrderItemStatus previousStatus = item.getItemStatus();
+        if (previousStatus == newStatus) {
+            // A repeated tap must not re-stamp the item's timings or feed the prep-time and queue stats twice
+            return mapOrderItemToResponseDTO(item);
+        }
+        item.transitionTo(newStatus, LocalDateTime.now());
         OrderItem updatedItem = orderItemRepository.save(item);
+        eventPublisher.publishEvent(OrderItemStatusEvent.of(updatedItem, previousStatus));
         OrderItemResponseDTO responseDto = mapOrderItemToResponseDTO(updatedItem);
 
-        // Send a WebSocket message to the customer's menu page with the updated item
-        String publicTrackingId = updatedItem.getOrder().getPublicTrackingId();
-        webSocketService.sendOrderStatusUpdate(publicTrackingId, responseDto);
+        // Tell the customer's menu page the item's new status (relayed after commit)
+        Order order = updatedItem.getOrder();
+        eventPublisher.publishEvent(new OrderChangesEvent(order.getPublicTrackingId(), order.getId(), List.of(
+                OrderChangeDTO.item(OrderChangeDTO.ITEM_STATUS, updatedItem.getId(), responseDto.getDishName(), newStatus))));
+
+        // Kitchen and pickup screens keep items whose status belongs to them and drop the rest
+        KitchenOrderItemDTO staffDto = mapItemToKitchenDTO(updatedItem);
+        eventPublisher.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_KITCHEN, updatedItem.getId(), staffDto));
+        if (previousStatus == OrderItemStatus.READY || newStatus == OrderItemStatus.READY) {
+            eventPublisher.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_READY, updatedItem.getId(), staffDto));
+        }
 
         return responseDto;
     }
@@ -166,7 +364,11 @@ public class OrderService {
         }
         order.setStatus(OrderStatus.AWAITING_PAYMENT);
         Order updated = orderRepository.save(order);
-        return mapOrderToResponseDTO(updated);
+        billService.freeze(updated); // From here on the bill is read from the snapshot, not the items
+        eventPublisher.publishEvent(OrderLifecycleEvent.of(updated, OrderStatus.OPEN));
+        OrderResponseDTO responseDto = mapOrderToResponseDTO(updated);
+        eventPublisher.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_BILLS, responseDto.getId(), responseDto));
+        return responseDto;
     }
 
     public List<KitchenOrderItemDTO> getKitchenOrders() {
@@ -175,12 +377,6 @@ public class OrderService {
         ).stream().map(this::mapItemToKitchenDTO).collect(Collectors.toList());
     }
 
-    public void toggleAssistanceRequest(Long tableId, boolean requested) {
-        RestaurantTable table = tableRepository.findById(tableId).orElseThrow(() -> new ResourceNotFoundException("Table not found with ID: " + tableId));
-        table.setAssistanceRequested(requested);
-        tableRepository.save(table);
-    }
-
     @Transactional(readOnly = true)
     public ServiceTasksDTO getServiceTasks() {
         // ... your existing getServiceTasks logic is correct ...
@@ -208,10 +404,57 @@ public class OrderService {
         dto.setStatus(order.getStatus());
         dto.setTotalPrice(order.getTotalPrice());
         dto.setNotes(order.getNotes());
+        dto.setInvoiceNumber(order.getInvoiceNumber());
         dto.setItems(order.getItems().stream().map(this::mapOrderItemToResponseDTO).collect(Collectors.toList()));
         return dto;
     }
 
+    private OrderResponseDTO mapArchivedOrderToResponseDTO(ArchivedOrder order) {
+        OrderResponseDTO dto = new OrderResponseDTO();
+        dto.setId(order.getId());
+        dto.setPublicTrackingId(order.getPublicTrackingId());
+        dto.setTableId(order.getTableId());
+        dto.setTableNumber(order.getTableNumber());
+        dto.setOrderTime(order.getOrderTime());
+        dto.setStatus(order.getStatus());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setNotes(order.getNotes());
+        dto.setInvoiceNumber(order.getInvoiceNumber());
+        dto.setItems(order.getItems().stream().map(item -> {
+            OrderItemResponseDTO itemDto = new OrderItemResponseDTO();
+            itemDto.setId(item.getId());
+            itemDto.setDishId(item.getDishId());
+            itemDto.setDishName(item.getDishName());
+            itemDto.setQuantity(item.getQuantity());
+            itemDto.setPrice(item.getPrice());
+            itemDto.setLineItemTotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            itemDto.setItemStatus(item.getItemStatus());
+            return itemDto;
+        }).collect(Collectors.toList()));
+        return dto;
+    }
+
+    private CustomerOrderStatusDto mapArchivedOrderToCustomerStatusDTO(ArchivedOrder order) {
+        CustomerOrderStatusDto dto = new CustomerOrderStatusDto();
+        dto.setInternalOrderId(order.getId());
+        dto.setPublicTrackingId(order.getPublicTrackingId());
+        dto.setStatus(order.getStatus());
+        dto.setOrderTime(order.getOrderTime());
+        dto.setTotalPrice(order.getTotalPrice());
+        dto.setInvoiceNumber(order.getInvoiceNumber());
+        dto.setItems(order.getItems().stream()
+                .map(item -> new CustomerOrderStatusDto.OrderItemSimpleDto(
+                        item.getDishName(),
+                        item.getQuantity(),
+                        item.getPrice(),
+                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())),
+                        item.getId(),
+                        item.getItemStatus()
+                ))
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
     private CustomerOrderStatusDto mapOrderToCustomerStatusDTO(Order order) {
         CustomerOrderStatusDto dto = new CustomerOrderStatusDto();
         dto.setInternalOrderId(order.getId());
@@ -219,12 +462,15 @@ public class OrderService {
         dto.setStatus(order.getStatus());
         dto.setOrderTime(order.getOrderTime());
         dto.setTotalPrice(order.getTotalPrice());
+        dto.setInvoiceNumber(order.getInvoiceNumber());
         dto.setItems(order.getItems().stream()
                 .map(item -> new CustomerOrderStatusDto.OrderItemSimpleDto(
                         item.getDish().getName(),
                         item.getQuantity(),
                         item.getPrice(), // The price of a single item
-                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())) // The calculated total for the line
+                        item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())), // The calculated total for the line
+                        item.getId(),
+                        item.getItemStatus()
                 ))
                 .collect(Collectors.toList()));
         return dto;
@@ -266,7 +512,7 @@ public class OrderService {
         dto.setCapacity(table.getCapacity());
         dto.setStatus(table.getStatus());
         dto.setQrCodeIdentifier(table.getQrCodeIdentifier());
-        // Do not map the assistance requested flag if it's not in the DTO, or add it if needed.
+        dto.setAssistanceRequested(table.isAssistanceRequested()); // Same shape as TableService's assistance updates
         return dto;
     }
 }
\ No newline at end of file
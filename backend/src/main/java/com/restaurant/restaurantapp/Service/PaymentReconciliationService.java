@@ -0,0 +1,201 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.OrderPaymentRow;
+import com.restaurant.restaurantapp.DTO.PaymentDiscrepancyDTO;
+import com.restaurant.restaurantapp.DTO.ReconciliationReportDTO;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.model.DiscrepancyType;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.payment.PaymentGateway;
+import com.restaurant.restaurantapp.payment.PaymentProviderBulkhead;
+import com.restaurant.restaurantapp.payment.ProviderSettlement;
+import com.restaurant.restaurantapp.payment.SettlementPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * End-of-day check of our orders against what the payment provider actually captured.
+ * The provider's settlement export is loaded into a compact map keyed by provider order id (the build side),
+ * then the orders paid that day are streamed through a server-side cursor and probed against it one row at a time,
+ * so no order entities are ever held in memory. Settlements left in the map had no matching order.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    private final OrderRepository orderRepository;
+    private final PaymentGateway paymentGateway;
+    private final PaymentProviderBulkhead providerBulkhead;
+    private final TransactionTemplate readTransaction;
+    private final int pageSize;
+    private final int maxReportedDiscrepancies;
+
+    // Latest report per business date, for the admin endpoint.
+    private final Map<LocalDate, ReconciliationReportDTO> reports = new ConcurrentHashMap<>();
+
+    public PaymentReconciliationService(OrderRepository orderRepository,
+                                        PaymentGateway paymentGateway,
+                                        PaymentProviderBulkhead providerBulkhead,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${payment.reconciliation.page-size:100}") int pageSize,
+                                        @Value("${payment.reconciliation.max-reported-discrepancies:1000}") int maxReportedDiscrepancies) {
+        this.orderRepository = orderRepository;
+        this.paymentGateway = paymentGateway;
+        this.providerBulkhead = providerBulkhead;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.pageSize = pageSize;
+        this.maxReportedDiscrepancies = maxReportedDiscrepancies;
+    }
+
+    @Scheduled(cron = "${payment.reconciliation.cron:0 30 3 * * *}")
+    public void reconcileYesterday() {
+        ReconciliationReportDTO report = reconcile(LocalDate.now().minusDays(1));
+        if (report.getDiscrepancyCount() > 0) {
+            log.warn("Payment reconciliation for {} found {} discrepancy(ies).", report.getBusinessDate(), report.getDiscrepancyCount());
+        }
+    }
+
+    public ReconciliationReportDTO getReport(LocalDate businessDate) {
+        return reports.get(businessDate);
+    }
+
+    /**
+     * Reconciles one business day and stores the report. Provider pages are fetched before any
+     * transaction is opened; the DB side is a single read-only cursor.
+     */
+    public ReconciliationReportDTO reconcile(LocalDate businessDate) {
+        ReportBuilder report = new ReportBuilder(businessDate);
+
+        // Build side: provider order id -> what was captured for it.
+        Map<String, SettledPayment> settled = new HashMap<>();
+        for (int skip = 0; ; skip += pageSize) {
+            int offset = skip;
+            SettlementPage page = providerBulkhead.call("fetchSettlements",
+                    () -> paymentGateway.fetchSettlements(businessDate, offset, pageSize));
+            for (ProviderSettlement settlement : page.getSettlements()) {
+                report.settlementsScanned++;
+                if (settlement.getProviderOrderId() == null) {
+                    report.add(DiscrepancyType.SETTLEMENT_WITHOUT_ORDER, null, null, settlement.getProviderPaymentId(),
+                            null, settlement.getAmountInPaise(), "Capture is not linked to a provider order.");
+                    continue;
+                }
+                SettledPayment previous = settled.putIfAbsent(settlement.getProviderOrderId(),
+                        new SettledPayment(settlement.getProviderPaymentId(), settlement.getAmountInPaise()));
+                if (previous != null) {
+                    report.add(DiscrepancyType.DUPLICATE_SETTLEMENT, null, settlement.getProviderOrderId(), settlement.getProviderPaymentId(),
+                            previous.amountInPaise, settlement.getAmountInPaise(), "Provider order also captured as " + previous.paymentId + ".");
+                }
+            }
+            if (!page.isHasMore()) {
+                break;
+            }
+        }
+
+        // Probe side: stream the orders paid that day (plus open bills) and match each one as it goes by.
+        LocalDateTime start = businessDate.atStartOfDay();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<OrderPaymentRow> rows = orderRepository.streamPaymentRows(start, start.plusDays(1))) {
+                rows.forEach(row -> probe(row, settled, report));
+            }
+        });
+
+        // Whatever is left was captured for a provider order none of the day's orders is linked to.
+        settled.forEach((providerOrderId, payment) -> report.add(DiscrepancyType.SETTLEMENT_WITHOUT_ORDER, null, providerOrderId,
+                payment.paymentId, null, payment.amountInPaise, "No order paid on this business date is linked to the provider order."));
+
+        ReconciliationReportDTO result = report.build();
+        reports.put(businessDate, result);
+        log.info("Payment reconciliation for {}: {} order(s), {} settlement(s), {} matched, {} discrepancy(ies).", businessDate,
+                result.getOrdersScanned(), result.getSettlementsScanned(), result.getMatched(), result.getDiscrepancyCount());
+        return result;
+    }
+
+    private void probe(OrderPaymentRow row, Map<String, SettledPayment> settled, ReportBuilder report) {
+        report.ordersScanned++;
+        long expected = row.getBilledAmountInPaise() != null ? row.getBilledAmountInPaise()
+                : row.getTotalPrice().multiply(new BigDecimal("100")).longValue();
+        SettledPayment payment = row.getRazorpayOrderId() == null ? null : settled.remove(row.getRazorpayOrderId());
+
+        if (payment == null) {
+            // Completed orders without a payment id were settled at the counter; nothing to match.
+            if (row.getStatus() == OrderStatus.COMPLETED && row.getRazorpayPaymentId() != null) {
+                report.add(DiscrepancyType.COMPLETED_WITHOUT_SETTLEMENT, row.getOrderId(), row.getRazorpayOrderId(),
+                        row.getRazorpayPaymentId(), expected, null, "Provider has no capture for this order.");
+            }
+            return;
+        }
+        boolean clean = true;
+        if (row.getStatus() == OrderStatus.AWAITING_PAYMENT) {
+            report.add(DiscrepancyType.PAID_BUT_AWAITING_PAYMENT, row.getOrderId(), row.getRazorpayOrderId(),
+                    payment.paymentId, expected, payment.amountInPaise, "Captured by the provider but the order was never completed.");
+            clean = false;
+        } else if (row.getRazorpayPaymentId() != null && !row.getRazorpayPaymentId().equals(payment.paymentId)) {
+            report.add(DiscrepancyType.PAYMENT_ID_MISMATCH, row.getOrderId(), row.getRazorpayOrderId(),
+                    payment.paymentId, expected, payment.amountInPaise, "Order records payment " + row.getRazorpayPaymentId() + ".");
+            clean = false;
+        }
+        if (payment.amountInPaise != expected) {
+            report.add(DiscrepancyType.AMOUNT_MISMATCH, row.getOrderId(), row.getRazorpayOrderId(),
+                    payment.paymentId, expected, payment.amountInPaise, "Captured amount differs from the order total.");
+            clean = false;
+        }
+        if (clean) {
+            report.matched++;
+        }
+    }
+
+    private static final class SettledPayment {
+        private final String paymentId;
+        private final long amountInPaise;
+
+        private SettledPayment(String paymentId, long amountInPaise) {
+            this.paymentId = paymentId;
+            this.amountInPaise = amountInPaise;
+        }
+    }
+
+    // Counts everything but keeps at most maxReportedDiscrepancies rows, so a bad day can't blow up the heap.
+    private final class ReportBuilder {
+        private final LocalDate businessDate;
+        private final List<PaymentDiscrepancyDTO> discrepancies = new ArrayList<>();
+        private long ordersScanned;
+        private long settlementsScanned;
+        private long matched;
+        private long discrepancyCount;
+
+        private ReportBuilder(LocalDate businessDate) {
+            this.businessDate = businessDate;
+        }
+
+        private void add(DiscrepancyType type, Long orderId, String razorpayOrderId, String razorpayPaymentId,
+                         Long expectedAmountInPaise, Long settledAmountInPaise, String detail) {
+            discrepancyCount++;
+            if (discrepancies.size() < maxReportedDiscrepancies) {
+                discrepancies.add(new PaymentDiscrepancyDTO(type, orderId, razorpayOrderId, razorpayPaymentId,
+                        expectedAmountInPaise, settledAmountInPaise, detail));
+            }
+        }
+
+        private ReconciliationReportDTO build() {
+            return new ReconciliationReportDTO(businessDate, LocalDateTime.now(), ordersScanned, settlementsScanned,
+                    matched, discrepancyCount, discrepancies);
+        }
+    }
+}
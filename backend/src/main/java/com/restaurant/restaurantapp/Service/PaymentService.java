@@ -6,86 +6,179 @@ import com.restaurant.restaurantapp.DTO.PaymentVerificationRequestDTO;
 import com.restaurant.restaurantapp.DTO.PaymentVerificationResponseDto;
 import com.restaurant.restaurantapp.Exception.InvalidRequestException;
 import com.restaurant.restaurantapp.Exception.ResourceNotFoundException;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
 import com.restaurant.restaurantapp.model.Order;
 import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.ProviderOrder;
+import com.restaurant.restaurantapp.payment.PaymentGateway;
+import com.restaurant.restaurantapp.payment.PaymentProviderBulkhead;
+import com.restaurant.restaurantapp.Repository.BillSnapshotRepository;
 import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.ProviderOrderRepository;
 
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import com.razorpay.Utils;
-
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class PaymentService {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
 
-    @Value("${razorpay.key.id}")
-    private String razorpayKeyId;
-
-    @Value("${razorpay.key.secret}")
-    private String razorpayKeySecret;
-
-    private RazorpayClient razorpayClient;
     private final OrderRepository orderRepository;
+    private final BillSnapshotRepository billSnapshotRepository;
+    private final ProviderOrderRepository providerOrderRepository;
+    private final InvoiceService invoiceService;
+    private final OrderService orderService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentGateway paymentGateway;
+    private final PaymentProviderBulkhead providerBulkhead;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    // Latest provider order per application order, and creations currently in flight per (order, amount).
+    private final Map<Long, PaymentIntent> activeIntents = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<PaymentIntent>> pendingIntents = new ConcurrentHashMap<>();
 
     public PaymentService(OrderRepository orderRepository,
-                          @Value("${razorpay.key.id}") String rzpKeyId,
-                          @Value("${razorpay.key.secret}") String rzpKeySecret) {
+                          BillSnapshotRepository billSnapshotRepository,
+                          ProviderOrderRepository providerOrderRepository,
+                          InvoiceService invoiceService,
+                          OrderService orderService,
+                          ApplicationEventPublisher eventPublisher,
+                          PaymentGateway paymentGateway,
+                          PaymentProviderBulkhead providerBulkhead,
+                          PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
-        this.razorpayKeyId = rzpKeyId;
-        this.razorpayKeySecret = rzpKeySecret;
-        try {
-            this.razorpayClient = new RazorpayClient(this.razorpayKeyId, this.razorpayKeySecret);
-            log.info("SUCCESS: Razorpay client initialized successfully.");
-        } catch (RazorpayException e) {
-            log.error("ERROR: Initializing Razorpay client failed: {}", e.getMessage(), e);
-            throw new RuntimeException("Could not initialize Razorpay client", e);
-        }
+        this.billSnapshotRepository = billSnapshotRepository;
+        this.providerOrderRepository = providerOrderRepository;
+        this.invoiceService = invoiceService;
+        this.orderService = orderService;
+        this.eventPublisher = eventPublisher;
+        this.paymentGateway = paymentGateway;
+        this.providerBulkhead = providerBulkhead;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
-    public CreateRazorpayOrderResponseDTO createRazorpayOrder(CreateRazorpayOrderRequestDTO requestDTO) throws RazorpayException {
+    /**
+     * Returns the payment intent (provider order) for a bill.
+     * An intent already created for the same order and amount is reused, and concurrent
+     * requests for the same order and amount share a single provider call, so double taps
+     * and page reloads don't multiply provider orders.
+     * A new intent is created in three steps, so no DB connection is held while we wait on
+     * the network: a short read of the authoritative amount, the provider call on the
+     * bulkhead pool outside any transaction, then a short write linking the ids.
+     */
+    public CreateRazorpayOrderResponseDTO createRazorpayOrder(CreateRazorpayOrderRequestDTO requestDTO) {
         log.info("Attempting to create Razorpay order for application receipt ID: {}, Amount: {} {}",
                 requestDTO.getReceipt(), requestDTO.getAmount(), requestDTO.getCurrency());
 
         Long internalAppOrderId = Long.parseLong(requestDTO.getReceipt());
 
-        Order appOrder = orderRepository.findById(internalAppOrderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order with ID " + internalAppOrderId + " not found in our system."));
-        
-        // --- LOGIC CHANGE FOR NEW MODEL ---
-        // Verify that the order is actually awaiting payment before creating a Razorpay order.
-        if (appOrder.getStatus() != OrderStatus.AWAITING_PAYMENT) {
-            throw new InvalidRequestException("Cannot create payment for an order that is not awaiting payment. Current status: " + appOrder.getStatus());
-        }
-        // ------------------------------------
+        // 1. Short read: validate the order and take the amount from the bill frozen at request-bill time.
+        PaymentTarget target = readTransaction.execute(status -> {
+            Order appOrder = orderRepository.findById(internalAppOrderId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order with ID " + internalAppOrderId + " not found in our system."));
+            // Verify that the order is actually awaiting payment before creating a Razorpay order.
+            if (appOrder.getStatus() != OrderStatus.AWAITING_PAYMENT) {
+                throw new InvalidRequestException("Cannot create payment for an order that is not awaiting payment. Current status: " + appOrder.getStatus());
+            }
+            return billSnapshotRepository.findFirstByOrderIdOrderByIdDesc(internalAppOrderId)
+                    .map(bill -> new PaymentTarget(bill.getAmountInPaise(), bill.getCurrency(), appOrder.getRazorpayOrderId()))
+                    .orElseGet(() -> new PaymentTarget(amountDueInPaise(appOrder), "INR", appOrder.getRazorpayOrderId()));
+        });
 
-        BigDecimal authoritativeAmount = appOrder.getTotalPrice();
-        BigDecimal amountInPaiseBigDecimal = authoritativeAmount.multiply(new BigDecimal("100"));
-        long amountInPaiseLong = amountInPaiseBigDecimal.longValue();
+        PaymentIntent intent = activeIntents.get(internalAppOrderId);
+        if (intent != null && intent.amountInPaise == target.amountInPaise && intent.razorpayOrderId.equals(target.linkedRazorpayOrderId)) {
+            log.info("Reusing Razorpay Order ID {} for application order ID {}", intent.razorpayOrderId, internalAppOrderId);
+        } else {
+            intent = createIntentOnce(internalAppOrderId, target.amountInPaise, target.currency, intent);
+        }
+        return new CreateRazorpayOrderResponseDTO(intent.razorpayOrderId, paymentGateway.getKeyId(), intent.amountInPaise, intent.currency);
+    }
 
-        JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", amountInPaiseLong);
-        orderRequest.put("currency", "INR");
-        orderRequest.put("receipt", appOrder.getId().toString());
+    // Single flight: the first caller for (order, amount) creates the intent, everyone else waits for its result.
+    // seen is the intent the caller found unusable before getting here.
+    private PaymentIntent createIntentOnce(Long internalAppOrderId, long amountInPaise, String currency, PaymentIntent seen) {
+        String key = internalAppOrderId + ":" + amountInPaise;
+        CompletableFuture<PaymentIntent> mine = new CompletableFuture<>();
+        CompletableFuture<PaymentIntent> inFlight = pendingIntents.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            log.info("Joining in-flight Razorpay order creation for application order ID {}", internalAppOrderId);
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            // A flight for this amount may have finished (and left the map) between our check and putIfAbsent
+            PaymentIntent latest = activeIntents.get(internalAppOrderId);
+            if (latest != null && latest != seen && latest.amountInPaise == amountInPaise && latest.currency.equals(currency)) {
+                log.info("Reusing just-created Razorpay Order ID {} for application order ID {}", latest.razorpayOrderId, internalAppOrderId);
+                mine.complete(latest);
+                return latest;
+            }
+            PaymentIntent intent = createIntent(internalAppOrderId, amountInPaise, currency);
+            activeIntents.put(internalAppOrderId, intent);
+            mine.complete(intent);
+            return intent;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingIntents.remove(key, mine);
+        }
+    }
 
-        com.razorpay.Order razorpayApiOrder = this.razorpayClient.orders.create(orderRequest);
-        String rzpOrderId = razorpayApiOrder.get("id").toString();
+    private PaymentIntent createIntent(Long internalAppOrderId, long amountInPaise, String currency) {
+        // 2. Provider call: no transaction, bounded pool, timeout and circuit breaker.
+        String rzpOrderId = providerBulkhead.call("createOrder",
+                () -> paymentGateway.createOrder(amountInPaise, currency, internalAppOrderId.toString()));
         log.info("Razorpay Order created successfully. Razorpay Order ID: {}", rzpOrderId);
 
-        appOrder.setRazorpayOrderId(rzpOrderId);
-        orderRepository.save(appOrder);
-        log.info("Linked Razorpay Order ID {} to application order ID {}", rzpOrderId, appOrder.getId());
+        // 3. Short write: link the provider order, unless the order moved on while we were waiting.
+        Integer linked = writeTransaction.execute(status -> {
+            int rows = orderRepository.linkRazorpayOrderIfAwaitingPayment(internalAppOrderId, rzpOrderId);
+            if (rows > 0) {
+                ProviderOrder record = new ProviderOrder();
+                record.setProviderOrderId(rzpOrderId);
+                record.setOrderId(internalAppOrderId);
+                record.setAmountInPaise(amountInPaise);
+                providerOrderRepository.save(record);
+            }
+            return rows;
+        });
+        if (linked == null || linked == 0) {
+            throw new InvalidRequestException("Order " + internalAppOrderId + " is no longer awaiting payment.");
+        }
+        log.info("Linked Razorpay Order ID {} to application order ID {}", rzpOrderId, internalAppOrderId);
+        return new PaymentIntent(rzpOrderId, amountInPaise, currency);
+    }
 
-        return new CreateRazorpayOrderResponseDTO(rzpOrderId, this.razorpayKeyId, amountInPaiseLong, "INR");
+    // Intents are only reusable while the bill is open for payment.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        if (event.getNewStatus() != OrderStatus.AWAITING_PAYMENT) {
+            activeIntents.remove(event.getOrderId());
+        }
     }
 
     @Transactional
@@ -94,51 +187,23 @@ public class PaymentService {
                 verificationRequest.getRazorpay_order_id(), verificationRequest.getInternalOrderId());
 
         try {
-            JSONObject attributes = new JSONObject();
-            attributes.put("razorpay_order_id", verificationRequest.getRazorpay_order_id());
-            attributes.put("razorpay_payment_id", verificationRequest.getRazorpay_payment_id());
-            attributes.put("razorpay_signature", verificationRequest.getRazorpay_signature());
-
-            boolean isSignatureValid = Utils.verifyPaymentSignature(attributes, this.razorpayKeySecret);
+            boolean isSignatureValid = paymentGateway.verifyPaymentSignature(
+                    verificationRequest.getRazorpay_order_id(),
+                    verificationRequest.getRazorpay_payment_id(),
+                    verificationRequest.getRazorpay_signature());
 
             if (isSignatureValid) {
                 log.info("Razorpay payment signature VERIFIED for Razorpay Order ID: {}", verificationRequest.getRazorpay_order_id());
 
                 Order appOrder = orderRepository.findById(verificationRequest.getInternalOrderId())
                         .orElseThrow(() -> new ResourceNotFoundException("Order with ID " + verificationRequest.getInternalOrderId() + " not found."));
-
-                // --- LOGIC CHANGE FOR NEW MODEL ---
-                OrderStatus newStatus = OrderStatus.COMPLETED; // The new final status after payment.
-                String message = "Payment verified and order is now complete.";
-
-                // Only update if the order is actually awaiting payment.
-                if (appOrder.getStatus() == OrderStatus.AWAITING_PAYMENT) {
-                    appOrder.setStatus(newStatus);
-                    appOrder.setRazorpayPaymentId(verificationRequest.getRazorpay_payment_id());
-                    orderRepository.save(appOrder);
-                    log.info("Internal Order ID {} status updated to {}. Razorpay Payment ID: {}",
-                            appOrder.getId(), newStatus, verificationRequest.getRazorpay_payment_id());
-                } else {
-                    log.warn("Internal Order ID {} already in status {}. No status update made, but payment considered verified.",
-                            appOrder.getId(), appOrder.getStatus());
-                    newStatus = appOrder.getStatus(); // Reflect the current (already completed) status
-                    message = "Payment already processed for this order.";
-                }
-                // ------------------------------------
-
-                return new PaymentVerificationResponseDto(
-                        true,
-                        message,
-                        appOrder.getId(),
-                        appOrder.getPublicTrackingId(),
-                        newStatus // Return the final status, which is COMPLETED
-                );
+                return completePayment(appOrder, verificationRequest.getRazorpay_payment_id());
             } else {
                 log.error("Razorpay payment signature INVALID for Razorpay Order ID: {}. Internal Order ID: {}",
                         verificationRequest.getRazorpay_order_id(), verificationRequest.getInternalOrderId());
                 return new PaymentVerificationResponseDto(false, "Payment verification failed. Signature mismatch.", verificationRequest.getInternalOrderId(), null, null);
             }
-        } catch (RazorpayException | ResourceNotFoundException | InvalidRequestException e) {
+        } catch (ResourceNotFoundException | InvalidRequestException e) {
             log.error("Exception during payment verification: {}", e.getMessage());
             return new PaymentVerificationResponseDto(false, e.getMessage(), verificationRequest.getInternalOrderId(), null, null);
         } catch (Exception e) {
@@ -146,4 +211,99 @@ public class PaymentService {
             return new PaymentVerificationResponseDto(false, "An unexpected error occurred during verification.", verificationRequest.getInternalOrderId(), null, null);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies a payment the provider reported through a webhook, looking the order up by its provider order id.
+     * The customer may have paid an intent that was replaced afterwards (a reload after a restart, a re-issued
+     * bill); that payment is applied to its order as long as it was for the amount the order now owes.
+     */
+    @Transactional
+    public PaymentVerificationResponseDto completePaymentForProviderOrder(String razorpayOrderId, String razorpayPaymentId) {
+        Optional<Order> linked = orderRepository.findByRazorpayOrderId(razorpayOrderId);
+        if (linked.isPresent()) {
+            return completePayment(linked.get(), razorpayPaymentId);
+        }
+        ProviderOrder superseded = providerOrderRepository.findByProviderOrderId(razorpayOrderId)
+                .orElseThrow(() -> new ResourceNotFoundException("No order linked to Razorpay Order ID " + razorpayOrderId + "."));
+        Order appOrder = orderRepository.findById(superseded.getOrderId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order with ID " + superseded.getOrderId() + " not found."));
+        if (appOrder.getStatus() == OrderStatus.AWAITING_PAYMENT) {
+            long due = billSnapshotRepository.findFirstByOrderIdOrderByIdDesc(appOrder.getId())
+                    .map(bill -> bill.getAmountInPaise())
+                    .orElseGet(() -> amountDueInPaise(appOrder));
+            if (superseded.getAmountInPaise() != due) {
+                throw new InvalidRequestException("Razorpay Order ID " + razorpayOrderId + " was for " + superseded.getAmountInPaise()
+                        + " paise but order " + appOrder.getId() + " now owes " + due + " paise.");
+            }
+        }
+        log.info("Razorpay Order ID {} was replaced by {} on order ID {}; applying its payment to the order.",
+                razorpayOrderId, appOrder.getRazorpayOrderId(), appOrder.getId());
+        return completePayment(appOrder, razorpayPaymentId);
+    }
+
+    // Billed before snapshots existed: the running total is what is owed.
+    private static long amountDueInPaise(Order appOrder) {
+        return appOrder.getTotalPrice().multiply(new BigDecimal("100")).longValue();
+    }
+
+    // The one state transition for a confirmed payment, shared by the browser callback and the webhook worker.
+    // Idempotent: an order that already left AWAITING_PAYMENT is left as it is.
+    private PaymentVerificationResponseDto completePayment(Order appOrder, String razorpayPaymentId) {
+        OrderStatus newStatus = OrderStatus.COMPLETED; // The new final status after payment.
+        String message = "Payment verified and order is now complete.";
+
+        // Only update if the order is actually awaiting payment.
+        if (appOrder.getStatus() == OrderStatus.AWAITING_PAYMENT) {
+            appOrder.setStatus(newStatus);
+            appOrder.setRazorpayPaymentId(razorpayPaymentId);
+            appOrder.setPaidAt(LocalDateTime.now());
+            invoiceService.assignInvoiceNumber(appOrder);
+            orderRepository.save(appOrder);
+            eventPublisher.publishEvent(OrderLifecycleEvent.of(appOrder, OrderStatus.AWAITING_PAYMENT));
+            orderService.publishStatusChange(appOrder, OrderStatus.AWAITING_PAYMENT); // Bill page moves on, staff bill list drops it
+            log.info("Internal Order ID {} status updated to {}. Razorpay Payment ID: {}",
+                    appOrder.getId(), newStatus, razorpayPaymentId);
+        } else {
+            if (appOrder.getRazorpayPaymentId() != null && !appOrder.getRazorpayPaymentId().equals(razorpayPaymentId)) {
+                log.warn("Internal Order ID {} was paid with {} but also reported paid with {}.",
+                        appOrder.getId(), appOrder.getRazorpayPaymentId(), razorpayPaymentId);
+            }
+            log.warn("Internal Order ID {} already in status {}. No status update made, but payment considered verified.",
+                    appOrder.getId(), appOrder.getStatus());
+            newStatus = appOrder.getStatus(); // Reflect the current (already completed) status
+            message = "Payment already processed for this order.";
+        }
+
+        return new PaymentVerificationResponseDto(
+                true,
+                message,
+                appOrder.getId(),
+                appOrder.getPublicTrackingId(),
+                newStatus
+        );
+    }
+
+    private static final class PaymentTarget {
+        private final long amountInPaise;
+        private final String currency;
+        private final String linkedRazorpayOrderId;
+
+        private PaymentTarget(long amountInPaise, String currency, String linkedRazorpayOrderId) {
+            this.amountInPaise = amountInPaise;
+            this.currency = currency;
+            this.linkedRazorpayOrderId = linkedRazorpayOrderId;
+        }
+    }
+
+    private static final class PaymentIntent {
+        private final String razorpayOrderId;
+        private final long amountInPaise;
+        private final String currency;
+
+        private PaymentIntent(String razorpayOrderId, long amountInPaise, String currency) {
+            this.razorpayOrderId = razorpayOrderId;
+            this.amountInPaise = amountInPaise;
+            this.currency = currency;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.PaymentWebhookEventRepository;
+import com.restaurant.restaurantapp.model.PaymentWebhookEvent;
+import com.restaurant.restaurantapp.model.WebhookEventStatus;
+import com.restaurant.restaurantapp.payment.PaymentGateway;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Receives payment webhooks from the provider and applies them in the background.
+ * The endpoint only verifies the signature and appends the event to the inbox table, so the
+ * provider gets its acknowledgement straight away; a scheduled worker drains the inbox in
+ * batches and completes orders through the same idempotent transition as the browser callback.
+ */
+@Service
+public class PaymentWebhookService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentWebhookService.class);
+
+    // Both mean the money is ours; anything else is stored for the record and ignored.
+    private static final Set<String> PAYMENT_COMPLETED_EVENTS = Set.of("payment.captured", "order.paid");
+
+    private final PaymentWebhookEventRepository inboxRepository;
+    private final PaymentService paymentService;
+    private final PaymentGateway paymentGateway;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public PaymentWebhookService(PaymentWebhookEventRepository inboxRepository,
+                                 PaymentService paymentService,
+                                 PaymentGateway paymentGateway,
+                                 @Value("${payment.webhook.batch-size:100}") int batchSize,
+                                 @Value("${payment.webhook.max-attempts:5}") int maxAttempts) {
+        this.inboxRepository = inboxRepository;
+        this.paymentService = paymentService;
+        this.paymentGateway = paymentGateway;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Verifies and stores one webhook delivery. Redeliveries of an event already in the inbox are accepted without a new row.
+     *
+     * @throws InvalidRequestException if the signature does not match or the body is not a webhook payload
+     */
+    public void ingest(String payload, String signature, String eventIdHeader) {
+        if (!paymentGateway.verifyWebhookSignature(payload, signature)) {
+            throw new InvalidRequestException("Webhook signature verification failed.");
+        }
+
+        PaymentWebhookEvent event = new PaymentWebhookEvent();
+        try {
+            JSONObject body = new JSONObject(payload);
+            event.setEventType(body.getString("event"));
+            JSONObject payment = body.optJSONObject("payload") == null ? null
+                    : body.getJSONObject("payload").optJSONObject("payment");
+            if (payment != null && payment.optJSONObject("entity") != null) {
+                JSONObject entity = payment.getJSONObject("entity");
+                event.setProviderPaymentId(entity.optString("id", null));
+                event.setProviderOrderId(entity.optString("order_id", null));
+            }
+        } catch (JSONException e) {
+            throw new InvalidRequestException("Malformed webhook payload: " + e.getMessage());
+        }
+        // The provider sends a unique id per event; fall back to type + payment for deliveries without it.
+        String eventId = eventIdHeader != null && !eventIdHeader.isBlank() ? eventIdHeader
+                : event.getEventType() + ":" + event.getProviderPaymentId();
+        event.setEventId(eventId);
+        event.setPayload(payload);
+
+        if (inboxRepository.existsByEventId(eventId)) {
+            log.info("Webhook event {} already in inbox, acknowledging redelivery.", eventId);
+            return;
+        }
+        try {
+            inboxRepository.saveAndFlush(event);
+            log.info("Stored webhook event {} ({}) for Razorpay Order ID {}", eventId, event.getEventType(), event.getProviderOrderId());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent redelivery won the insert; the event is stored either way.
+            log.info("Webhook event {} stored concurrently, acknowledging redelivery.", eventId);
+        }
+    }
+
+    /**
+     * Drains one batch of pending inbox events. Events for the same payment are applied once.
+     */
+    @Scheduled(fixedDelayString = "${payment.webhook.poll-ms:2000}")
+    public void drainInbox() {
+        List<PaymentWebhookEvent> batch = inboxRepository.findByStatusOrderByIdAsc(WebhookEventStatus.PENDING, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<PaymentWebhookEvent>> byPayment = new LinkedHashMap<>();
+        for (PaymentWebhookEvent event : batch) {
+            if (!PAYMENT_COMPLETED_EVENTS.contains(event.getEventType())
+                    || event.getProviderPaymentId() == null || event.getProviderOrderId() == null) {
+                markDone(event, WebhookEventStatus.IGNORED);
+                continue;
+            }
+            byPayment.computeIfAbsent(event.getProviderPaymentId(), id -> new ArrayList<>()).add(event);
+        }
+
+        for (Map.Entry<String, List<PaymentWebhookEvent>> entry : byPayment.entrySet()) {
+            List<PaymentWebhookEvent> events = entry.getValue();
+            try {
+                paymentService.completePaymentForProviderOrder(events.get(0).getProviderOrderId(), entry.getKey());
+                events.forEach(event -> markDone(event, WebhookEventStatus.PROCESSED));
+            } catch (RuntimeException e) {
+                log.error("Applying webhook for Razorpay Payment ID {} failed: {}", entry.getKey(), e.getMessage());
+                for (PaymentWebhookEvent event : events) {
+                    event.setAttempts(event.getAttempts() + 1);
+                    event.setLastError(e.getMessage() == null ? e.getClass().getSimpleName()
+                            : e.getMessage().substring(0, Math.min(500, e.getMessage().length())));
+                    if (event.getAttempts() >= maxAttempts) {
+                        markDone(event, WebhookEventStatus.FAILED);
+                    }
+                }
+            }
+        }
+        inboxRepository.saveAll(batch);
+        log.info("Drained {} webhook event(s) covering {} payment(s).", batch.size(), byPayment.size());
+    }
+
+    private void markDone(PaymentWebhookEvent event, WebhookEventStatus status) {
+        event.setStatus(status);
+        event.setProcessedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,232 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.PrepTimeStatsDTO;
+import com.restaurant.restaurantapp.Repository.PrepTimeHistogramRepository;
+import com.restaurant.restaurantapp.event.OrderItemStatusEvent;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import com.restaurant.restaurantapp.model.PrepStage;
+import com.restaurant.restaurantapp.model.PrepTimeHistogram;
+import com.restaurant.restaurantapp.model.PrepTimeScope;
+import com.restaurant.restaurantapp.util.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kitchen prep-time percentiles per dish and per station (menu category), for each {@link PrepStage}.
+ * Every stage an item completes is recorded into a fixed-size in-memory histogram, so percentiles
+ * are read straight from memory without scanning item history. Changed histograms are written to
+ * prep_time_histograms periodically and on shutdown, and loaded back on startup.
+ */
+@Service
+public class PrepTimeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PrepTimeService.class);
+
+    // Anything slower than this is recorded as this; a dish left on the pass overnight shouldn't skew the buckets.
+    private static final long HIGHEST_TRACKABLE_MILLIS = Duration.ofHours(12).toMillis();
+
+    private final PrepTimeHistogramRepository histogramRepository;
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+    public PrepTimeService(PrepTimeHistogramRepository histogramRepository) {
+        this.histogramRepository = histogramRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHistograms() {
+        List<PrepTimeHistogram> saved = histogramRepository.findAll();
+        for (PrepTimeHistogram row : saved) {
+            Series restored = new Series(row.getName(), LatencyHistogram.decode(row.getBuckets(), HIGHEST_TRACKABLE_MILLIS));
+            restored.entityId = row.getId();
+            series.put(new SeriesKey(row.getScope(), row.getScopeId(), row.getStage()), restored);
+        }
+        log.info("Loaded {} prep-time histogram(s).", saved.size());
+    }
+
+    // After commit, so a rolled-back status change is never timed.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemStatusChanged(OrderItemStatusEvent event) {
+        PrepStage stage = PrepStage.completedBy(event.getPreviousStatus(), event.getNewStatus());
+        if (stage == null) {
+            return; // Skipped or reversed a stage: there is no clean duration to record
+        }
+        LocalDateTime from = stampFor(event, stage.getFrom());
+        LocalDateTime to = stampFor(event, stage.getTo());
+        if (from == null || to == null) {
+            return; // Item predates the timestamps
+        }
+        long millis = Math.max(0, Duration.between(from, to).toMillis());
+        record(new SeriesKey(PrepTimeScope.DISH, event.getDishId(), stage), event.getDishName(), millis);
+        if (event.getCategoryId() != null) {
+            record(new SeriesKey(PrepTimeScope.STATION, event.getCategoryId(), stage), event.getCategoryName(), millis);
+        }
+    }
+
+    /**
+     * Percentiles for every dish or station that has at least one timed item, ordered by name then stage.
+     */
+    public List<PrepTimeStatsDTO> getStats(PrepTimeScope scope) {
+        List<PrepTimeStatsDTO> stats = new ArrayList<>();
+        series.forEach((key, value) -> {
+            if (key.scope == scope) {
+                stats.add(value.toDto(key));
+            }
+        });
+        stats.sort(Comparator.comparing(PrepTimeStatsDTO::getName, Comparator.nullsLast(String::compareToIgnoreCase))
+                .thenComparing(PrepTimeStatsDTO::getStage));
+        return stats;
+    }
+
+    /**
+     * Median time for one stage of a dish, or null if the dish has never been timed for it.
+     */
+    public Duration getMedian(Long dishId, PrepStage stage) {
+        Series dish = series.get(new SeriesKey(PrepTimeScope.DISH, dishId, stage));
+        if (dish == null) {
+            return null;
+        }
+        synchronized (dish) {
+            return dish.histogram.getTotalCount() == 0 ? null : Duration.ofMillis(dish.histogram.getValueAtPercentile(50));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.prep-times.persist-ms:60000}", initialDelayString = "${kitchen.prep-times.persist-ms:60000}")
+    public void persistHistograms() {
+        int written = 0;
+        for (Map.Entry<SeriesKey, Series> entry : series.entrySet()) {
+            PrepTimeHistogram row;
+            Series value = entry.getValue();
+            synchronized (value) {
+                if (!value.dirty) {
+                    continue;
+                }
+                row = value.toEntity(entry.getKey());
+                value.dirty = false;
+            }
+            try {
+                PrepTimeHistogram saved = histogramRepository.save(row);
+                value.entityId = saved.getId();
+                written++;
+            } catch (RuntimeException e) {
+                synchronized (value) {
+                    value.dirty = true; // Retried on the next run
+                }
+                log.warn("Failed to persist prep-time histogram {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        if (written > 0) {
+            log.debug("Persisted {} prep-time histogram(s).", written);
+        }
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void persistOnShutdown() {
+        persistHistograms();
+    }
+
+    private void record(SeriesKey key, String name, long millis) {
+        Series target = series.computeIfAbsent(key, k -> new Series(name, new LatencyHistogram(HIGHEST_TRACKABLE_MILLIS)));
+        synchronized (target) {
+            target.histogram.record(millis);
+            target.name = name;
+            target.dirty = true;
+        }
+    }
+
+    private static LocalDateTime stampFor(OrderItemStatusEvent event, OrderItemStatus status) {
+        return switch (status) {
+            case NEEDS_PREPARATION -> event.getQueuedAt();
+            case IN_PROGRESS -> event.getStartedAt();
+            case READY -> event.getReadyAt();
+            case DELIVERED -> event.getDeliveredAt();
+        };
+    }
+
+    private static final class SeriesKey {
+        private final PrepTimeScope scope;
+        private final Long id;
+        private final PrepStage stage;
+
+        private SeriesKey(PrepTimeScope scope, Long id, PrepStage stage) {
+            this.scope = scope;
+            this.id = id;
+            this.stage = stage;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeriesKey other)) {
+                return false;
+            }
+            return scope == other.scope && id.equals(other.id) && stage == other.stage;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, id, stage);
+        }
+
+        @Override
+        public String toString() {
+            return scope + ":" + id + ":" + stage;
+        }
+    }
+
+    // Mutable state guarded by synchronizing on the Series itself.
+    private static final class Series {
+        private final LatencyHistogram histogram;
+        private String name;
+        private boolean dirty;
+        private volatile Long entityId;
+
+        private Series(String name, LatencyHistogram histogram) {
+            this.name = name;
+            this.histogram = histogram;
+        }
+
+        private PrepTimeStatsDTO toDto(SeriesKey key) {
+            synchronized (this) {
+                return new PrepTimeStatsDTO(key.scope, key.id, name, key.stage, histogram.getTotalCount(),
+                        toSeconds(histogram.getValueAtPercentile(50)),
+                        toSeconds(histogram.getValueAtPercentile(90)),
+                        toSeconds(histogram.getValueAtPercentile(99)),
+                        toSeconds(histogram.getMax()));
+            }
+        }
+
+        private PrepTimeHistogram toEntity(SeriesKey key) {
+            PrepTimeHistogram row = new PrepTimeHistogram();
+            row.setId(entityId);
+            row.setScope(key.scope);
+            row.setScopeId(key.id);
+            row.setStage(key.stage);
+            row.setName(name);
+            row.setTotalCount(histogram.getTotalCount());
+            row.setBuckets(histogram.encode());
+            row.setUpdatedAt(LocalDateTime.now());
+            return row;
+        }
+
+        private static long toSeconds(long millis) {
+            return Math.round(millis / 1000.0);
+        }
+    }
+}
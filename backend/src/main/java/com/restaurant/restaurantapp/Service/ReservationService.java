@@ -0,0 +1,472 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.AvailableTableDTO;
+import com.restaurant.restaurantapp.DTO.ReservationDTO;
+import com.restaurant.restaurantapp.DTO.ReservationRequestDTO;
+import com.restaurant.restaurantapp.DTO.WaitlistEntryDTO;
+import com.restaurant.restaurantapp.DTO.WaitlistRequestDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Exception.ResourceNotFoundException;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.ReservationRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.Repository.WaitlistEntryRepository;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.event.TableChangedEvent;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.Reservation;
+import com.restaurant.restaurantapp.model.ReservationStatus;
+import com.restaurant.restaurantapp.model.RestaurantTable;
+import com.restaurant.restaurantapp.model.WaitlistEntry;
+import com.restaurant.restaurantapp.model.WaitlistStatus;
+import com.restaurant.restaurantapp.util.IntervalTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Table reservations and the walk-in waitlist.
+ * Every table keeps its upcoming bookings in an in-memory {@link IntervalTree}, so checking
+ * a table for a (start, end) window is O(log n) and a free-table search never queries the DB.
+ * Bookings that have ended are pruned from a table's tree whenever its tab closes or one of its
+ * reservations is cancelled, so the trees only ever hold the current and coming sittings.
+ */
+@Service
+@Transactional
+public class ReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+    private final ReservationRepository reservationRepository;
+    private final WaitlistEntryRepository waitlistRepository;
+    private final RestaurantTableRepository tableRepository;
+    private final OrderRepository orderRepository;
+    private final long defaultDurationMinutes;
+
+    private final ReentrantReadWriteLock directoryLock = new ReentrantReadWriteLock();
+    private final Map<Long, TableAgenda> agendas = new HashMap<>();
+    private final TreeMap<Integer, Map<Long, TableAgenda>> agendasByCapacity = new TreeMap<>();
+    // Placeholder ids (negative, so never a reservation id) holding a slot while its reservation is saved
+    private final AtomicLong claimIds = new AtomicLong();
+
+    public ReservationService(ReservationRepository reservationRepository,
+                              WaitlistEntryRepository waitlistRepository,
+                              RestaurantTableRepository tableRepository,
+                              OrderRepository orderRepository,
+                              @Value("${reservations.default-duration-minutes:90}") long defaultDurationMinutes) {
+        this.reservationRepository = reservationRepository;
+        this.waitlistRepository = waitlistRepository;
+        this.tableRepository = tableRepository;
+        this.orderRepository = orderRepository;
+        this.defaultDurationMinutes = defaultDurationMinutes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadAgendas() {
+        List<RestaurantTable> tables = tableRepository.findAll();
+        List<Reservation> upcoming = reservationRepository.findByStatusInAndEndTimeAfter(
+                List.of(ReservationStatus.BOOKED, ReservationStatus.SEATED), LocalDateTime.now());
+
+        directoryLock.writeLock().lock();
+        try {
+            agendas.clear();
+            agendasByCapacity.clear();
+            for (RestaurantTable table : tables) {
+                putAgenda(new TableAgenda(table.getId(), table.getTableNumber(), table.getCapacity()));
+            }
+            for (Reservation reservation : upcoming) {
+                TableAgenda agenda = agendas.get(reservation.getRestaurantTable().getId());
+                if (agenda != null) {
+                    agenda.tree.insert(toMinute(reservation.getStartTime()), toMinute(reservation.getEndTime()), reservation.getId());
+                }
+            }
+        } finally {
+            directoryLock.writeLock().unlock();
+        }
+        log.info("Loaded {} upcoming reservation(s) across {} table(s).", upcoming.size(), tables.size());
+    }
+
+    // --- Reservations ---
+
+    @Transactional(readOnly = true)
+    public List<AvailableTableDTO> findAvailableTables(int partySize, LocalDateTime start, LocalDateTime end) {
+        requirePartySize(partySize);
+        LocalDateTime effectiveEnd = resolveEnd(start, end);
+        long from = toMinute(start);
+        long to = toMinute(effectiveEnd);
+        List<AvailableTableDTO> result = new ArrayList<>();
+        for (TableAgenda agenda : candidateAgendas(partySize)) {
+            synchronized (agenda.tree) {
+                if (!agenda.tree.overlaps(from, to)) {
+                    result.add(new AvailableTableDTO(agenda.tableId, agenda.tableNumber, agenda.capacity));
+                }
+            }
+        }
+        return result;
+    }
+
+    public ReservationDTO createReservation(ReservationRequestDTO request) {
+        requirePartySize(request.getPartySize());
+        LocalDateTime end = resolveEnd(request.getStartTime(), request.getEndTime());
+        log.info("Creating reservation for {} ({} guests) from {} to {}", request.getCustomerName(), request.getPartySize(), request.getStartTime(), end);
+
+        List<TableAgenda> candidates;
+        if (request.getTableId() != null) {
+            TableAgenda agenda = findAgenda(request.getTableId());
+            if (agenda.capacity < request.getPartySize()) {
+                throw new InvalidRequestException("Table " + agenda.tableNumber + " only seats " + agenda.capacity + ".");
+            }
+            candidates = List.of(agenda);
+        } else {
+            candidates = candidateAgendas(request.getPartySize());
+        }
+
+        long from = toMinute(request.getStartTime());
+        long to = toMinute(end);
+        for (TableAgenda agenda : candidates) {
+            // Claim the slot under the table's lock, so two hosts can't take it, but save outside it,
+            // so availability lookups for the table don't wait on the database.
+            long claim = -claimIds.incrementAndGet();
+            synchronized (agenda.tree) {
+                if (agenda.tree.overlaps(from, to)) {
+                    continue;
+                }
+                agenda.tree.insert(from, to, claim);
+            }
+            Reservation saved;
+            try {
+                Reservation reservation = new Reservation();
+                reservation.setRestaurantTable(tableRepository.getReferenceById(agenda.tableId));
+                reservation.setCustomerName(request.getCustomerName());
+                reservation.setContactPhone(request.getContactPhone());
+                reservation.setPartySize(request.getPartySize());
+                reservation.setStartTime(request.getStartTime());
+                reservation.setEndTime(end);
+                reservation.setStatus(ReservationStatus.BOOKED);
+                saved = reservationRepository.save(reservation);
+            } catch (RuntimeException e) {
+                synchronized (agenda.tree) {
+                    agenda.tree.remove(from, claim);
+                }
+                throw e;
+            }
+            synchronized (agenda.tree) {
+                agenda.tree.remove(from, claim);
+                agenda.tree.insert(from, to, saved.getId());
+            }
+            onRollback(() -> {
+                synchronized (agenda.tree) {
+                    agenda.tree.remove(from, saved.getId());
+                }
+            });
+            return mapReservationToDTO(saved, agenda.tableNumber);
+        }
+        throw new InvalidRequestException(request.getTableId() != null
+                ? "The requested table is already booked for that time."
+                : "No table for " + request.getPartySize() + " is free for that time.");
+    }
+
+    public ReservationDTO cancelReservation(Long reservationId) {
+        log.info("Cancelling reservation ID: {}", reservationId);
+        Reservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with ID: " + reservationId));
+        if (reservation.getStatus() != ReservationStatus.BOOKED) {
+            throw new InvalidRequestException("Only BOOKED reservations can be cancelled.");
+        }
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        Reservation saved = reservationRepository.save(reservation);
+
+        TableAgenda agenda = findAgenda(reservation.getRestaurantTable().getId());
+        long from = toMinute(reservation.getStartTime());
+        long to = toMinute(reservation.getEndTime());
+        synchronized (agenda.tree) {
+            agenda.tree.remove(from, reservationId);
+            pruneEnded(agenda, LocalDateTime.now());
+        }
+        onRollback(() -> {
+            synchronized (agenda.tree) {
+                agenda.tree.insert(from, to, reservationId);
+            }
+        });
+        return mapReservationToDTO(saved, agenda.tableNumber);
+    }
+
+    /**
+     * The party has arrived. Their slot stays held until their tab is closed.
+     */
+    public ReservationDTO seatReservation(Long reservationId) {
+        log.info("Seating reservation ID: {}", reservationId);
+        Reservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with ID: " + reservationId));
+        if (reservation.getStatus() != ReservationStatus.BOOKED) {
+            throw new InvalidRequestException("Only BOOKED reservations can be seated.");
+        }
+        reservation.setStatus(ReservationStatus.SEATED);
+        Reservation saved = reservationRepository.save(reservation);
+        return mapReservationToDTO(saved, findAgenda(reservation.getRestaurantTable().getId()).tableNumber);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsForDay(LocalDate day) {
+        return reservationRepository.findByStartTimeGreaterThanEqualAndStartTimeLessThanOrderByStartTimeAsc(
+                        day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                .stream()
+                .map(r -> mapReservationToDTO(r, findAgenda(r.getRestaurantTable().getId()).tableNumber))
+                .collect(Collectors.toList());
+    }
+
+    // --- Waitlist ---
+
+    public WaitlistEntryDTO addToWaitlist(WaitlistRequestDTO request) {
+        log.info("Adding {} ({} guests) to the waitlist", request.getCustomerName(), request.getPartySize());
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setCustomerName(request.getCustomerName());
+        entry.setContactPhone(request.getContactPhone());
+        entry.setPartySize(request.getPartySize());
+        entry.setStatus(WaitlistStatus.WAITING);
+        return mapWaitlistEntryToDTO(waitlistRepository.save(entry));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistEntryDTO> getWaitlist(WaitlistStatus status) {
+        return waitlistRepository.findByStatusOrderByRequestedAtAsc(status).stream()
+                .map(this::mapWaitlistEntryToDTO)
+                .collect(Collectors.toList());
+    }
+
+    public void cancelWaitlistEntry(Long entryId) {
+        log.info("Removing waitlist entry ID: {}", entryId);
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with ID: " + entryId));
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        waitlistRepository.save(entry);
+    }
+
+    /**
+     * When a tab is closed its table is free again: hand it to the longest-waiting party that fits,
+     * unless a reservation is due on that table within the next sitting. A table can have a new tab
+     * open before the previous bill is settled; then it isn't free yet and nothing changes.
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        if (event.getTableId() == null
+                || (event.getNewStatus() != OrderStatus.COMPLETED && event.getNewStatus() != OrderStatus.CANCELLED)) {
+            return;
+        }
+        TableAgenda agenda;
+        directoryLock.readLock().lock();
+        try {
+            agenda = agendas.get(event.getTableId());
+        } finally {
+            directoryLock.readLock().unlock();
+        }
+        if (agenda == null) {
+            return;
+        }
+        if (orderRepository.existsByRestaurantTableIdAndStatusIn(event.getTableId(), List.of(OrderStatus.OPEN, OrderStatus.AWAITING_PAYMENT))) {
+            log.info("Order on table {} closed but another is still active; waitlist not promoted.", agenda.tableNumber);
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // The seated party has left: release what is left of their slot
+        List<Reservation> seated = reservationRepository.findByRestaurantTableIdAndStatus(event.getTableId(), ReservationStatus.SEATED);
+        for (Reservation reservation : seated) {
+            reservation.setStatus(ReservationStatus.COMPLETED);
+            reservationRepository.save(reservation);
+        }
+        synchronized (agenda.tree) {
+            for (Reservation reservation : seated) {
+                agenda.tree.remove(toMinute(reservation.getStartTime()), reservation.getId());
+            }
+            pruneEnded(agenda, now);
+            if (agenda.tree.overlaps(toMinute(now), toMinute(now.plusMinutes(defaultDurationMinutes)))) {
+                log.info("Table {} freed but is reserved soon; waitlist not promoted.", agenda.tableNumber);
+                return;
+            }
+        }
+        waitlistRepository.findFirstByStatusAndPartySizeLessThanEqualOrderByRequestedAtAsc(WaitlistStatus.WAITING, agenda.capacity)
+                .ifPresent(entry -> {
+                    entry.setStatus(WaitlistStatus.PROMOTED);
+                    entry.setAssignedTable(tableRepository.getReferenceById(agenda.tableId));
+                    entry.setPromotedAt(now);
+                    waitlistRepository.save(entry);
+                    log.info("Promoted waitlist entry {} ({} guests) to table {}", entry.getId(), entry.getPartySize(), agenda.tableNumber);
+                });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        directoryLock.writeLock().lock();
+        try {
+            TableAgenda previous = removeAgenda(event.getTableId());
+            if (event.isDeleted()) {
+                return;
+            }
+            TableAgenda agenda = previous != null
+                    ? new TableAgenda(event.getTableId(), event.getTableNumber(), event.getCapacity(), previous.tree)
+                    : new TableAgenda(event.getTableId(), event.getTableNumber(), event.getCapacity());
+            putAgenda(agenda);
+        } finally {
+            directoryLock.writeLock().unlock();
+        }
+    }
+
+    // --- Helpers ---
+
+    private List<TableAgenda> candidateAgendas(int partySize) {
+        List<TableAgenda> result = new ArrayList<>();
+        directoryLock.readLock().lock();
+        try {
+            // Smallest fitting tables first, so big tables stay free for big parties.
+            for (Map<Long, TableAgenda> bucket : agendasByCapacity.tailMap(partySize, true).values()) {
+                result.addAll(bucket.values());
+            }
+        } finally {
+            directoryLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private TableAgenda findAgenda(Long tableId) {
+        directoryLock.readLock().lock();
+        try {
+            TableAgenda agenda = agendas.get(tableId);
+            if (agenda == null) {
+                throw new ResourceNotFoundException("Table not found with ID: " + tableId);
+            }
+            return agenda;
+        } finally {
+            directoryLock.readLock().unlock();
+        }
+    }
+
+    private void putAgenda(TableAgenda agenda) {
+        agendas.put(agenda.tableId, agenda);
+        agendasByCapacity.computeIfAbsent(agenda.capacity, c -> new TreeMap<>()).put(agenda.tableId, agenda);
+    }
+
+    private TableAgenda removeAgenda(Long tableId) {
+        TableAgenda agenda = agendas.remove(tableId);
+        if (agenda != null) {
+            Map<Long, TableAgenda> bucket = agendasByCapacity.get(agenda.capacity);
+            bucket.remove(tableId);
+            if (bucket.isEmpty()) {
+                agendasByCapacity.remove(agenda.capacity);
+            }
+        }
+        return agenda;
+    }
+
+    // Caller holds the tree's lock.
+    private static void pruneEnded(TableAgenda agenda, LocalDateTime now) {
+        int pruned = agenda.tree.removeEndedBy(toMinute(now));
+        if (pruned > 0) {
+            log.debug("Pruned {} past reservation(s) from table {}", pruned, agenda.tableNumber);
+        }
+    }
+
+    private static void requirePartySize(int partySize) {
+        if (partySize <= 0) {
+            throw new InvalidRequestException("Party size must be positive.");
+        }
+    }
+
+    private LocalDateTime resolveEnd(LocalDateTime start, LocalDateTime end) {
+        if (start == null) {
+            throw new InvalidRequestException("Start time is required.");
+        }
+        LocalDateTime effectiveEnd = end != null ? end : start.plusMinutes(defaultDurationMinutes);
+        if (!effectiveEnd.isAfter(start)) {
+            throw new InvalidRequestException("End time must be after start time.");
+        }
+        return effectiveEnd;
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    // --- Mappers ---
+
+    private ReservationDTO mapReservationToDTO(Reservation reservation, String tableNumber) {
+        return new ReservationDTO(
+                reservation.getId(),
+                reservation.getRestaurantTable().getId(),
+                tableNumber,
+                reservation.getCustomerName(),
+                reservation.getContactPhone(),
+                reservation.getPartySize(),
+                reservation.getStartTime(),
+                reservation.getEndTime(),
+                reservation.getStatus());
+    }
+
+    private WaitlistEntryDTO mapWaitlistEntryToDTO(WaitlistEntry entry) {
+        RestaurantTable table = entry.getAssignedTable();
+        return new WaitlistEntryDTO(
+                entry.getId(),
+                entry.getCustomerName(),
+                entry.getContactPhone(),
+                entry.getPartySize(),
+                entry.getRequestedAt(),
+                entry.getStatus(),
+                table != null ? table.getId() : null,
+                table != null ? table.getTableNumber() : null,
+                entry.getPromotedAt());
+    }
+
+    private static final class TableAgenda {
+        private final Long tableId;
+        private final String tableNumber;
+        private final int capacity;
+        private final IntervalTree tree;
+
+        private TableAgenda(Long tableId, String tableNumber, int capacity) {
+            this(tableId, tableNumber, capacity, new IntervalTree());
+        }
+
+        private TableAgenda(Long tableId, String tableNumber, int capacity, IntervalTree tree) {
+            this.tableId = tableId;
+            this.tableNumber = tableNumber;
+            this.capacity = capacity;
+            this.tree = tree;
+        }
+    }
+}
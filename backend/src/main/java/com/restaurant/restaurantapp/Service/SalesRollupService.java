@@ -0,0 +1,177 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.CategorySalesDTO;
+import com.restaurant.restaurantapp.DTO.DishSalesDTO;
+import com.restaurant.restaurantapp.DTO.RollupBackfillStatusDTO;
+import com.restaurant.restaurantapp.DTO.SalesBucketDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.SalesRollupHourlyDishRepository;
+import com.restaurant.restaurantapp.Repository.SalesRollupHourlyRepository;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hourly sales rollups for historical dashboards: one row per hour and one per hour x dish.
+ * Rows are bumped with a native upsert inside the transaction that completes an order, so the
+ * rollup commits or rolls back with the order itself. A backfill job rebuilds past days one day
+ * per transaction. Range queries then read at most one row per hour (per dish) in the range.
+ * Revenue is the order's billed total (tax included), spread over its dishes in proportion to their
+ * line totals and rounded so that each order's dish revenues add up to its total. Live upserts hold a shared advisory lock on the order's day and a rebuild holds it
+ * exclusively, so a backfill never deletes or recounts a day while a completion is being applied to it.
+ */
+@Service
+public class SalesRollupService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+    private static final int DAY_LOCK_NAMESPACE = 0x524f4c4c; // "ROLL"
+
+    private final SalesRollupHourlyRepository hourlyRepository;
+    private final SalesRollupHourlyDishRepository hourlyDishRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final int maxRangeDays;
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sales-rollup-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private RollupBackfillStatusDTO backfillStatus = new RollupBackfillStatusDTO();
+
+    public SalesRollupService(SalesRollupHourlyRepository hourlyRepository,
+                              SalesRollupHourlyDishRepository hourlyDishRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${sales.rollup.max-range-days:400}") int maxRangeDays) {
+        this.hourlyRepository = hourlyRepository;
+        this.hourlyDishRepository = hourlyDishRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    // Runs inside the completing transaction, just before it commits.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        int sign;
+        if (event.getNewStatus() == OrderStatus.COMPLETED && event.getPreviousStatus() != OrderStatus.COMPLETED) {
+            sign = 1;
+        } else if (event.getPreviousStatus() == OrderStatus.COMPLETED && event.getNewStatus() != OrderStatus.COMPLETED) {
+            sign = -1; // A completed order was reopened or cancelled: take its sales back out
+        } else {
+            return;
+        }
+        if (event.getOrderTime() != null) {
+            hourlyRepository.lockDayShared(DAY_LOCK_NAMESPACE, dayKey(event.getOrderTime().toLocalDate()));
+        }
+        hourlyRepository.applyOrder(event.getOrderId(), sign);
+        hourlyDishRepository.applyOrder(event.getOrderId(), sign);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SalesBucketDTO> getHourlySales(LocalDateTime start, LocalDateTime end) {
+        validateRange(start, end);
+        return hourlyRepository.findBuckets(start, end);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DishSalesDTO> getDishSales(LocalDateTime start, LocalDateTime end) {
+        validateRange(start, end);
+        return hourlyDishRepository.sumByDish(start, end);
+    }
+
+    @Transactional(readOnly = true)
+    public List<CategorySalesDTO> getCategorySales(LocalDateTime start, LocalDateTime end) {
+        validateRange(start, end);
+        return hourlyDishRepository.sumByCategory(start, end);
+    }
+
+    /**
+     * Starts rebuilding the rollups for [from, to] in the background, one day per transaction.
+     * A failed or interrupted run can be resumed from {@code lastCompletedDay + 1}.
+     */
+    public synchronized RollupBackfillStatusDTO startBackfill(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException("Backfill end date must not be before its start date.");
+        }
+        if (backfillStatus.isRunning()) {
+            throw new InvalidRequestException("A rollup backfill is already running.");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        backfillStatus = new RollupBackfillStatusDTO(true, from, to, null, 0, days, LocalDateTime.now(), null, null);
+        backfillExecutor.submit(() -> runBackfill(from, to));
+        return getBackfillStatus();
+    }
+
+    public synchronized RollupBackfillStatusDTO getBackfillStatus() {
+        RollupBackfillStatusDTO status = backfillStatus;
+        return new RollupBackfillStatusDTO(status.isRunning(), status.getFrom(), status.getTo(), status.getLastCompletedDay(),
+                status.getDaysDone(), status.getDaysTotal(), status.getStartedAt(), status.getFinishedAt(), status.getError());
+    }
+
+    private void runBackfill(LocalDate from, LocalDate to) {
+        log.info("Sales rollup backfill started for {} .. {}", from, to);
+        try {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                LocalDateTime start = day.atStartOfDay();
+                LocalDateTime end = start.plusDays(1);
+                LocalDate lockedDay = day;
+                Integer hours = chunkTransaction.execute(status -> {
+                    hourlyRepository.lockDay(DAY_LOCK_NAMESPACE, dayKey(lockedDay));
+                    hourlyDishRepository.deleteRange(start, end);
+                    hourlyRepository.deleteRange(start, end);
+                    hourlyDishRepository.rebuildRange(start, end);
+                    return hourlyRepository.rebuildRange(start, end);
+                });
+                synchronized (this) {
+                    backfillStatus.setLastCompletedDay(day);
+                    backfillStatus.setDaysDone(backfillStatus.getDaysDone() + 1);
+                }
+                log.debug("Rollup rebuilt for {} ({} hour bucket(s))", day, hours);
+            }
+            log.info("Sales rollup backfill finished for {} .. {}", from, to);
+        } catch (RuntimeException e) {
+            log.error("Sales rollup backfill failed: {}", e.getMessage(), e);
+            synchronized (this) {
+                backfillStatus.setError(e.getMessage());
+            }
+        } finally {
+            synchronized (this) {
+                backfillStatus.setRunning(false);
+                backfillStatus.setFinishedAt(LocalDateTime.now());
+            }
+        }
+    }
+
+    private static int dayKey(LocalDate day) {
+        return (int) day.toEpochDay();
+    }
+
+    private void validateRange(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new InvalidRequestException("Range end must be after its start.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > maxRangeDays) {
+            throw new InvalidRequestException("Range must not exceed " + maxRangeDays + " days.");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        backfillExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,287 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.SeatSuggestionDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.event.TableChangedEvent;
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.RestaurantTable;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Suggests free tables for a walk-in party.
+ * Free tables are kept in memory, bucketed by capacity, and the index is kept
+ * up to date from order lifecycle events, so a suggestion never touches the database.
+ * A table may carry more than one active order (a bill awaiting payment and a new tab), so each
+ * slot remembers which orders are active on it and is free only when there are none.
+ */
+@Service
+@RequiredArgsConstructor
+public class SeatAssignmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAssignmentService.class);
+
+    // At most this many adjacent tables are pushed together for one party.
+    private static final int MAX_COMBINED_TABLES = 3;
+    // "T12" -> zone "T", position 12. Tables in the same zone with consecutive positions are adjacent.
+    private static final Pattern TABLE_NUMBER_PATTERN = Pattern.compile("^(.*?)(\\d+)$");
+
+    private final RestaurantTableRepository tableRepository;
+    private final OrderRepository orderRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, TableSlot> slots = new HashMap<>();
+    private final TreeMap<Integer, TreeSet<Long>> freeByCapacity = new TreeMap<>();
+    private final Map<String, TreeMap<Integer, Long>> layout = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        List<RestaurantTable> tables;
+        List<Order> activeOrders;
+        // Read under the write lock: an event whose commit the queries missed waits and is applied on
+        // top, and one they already saw is applied again harmlessly.
+        lock.writeLock().lock();
+        try {
+            tables = tableRepository.findByCapacityGreaterThanEqual(1);
+            activeOrders = orderRepository.findByStatusIn(List.of(OrderStatus.OPEN, OrderStatus.AWAITING_PAYMENT));
+            slots.clear();
+            freeByCapacity.clear();
+            layout.clear();
+            for (RestaurantTable table : tables) {
+                putSlot(new TableSlot(table.getId(), table.getTableNumber(), table.getCapacity()));
+            }
+            for (Order order : activeOrders) {
+                if (order.getRestaurantTable() != null) {
+                    trackOrder(order.getRestaurantTable().getId(), order.getId(), true);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Seat index built with {} table(s) and {} active order(s).", tables.size(), activeOrders.size());
+    }
+
+    /**
+     * Returns the best free seating options for a party, tightest fit first.
+     * Single tables come from the capacity buckets; combinations are built from runs of
+     * free, adjacent tables in the same zone.
+     */
+    public List<SeatSuggestionDTO> suggestSeating(int partySize, int limit) {
+        if (partySize <= 0) {
+            throw new InvalidRequestException("Party size must be positive.");
+        }
+        if (limit <= 0) {
+            throw new InvalidRequestException("Limit must be positive.");
+        }
+
+        List<SeatSuggestionDTO> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Single tables: walk the buckets upwards from the party size, smallest fit first.
+            for (TreeSet<Long> bucket : freeByCapacity.tailMap(partySize, true).values()) {
+                for (Long tableId : bucket) {
+                    candidates.add(toSuggestion(List.of(slots.get(tableId)), partySize));
+                    if (candidates.size() >= limit) {
+                        break;
+                    }
+                }
+                if (candidates.size() >= limit) {
+                    break;
+                }
+            }
+            // Combinations: only worth it when the runs contain tables too small on their own.
+            for (TreeMap<Integer, Long> zone : layout.values()) {
+                collectCombinations(zone, partySize, candidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        candidates.sort(Comparator.comparingInt(SeatSuggestionDTO::getSpareSeats)
+                .thenComparingInt(s -> s.getTableIds().size())
+                .thenComparing(s -> s.getTableNumbers().get(0)));
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderLifecycle(OrderLifecycleEvent event) {
+        if (event.getTableId() == null) {
+            return;
+        }
+        boolean active = event.getNewStatus() == OrderStatus.OPEN || event.getNewStatus() == OrderStatus.AWAITING_PAYMENT;
+        lock.writeLock().lock();
+        try {
+            trackOrder(event.getTableId(), event.getOrderId(), active);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTableChanged(TableChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            TableSlot previous = removeSlot(event.getTableId());
+            if (event.isDeleted() || event.getCapacity() < 1) {
+                return;
+            }
+            TableSlot slot = new TableSlot(event.getTableId(), event.getTableNumber(), event.getCapacity());
+            if (previous != null) {
+                slot.activeOrders.addAll(previous.activeOrders);
+            }
+            putSlot(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Index maintenance (callers hold the write lock) ---
+
+    private void putSlot(TableSlot slot) {
+        slots.put(slot.id, slot);
+        if (slot.isFree()) {
+            freeByCapacity.computeIfAbsent(slot.capacity, c -> new TreeSet<>()).add(slot.id);
+        }
+        if (slot.zone != null) {
+            layout.computeIfAbsent(slot.zone, z -> new TreeMap<>()).put(slot.position, slot.id);
+        }
+    }
+
+    private TableSlot removeSlot(Long tableId) {
+        TableSlot slot = slots.remove(tableId);
+        if (slot == null) {
+            return null;
+        }
+        removeFromBucket(slot);
+        if (slot.zone != null) {
+            TreeMap<Integer, Long> zone = layout.get(slot.zone);
+            if (zone != null && tableId.equals(zone.get(slot.position))) {
+                zone.remove(slot.position);
+                if (zone.isEmpty()) {
+                    layout.remove(slot.zone);
+                }
+            }
+        }
+        return slot;
+    }
+
+    // Adds or removes the order from the table's active set; only the first and last one move the slot.
+    private void trackOrder(Long tableId, Long orderId, boolean active) {
+        TableSlot slot = slots.get(tableId);
+        if (slot == null) {
+            return;
+        }
+        boolean wasFree = slot.isFree();
+        if (active) {
+            slot.activeOrders.add(orderId);
+        } else {
+            slot.activeOrders.remove(orderId);
+        }
+        if (wasFree && !slot.isFree()) {
+            removeFromBucket(slot);
+        } else if (!wasFree && slot.isFree()) {
+            freeByCapacity.computeIfAbsent(slot.capacity, c -> new TreeSet<>()).add(slot.id);
+        }
+    }
+
+    private void removeFromBucket(TableSlot slot) {
+        TreeSet<Long> bucket = freeByCapacity.get(slot.capacity);
+        if (bucket != null) {
+            bucket.remove(slot.id);
+            if (bucket.isEmpty()) {
+                freeByCapacity.remove(slot.capacity);
+            }
+        }
+    }
+
+    // --- Suggestion helpers (callers hold the read lock) ---
+
+    private void collectCombinations(TreeMap<Integer, Long> zone, int partySize, List<SeatSuggestionDTO> candidates) {
+        for (Map.Entry<Integer, Long> start : zone.entrySet()) {
+            List<TableSlot> run = new ArrayList<>(MAX_COMBINED_TABLES);
+            int seats = 0;
+            int position = start.getKey();
+            NavigableMap<Integer, Long> rest = zone.tailMap(position, true);
+            for (Map.Entry<Integer, Long> next : rest.entrySet()) {
+                TableSlot slot = slots.get(next.getValue());
+                if (next.getKey() != position || !slot.isFree() || run.size() == MAX_COMBINED_TABLES) {
+                    break;
+                }
+                run.add(slot);
+                seats += slot.capacity;
+                position++;
+                if (seats >= partySize) {
+                    // Skip runs whose last table would seat the party on its own; that single is already a candidate.
+                    if (run.size() > 1 && slot.capacity < partySize) {
+                        candidates.add(toSuggestion(run, partySize));
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private SeatSuggestionDTO toSuggestion(List<TableSlot> tables, int partySize) {
+        List<Long> ids = new ArrayList<>(tables.size());
+        List<String> numbers = new ArrayList<>(tables.size());
+        int capacity = 0;
+        for (TableSlot slot : tables) {
+            ids.add(slot.id);
+            numbers.add(slot.tableNumber);
+            capacity += slot.capacity;
+        }
+        return new SeatSuggestionDTO(ids, numbers, capacity, capacity - partySize, tables.size() > 1);
+    }
+
+    private static final class TableSlot {
+        private final Long id;
+        private final String tableNumber;
+        private final int capacity;
+        private final String zone;
+        private final int position;
+        private final Set<Long> activeOrders = new HashSet<>(); // Orders OPEN or AWAITING_PAYMENT here
+
+        private TableSlot(Long id, String tableNumber, int capacity) {
+            this.id = id;
+            this.tableNumber = tableNumber;
+            this.capacity = capacity;
+            Matcher matcher = TABLE_NUMBER_PATTERN.matcher(tableNumber == null ? "" : tableNumber.trim());
+            if (matcher.matches() && matcher.group(2).length() < 9) {
+                this.zone = matcher.group(1).toUpperCase();
+                this.position = Integer.parseInt(matcher.group(2));
+            } else {
+                this.zone = null;
+                this.position = -1;
+            }
+        }
+
+        private boolean isFree() {
+            return activeOrders.isEmpty();
+        }
+    }
+}
@@ -6,11 +6,14 @@ import com.restaurant.restaurantapp.Exception.DuplicateResourceException;
 import com.restaurant.restaurantapp.Exception.InvalidRequestException;
 import com.restaurant.restaurantapp.Exception.ResourceNotFoundException;
 import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.event.StaffUpdateEvent;
+import com.restaurant.restaurantapp.event.TableChangedEvent;
 import com.restaurant.restaurantapp.model.RestaurantTable;
 import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +32,7 @@ public class TableService {
     private static final Logger log = LoggerFactory.getLogger(TableService.class);
     private final RestaurantTableRepository tableRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Optional<TableDTO> findTableByQrCode(String qrCodeIdentifier) {
@@ -77,6 +81,7 @@ public class TableService {
         table.setQrCodeIdentifier(qrCode);
         try {
             RestaurantTable savedTable = tableRepository.save(table);
+            publishTableChanged(savedTable);
             return mapTableToDTO(savedTable);
         } catch (DataIntegrityViolationException e) {
             throw new InvalidRequestException("Failed to create table due to data integrity issue: " + e.getMessage());
@@ -108,6 +113,7 @@ public class TableService {
         }
         try {
             RestaurantTable updatedTable = tableRepository.save(table);
+            publishTableChanged(updatedTable);
             return mapTableToDTO(updatedTable);
         } catch (DataIntegrityViolationException e) {
             throw new InvalidRequestException("Failed to update table due to data integrity issue: " + e.getMessage());
@@ -123,6 +129,7 @@ public class TableService {
             throw new DataIntegrityViolationException("Cannot delete table: Table ID " + id + " has associated orders.");
         }
         tableRepository.deleteById(id);
+        eventPublisher.publishEvent(new TableChangedEvent(id, null, 0, true));
     }
 
     // --- NEW METHOD FOR "CALL WAITER" FEATURE ---
@@ -131,9 +138,15 @@ public class TableService {
         RestaurantTable table = tableRepository.findById(tableId)
                 .orElseThrow(() -> new ResourceNotFoundException("Table not found with ID: " + tableId));
         table.setAssistanceRequested(requested);
-        tableRepository.save(table); // No need to return anything, just save the change
+        RestaurantTable saved = tableRepository.save(table);
+        // The service portal adds or clears the table from its assistance list
+        eventPublisher.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_ASSISTANCE, saved.getId(), mapTableToDTO(saved)));
     }
     
+    private void publishTableChanged(RestaurantTable table) {
+        eventPublisher.publishEvent(new TableChangedEvent(table.getId(), table.getTableNumber(), table.getCapacity(), false));
+    }
+
     // --- Mapper ---
     private TableDTO mapTableToDTO(RestaurantTable table) {
         if (table == null) {
@@ -0,0 +1,101 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.DishDTO;
+import com.restaurant.restaurantapp.DTO.TopDishDTO;
+import com.restaurant.restaurantapp.DTO.TopDishesDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.event.OrderItemsAddedEvent;
+import com.restaurant.restaurantapp.util.SpaceSaving;
+import com.restaurant.restaurantapp.util.WindowedHeavyHitters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Live "top sellers" over the last hour and the last 24 hours, without touching order_items.
+ * Dishes added to tabs feed bounded Space-Saving sketches (12 x 5-minute buckets for the hour,
+ * 24 x 1-hour buckets for the day), so memory stays fixed however busy the restaurant is.
+ * Counts reset on restart; they are a live view, not a report (see SalesRollupService for history).
+ */
+@Service
+public class TopDishesService {
+
+    private static final Logger log = LoggerFactory.getLogger(TopDishesService.class);
+
+    private static final int DEFAULT_PUSH_LIMIT = 10;
+
+    private final WebSocketService webSocketService;
+    private final WindowedHeavyHitters lastHour;
+    private final WindowedHeavyHitters lastDay;
+    // Names as last seen on an order; bounded by the size of the menu.
+    private final Map<Long, String> dishNames = new ConcurrentHashMap<>();
+    private volatile TopDishesDTO lastPushed;
+
+    public TopDishesService(WebSocketService webSocketService,
+                            @Value("${dashboard.top-dishes.capacity:64}") int capacity) {
+        this.webSocketService = webSocketService;
+        this.lastHour = new WindowedHeavyHitters(Duration.ofHours(1).toMillis(), 12, capacity);
+        this.lastDay = new WindowedHeavyHitters(Duration.ofDays(1).toMillis(), 24, capacity);
+    }
+
+    // After commit, so items from a rolled-back request are never counted.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsAdded(OrderItemsAddedEvent event) {
+        long now = System.currentTimeMillis();
+        for (OrderItemsAddedEvent.Line line : event.getLines()) {
+            dishNames.put(line.getDishId(), line.getDishName());
+            lastHour.add(line.getDishId(), line.getQuantity(), now);
+            lastDay.add(line.getDishId(), line.getQuantity(), now);
+        }
+    }
+
+    public TopDishesDTO getTopDishes(int limit) {
+        if (limit <= 0) {
+            throw new InvalidRequestException("Limit must be positive.");
+        }
+        long now = System.currentTimeMillis();
+        return new TopDishesDTO(toDtos(lastHour.top(limit, now)), toDtos(lastDay.top(limit, now)), LocalDateTime.now());
+    }
+
+    /**
+     * Orders a menu by units sold over the last 24 hours, best sellers first; ties keep their original order.
+     */
+    public List<DishDTO> sortByPopularity(List<DishDTO> dishes) {
+        Map<Long, Long> counts = lastDay.counts(System.currentTimeMillis());
+        List<DishDTO> sorted = new ArrayList<>(dishes);
+        sorted.sort(Comparator.comparingLong((DishDTO dish) -> counts.getOrDefault(dish.getId(), 0L)).reversed());
+        return sorted;
+    }
+
+    // Pushes the widget's data to /topic/dashboard/top-dishes, only when the ranking changed.
+    @Scheduled(fixedDelayString = "${dashboard.top-dishes.push-ms:10000}")
+    public void pushTopDishes() {
+        TopDishesDTO current = getTopDishes(DEFAULT_PUSH_LIMIT);
+        TopDishesDTO previous = lastPushed;
+        if (previous != null && previous.getLastHour().equals(current.getLastHour())
+                && previous.getLast24Hours().equals(current.getLast24Hours())) {
+            return;
+        }
+        lastPushed = current;
+        webSocketService.sendDashboardUpdate("top-dishes", current);
+        log.debug("Pushed top dishes: {} in the last hour", current.getLastHour().size());
+    }
+
+    private List<TopDishDTO> toDtos(List<SpaceSaving.Entry> entries) {
+        return entries.stream()
+                .map(e -> new TopDishDTO(e.getKey(), dishNames.get(e.getKey()), e.getCount(), e.getError()))
+                .collect(Collectors.toList());
+    }
+}
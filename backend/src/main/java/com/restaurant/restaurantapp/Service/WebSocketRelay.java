@@ -0,0 +1,89 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.event.OrderChangesEvent;
+import com.restaurant.restaurantapp.event.StaffUpdateEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the services' order and staff events to WebSocketService once their transaction has
+ * committed, on a dedicated thread. Clients therefore never see a change that was rolled back, and
+ * the request thread gives its DB connection back without waiting on the broker.
+ * Updates are relayed in the order their transactions ran the after-commit callback. That is the
+ * commit order for requests handled one after another, but two transactions on the same order that
+ * commit at almost the same moment may be relayed the other way round; the next change to the order
+ * or a client re-sync corrects it, and the staff screens poll as a safety net.
+ * If the queue is full an update is dropped. A dropped order update skips a seq on the order's
+ * channel (see {@link WebSocketService#markGap}), so its clients see a gap on the next message and
+ * re-sync; the staff screens' polling picks up dropped staff updates.
+ */
+@Component
+public class WebSocketRelay implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketRelay.class);
+
+    private final WebSocketService webSocketService;
+    private final ThreadPoolExecutor executor;
+
+    public WebSocketRelay(WebSocketService webSocketService,
+                          @Value("${websocket.relay.queue-capacity:1000}") int queueCapacity) {
+        this.webSocketService = webSocketService;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ws-relay-");
+        threadFactory.setDaemon(true);
+        // One thread: updates reach the coalescing buffers in the order they were handed over, so an
+        // older item status queued earlier can't replace a newer one.
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanges(OrderChangesEvent event) {
+        if (event.getChanges().isEmpty()) {
+            return;
+        }
+        relay("order " + event.getOrderId(),
+                () -> webSocketService.publishOrderDelta(event.getPublicTrackingId(), event.getOrderId(), event.getChanges()),
+                () -> webSocketService.markGap(event.getPublicTrackingId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStaffUpdate(StaffUpdateEvent event) {
+        relay(event.getChannel() + " " + event.getEntityId(),
+                () -> webSocketService.sendStaffUpdate(event.getChannel(), event.getEntityId(), event.getPayload()),
+                () -> { });
+    }
+
+    private void relay(String what, Runnable delivery, Runnable onDropped) {
+        try {
+            executor.execute(() -> {
+                try {
+                    delivery.run();
+                } catch (RuntimeException e) {
+                    log.warn("Failed to relay WebSocket update for {}: {}", what, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("WebSocket relay queue full, dropping update for {}", what);
+            onDropped.run();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        // Let queued updates reach the coalescing buffers before WebSocketService flushes them
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,40 +1,311 @@
 // src/main/java/com/restaurant/restaurantapp/Service/WebSocketService.java
 package com.restaurant.restaurantapp.Service;
 
+import com.restaurant.restaurantapp.DTO.CustomerOrderStatusDto;
+import com.restaurant.restaurantapp.DTO.OrderChangeDTO;
+import com.restaurant.restaurantapp.DTO.OrderEtaDTO;
+import com.restaurant.restaurantapp.DTO.OrderTopicMessage;
+import com.restaurant.restaurantapp.config.PayloadFormatNegotiation;
+import com.restaurant.restaurantapp.util.CoalescingBuffer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 @Service
 public class WebSocketService {
 
     private static final Logger log = LoggerFactory.getLogger(WebSocketService.class);
 
+    // Staff channels under /topic/staff/, each mirroring one list from the kitchen or service screens.
+    public static final String STAFF_KITCHEN = "kitchen";       // KitchenOrderItemDTO, kept while NEEDS_PREPARATION or IN_PROGRESS
+    public static final String STAFF_READY = "ready";           // KitchenOrderItemDTO, kept while READY
+    public static final String STAFF_ASSISTANCE = "assistance"; // TableDTO, kept while assistanceRequested
+    public static final String STAFF_BILLS = "bills";           // OrderResponseDTO, kept while AWAITING_PAYMENT
+
     // This is Spring's magic tool for sending WebSocket messages. We inject it.
     private final SimpMessagingTemplate messagingTemplate;
+    private final PayloadFormatNegotiation payloadFormats;
+
+    // Sequences restart from 0 with every boot; clients compare epochs to notice.
+    private final long epoch = System.currentTimeMillis();
+
+    // publicTrackingId -> last seq sent and the most recent messages. Least recently used orders are
+    // forgotten beyond the limit; their next message then starts from 1 again, which clients treat as
+    // a gap and re-sync.
+    private final Map<String, Sequence> sequences;
+    private final int replaySize;
+
+    // Order and staff updates wait here for the coalescing window, so a burst of changes to one order
+    // (the kitchen bumping several items) goes out as one frame with only the latest state of each entity.
+    private final ThreadPoolTaskScheduler flushScheduler;
+    private final CoalescingBuffer<String, String, PendingOrderUpdate> orderUpdates;
+    private final CoalescingBuffer<String, Object, Object> staffUpdates;
 
     @Autowired
-    public WebSocketService(SimpMessagingTemplate messagingTemplate) {
+    public WebSocketService(SimpMessagingTemplate messagingTemplate,
+                            PayloadFormatNegotiation payloadFormats,
+                            @Value("${websocket.orders.tracked-sequences:10000}") int trackedSequences,
+                            @Value("${websocket.orders.replay-size:32}") int replaySize,
+                            @Value("${websocket.coalesce-window-ms:25}") long coalesceWindowMillis) {
         this.messagingTemplate = messagingTemplate;
+        this.payloadFormats = payloadFormats;
+        this.replaySize = replaySize;
+        this.sequences = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Sequence> eldest) {
+                return size() > trackedSequences;
+            }
+        };
+        // One thread: each destination's batches must leave in the order they were collected.
+        this.flushScheduler = new ThreadPoolTaskScheduler();
+        this.flushScheduler.setPoolSize(1);
+        this.flushScheduler.setThreadNamePrefix("ws-coalesce-");
+        this.flushScheduler.setDaemon(true);
+        this.flushScheduler.initialize();
+        Duration window = Duration.ofMillis(coalesceWindowMillis);
+        this.orderUpdates = new CoalescingBuffer<>(flushScheduler, window, this::flushOrderUpdates);
+        this.staffUpdates = new CoalescingBuffer<>(flushScheduler, window, this::flushStaffUpdates);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        orderUpdates.flushAll();
+        staffUpdates.flushAll();
+        flushScheduler.shutdown();
     }
 
     /**
-     * Sends a message to a specific "order" channel.
-     * The frontend will subscribe to this channel to get live updates for their order.
+     * Sends the field-level changes to one order on its channel, e.g. "/topic/orders/a1b2-c3d4-e5f6".
+     * The frontend subscribes to this channel to get live updates for the order.
      *
      * @param publicTrackingId The unique ID of the order, used to create the channel name.
-     * @param payload The data we want to send (e.g., an OrderItemDTO).
+     * @param orderId The internal order ID, echoed so the bill page can show it.
+     * @param changes What changed; each change carries the new value, so applying one twice is harmless.
+     */
+    public void publishOrderDelta(String publicTrackingId, Long orderId, List<OrderChangeDTO> changes) {
+        for (OrderChangeDTO change : changes) {
+            // A later change to the same field of the same item replaces this one if both fall in one window
+            orderUpdates.add(publicTrackingId, change.getOp() + ":" + change.getItemId(), new PendingOrderUpdate(orderId, change, null));
+        }
+    }
+
+    /**
+     * Sends a fresh wait-time estimate on the order's channel.
+     */
+    public void publishOrderEta(OrderEtaDTO eta) {
+        orderUpdates.add(eta.getPublicTrackingId(), OrderTopicMessage.ETA, new PendingOrderUpdate(null, null, eta));
+    }
+
+    /**
+     * Records that an update to the order was lost before it got a seq. The seq it would have had is
+     * skipped, so the next message shows subscribers a gap. The replay buffer is cleared, so a client
+     * that re-syncs from before the gap gets a SNAPSHOT rather than a REPLAY without the lost update.
+     */
+    public void markGap(String publicTrackingId) {
+        Sequence sequence;
+        synchronized (sequences) {
+            sequence = sequences.computeIfAbsent(publicTrackingId, id -> new Sequence());
+        }
+        synchronized (sequence) {
+            sequence.last++;
+            sequence.recent.clear();
+        }
+    }
+
+    // All changes collected for one order in the window become one DELTA; the newest ETA follows it.
+    private void flushOrderUpdates(String publicTrackingId, List<PendingOrderUpdate> updates) {
+        Long orderId = null;
+        List<OrderChangeDTO> changes = new ArrayList<>(updates.size());
+        OrderEtaDTO eta = null;
+        for (PendingOrderUpdate update : updates) {
+            if (update.orderId != null) {
+                orderId = update.orderId;
+            }
+            if (update.change != null) {
+                changes.add(update.change);
+            }
+            if (update.eta != null) {
+                eta = update.eta;
+            }
+        }
+        if (!changes.isEmpty()) {
+            OrderTopicMessage message = new OrderTopicMessage();
+            message.setKind(OrderTopicMessage.DELTA);
+            message.setOrderId(orderId);
+            message.setChanges(changes);
+            publishOrderMessage(publicTrackingId, message);
+        }
+        if (eta != null) {
+            OrderTopicMessage message = new OrderTopicMessage();
+            message.setKind(OrderTopicMessage.ETA);
+            message.setEta(eta);
+            publishOrderMessage(publicTrackingId, message);
+        }
+    }
+
+    /**
+     * Catches a (re)connecting client up. A client that has seen messages up to {@code since} in
+     * {@code clientEpoch} gets a REPLAY of only the ones it missed, provided they are all still in
+     * the order's replay buffer; anyone else (first connect, server restarted, gap already evicted)
+     * gets a SNAPSHOT.
+     *
+     * @param clientEpoch epoch of the last message the client applied, or null
+     * @param since seq of the last message the client applied, or null
      */
-    public void sendOrderStatusUpdate(String publicTrackingId, Object payload) {
+    public OrderTopicMessage orderSync(String publicTrackingId, Long clientEpoch, Long since,
+                                       Supplier<CustomerOrderStatusDto> state) {
+        if (clientEpoch != null && since != null && clientEpoch == epoch) {
+            List<OrderTopicMessage> missed = missedMessages(publicTrackingId, since);
+            if (missed != null) {
+                OrderTopicMessage message = new OrderTopicMessage();
+                message.setEpoch(epoch);
+                message.setSeq(missed.isEmpty() ? since : missed.get(missed.size() - 1).getSeq());
+                message.setKind(OrderTopicMessage.REPLAY);
+                message.setMessages(missed);
+                return message;
+            }
+        }
+        return orderSnapshot(publicTrackingId, state);
+    }
+
+    // Messages after since, or null if some of them are no longer buffered.
+    private List<OrderTopicMessage> missedMessages(String publicTrackingId, long since) {
+        Sequence sequence;
+        synchronized (sequences) {
+            sequence = sequences.get(publicTrackingId);
+        }
+        if (sequence == null) {
+            return null; // Forgotten (or never published): the client's seq means nothing any more
+        }
+        synchronized (sequence) {
+            if (since > sequence.last) {
+                return null;
+            }
+            long oldest = sequence.recent.isEmpty() ? sequence.last + 1 : sequence.recent.peekFirst().getSeq();
+            if (since + 1 < oldest) {
+                return null; // The gap has been pushed out of the buffer
+            }
+            List<OrderTopicMessage> missed = new ArrayList<>();
+            for (OrderTopicMessage message : sequence.recent) {
+                if (message.getSeq() > since) {
+                    missed.add(message);
+                }
+            }
+            return missed;
+        }
+    }
+
+    /**
+     * Builds the full-state message a client starts from, or falls back to after a gap.
+     * The sequence is read before the state is loaded, so anything the snapshot might miss
+     * arrives afterwards as a delta with a higher seq.
+     */
+    private OrderTopicMessage orderSnapshot(String publicTrackingId, Supplier<CustomerOrderStatusDto> state) {
+        long seq;
+        synchronized (sequences) {
+            Sequence sequence = sequences.get(publicTrackingId);
+            seq = sequence != null ? sequence.last : 0;
+        }
+        CustomerOrderStatusDto snapshot = state.get();
+        OrderTopicMessage message = new OrderTopicMessage();
+        message.setEpoch(epoch);
+        message.setSeq(seq);
+        message.setKind(OrderTopicMessage.SNAPSHOT);
+        message.setOrderId(snapshot.getInternalOrderId());
+        message.setSnapshot(snapshot);
+        return message;
+    }
+
+    private void publishOrderMessage(String publicTrackingId, OrderTopicMessage message) {
         // This is the "channel" name. It's like a private radio frequency for this specific order.
-        // Example: "/topic/orders/a1b2-c3d4-e5f6"
         String destination = "/topic/orders/" + publicTrackingId;
+        Sequence sequence;
+        synchronized (sequences) {
+            sequence = sequences.computeIfAbsent(publicTrackingId, id -> new Sequence());
+        }
+        // Numbering and sending under the same lock keeps each order's messages in seq order on the wire.
+        synchronized (sequence) {
+            message.setEpoch(epoch);
+            message.setSeq(++sequence.last);
+            sequence.recent.addLast(message);
+            if (sequence.recent.size() > replaySize) {
+                sequence.recent.removeFirst();
+            }
+            log.debug("Sending {} #{} to destination: {}", message.getKind(), message.getSeq(), destination);
+            send(destination, message);
+        }
+    }
 
-        log.info("Sending WebSocket message to destination: {} with payload: {}", destination, payload);
+    /**
+     * Sends a message to an admin dashboard channel, e.g. "/topic/dashboard/top-dishes".
+     *
+     * @param channel The widget the update is for.
+     * @param payload The widget's new data.
+     */
+    public void sendDashboardUpdate(String channel, Object payload) {
+        String destination = "/topic/dashboard/" + channel;
+        log.debug("Sending dashboard update to destination: {}", destination);
+        send(destination, payload);
+    }
 
-        // This is the line that actually sends the message over the WebSocket connection.
+    /**
+     * Sends the new state of one entry to a staff channel, e.g. "/topic/staff/kitchen".
+     * Frames are JSON arrays of entries: everything that changed on the channel within the
+     * coalescing window, each entry only in its latest state.
+     * Only STAFF and ADMIN sessions may subscribe (see StompAuthChannelInterceptor).
+     *
+     * @param channel One of the STAFF_* channels.
+     * @param entityId What the entry describes (item, table or order ID); later updates to it replace this one.
+     * @param payload The entry as the matching REST list returns it.
+     */
+    public void sendStaffUpdate(String channel, Object entityId, Object payload) {
+        staffUpdates.add(channel, entityId, payload);
+    }
+
+    private void flushStaffUpdates(String channel, List<Object> entries) {
+        String destination = "/topic/staff/" + channel;
+        log.debug("Sending {} staff update(s) to destination: {}", entries.size(), destination);
+        send(destination, entries);
+    }
+
+    // JSON for the usual subscribers, plus one CBOR encoding if anyone subscribed with "accept: application/cbor".
+    // Either way the payload is serialized once and the broker shares the bytes across subscribers.
+    private void send(String destination, Object payload) {
         messagingTemplate.convertAndSend(destination, payload);
+        String binaryDestination = PayloadFormatNegotiation.binaryDestination(destination);
+        if (payloadFormats.hasSubscribers(binaryDestination)) {
+            messagingTemplate.send(binaryDestination, payloadFormats.toBinaryMessage(payload));
+        }
+    }
+
+    private static final class PendingOrderUpdate {
+        private final Long orderId;
+        private final OrderChangeDTO change;
+        private final OrderEtaDTO eta;
+
+        private PendingOrderUpdate(Long orderId, OrderChangeDTO change, OrderEtaDTO eta) {
+            this.orderId = orderId;
+            this.change = change;
+            this.eta = eta;
+        }
+    }
+
+    // Guarded by synchronizing on the Sequence itself; last is also read without the lock for snapshots.
+    private static final class Sequence {
+        private volatile long last;
+        private final ArrayDeque<OrderTopicMessage> recent = new ArrayDeque<>();
     }
-}
\ No newline at end of file
+}
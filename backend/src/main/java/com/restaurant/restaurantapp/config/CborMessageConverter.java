@@ -0,0 +1,25 @@
+package com.restaurant.restaurantapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.util.MimeType;
+
+/**
+ * Jackson message converter for application/cbor: the same object model as the JSON payloads,
+ * written as CBOR bytes. Strict about the content type, so it only ever handles messages that
+ * explicitly ask for CBOR and never takes over from the JSON converter.
+ */
+public class CborMessageConverter extends MappingJackson2MessageConverter {
+
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    /**
+     * @param cborMapper an ObjectMapper built on a CBORFactory
+     */
+    public CborMessageConverter(ObjectMapper cborMapper) {
+        super(APPLICATION_CBOR);
+        setObjectMapper(cborMapper);
+        setSerializedPayloadClass(byte[].class);
+        setStrictContentTypeMatch(true);
+    }
+}
@@ -0,0 +1,161 @@
+package com.restaurant.restaurantapp.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.sockjs.transport.session.AbstractSockJsSession;
+
+import java.util.Map;
+
+/**
+ * Per-subscription choice between JSON (the default) and CBOR payloads on /topic destinations.
+ * A client asks for CBOR with an "accept: application/cbor" header on SUBSCRIBE; the subscription is
+ * then moved to a parallel destination under /topic/cbor/, e.g. /topic/cbor/orders/{id}.
+ * Publishers serialize each message once per format that has subscribers, and the broker fans the
+ * same bytes out to every subscriber of that format.
+ * CBOR needs binary WebSocket frames, which Spring only sends for application/octet-stream content
+ * and never over SockJS, so CBOR frames go out as octet-stream with a "payload-format" header, and
+ * SockJS sessions always get JSON whatever they ask for.
+ */
+@Component
+public class PayloadFormatNegotiation implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    public static final String BINARY_PREFIX = "/topic/cbor/";
+    public static final String PAYLOAD_FORMAT_HEADER = "payload-format";
+
+    private static final String BINARY_FRAMES_ATTRIBUTE = PayloadFormatNegotiation.class.getName() + ".binaryFrames";
+    private static final byte[] EMPTY = new byte[0];
+
+    private final CborMessageConverter cborConverter;
+    private final ObjectProvider<SimpleBrokerMessageHandler> brokerProvider;
+    private volatile SimpleBrokerMessageHandler broker;
+
+    public PayloadFormatNegotiation(Jackson2ObjectMapperBuilder objectMapperBuilder,
+                                    ObjectProvider<SimpleBrokerMessageHandler> brokerProvider) {
+        // Same modules and settings as the JSON mapper, so both formats carry identical fields
+        this.cborConverter = new CborMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build());
+        this.brokerProvider = brokerProvider;
+    }
+
+    public CborMessageConverter getConverter() {
+        return cborConverter;
+    }
+
+    /**
+     * The CBOR twin of a /topic destination, e.g. /topic/orders/x -> /topic/cbor/orders/x.
+     */
+    public static String binaryDestination(String destination) {
+        return BINARY_PREFIX + destination.substring("/topic/".length());
+    }
+
+    /**
+     * Undoes {@link #binaryDestination}, so access checks see the same destination in either format.
+     */
+    public static String jsonDestination(String destination) {
+        return destination != null && destination.startsWith(BINARY_PREFIX)
+                ? "/topic/" + destination.substring(BINARY_PREFIX.length())
+                : destination;
+    }
+
+    // Marks sessions that can receive binary frames before any STOMP frame is handled.
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                session.getAttributes().put(BINARY_FRAMES_ATTRIBUTE, !(session instanceof AbstractSockJsSession));
+                super.afterConnectionEstablished(session);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        if (destination != null && destination.startsWith("/topic/") && !destination.startsWith(BINARY_PREFIX)
+                && acceptsCbor(accessor.getFirstNativeHeader("accept"))
+                && Boolean.TRUE.equals(attributes(accessor).get(BINARY_FRAMES_ATTRIBUTE))) {
+            accessor.setDestination(binaryDestination(destination));
+        }
+        return message;
+    }
+
+    /**
+     * Whether anyone is currently subscribed to the destination; checked before encoding for it.
+     */
+    public boolean hasSubscribers(String destination) {
+        SimpleBrokerMessageHandler handler = broker;
+        if (handler == null) {
+            handler = brokerProvider.getIfAvailable();
+            if (handler == null) {
+                return false;
+            }
+            broker = handler;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        Message<byte[]> probe = MessageBuilder.createMessage(EMPTY, accessor.getMessageHeaders());
+        return !handler.getSubscriptionRegistry().findSubscriptions(probe).isEmpty();
+    }
+
+    /**
+     * Encodes a payload as a CBOR message ready to hand to the broker; done once per published message.
+     */
+    public Message<byte[]> toBinaryMessage(Object payload) {
+        Message<?> encoded = cborConverter.toMessage(payload,
+                new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, CborMessageConverter.APPLICATION_CBOR)));
+        if (encoded == null) {
+            throw new IllegalStateException("Could not encode " + payload.getClass().getSimpleName() + " as CBOR");
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM); // Makes Spring send a binary frame
+        accessor.setNativeHeader(PAYLOAD_FORMAT_HEADER, CborMessageConverter.APPLICATION_CBOR.toString());
+        accessor.setLeaveMutable(true); // The template still sets the destination
+        return MessageBuilder.createMessage((byte[]) encoded.getPayload(), accessor.getMessageHeaders());
+    }
+
+    private static boolean acceptsCbor(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        try {
+            for (MimeType type : MimeTypeUtils.parseMimeTypes(accept)) {
+                if (type.equalsTypeAndSubtype(CborMessageConverter.APPLICATION_CBOR)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMimeTypeException e) {
+            return false; // Bad header: stay on JSON
+        }
+        return false;
+    }
+
+    private static Map<String, Object> attributes(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        return attributes != null ? attributes : Map.of();
+    }
+}
@@ -102,6 +102,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/orders/**").hasAnyRole("STAFF", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/order-items/**").hasAnyRole("STAFF", "ADMIN")
                         .requestMatchers("/api/service/**").hasAnyRole("STAFF", "ADMIN")
+                        .requestMatchers("/api/reservations", "/api/reservations/**").hasAnyRole("STAFF", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/tables", "/api/tables/**").hasAnyRole("STAFF", "ADMIN") // Staff can view tables
 
                         // --- ADMIN ONLY ENDPOINTS (Most restrictive, checked after shared roles) ---
@@ -114,8 +115,9 @@ public class SecurityConfig {
 
 
 
-                         // websocket endpoint
+                         // websocket endpoints: SockJS (fallback) and plain WebSocket
                         .requestMatchers("/ws/**").permitAll()
+                        .requestMatchers("/ws-native", "/ws-native/**").permitAll()
 
 
                         // --- CATCH-ALL: Any other request must be authenticated ---
@@ -1,19 +1,68 @@
 // src/main/java/com/restaurant/restaurantapp/config/WebSocketConfig.java
 package com.restaurant.restaurantapp.config;
 
+import com.restaurant.restaurantapp.security.StompAuthChannelInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker // This enables WebSocket message handling, backed by a message broker.
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketMetrics webSocketMetrics;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final PayloadFormatNegotiation payloadFormatNegotiation;
+    private final ThreadPoolTaskExecutor inboundExecutor;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+    private final int sendBufferLimitBytes;
+    private final int sendTimeLimitMillis;
+    private final int messageSizeLimitBytes;
+    private final long heartbeatMillis;
+
+    public WebSocketConfig(WebSocketMetrics webSocketMetrics,
+                           StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           PayloadFormatNegotiation payloadFormatNegotiation,
+                           @Value("${websocket.inbound.core-pool-size:2}") int inboundCore,
+                           @Value("${websocket.inbound.max-pool-size:4}") int inboundMax,
+                           @Value("${websocket.inbound.queue-capacity:500}") int inboundQueue,
+                           @Value("${websocket.outbound.core-pool-size:4}") int outboundCore,
+                           @Value("${websocket.outbound.max-pool-size:8}") int outboundMax,
+                           @Value("${websocket.outbound.queue-capacity:2000}") int outboundQueue,
+                           @Value("${websocket.send-buffer-limit-bytes:262144}") int sendBufferLimitBytes,
+                           @Value("${websocket.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+                           @Value("${websocket.message-size-limit-bytes:65536}") int messageSizeLimitBytes,
+                           @Value("${websocket.heartbeat-ms:10000}") long heartbeatMillis) {
+        this.webSocketMetrics = webSocketMetrics;
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.payloadFormatNegotiation = payloadFormatNegotiation;
+        this.inboundExecutor = channelExecutor("ws-inbound-", inboundCore, inboundMax, inboundQueue, true);
+        this.outboundExecutor = channelExecutor("ws-outbound-", outboundCore, outboundMax, outboundQueue, false);
+        this.sendBufferLimitBytes = sendBufferLimitBytes;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.messageSizeLimitBytes = messageSizeLimitBytes;
+        this.heartbeatMillis = heartbeatMillis;
+        webSocketMetrics.bindExecutors(inboundExecutor, outboundExecutor);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        // This is the endpoint that your frontend client will connect to to establish the WebSocket connection.
+        // Plain WebSocket STOMP endpoint, e.g. "ws://localhost:8080/ws-native". Clients should try this first:
+        // one upgraded connection, no SockJS framing, and never an HTTP streaming/polling fallback.
+        registry.addEndpoint("/ws-native")
+                .setAllowedOriginPatterns("*");
+
+        // SockJS endpoint, only for clients that cannot open a plain WebSocket (old browsers, strict proxies).
         // e.g., "http://localhost:8080/ws"
         registry.addEndpoint("/ws")
                 // Allow connections from any origin. For production, you would restrict this to your frontend's domain.
@@ -30,7 +79,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // The broker will deliver messages starting with "/topic" or "/user" to clients.
         // "/topic" is for public, broadcast-style messages (everyone subscribed gets it).
         // "/user" is for sending private messages to a specific user.
-        registry.enableSimpleBroker("/topic", "/user");
+        // Heartbeats both ways let each side notice a dead connection (e.g. a phone that left the Wi-Fi).
+        ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+        heartbeatScheduler.setPoolSize(1);
+        heartbeatScheduler.setThreadNamePrefix("ws-heartbeat-");
+        heartbeatScheduler.setDaemon(true);
+        heartbeatScheduler.initialize();
+        registry.enableSimpleBroker("/topic", "/user")
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(heartbeatScheduler);
+
+        // With several outbound threads, keep each session's messages in the order they were published.
+        registry.setPreservePublishOrder(true);
 
         // This is the prefix for messages that are bound for @MessageMapping-annotated methods in your controllers.
         // For example, if a client sends a message to "/app/hello", it will be routed to a controller method.
@@ -40,4 +100,46 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // Spring uses this to make sure a message sent to "/user/queue/updates" goes only to that one user.
         registry.setUserDestinationPrefix("/user");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(inboundExecutor);
+        // Reads the JWT from CONNECT and guards staff/admin subscriptions, then moves subscriptions
+        // that asked for CBOR to their /topic/cbor/ twin (in that order, so access is checked as sent)
+        registration.interceptors(stompAuthChannelInterceptor, payloadFormatNegotiation);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(outboundExecutor);
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Only used for messages whose content type is application/cbor; everything else stays JSON
+        messageConverters.add(payloadFormatNegotiation.getConverter());
+        return true; // Keep the default converters as well
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A client that stops reading (weak signal, backgrounded tab) has its frames buffered per session.
+        // Past either limit Spring closes that one session instead of letting it hold up the outbound threads.
+        registration.setSendBufferSizeLimit(sendBufferLimitBytes)
+                .setSendTimeLimit(sendTimeLimitMillis)
+                .setMessageSizeLimit(messageSizeLimitBytes)
+                .addDecoratorFactory(webSocketMetrics)
+                .addDecoratorFactory(payloadFormatNegotiation);
+    }
+
+    private ThreadPoolTaskExecutor channelExecutor(String prefix, int core, int max, int queueCapacity, boolean inbound) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(core);
+        executor.setMaxPoolSize(max);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(webSocketMetrics.countingRejections(inbound));
+        return executor;
+    }
+}
@@ -0,0 +1,160 @@
+package com.restaurant.restaurantapp.config;
+
+import com.restaurant.restaurantapp.DTO.WebSocketMetricsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import org.springframework.web.socket.sockjs.transport.session.AbstractSockJsSession;
+import org.springframework.web.socket.sockjs.transport.session.PollingSockJsSession;
+import org.springframework.web.socket.sockjs.transport.session.WebSocketServerSockJsSession;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the STOMP broker: live sessions (by transport), slow consumers evicted, messages dropped
+ * because a channel queue was full, and who is subscribed to what. Fed by session events, a handler decorator
+ * registered in WebSocketConfig and the channel executors' rejection handler.
+ */
+@Component
+public class WebSocketMetrics implements WebSocketHandlerDecoratorFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketMetrics.class);
+
+    public static final String TRANSPORT_WEBSOCKET = "websocket";
+    public static final String TRANSPORT_SOCKJS_WEBSOCKET = "sockjs-websocket";
+    public static final String TRANSPORT_SOCKJS_STREAMING = "sockjs-streaming";
+    public static final String TRANSPORT_SOCKJS_POLLING = "sockjs-polling";
+
+    private final LongAdder sessionsOpened = new LongAdder();
+    private final LongAdder sessionsEvicted = new LongAdder();
+    private final LongAdder inboundDropped = new LongAdder();
+    private final LongAdder outboundDropped = new LongAdder();
+    // sessionId -> transport
+    private final Map<String, String> liveSessions = new ConcurrentHashMap<>();
+    // sessionId -> (subscriptionId -> destination)
+    private final Map<String, Map<String, String>> subscriptions = new ConcurrentHashMap<>();
+    private volatile ThreadPoolTaskExecutor inboundExecutor;
+    private volatile ThreadPoolTaskExecutor outboundExecutor;
+
+    void bindExecutors(ThreadPoolTaskExecutor inbound, ThreadPoolTaskExecutor outbound) {
+        this.inboundExecutor = inbound;
+        this.outboundExecutor = outbound;
+    }
+
+    // Counts the drop, then rejects as usual so the sender sees the failure.
+    RejectedExecutionHandler countingRejections(boolean inbound) {
+        ThreadPoolExecutor.AbortPolicy abort = new ThreadPoolExecutor.AbortPolicy();
+        return (task, executor) -> {
+            (inbound ? inboundDropped : outboundDropped).increment();
+            abort.rejectedExecution(task, executor);
+        };
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessionsOpened.increment();
+                liveSessions.put(session.getId(), transportOf(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                liveSessions.remove(session.getId());
+                subscriptions.remove(session.getId());
+                // Spring closes a session with SESSION_NOT_RELIABLE when it exceeds the send buffer or time limit.
+                if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+                    sessionsEvicted.increment();
+                    log.warn("Evicted slow WebSocket session {}: {}", session.getId(), closeStatus.getReason());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // The SockJS fallbacks hold a server thread or a request per poll, so they are worth telling apart.
+    static String transportOf(WebSocketSession session) {
+        if (!(session instanceof AbstractSockJsSession)) {
+            return TRANSPORT_WEBSOCKET;
+        }
+        if (session instanceof WebSocketServerSockJsSession) {
+            return TRANSPORT_SOCKJS_WEBSOCKET;
+        }
+        return session instanceof PollingSockJsSession ? TRANSPORT_SOCKJS_POLLING : TRANSPORT_SOCKJS_STREAMING;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null || accessor.getDestination() == null) {
+            return;
+        }
+        subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), accessor.getDestination());
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> session = accessor.getSessionId() != null ? subscriptions.get(accessor.getSessionId()) : null;
+        if (session != null && accessor.getSubscriptionId() != null) {
+            session.remove(accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        subscriptions.remove(event.getSessionId());
+    }
+
+    public WebSocketMetricsDTO snapshot() {
+        Map<String, Integer> byDestination = new LinkedHashMap<>();
+        for (Map<String, String> session : subscriptions.values()) {
+            for (String destination : session.values()) {
+                byDestination.merge(destination, 1, Integer::sum);
+            }
+        }
+        Map<String, Integer> byTransport = new TreeMap<>();
+        for (String transport : liveSessions.values()) {
+            byTransport.merge(transport, 1, Integer::sum);
+        }
+        return new WebSocketMetricsDTO(
+                liveSessions.size(),
+                byTransport,
+                sessionsOpened.sum(),
+                sessionsEvicted.sum(),
+                channelStats(inboundExecutor, inboundDropped),
+                channelStats(outboundExecutor, outboundDropped),
+                byDestination,
+                LocalDateTime.now());
+    }
+
+    private static WebSocketMetricsDTO.ChannelStats channelStats(ThreadPoolTaskExecutor executor, LongAdder dropped) {
+        if (executor == null || executor.getThreadPoolExecutor() == null) {
+            return new WebSocketMetricsDTO.ChannelStats(0, 0, 0, 0, dropped.sum());
+        }
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        return new WebSocketMetricsDTO.ChannelStats(pool.getPoolSize(), pool.getActiveCount(), pool.getQueue().size(),
+                pool.getCompletedTaskCount(), dropped.sum());
+    }
+}
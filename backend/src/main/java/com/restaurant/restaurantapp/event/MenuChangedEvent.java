@@ -0,0 +1,13 @@
+package com.restaurant.restaurantapp.event;
+
+import lombok.Value;
+
+/**
+ * Published when dishes are added to or removed from the menu, directly or along with their category.
+ */
+@Value
+public class MenuChangedEvent {
+    Long dishId;      // null when a whole category was removed
+    Long categoryId;
+    boolean deleted;
+}
@@ -0,0 +1,17 @@
+package com.restaurant.restaurantapp.event;
+
+import com.restaurant.restaurantapp.DTO.OrderChangeDTO;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published when something the customer following an order can see has changed.
+ * Relayed to the order's topic as one numbered delta once the transaction has committed.
+ */
+@Value
+public class OrderChangesEvent {
+    String publicTrackingId;
+    Long orderId;
+    List<OrderChangeDTO> changes;
+}
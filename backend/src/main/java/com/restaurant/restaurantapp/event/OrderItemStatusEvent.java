@@ -0,0 +1,48 @@
+package com.restaurant.restaurantapp.event;
+
+import com.restaurant.restaurantapp.model.OrderItem;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when the kitchen or floor staff move an order item to a new status,
+ * carrying the item's stage timestamps so listeners can time it without reloading it.
+ */
+@Value
+public class OrderItemStatusEvent {
+    Long itemId;
+    Long orderId;
+    String publicTrackingId;
+    Long dishId;
+    String dishName;
+    Long categoryId;      // null for dishes without a category
+    String categoryName;
+    int quantity;
+    OrderItemStatus previousStatus;
+    OrderItemStatus newStatus;
+    LocalDateTime queuedAt;
+    LocalDateTime startedAt;
+    LocalDateTime readyAt;
+    LocalDateTime deliveredAt;
+
+    public static OrderItemStatusEvent of(OrderItem item, OrderItemStatus previousStatus) {
+        boolean hasCategory = item.getDish().getCategory() != null;
+        return new OrderItemStatusEvent(
+                item.getId(),
+                item.getOrder().getId(),
+                item.getOrder().getPublicTrackingId(),
+                item.getDish().getId(),
+                item.getDish().getName(),
+                hasCategory ? item.getDish().getCategory().getId() : null,
+                hasCategory ? item.getDish().getCategory().getName() : null,
+                item.getQuantity(),
+                previousStatus,
+                item.getItemStatus(),
+                item.getQueuedAt(),
+                item.getStartedAt(),
+                item.getReadyAt(),
+                item.getDeliveredAt());
+    }
+}
@@ -0,0 +1,24 @@
+package com.restaurant.restaurantapp.event;
+
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published when dishes are put on a tab, with only the quantities added by this request.
+ */
+@Value
+public class OrderItemsAddedEvent {
+    Long orderId;
+    String publicTrackingId;
+    List<Line> lines;
+
+    @Value
+    public static class Line {
+        Long dishId;
+        String dishName;
+        int quantity;
+        OrderItemStatus itemStatus; // Status of the tab's line for this dish after the add
+    }
+}
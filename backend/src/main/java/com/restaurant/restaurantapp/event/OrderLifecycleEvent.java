@@ -0,0 +1,37 @@
+package com.restaurant.restaurantapp.event;
+
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever an order (tab) is opened or changes status.
+ * Listeners use it to keep in-memory views (free tables, live counters, ...)
+ * in sync without re-querying the database.
+ */
+@Value
+public class OrderLifecycleEvent {
+    Long orderId;
+    String publicTrackingId;
+    Long tableId;
+    OrderStatus previousStatus; // null when the tab has just been opened
+    OrderStatus newStatus;
+    BigDecimal totalPrice;
+    LocalDateTime orderTime;
+    LocalDateTime occurredAt;
+
+    public static OrderLifecycleEvent of(Order order, OrderStatus previousStatus) {
+        return new OrderLifecycleEvent(
+                order.getId(),
+                order.getPublicTrackingId(),
+                order.getRestaurantTable() != null ? order.getRestaurantTable().getId() : null,
+                previousStatus,
+                order.getStatus(),
+                order.getTotalPrice(),
+                order.getOrderTime(),
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,14 @@
+package com.restaurant.restaurantapp.event;
+
+import lombok.Value;
+
+/**
+ * Published when an entry on one of the staff screens changes; {@code channel} is one of the
+ * WebSocketService.STAFF_* topics. The payload is built inside the transaction and relayed after commit.
+ */
+@Value
+public class StaffUpdateEvent {
+    String channel;
+    Long entityId;
+    Object payload;
+}
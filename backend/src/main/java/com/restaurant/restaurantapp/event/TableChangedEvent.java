@@ -0,0 +1,14 @@
+package com.restaurant.restaurantapp.event;
+
+import lombok.Value;
+
+/**
+ * Published when an admin creates, edits or deletes a table.
+ */
+@Value
+public class TableChangedEvent {
+    Long tableId;
+    String tableNumber;
+    int capacity;
+    boolean deleted;
+}
@@ -0,0 +1,76 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// A closed order moved out of customer_orders by OrderArchiveService. Same id and columns as the
+// original, plus the table number at archive time so the row still reads well if the table is removed.
+// Rows are only ever written by the archiver's INSERT ... SELECT.
+@Entity
+@Immutable
+@Table(name = "customer_orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_tracking", columnList = "public_tracking_id", unique = true),
+        @Index(name = "idx_orders_archive_table", columnList = "table_id"),
+        @Index(name = "idx_orders_archive_status", columnList = "status")
+})
+@Data
+@EqualsAndHashCode(exclude = "items")
+@ToString(exclude = "items")
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "table_id")
+    private Long tableId;
+
+    @Column(name = "table_number", length = 50)
+    private String tableNumber;
+
+    @Column(name = "razorpay_order_id", length = 100)
+    private String razorpayOrderId;
+
+    @Column(name = "razorpay_payment_id")
+    private String razorpayPaymentId;
+
+    @Column(name = "paid_at")
+    private LocalDateTime paidAt;
+
+    @Column(name = "invoice_number", length = 30)
+    private String invoiceNumber;
+
+    @Column(name = "order_time", nullable = false)
+    private LocalDateTime orderTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private OrderStatus status;
+
+    @Column(name = "total_price", precision = 10, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(name = "public_tracking_id", nullable = false, length = 36)
+    private String publicTrackingId;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Read-only view of the archived lines; a page of archived orders loads its items in batches.
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", insertable = false, updatable = false)
+    @BatchSize(size = 100)
+    @OrderBy("id")
+    private List<ArchivedOrderItem> items = new ArrayList<>();
+}
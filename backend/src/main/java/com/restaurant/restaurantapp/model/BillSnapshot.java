@@ -0,0 +1,70 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The bill exactly as the customer was shown it when they asked to pay. Written once, never updated;
+// if a tab is reopened and billed again a new row is written and the latest one wins.
+@Entity
+@Immutable
+@Table(name = "bill_snapshots", indexes = {
+        @Index(name = "idx_bill_order", columnList = "order_id, id"),
+        @Index(name = "idx_bill_tracking", columnList = "public_tracking_id, id")
+})
+@Data
+public class BillSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain column rather than a relationship, so reading a bill is a single-row lookup
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(name = "public_tracking_id", nullable = false, updatable = false, length = 36)
+    private String publicTrackingId;
+
+    @Column(updatable = false, length = 50)
+    private String tableNumber;
+
+    // JSON array of BillLineDTO
+    @Column(nullable = false, updatable = false, columnDefinition = "TEXT")
+    private String lineItemsJson;
+
+    @Column(nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(nullable = false, updatable = false, precision = 5, scale = 4)
+    private BigDecimal taxRate;
+
+    @Column(nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal taxAmount;
+
+    @Column(nullable = false, updatable = false, precision = 10, scale = 2)
+    private BigDecimal total;
+
+    @Column(nullable = false, updatable = false)
+    private long amountInPaise;
+
+    @Column(nullable = false, updatable = false, length = 3)
+    private String currency;
+
+    // SHA-256 over every field above, to show the bill was not altered after it was issued
+    @Column(nullable = false, updatable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime issuedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.issuedAt == null) {
+            this.issuedAt = LocalDateTime.now();
+        }
+    }
+}
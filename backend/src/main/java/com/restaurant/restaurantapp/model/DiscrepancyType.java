@@ -0,0 +1,10 @@
+package com.restaurant.restaurantapp.model;
+
+public enum DiscrepancyType {
+    PAID_BUT_AWAITING_PAYMENT,    // Provider captured the money, our order still waits for it
+    COMPLETED_WITHOUT_SETTLEMENT, // Order marked paid online, provider has no such capture
+    PAYMENT_ID_MISMATCH,          // Order records a different payment than the one the provider captured
+    AMOUNT_MISMATCH,              // Captured amount differs from the order total
+    DUPLICATE_SETTLEMENT,         // More than one capture for the same provider order
+    SETTLEMENT_WITHOUT_ORDER      // Capture for a provider order none of the day's orders is linked to
+}
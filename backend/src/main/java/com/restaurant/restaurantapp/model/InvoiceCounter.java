@@ -0,0 +1,21 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// One row per business day holding the last invoice number handed out that day.
+// Only ever touched through InvoiceCounterRepository.allocateNext's atomic upsert.
+@Entity
+@Table(name = "invoice_counters")
+@Data
+public class InvoiceCounter {
+
+    @Id
+    @Column(name = "business_date")
+    private LocalDate businessDate;
+
+    @Column(name = "last_number", nullable = false)
+    private long lastNumber;
+}
@@ -39,6 +39,14 @@ public class Order {
     @Column
     private String razorpayPaymentId;
 
+    // When the provider payment was confirmed; null for bills settled at the counter
+    @Column(name = "paid_at")
+    private LocalDateTime paidAt;
+
+    // Gapless per-day number assigned when the order is completed, e.g. INV-20250101-00042
+    @Column(name = "invoice_number", length = 30, unique = true)
+    private String invoiceNumber;
+
     @Column(nullable = false, updatable = false) // Order time shouldn't be null and shouldn't be changed after creation
     private LocalDateTime orderTime; // Stores the exact date and time the order was placed
 
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import com.restaurant.restaurantapp.model.OrderItemStatus;
 
 @Entity // Mark this class as a JPA entity
@@ -47,4 +48,44 @@ public class OrderItem {
     @Column(nullable = false)
     private OrderItemStatus itemStatus = OrderItemStatus.NEEDS_PREPARATION;
 
+    // --- Kitchen timestamps: when the item entered each status (null until it has) ---
+    private LocalDateTime queuedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime deliveredAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.queuedAt == null) {
+            this.queuedAt = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Moves the item to a new status and stamps when it got there.
+     * Moving back (e.g. READY to IN_PROGRESS for a redo) clears the later stamps so the redo is timed afresh.
+     * @param newStatus The status the item is moving to.
+     * @param at When the move happened.
+     */
+    public void transitionTo(OrderItemStatus newStatus, LocalDateTime at) {
+        this.itemStatus = newStatus;
+        switch (newStatus) {
+            case NEEDS_PREPARATION -> {
+                this.queuedAt = at;
+                this.startedAt = null;
+                this.readyAt = null;
+                this.deliveredAt = null;
+            }
+            case IN_PROGRESS -> {
+                this.startedAt = at;
+                this.readyAt = null;
+                this.deliveredAt = null;
+            }
+            case READY -> {
+                this.readyAt = at;
+                this.deliveredAt = null;
+            }
+            case DELIVERED -> this.deliveredAt = at;
+        }
+    }
 }
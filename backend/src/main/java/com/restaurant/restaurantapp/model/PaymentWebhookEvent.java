@@ -0,0 +1,56 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Inbox row for a verified provider webhook. The unique event id makes redeliveries a no-op.
+@Entity
+@Table(name = "payment_webhook_events", indexes = {
+        @Index(name = "idx_webhook_status_id", columnList = "status, id")
+})
+@Data
+public class PaymentWebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, unique = true, length = 100)
+    private String eventId;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    @Column(length = 100)
+    private String providerOrderId;
+
+    @Column(length = 100)
+    private String providerPaymentId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WebhookEventStatus status = WebhookEventStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.receivedAt == null) {
+            this.receivedAt = LocalDateTime.now();
+        }
+    }
+}
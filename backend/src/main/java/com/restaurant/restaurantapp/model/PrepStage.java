@@ -0,0 +1,36 @@
+package com.restaurant.restaurantapp.model;
+
+// The timed legs of an order item's trip through the kitchen.
+public enum PrepStage {
+    QUEUED(OrderItemStatus.NEEDS_PREPARATION, OrderItemStatus.IN_PROGRESS),  // Waiting for a cook to pick it up
+    COOKING(OrderItemStatus.IN_PROGRESS, OrderItemStatus.READY),             // Being prepared
+    AWAITING_SERVICE(OrderItemStatus.READY, OrderItemStatus.DELIVERED);      // Ready on the pass, waiting for a server
+
+    private final OrderItemStatus from;
+    private final OrderItemStatus to;
+
+    PrepStage(OrderItemStatus from, OrderItemStatus to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public OrderItemStatus getFrom() {
+        return from;
+    }
+
+    public OrderItemStatus getTo() {
+        return to;
+    }
+
+    /**
+     * The stage completed by moving from {@code previous} to {@code next}, or null if the move skips or reverses a stage.
+     */
+    public static PrepStage completedBy(OrderItemStatus previous, OrderItemStatus next) {
+        for (PrepStage stage : values()) {
+            if (stage.from == previous && stage.to == next) {
+                return stage;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Periodic snapshot of one in-memory prep-time histogram (see PrepTimeService), so percentiles survive restarts.
+// Buckets are stored in LatencyHistogram's sparse text form.
+@Entity
+@Table(name = "prep_time_histograms", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_prep_time_scope_stage", columnNames = {"scope", "scope_id", "stage"})
+})
+@Data
+public class PrepTimeHistogram {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PrepTimeScope scope;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId; // Dish id or category id, depending on scope
+
+    @Column(length = 100)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PrepStage stage;
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String buckets;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,6 @@
+package com.restaurant.restaurantapp.model;
+
+public enum PrepTimeScope {
+    DISH,    // One dish
+    STATION  // A kitchen station; dishes are assigned to the station of their menu category
+}
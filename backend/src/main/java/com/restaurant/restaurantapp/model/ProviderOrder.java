@@ -0,0 +1,39 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Every provider order created for a bill, kept after the order links a newer one, so a payment
+// made against a replaced intent can still be traced to its order and amount.
+@Entity
+@Table(name = "provider_orders", indexes = {
+        @Index(name = "idx_provider_orders_order_id", columnList = "order_id")
+})
+@Data
+public class ProviderOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "provider_order_id", nullable = false, unique = true, length = 100)
+    private String providerOrderId;
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Long orderId;
+
+    @Column(nullable = false, updatable = false)
+    private long amountInPaise;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_start_time", columnList = "start_time")
+})
+@Data
+@EqualsAndHashCode(exclude = {"restaurantTable"})
+@ToString(exclude = {"restaurantTable"})
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "table_id", nullable = false)
+    private RestaurantTable restaurantTable;
+
+    @Column(nullable = false, length = 100)
+    private String customerName;
+
+    @Column(length = 20)
+    private String contactPhone;
+
+    @Column(nullable = false)
+    private int partySize;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime; // Exclusive: a booking ending at 20:00 does not clash with one starting at 20:00
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status = ReservationStatus.BOOKED;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) {
+            this.createdAt = LocalDateTime.now();
+        }
+    }
+}
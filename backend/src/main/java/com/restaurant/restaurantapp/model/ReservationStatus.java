@@ -0,0 +1,8 @@
+package com.restaurant.restaurantapp.model;
+
+public enum ReservationStatus {
+    BOOKED,    // Table is held for the party
+    SEATED,    // Party arrived and was seated
+    COMPLETED, // Party has left (their tab was closed), the rest of the slot is free again
+    CANCELLED  // Reservation was cancelled, the slot is free again
+}
@@ -0,0 +1,27 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Completed-order totals per hour (by the hour the order was opened). Maintained by SalesRollupService.
+@Entity
+@Table(name = "sales_rollup_hourly")
+@Data
+public class SalesRollupHourly {
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "item_quantity", nullable = false)
+    private long itemQuantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,39 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Completed-order totals per hour x dish, with the dish's category at the time it was sold.
+// Plain id columns rather than relationships: these rows are summed, never navigated.
+@Entity
+@Table(name = "sales_rollup_hourly_dish", indexes = {
+        @Index(name = "idx_rollup_dish_category", columnList = "category_id, bucket_start")
+})
+@IdClass(SalesRollupKey.class)
+@Data
+public class SalesRollupHourlyDish {
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "dish_id")
+    private Long dishId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    // Orders that contained the dish
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+}
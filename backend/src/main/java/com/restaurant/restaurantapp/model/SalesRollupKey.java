@@ -0,0 +1,16 @@
+package com.restaurant.restaurantapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupKey implements Serializable {
+    private LocalDateTime bucketStart;
+    private Long dishId;
+}
@@ -0,0 +1,55 @@
+package com.restaurant.restaurantapp.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_status_requested", columnList = "status, requested_at")
+})
+@Data
+@EqualsAndHashCode(exclude = {"assignedTable"})
+@ToString(exclude = {"assignedTable"})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String customerName;
+
+    @Column(length = 20)
+    private String contactPhone;
+
+    @Column(nullable = false)
+    private int partySize;
+
+    @Column(name = "requested_at", nullable = false, updatable = false)
+    private LocalDateTime requestedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    // Set when the party is promoted off the waitlist
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "assigned_table_id")
+    private RestaurantTable assignedTable;
+
+    private LocalDateTime promotedAt;
+
+    @Version // Two tables freeing up at once must not promote the same party twice
+    private Long version;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.requestedAt == null) {
+            this.requestedAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.restaurant.restaurantapp.model;
+
+public enum WaitlistStatus {
+    WAITING,   // Party is waiting for a table
+    PROMOTED,  // A table freed up and was assigned to the party
+    CANCELLED  // Party left the waitlist
+}
@@ -0,0 +1,8 @@
+package com.restaurant.restaurantapp.model;
+
+public enum WebhookEventStatus {
+    PENDING,   // Stored in the inbox, waiting for the worker
+    PROCESSED, // Applied to the order (or found to be already applied)
+    IGNORED,   // Event type we don't act on
+    FAILED     // Gave up after the maximum number of attempts
+}
@@ -0,0 +1,40 @@
+package com.restaurant.restaurantapp.payment;
+
+import java.time.LocalDate;
+
+/**
+ * The calls we make to the online payment provider.
+ * {@link #createOrder} goes over the network and must never be called inside a DB transaction;
+ * PaymentService runs it through {@link PaymentProviderBulkhead}.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Public key id handed to the checkout widget in the browser.
+     */
+    String getKeyId();
+
+    /**
+     * Creates a provider-side order and returns its id.
+     *
+     * @throws com.restaurant.restaurantapp.Exception.PaymentProviderException if the provider call fails
+     */
+    String createOrder(long amountInPaise, String currency, String receipt);
+
+    /**
+     * Checks the signature the checkout widget returned for a completed payment.
+     */
+    boolean verifyPaymentSignature(String providerOrderId, String providerPaymentId, String signature);
+
+    /**
+     * Checks the HMAC the provider sent with a webhook against the raw request body.
+     */
+    boolean verifyWebhookSignature(String payload, String signature);
+
+    /**
+     * One page of the provider's settlement export: payments captured on {@code businessDate}, in a stable order.
+     * {@code skip} and {@code count} page through all of the provider's payments for the day, captured or not;
+     * keep paging while {@link SettlementPage#isHasMore()}. Goes over the network like {@link #createOrder}.
+     */
+    SettlementPage fetchSettlements(LocalDate businessDate, int skip, int count);
+}
@@ -0,0 +1,108 @@
+package com.restaurant.restaurantapp.payment;
+
+import com.restaurant.restaurantapp.Exception.PaymentProviderException;
+import com.restaurant.restaurantapp.util.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs payment-provider calls on a small dedicated pool, with a timeout and a circuit breaker.
+ * A slow or failing provider can then only tie up these threads, never request threads
+ * holding DB connections, and once it is clearly down we fail fast instead of queueing.
+ */
+@Component
+public class PaymentProviderBulkhead implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentProviderBulkhead.class);
+
+    private final ThreadPoolExecutor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final long timeoutMillis;
+
+    public PaymentProviderBulkhead(@Value("${payment.provider.max-concurrent-calls:4}") int maxConcurrentCalls,
+                                   @Value("${payment.provider.queue-capacity:8}") int queueCapacity,
+                                   @Value("${payment.provider.timeout-ms:5000}") long timeoutMillis,
+                                   @Value("${payment.provider.circuit.failure-threshold:5}") int failureThreshold,
+                                   @Value("${payment.provider.circuit.open-ms:30000}") long openMillis) {
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("payment-provider-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60, TimeUnit.SECONDS,
+                queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs {@code call} on the provider pool and waits at most the configured timeout for it.
+     *
+     * @throws PaymentProviderException if the circuit is open, the pool is full, the call times out or fails
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        long permit = circuitBreaker.tryAcquire();
+        if (permit == CircuitBreaker.NO_PERMIT) {
+            throw new PaymentProviderException("Payment provider is temporarily unavailable. Please try again shortly.");
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(call::get);
+        } catch (RejectedExecutionException e) {
+            // Load shedding, not a provider fault: hand the permit back without counting a failure.
+            circuitBreaker.release(permit);
+            log.warn("Payment provider bulkhead full, rejecting {}", operation);
+            throw new PaymentProviderException("Payment provider is busy. Please try again shortly.");
+        }
+
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess(permit);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure(permit);
+            log.error("Payment provider call {} timed out after {} ms", operation, timeoutMillis);
+            throw new PaymentProviderException("Payment provider did not respond in time.");
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure(permit);
+            Throwable cause = e.getCause();
+            log.error("Payment provider call {} failed: {}", operation, cause.getMessage());
+            if (cause instanceof PaymentProviderException providerException) {
+                throw providerException;
+            }
+            throw new PaymentProviderException("Error communicating with payment provider: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            circuitBreaker.onFailure(permit);
+            throw new PaymentProviderException("Interrupted while waiting for payment provider.", e);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public int getActiveCalls() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
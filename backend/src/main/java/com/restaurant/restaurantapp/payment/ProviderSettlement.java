@@ -0,0 +1,18 @@
+package com.restaurant.restaurantapp.payment;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * One payment the provider captured, as it appears in the provider's settlement export.
+ */
+@Value
+public class ProviderSettlement {
+    String providerPaymentId;
+    String providerOrderId;
+    String receipt;
+    long amountInPaise;
+    String currency;
+    LocalDateTime settledAt;
+}
@@ -0,0 +1,124 @@
+package com.restaurant.restaurantapp.payment;
+
+import com.razorpay.RazorpayClient;
+import com.razorpay.RazorpayException;
+import com.razorpay.Utils;
+import com.restaurant.restaurantapp.Exception.PaymentProviderException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(RazorpayPaymentGateway.class);
+
+    private final String razorpayKeyId;
+    private final String razorpayKeySecret;
+    private final String webhookSecret;
+    private final RazorpayClient razorpayClient;
+
+    public RazorpayPaymentGateway(@Value("${razorpay.key.id}") String rzpKeyId,
+                                  @Value("${razorpay.key.secret}") String rzpKeySecret,
+                                  @Value("${razorpay.webhook.secret:}") String webhookSecret) {
+        this.razorpayKeyId = rzpKeyId;
+        this.razorpayKeySecret = rzpKeySecret;
+        this.webhookSecret = webhookSecret;
+        try {
+            this.razorpayClient = new RazorpayClient(this.razorpayKeyId, this.razorpayKeySecret);
+            log.info("SUCCESS: Razorpay client initialized successfully.");
+        } catch (RazorpayException e) {
+            log.error("ERROR: Initializing Razorpay client failed: {}", e.getMessage(), e);
+            throw new RuntimeException("Could not initialize Razorpay client", e);
+        }
+    }
+
+    @Override
+    public String getKeyId() {
+        return razorpayKeyId;
+    }
+
+    @Override
+    public String createOrder(long amountInPaise, String currency, String receipt) {
+        JSONObject orderRequest = new JSONObject();
+        orderRequest.put("amount", amountInPaise);
+        orderRequest.put("currency", currency);
+        orderRequest.put("receipt", receipt);
+        try {
+            com.razorpay.Order razorpayApiOrder = razorpayClient.orders.create(orderRequest);
+            return razorpayApiOrder.get("id").toString();
+        } catch (RazorpayException e) {
+            throw new PaymentProviderException("Error communicating with payment provider: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean verifyPaymentSignature(String providerOrderId, String providerPaymentId, String signature) {
+        JSONObject attributes = new JSONObject();
+        attributes.put("razorpay_order_id", providerOrderId);
+        attributes.put("razorpay_payment_id", providerPaymentId);
+        attributes.put("razorpay_signature", signature);
+        try {
+            return Utils.verifyPaymentSignature(attributes, razorpayKeySecret);
+        } catch (RazorpayException e) {
+            log.error("Razorpay signature verification error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        if (webhookSecret.isBlank() || signature == null) {
+            log.warn("Rejecting webhook: {}", webhookSecret.isBlank() ? "no webhook secret configured" : "missing signature");
+            return false;
+        }
+        try {
+            return Utils.verifyWebhookSignature(payload, signature, webhookSecret);
+        } catch (RazorpayException e) {
+            log.error("Razorpay webhook signature verification error: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public SettlementPage fetchSettlements(LocalDate businessDate, int skip, int count) {
+        ZoneId zone = ZoneId.systemDefault();
+        JSONObject request = new JSONObject();
+        request.put("from", businessDate.atStartOfDay(zone).toEpochSecond());
+        request.put("to", businessDate.plusDays(1).atStartOfDay(zone).toEpochSecond() - 1);
+        request.put("skip", skip);
+        request.put("count", count);
+        try {
+            List<com.razorpay.Payment> payments = razorpayClient.payments.fetchAll(request);
+            List<ProviderSettlement> page = new ArrayList<>();
+            for (com.razorpay.Payment payment : payments) {
+                if (!"captured".equals(payment.get("status").toString())) {
+                    continue;
+                }
+                JSONObject json = payment.toJson();
+                page.add(new ProviderSettlement(
+                        json.getString("id"),
+                        json.optString("order_id", null),
+                        null,
+                        json.getLong("amount"),
+                        json.getString("currency"),
+                        LocalDateTime.ofInstant(Instant.ofEpochSecond(json.getLong("created_at")), zone)));
+            }
+            // A full page of payments means there may be more, however many of them were captured
+            return new SettlementPage(page, payments.size() >= count);
+        } catch (RazorpayException e) {
+            throw new PaymentProviderException("Error fetching payments from provider: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.restaurant.restaurantapp.payment;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of the provider's settlement export. {@code hasMore} is decided on what the provider
+ * returned before payments that were not captured were filtered out, so a page thinned by failed
+ * or refunded payments does not end the export early.
+ */
+@Value
+public class SettlementPage {
+    List<ProviderSettlement> settlements;
+    boolean hasMore;
+}
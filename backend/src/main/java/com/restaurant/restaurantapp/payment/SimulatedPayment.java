@@ -0,0 +1,13 @@
+package com.restaurant.restaurantapp.payment;
+
+import lombok.Value;
+
+/**
+ * What the checkout widget hands back to the browser after a simulated payment.
+ */
+@Value
+public class SimulatedPayment {
+    String providerOrderId;
+    String providerPaymentId;
+    String signature;
+}
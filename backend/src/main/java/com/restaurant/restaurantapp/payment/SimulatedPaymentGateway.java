@@ -0,0 +1,175 @@
+package com.restaurant.restaurantapp.payment;
+
+import com.restaurant.restaurantapp.Exception.PaymentProviderException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * In-process stand-in for the payment provider, enabled with {@code payment.gateway=simulator}.
+ * It adds configurable latency and failures to order creation and signs payments and webhooks
+ * with HMAC-SHA256 the same way the real provider does, so the whole billing flow can be
+ * exercised and load-tested without provider keys or network access.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "simulator")
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulatedPaymentGateway.class);
+
+    private final long latencyMillis;
+    private final long latencyJitterMillis;
+    private final double errorRate;
+    private final String keySecret;
+    private final String webhookSecret;
+
+    private final Map<String, SimulatedOrder> orders = new ConcurrentHashMap<>();
+    private final Map<String, ProviderSettlement> settlements = new ConcurrentHashMap<>();
+
+    public SimulatedPaymentGateway(@Value("${payment.simulator.latency-ms:150}") long latencyMillis,
+                                   @Value("${payment.simulator.latency-jitter-ms:100}") long latencyJitterMillis,
+                                   @Value("${payment.simulator.error-rate:0.0}") double errorRate,
+                                   @Value("${payment.simulator.key-secret:simulator_key_secret}") String keySecret,
+                                   @Value("${payment.simulator.webhook-secret:simulator_webhook_secret}") String webhookSecret) {
+        this.latencyMillis = latencyMillis;
+        this.latencyJitterMillis = latencyJitterMillis;
+        this.errorRate = errorRate;
+        this.keySecret = keySecret;
+        this.webhookSecret = webhookSecret;
+        log.warn("Payment provider SIMULATOR active ({} ms +/- {} ms, error rate {}). Do not use in production.",
+                latencyMillis, latencyJitterMillis, errorRate);
+    }
+
+    @Override
+    public String getKeyId() {
+        return "rzp_test_simulator";
+    }
+
+    @Override
+    public String createOrder(long amountInPaise, String currency, String receipt) {
+        simulateLatency();
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new PaymentProviderException("Simulated payment provider failure.");
+        }
+        String orderId = "order_sim_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+        orders.put(orderId, new SimulatedOrder(amountInPaise, currency, receipt));
+        return orderId;
+    }
+
+    @Override
+    public boolean verifyPaymentSignature(String providerOrderId, String providerPaymentId, String signature) {
+        return signature != null && MessageDigest.isEqual(
+                hmac(keySecret, providerOrderId + "|" + providerPaymentId).getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean verifyWebhookSignature(String payload, String signature) {
+        return signature != null && MessageDigest.isEqual(
+                hmac(webhookSecret, payload).getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Plays the customer's side of checkout: captures the full amount of a simulated order and
+     * returns what the checkout widget would hand back to the browser.
+     */
+    public SimulatedPayment capture(String providerOrderId) {
+        SimulatedOrder order = orders.get(providerOrderId);
+        if (order == null) {
+            throw new PaymentProviderException("Unknown simulated order " + providerOrderId);
+        }
+        String paymentId = "pay_sim_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+        settlements.put(paymentId, new ProviderSettlement(paymentId, providerOrderId, order.receipt, order.amountInPaise,
+                order.currency, LocalDateTime.now()));
+        return new SimulatedPayment(providerOrderId, paymentId, hmac(keySecret, providerOrderId + "|" + paymentId));
+    }
+
+    /**
+     * Signature header value for a webhook body, as the provider would send it.
+     */
+    public String signWebhook(String payload) {
+        return hmac(webhookSecret, payload);
+    }
+
+    /**
+     * Every payment captured so far, in no particular order.
+     */
+    public List<ProviderSettlement> getSettlements() {
+        return new ArrayList<>(settlements.values());
+    }
+
+    @Override
+    public SettlementPage fetchSettlements(LocalDate businessDate, int skip, int count) {
+        simulateLatency();
+        List<ProviderSettlement> day = settlements.values().stream()
+                .filter(s -> s.getSettledAt().toLocalDate().equals(businessDate))
+                .sorted(Comparator.comparing(ProviderSettlement::getProviderPaymentId))
+                .collect(Collectors.toList());
+        int from = Math.min(skip, day.size());
+        int to = Math.min(from + count, day.size());
+        return new SettlementPage(new ArrayList<>(day.subList(from, to)), to < day.size());
+    }
+
+    /**
+     * Records a captured payment directly, e.g. one the customer paid twice or one for an order we never saw.
+     */
+    public void addSettlement(ProviderSettlement settlement) {
+        settlements.put(settlement.getProviderPaymentId(), settlement);
+    }
+
+    private void simulateLatency() {
+        long jitter = latencyJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(-latencyJitterMillis, latencyJitterMillis + 1) : 0;
+        long delay = Math.max(0, latencyMillis + jitter);
+        if (delay == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProviderException("Interrupted while simulating provider latency.", e);
+        }
+    }
+
+    private static String hmac(String secret, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static final class SimulatedOrder {
+        private final long amountInPaise;
+        private final String currency;
+        private final String receipt;
+
+        private SimulatedOrder(long amountInPaise, String currency, String receipt) {
+            this.amountInPaise = amountInPaise;
+            this.currency = currency;
+            this.receipt = receipt;
+        }
+    }
+}
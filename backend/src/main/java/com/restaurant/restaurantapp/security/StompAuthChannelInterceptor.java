@@ -0,0 +1,155 @@
+package com.restaurant.restaurantapp.security;
+
+import com.restaurant.restaurantapp.config.PayloadFormatNegotiation;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * STOMP counterpart of {@link JwtRequestFilter}. The SockJS handshake is public, so the JWT is sent
+ * as an "Authorization: Bearer ..." header on the CONNECT frame instead; a valid token becomes the
+ * session's user. The token is kept with the session and checked again (expiry, current roles) on
+ * every subscription to, or message for, a staff or admin destination, so a session can't outlive
+ * its token. Clients may only SEND to the /app/... handlers; the broker's topics are server-published.
+ * Customers connect without a token and can still follow their own /topic/orders/... channel.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+
+    private static final Set<String> STAFF_ROLES = Set.of("ROLE_STAFF", "ROLE_ADMIN");
+    private static final Set<String> ADMIN_ROLES = Set.of("ROLE_ADMIN");
+    private static final String APP_PREFIX = "/app/";
+    private static final String TOKEN_ATTRIBUTE = "stomp.jwt";
+
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message; // Heartbeats and the like
+        }
+        switch (accessor.getCommand()) {
+            case CONNECT -> {
+                String jwt = bearerToken(accessor.getFirstNativeHeader("Authorization"));
+                Authentication user = authenticate(jwt);
+                if (user != null) {
+                    accessor.setUser(user); // Remembered for the rest of the session
+                    Map<String, Object> session = accessor.getSessionAttributes();
+                    if (session != null) {
+                        session.put(TOKEN_ATTRIBUTE, jwt);
+                    }
+                }
+            }
+            case SUBSCRIBE -> authorize(accessor, "subscribe to");
+            case SEND -> {
+                String destination = accessor.getDestination();
+                if (destination == null || !destination.startsWith(APP_PREFIX)) {
+                    log.warn("Rejected SEND to {} for session {}", destination, accessor.getSessionId());
+                    throw new AccessDeniedException("Clients may only send to " + APP_PREFIX + "... destinations");
+                }
+                authorize(accessor, "send to");
+            }
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    // Re-checks the session's token for protected destinations; Spring turns a denial into an ERROR frame and closes the session.
+    private void authorize(StompHeaderAccessor accessor, String action) {
+        Set<String> required = requiredRoles(accessor.getDestination());
+        if (required == null) {
+            return;
+        }
+        if (!hasAnyRole(currentUser(accessor), required)) {
+            log.warn("Rejected {} {} for session {}", action, accessor.getDestination(), accessor.getSessionId());
+            throw new AccessDeniedException("Not allowed to " + action + " " + accessor.getDestination());
+        }
+    }
+
+    // The session's user as of now: the CONNECT token re-validated, or nobody once it has expired.
+    private Principal currentUser(StompHeaderAccessor accessor) {
+        Map<String, Object> session = accessor.getSessionAttributes();
+        if (session == null) {
+            return accessor.getUser();
+        }
+        Object jwt = session.get(TOKEN_ATTRIBUTE);
+        return jwt instanceof String token ? authenticate(token) : null;
+    }
+
+    // Returns null for destinations anyone may subscribe or send to.
+    private static Set<String> requiredRoles(String rawDestination) {
+        String destination = PayloadFormatNegotiation.jsonDestination(rawDestination); // Same rules for the CBOR twins
+        if (destination == null) {
+            return null;
+        }
+        if (destination.startsWith("/topic/staff/")) {
+            return STAFF_ROLES;
+        }
+        if (destination.startsWith("/topic/dashboard/") || destination.startsWith("/app/dashboard/")) {
+            return ADMIN_ROLES;
+        }
+        return null;
+    }
+
+    private static String bearerToken(String authHeader) {
+        return authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+    }
+
+    private Authentication authenticate(String jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        try {
+            String username = jwtUtil.extractUsername(jwt);
+            if (username == null) {
+                return null;
+            }
+            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (!jwtUtil.isTokenValid(jwt, userDetails)) {
+                log.warn("STOMP frame with invalid JWT for user: {}", username);
+                return null;
+            }
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        } catch (Exception e) {
+            // An expired or malformed token just leaves the session anonymous, as for REST
+            log.warn("STOMP frame with unusable JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean hasAnyRole(Principal principal, Set<String> roles) {
+        if (!(principal instanceof Authentication authentication)) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (roles.contains(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
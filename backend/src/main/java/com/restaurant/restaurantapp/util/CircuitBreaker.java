@@ -0,0 +1,107 @@
+package com.restaurant.restaurantapp.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal consecutive-failure circuit breaker.
+ * CLOSED lets calls through; after {@code failureThreshold} failures in a row it OPENs and
+ * rejects calls for {@code openMillis}; then a single HALF_OPEN trial call decides whether
+ * it closes again or re-opens.
+ * Each permit is tagged with the breaker's generation, which moves on with every state change, so
+ * a slow call that started before the breaker opened cannot close it (or count against it) later.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Returned by {@link #tryAcquire()} when the call must not be made. */
+    public static final long NO_PERMIT = -1;
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+    private long generation;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier nanoClock) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns a permit if the caller may make the protected call now, otherwise {@link #NO_PERMIT}.
+     * Every permit must be handed back through {@link #onSuccess}, {@link #onFailure} or {@link #release}.
+     */
+    public synchronized long tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    return NO_PERMIT;
+                }
+                transitionTo(State.HALF_OPEN);
+                trialInFlight = true;
+                return generation;
+            default: // HALF_OPEN: one trial call at a time
+                if (trialInFlight) {
+                    return NO_PERMIT;
+                }
+                trialInFlight = true;
+                return generation;
+        }
+    }
+
+    /**
+     * Hands back a permit that was acquired but not used for a call.
+     */
+    public synchronized void release(long permit) {
+        if (permit == generation) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return; // Started before the last state change; says nothing about the provider now
+        }
+        if (state != State.CLOSED) {
+            transitionTo(State.CLOSED);
+        }
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            transitionTo(State.OPEN);
+            openedAt = nanoClock.getAsLong();
+            consecutiveFailures = 0;
+        }
+    }
+
+    private void transitionTo(State next) {
+        state = next;
+        generation++;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,97 @@
+package com.restaurant.restaurantapp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Holds values per destination for a short window, then hands them over as one batch.
+ * A value added under a key already waiting in the batch replaces it (keeping its place), so an
+ * entity that changes several times within the window is only delivered in its latest state.
+ * The window starts with the first value for an idle destination; a zero window delivers every
+ * value on its own, straight away. Thread-safe.
+ *
+ * @param <D> destination
+ * @param <K> identity of what a value describes, e.g. an order item ID
+ * @param <V> value
+ */
+public class CoalescingBuffer<D, K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(CoalescingBuffer.class);
+
+    private final TaskScheduler scheduler;
+    private final Duration window;
+    private final BiConsumer<D, List<V>> flusher;
+    private final Map<D, LinkedHashMap<K, V>> pending = new HashMap<>();
+
+    /**
+     * @param scheduler runs the flushes; a single thread keeps each destination's batches in order
+     * @param flusher   receives each destination's batch, never empty
+     */
+    public CoalescingBuffer(TaskScheduler scheduler, Duration window, BiConsumer<D, List<V>> flusher) {
+        this.scheduler = scheduler;
+        this.window = window;
+        this.flusher = flusher;
+    }
+
+    public void add(D destination, K key, V value) {
+        if (window.isZero() || window.isNegative()) {
+            deliver(destination, List.of(value));
+            return;
+        }
+        boolean opened;
+        synchronized (pending) {
+            LinkedHashMap<K, V> batch = pending.get(destination);
+            opened = batch == null;
+            if (opened) {
+                batch = new LinkedHashMap<>();
+                pending.put(destination, batch);
+            }
+            batch.put(key, value);
+        }
+        if (opened) {
+            scheduler.schedule(() -> flush(destination), Instant.now().plus(window));
+        }
+    }
+
+    /**
+     * Delivers everything still waiting, e.g. on shutdown.
+     */
+    public void flushAll() {
+        List<D> destinations;
+        synchronized (pending) {
+            destinations = new ArrayList<>(pending.keySet());
+        }
+        destinations.forEach(this::flush);
+    }
+
+    private void flush(D destination) {
+        List<V> batch;
+        synchronized (pending) {
+            LinkedHashMap<K, V> values = pending.remove(destination);
+            if (values == null) {
+                return; // Already flushed by flushAll
+            }
+            batch = new ArrayList<>(values.values());
+        }
+        deliver(destination, batch);
+    }
+
+    private void deliver(D destination, List<V> batch) {
+        try {
+            flusher.accept(destination, batch);
+        } catch (RuntimeException e) {
+            // One bad destination must not stop the scheduler thread
+            log.warn("Failed to deliver {} buffered message(s) to {}: {}", batch.size(), destination, e.getMessage());
+        }
+    }
+}
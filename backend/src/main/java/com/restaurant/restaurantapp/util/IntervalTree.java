@@ -0,0 +1,232 @@
+package com.restaurant.restaurantapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Balanced (AVL) interval tree over half-open intervals [start, end).
+ * Every node also stores the largest end in its subtree, so "is anything booked
+ * in this window?" is answered in O(log n).
+ * Not thread-safe; callers synchronize on the tree.
+ */
+public class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an interval identified by {@code id}. Ids only need to be unique per start value.
+     */
+    public void insert(long start, long end, long id) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Interval end must be after its start.");
+        }
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+
+    /**
+     * Removes the interval with the given start and id. Returns false when it was not present.
+     */
+    public boolean remove(long start, long id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Removes every interval that ends at or before {@code time}. Returns how many were removed.
+     */
+    public int removeEndedBy(long time) {
+        List<long[]> ended = new ArrayList<>();
+        collectEnded(root, time, ended);
+        for (long[] interval : ended) {
+            remove(interval[0], interval[1]);
+        }
+        return ended.size();
+    }
+
+    /**
+     * True if any stored interval overlaps [start, end).
+     */
+    public boolean overlaps(long start, long end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start < end && node.end > start) {
+                return true;
+            }
+            // If something on the left ends after our start, the left side is the only place an overlap can be.
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ids of all stored intervals overlapping [start, end), ordered by start.
+     */
+    public List<Long> findOverlapping(long start, long end) {
+        List<Long> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    private void collect(Node node, long start, long end, List<Long> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.start < end && node.end > start) {
+            result.add(node.id);
+        }
+        if (node.start < end) {
+            collect(node.right, start, end, result);
+        }
+    }
+
+    private void collectEnded(Node node, long time, List<long[]> result) {
+        if (node == null) {
+            return;
+        }
+        collectEnded(node.left, time, result);
+        if (node.end <= time) {
+            result.add(new long[]{node.start, node.id});
+        }
+        // Everything on the right starts at or after this node, so once it starts at or after time nothing there has ended.
+        if (node.start < time) {
+            collectEnded(node.right, time, result);
+        }
+    }
+
+    // --- AVL plumbing ---
+
+    private static int compare(long startA, long idA, Node b) {
+        int byStart = Long.compare(startA, b.start);
+        return byStart != 0 ? byStart : Long.compare(idA, b.id);
+    }
+
+    private Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (compare(fresh.start, fresh.id, node) < 0) {
+            node.left = insert(node.left, fresh);
+        } else {
+            node.right = insert(node.right, fresh);
+        }
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = removeMin(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            node = successor;
+        }
+        return rebalance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long max = node.end;
+        if (node.left != null) {
+            max = Math.max(max, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            max = Math.max(max, node.right.maxEnd);
+        }
+        node.maxEnd = max;
+    }
+
+    private static final class Node {
+        private final long start;
+        private final long end;
+        private final long id;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, long id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.restaurant.restaurantapp.util;
+
+/**
+ * Fixed-size log-linear histogram in the style of HdrHistogram.
+ * Values below 128 get their own bucket; above that, every power-of-two range is split into
+ * 64 linear sub-buckets, so any recorded value is reported within about 1.6% of its true value.
+ * Memory depends only on the highest trackable value, never on how many values are recorded.
+ * Not thread-safe; callers synchronize on the histogram.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_BITS;   // 64 linear steps per power of two
+    private static final int SUB_BUCKET_COUNT = SUB_BUCKET_HALF << 1;  // values below this are exact
+
+    private final long highestTrackableValue;
+    private final long[] counts;
+    private long totalCount;
+    private long sum;
+    private long max;
+
+    /**
+     * @param highestTrackableValue larger values are recorded as this value
+     */
+    public LatencyHistogram(long highestTrackableValue) {
+        if (highestTrackableValue < SUB_BUCKET_COUNT) {
+            throw new IllegalArgumentException("Highest trackable value must be at least " + SUB_BUCKET_COUNT + ".");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new long[indexFor(highestTrackableValue) + 1];
+    }
+
+    public void record(long value) {
+        recordCount(value, 1);
+    }
+
+    public void recordCount(long value, long count) {
+        if (count <= 0) {
+            return;
+        }
+        long clamped = Math.max(0, Math.min(value, highestTrackableValue));
+        counts[indexFor(clamped)] += count;
+        totalCount += count;
+        sum += clamped * count;
+        max = Math.max(max, clamped);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * The value at or below which {@code percentile} percent of recorded values fall,
+     * reported as the top of its bucket (never above the largest value recorded). 0 when empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double clampedPercentile = Math.max(0, Math.min(percentile, 100));
+        long target = Math.max(1, (long) Math.ceil(clampedPercentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Compact text form for persistence: "max;index:count,index:count,..." listing only non-empty buckets.
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder().append(max).append(';');
+        boolean first = true;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (!first) {
+                sb.append(',');
+            }
+            sb.append(i).append(':').append(counts[i]);
+            first = false;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Rebuilds a histogram written by {@link #encode()}. Buckets beyond this histogram's range are
+     * folded into the last one, so a histogram can be restored with a smaller trackable range.
+     */
+    public static LatencyHistogram decode(String encoded, long highestTrackableValue) {
+        LatencyHistogram histogram = new LatencyHistogram(highestTrackableValue);
+        if (encoded == null || encoded.isEmpty()) {
+            return histogram;
+        }
+        int separator = encoded.indexOf(';');
+        String buckets = separator >= 0 ? encoded.substring(separator + 1) : encoded;
+        if (!buckets.isEmpty()) {
+            for (String pair : buckets.split(",")) {
+                int colon = pair.indexOf(':');
+                int index = Integer.parseInt(pair.substring(0, colon));
+                long count = Long.parseLong(pair.substring(colon + 1));
+                histogram.recordCount(highestEquivalentValue(index), count);
+            }
+        }
+        if (separator > 0) {
+            // Bucket tops overstate the max; the exact value was saved alongside.
+            histogram.max = Math.min(Long.parseLong(encoded.substring(0, separator)), histogram.max);
+        }
+        return histogram;
+    }
+
+    // --- Bucket arithmetic ---
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Shift so the value lands in [64, 128): the shift picks the power of two, the rest the linear step.
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + subBucket;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurant.restaurantapp.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters sketch over long keys with a fixed number of counters.
+ * Any key whose true count exceeds total/capacity is guaranteed to be tracked, and every
+ * reported count overestimates the true one by at most the entry's {@code error}.
+ * Not thread-safe; callers synchronize.
+ */
+public class SpaceSaving {
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.comparingLong((Counter c) -> c.count).thenComparingLong(c -> c.key);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters;
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(long key, long count) {
+        if (count <= 0) {
+            return;
+        }
+        total += count;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += count;
+            byCount.add(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(key, count, 0);
+        } else {
+            // Evict the smallest counter and let the newcomer inherit its count as possible overestimate.
+            Counter smallest = byCount.pollFirst();
+            counters.remove(smallest.key);
+            counter = new Counter(key, smallest.count + count, smallest.count);
+        }
+        counters.put(key, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * Tracked keys, largest count first.
+     */
+    public List<Entry> entries() {
+        List<Entry> result = new ArrayList<>(counters.size());
+        for (Counter counter : byCount.descendingSet()) {
+            result.add(new Entry(counter.key, counter.count, counter.error));
+        }
+        return result;
+    }
+
+    /**
+     * Most a key that is not tracked can have been offered: the smallest tracked count once every
+     * counter is in use, zero before that (nothing has been evicted yet).
+     */
+    public long untrackedBound() {
+        return counters.size() < capacity ? 0 : byCount.first().count;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+        total = 0;
+    }
+
+    public static final class Entry {
+        private final long key;
+        private final long count;
+        private final long error;
+
+        public Entry(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        // How much of count may be inherited from evicted keys
+        public long getError() {
+            return error;
+        }
+    }
+
+    private static final class Counter {
+        private final long key;
+        private long count;
+        private final long error;
+
+        private Counter(long key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.restaurant.restaurantapp.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sliding-window heavy hitters: the window is split into fixed-size time buckets, each with its own
+ * {@link SpaceSaving} sketch, reused in a ring as time moves on. Memory is fixed at
+ * buckets x capacity counters; a query merges the live buckets' counters.
+ * Thread-safe.
+ */
+public class WindowedHeavyHitters {
+
+    private final long bucketMillis;
+    private final SpaceSaving[] sketches;
+    private final long[] bucketEpochs;
+
+    public WindowedHeavyHitters(long windowMillis, int buckets, int capacityPerBucket) {
+        if (buckets <= 0 || windowMillis < buckets) {
+            throw new IllegalArgumentException("Window must hold at least one millisecond per bucket.");
+        }
+        this.bucketMillis = windowMillis / buckets;
+        this.sketches = new SpaceSaving[buckets];
+        this.bucketEpochs = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            sketches[i] = new SpaceSaving(capacityPerBucket);
+            bucketEpochs[i] = -1;
+        }
+    }
+
+    public synchronized void add(long key, long count, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) (epoch % sketches.length);
+        if (bucketEpochs[slot] != epoch) {
+            sketches[slot].clear(); // The slot last held a bucket that has slid out of the window
+            bucketEpochs[slot] = epoch;
+        }
+        sketches[slot].offer(key, count);
+    }
+
+    /**
+     * Up to {@code limit} keys with the highest estimated counts over the window ending at {@code nowMillis}.
+     * A live bucket that does not track a key adds its {@link SpaceSaving#untrackedBound()} to both the key's
+     * count and error, so a merged count never falls under the true one even if a bucket evicted the key.
+     */
+    public synchronized List<SpaceSaving.Entry> top(int limit, long nowMillis) {
+        long oldestLiveEpoch = nowMillis / bucketMillis - sketches.length + 1;
+        long boundSum = 0;
+        for (int i = 0; i < sketches.length; i++) {
+            if (bucketEpochs[i] >= oldestLiveEpoch) {
+                boundSum += sketches[i].untrackedBound();
+            }
+        }
+        // Each key starts with every bucket's bound; a bucket that tracks it swaps its bound for the real entry.
+        long startingBound = boundSum;
+        Map<Long, long[]> merged = new HashMap<>();
+        for (int i = 0; i < sketches.length; i++) {
+            if (bucketEpochs[i] < oldestLiveEpoch) {
+                continue;
+            }
+            long bound = sketches[i].untrackedBound();
+            for (SpaceSaving.Entry entry : sketches[i].entries()) {
+                long[] sums = merged.computeIfAbsent(entry.getKey(), k -> new long[]{startingBound, startingBound});
+                sums[0] += entry.getCount() - bound;
+                sums[1] += entry.getError() - bound;
+            }
+        }
+        List<SpaceSaving.Entry> result = new ArrayList<>(merged.size());
+        merged.forEach((key, sums) -> result.add(new SpaceSaving.Entry(key, sums[0], sums[1])));
+        result.sort(Comparator.comparingLong(SpaceSaving.Entry::getCount).reversed()
+                .thenComparingLong(SpaceSaving.Entry::getKey));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Estimated count for every tracked key over the window, e.g. to rank a whole menu.
+     */
+    public synchronized Map<Long, Long> counts(long nowMillis) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (SpaceSaving.Entry entry : top(Integer.MAX_VALUE, nowMillis)) {
+            counts.put(entry.getKey(), entry.getCount());
+        }
+        return counts;
+    }
+}
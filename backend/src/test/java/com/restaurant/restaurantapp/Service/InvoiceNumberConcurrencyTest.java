@@ -0,0 +1,93 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Repository.InvoiceCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hammers the invoice counter from many concurrent transactions, a share of which roll back after
+ * allocating, and checks the committed numbers form one unbroken sequence with no duplicates.
+ */
+@SpringBootTest
+class InvoiceNumberConcurrencyTest {
+
+    // A day no real order will ever be completed on, so the test owns its counter row.
+    private static final LocalDate TEST_DAY = LocalDate.of(2099, 1, 1);
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceCounterRepository invoiceCounterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        invoiceCounterRepository.deleteById(TEST_DAY);
+    }
+
+    @Test
+    void concurrentCheckoutsGetGaplessUniqueNumbers() throws Exception {
+        int checkouts = 400;
+        int threads = 32;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ConcurrentLinkedQueue<Long> committed = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Callable<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < checkouts; i++) {
+            boolean rollBack = i % 7 == 0; // e.g. the order update failed after the number was allocated
+            calls.add(() -> {
+                start.await();
+                Long number = transaction.execute(status -> {
+                    long allocated = invoiceService.allocate(TEST_DAY);
+                    if (rollBack) {
+                        status.setRollbackOnly();
+                    }
+                    return allocated;
+                });
+                if (!rollBack) {
+                    committed.add(number);
+                }
+                return null;
+            });
+        }
+        List<Future<Void>> results = new ArrayList<>();
+        for (Callable<Void> call : calls) {
+            results.add(pool.submit(call));
+        }
+        start.countDown();
+        for (Future<Void> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+
+        List<Long> numbers = new ArrayList<>(committed);
+        numbers.sort(Long::compare);
+        assertThat(numbers).doesNotHaveDuplicates();
+        for (int i = 0; i < numbers.size(); i++) {
+            assertThat(numbers.get(i)).isEqualTo(i + 1L);
+        }
+        assertThat(invoiceCounterRepository.findById(TEST_DAY)).get()
+                .extracting(counter -> counter.getLastNumber()).isEqualTo((long) numbers.size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.OrderEtaDTO;
+import com.restaurant.restaurantapp.Repository.OrderItemRepository;
+import com.restaurant.restaurantapp.event.OrderItemStatusEvent;
+import com.restaurant.restaurantapp.event.OrderItemsAddedEvent;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.PrepStage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Queue replay and ETA pushes for a single cook, with cooking times from a mocked PrepTimeService.
+ */
+class KitchenQueueServiceTest {
+
+    private final OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+    private final PrepTimeService prepTimeService = mock(PrepTimeService.class);
+    private final WebSocketService webSocketService = mock(WebSocketService.class);
+
+    private KitchenQueueService service;
+
+    @BeforeEach
+    void setUp() {
+        when(orderItemRepository.findByItemStatusIn(any())).thenReturn(List.of());
+        when(prepTimeService.getMedian(1L, PrepStage.COOKING)).thenReturn(Duration.ofMinutes(10));
+        when(prepTimeService.getMedian(2L, PrepStage.COOKING)).thenReturn(Duration.ofMinutes(5));
+        service = new KitchenQueueService(orderItemRepository, prepTimeService, webSocketService, 1, 600);
+        service.rebuildQueue();
+    }
+
+    @Test
+    void waitingItemsQueueBehindEachOther() {
+        service.onItemsAdded(added(100L, "a", 1L));
+        service.onItemsAdded(added(200L, "b", 2L));
+        service.onItemsAdded(added(300L, "c", 1L));
+
+        assertThat(service.getEta("a").getMinutesRemaining()).isEqualTo(10);
+        assertThat(service.getEta("b").getMinutesRemaining()).isEqualTo(15);
+        assertThat(service.getEta("c").getMinutesRemaining()).isEqualTo(25);
+        assertThat(service.getEta("c").getItemsAhead()).isEqualTo(2);
+    }
+
+    @Test
+    void aChangeOnlyPushesOrdersQueuedBehindIt() {
+        service.onItemsAdded(added(100L, "a", 1L));
+        service.onItemsAdded(added(200L, "b", 2L));
+        service.onItemsAdded(added(300L, "c", 1L));
+        clearInvocations(webSocketService);
+
+        service.onOrderLifecycle(new OrderLifecycleEvent(200L, "b", 2L, OrderStatus.OPEN, OrderStatus.CANCELLED,
+                BigDecimal.ZERO, LocalDateTime.now(), LocalDateTime.now()));
+
+        assertThat(pushed()).containsExactlyInAnyOrder("b", "c");
+        assertThat(service.getEta("b").getEstimatedReadyAt()).isNull();
+        assertThat(service.getEta("c").getMinutesRemaining()).isEqualTo(20);
+        assertThat(service.getEta("c").getItemsAhead()).isEqualTo(1);
+    }
+
+    @Test
+    void incrementalEstimatesMatchAFullReplay() {
+        service.onItemsAdded(added(100L, "a", 1L));
+        service.onItemsAdded(added(200L, "b", 2L));
+        service.onItemsAdded(added(300L, "c", 1L));
+        service.onItemStatusChanged(status(200L, "b", 2L, OrderItemStatus.NEEDS_PREPARATION, OrderItemStatus.READY));
+        OrderEtaDTO incremental = service.getEta("c");
+
+        service.refresh();
+        OrderEtaDTO full = service.getEta("c");
+
+        assertThat(full.getMinutesRemaining()).isEqualTo(incremental.getMinutesRemaining());
+        assertThat(full.getItemsAhead()).isEqualTo(incremental.getItemsAhead());
+    }
+
+    @Test
+    void startingAnItemMovesEveryoneBehindTheStove() {
+        service.onItemsAdded(added(100L, "a", 1L));
+        service.onItemsAdded(added(200L, "b", 2L));
+        LocalDateTime started = LocalDateTime.now().minusMinutes(4);
+        service.onItemStatusChanged(new OrderItemStatusEvent(1L, 100L, "a", 1L, "Dish 1", null, null, 1,
+                OrderItemStatus.NEEDS_PREPARATION, OrderItemStatus.IN_PROGRESS, started, started, null, null));
+
+        assertThat(service.getEta("a").getMinutesRemaining()).isEqualTo(6);
+        assertThat(service.getEta("b").getMinutesRemaining()).isEqualTo(11);
+        assertThat(service.getEta("b").getItemsAhead()).isZero();
+    }
+
+    private List<String> pushed() {
+        ArgumentCaptor<OrderEtaDTO> captor = ArgumentCaptor.forClass(OrderEtaDTO.class);
+        verify(webSocketService, atLeastOnce()).publishOrderEta(captor.capture());
+        return captor.getAllValues().stream().map(OrderEtaDTO::getPublicTrackingId).collect(Collectors.toList());
+    }
+
+    private static OrderItemsAddedEvent added(Long orderId, String trackingId, Long dishId) {
+        return new OrderItemsAddedEvent(orderId, trackingId,
+                List.of(new OrderItemsAddedEvent.Line(dishId, "Dish " + dishId, 1, OrderItemStatus.NEEDS_PREPARATION)));
+    }
+
+    private static OrderItemStatusEvent status(Long orderId, String trackingId, Long dishId, OrderItemStatus from, OrderItemStatus to) {
+        LocalDateTime now = LocalDateTime.now();
+        return new OrderItemStatusEvent(orderId, orderId, trackingId, dishId, "Dish " + dishId, null, null, 1,
+                from, to, now, null, now, null);
+    }
+}
@@ -0,0 +1,116 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Repository.DishRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Today's live counters in LiveStatsService, moved by lifecycle events and re-seeded by reconcile
+ * from mocked repository totals.
+ */
+class LiveStatsServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final DishRepository dishRepository = mock(DishRepository.class);
+    private final RestaurantTableRepository tableRepository = mock(RestaurantTableRepository.class);
+    private final LiveStatsService service = new LiveStatsService(orderRepository, dishRepository, tableRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.findTodaysRevenue(any())).thenReturn(BigDecimal.ZERO);
+        when(orderRepository.countTodaysOrders(any())).thenReturn(0L);
+        when(orderRepository.countTodaysOrdersByStatus(any())).thenReturn(List.of());
+        when(dishRepository.count()).thenReturn(12L);
+        when(tableRepository.count()).thenReturn(8L);
+    }
+
+    @Test
+    void reopenedOrderGivesItsRevenueBackAndCountsItOnceWhenCompletedAgain() {
+        LocalDateTime opened = LocalDateTime.now();
+        service.onOrderLifecycle(event(1L, null, OrderStatus.OPEN, "0.00", opened));
+        service.onOrderLifecycle(event(1L, OrderStatus.OPEN, OrderStatus.AWAITING_PAYMENT, "450.00", opened));
+        service.onOrderLifecycle(event(1L, OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED, "450.00", opened));
+        assertThat(service.snapshot().getRevenuePaise()).isEqualTo(45_000);
+
+        service.onOrderLifecycle(event(1L, OrderStatus.COMPLETED, OrderStatus.OPEN, "450.00", opened));
+        LiveStatsService.Snapshot reopened = service.snapshot();
+        assertThat(reopened.getRevenuePaise()).isZero();
+        assertThat(reopened.getOrdersByStatus().get(OrderStatus.OPEN)).isEqualTo(1);
+        assertThat(reopened.getOrdersByStatus().get(OrderStatus.COMPLETED)).isZero();
+
+        // Another dish added before the second checkout
+        service.onOrderLifecycle(event(1L, OrderStatus.OPEN, OrderStatus.COMPLETED, "520.00", opened));
+        LiveStatsService.Snapshot completed = service.snapshot();
+        assertThat(completed.getRevenuePaise()).isEqualTo(52_000);
+        assertThat(completed.getOrdersOpened()).isEqualTo(1);
+        assertThat(completed.getOrdersByStatus().get(OrderStatus.COMPLETED)).isEqualTo(1);
+        assertThat(completed.getOrdersByStatus().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(1);
+    }
+
+    @Test
+    void tabsOpenedOnAnEarlierDayDoNotMoveTodaysNumbers() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        service.onOrderLifecycle(event(2L, OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED, "300.00", yesterday));
+
+        assertThat(service.snapshot().getRevenuePaise()).isZero();
+        assertThat(service.snapshot().getOrdersByStatus().get(OrderStatus.COMPLETED)).isZero();
+    }
+
+    @Test
+    void reconcileReplacesDriftedCountersAndKeepsEventsThatArriveWhileItQueries() {
+        LocalDateTime opened = LocalDateTime.now();
+        // A doubled event: the live revenue is now wrong
+        service.onOrderLifecycle(event(3L, OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED, "200.00", opened));
+        service.onOrderLifecycle(event(3L, OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED, "200.00", opened));
+        assertThat(service.snapshot().getRevenuePaise()).isEqualTo(40_000);
+
+        // The database has order 3 completed and order 4 open; order 4 completes while the counts are being read
+        when(orderRepository.findTodaysRevenue(any())).thenReturn(new BigDecimal("200.00"));
+        when(orderRepository.countTodaysOrders(any())).thenAnswer(invocation -> {
+            service.onOrderLifecycle(event(4L, OrderStatus.OPEN, OrderStatus.COMPLETED, "150.00", opened));
+            return 2L;
+        });
+        List<Object[]> byStatus = new ArrayList<>();
+        byStatus.add(new Object[]{OrderStatus.COMPLETED, 1L});
+        byStatus.add(new Object[]{OrderStatus.OPEN, 1L});
+        when(orderRepository.countTodaysOrdersByStatus(any())).thenReturn(byStatus);
+
+        service.reconcile();
+
+        LiveStatsService.Snapshot snapshot = service.snapshot();
+        assertThat(snapshot.getRevenuePaise()).isEqualTo(35_000);
+        assertThat(snapshot.getOrdersOpened()).isEqualTo(2);
+        assertThat(snapshot.getOrdersByStatus().get(OrderStatus.COMPLETED)).isEqualTo(2);
+        assertThat(snapshot.getOrdersByStatus().get(OrderStatus.OPEN)).isZero();
+        assertThat(snapshot.getDishCount()).isEqualTo(12);
+        assertThat(snapshot.getTableCount()).isEqualTo(8);
+        assertThat(snapshot.getLastReconciledAt()).isNotNull();
+
+        // Later events apply on top of the re-seeded counters, and are no longer journaled
+        service.onOrderLifecycle(event(5L, null, OrderStatus.OPEN, "0.00", opened));
+        assertThat(service.snapshot().getOrdersOpened()).isEqualTo(3);
+        doReturn(2L).when(orderRepository).countTodaysOrders(any());
+        service.reconcile();
+        assertThat(service.snapshot().getOrdersOpened()).isEqualTo(2); // Back to what the database says
+    }
+
+    private static OrderLifecycleEvent event(Long orderId, OrderStatus previous, OrderStatus next, String total, LocalDateTime orderTime) {
+        return new OrderLifecycleEvent(orderId, "track-" + orderId, 1L, previous, next,
+                new BigDecimal(total), orderTime, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,95 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Repository.ArchivedOrderRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.support.ResourcelessTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * OrderArchiveService batches against in-memory live and archive id sets behind mocked repositories.
+ */
+class OrderArchiveServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ArchivedOrderRepository archivedOrderRepository = mock(ArchivedOrderRepository.class);
+    private final TreeSet<Long> eligible = new TreeSet<>(); // Closed before the cutoff, still in customer_orders
+    private final TreeSet<Long> archived = new TreeSet<>();
+    private final AtomicInteger itemCopies = new AtomicInteger();
+    private int failingItemCopy; // 1-based call of copyItems that throws, 0 for none
+
+    private final OrderArchiveService service = new OrderArchiveService(orderRepository, archivedOrderRepository,
+            new ResourcelessTransactionManager(), 90, 2);
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.findArchivableIds(any(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(1);
+            int limit = invocation.getArgument(2);
+            return eligible.tailSet(afterId, false).stream().limit(limit).toList();
+        });
+        when(archivedOrderRepository.copyOrders(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            archived.addAll(ids); // ON CONFLICT DO NOTHING: copying an id twice is harmless
+            return ids.size();
+        });
+        when(archivedOrderRepository.copyItems(anyList())).thenAnswer(invocation -> {
+            if (itemCopies.incrementAndGet() == failingItemCopy) {
+                throw new IllegalStateException("connection reset");
+            }
+            return 0;
+        });
+        when(orderRepository.deleteOrdersByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            eligible.removeAll(ids);
+            return ids.size();
+        });
+    }
+
+    @Test
+    void eachBatchIsCopiedBeforeItsRowsAreDeleted() {
+        eligible.addAll(List.of(3L, 5L, 8L));
+
+        service.archiveClosedOrders();
+
+        assertThat(eligible).isEmpty();
+        assertThat(archived).containsExactly(3L, 5L, 8L);
+        InOrder order = inOrder(orderRepository, archivedOrderRepository);
+        for (List<Long> batch : List.of(List.of(3L, 5L), List.of(8L))) {
+            order.verify(archivedOrderRepository).copyOrders(batch);
+            order.verify(archivedOrderRepository).copyItems(batch);
+            order.verify(orderRepository).deleteItemsOfOrders(batch);
+            order.verify(orderRepository).deleteOrdersByIds(batch);
+        }
+    }
+
+    @Test
+    void aFailedBatchStopsTheRunAndTheNextRunCarriesOn() {
+        eligible.addAll(List.of(1L, 2L, 4L, 6L, 7L));
+        failingItemCopy = 2; // The second batch, (4, 6)
+
+        service.archiveClosedOrders();
+
+        // The failing batch never reached its deletes, so it and everything after it are still live
+        assertThat(eligible).containsExactly(4L, 6L, 7L);
+
+        service.archiveClosedOrders();
+
+        assertThat(eligible).isEmpty();
+        assertThat(archived).containsExactly(1L, 2L, 4L, 6L, 7L);
+    }
+}
@@ -0,0 +1,236 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.support.ResourcelessTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * OrderExportService's CSV rendering and (order_time, id) chunk cursor. The chunk query is answered from
+ * in-memory live and archived orders the way CHUNK_SQL selects them, so the SQL itself is not run here.
+ */
+class OrderExportServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 14);
+    private static final LocalDateTime LUNCH = DAY.atTime(13, 5, 30);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<FakeOrder> orders = new ArrayList<>();
+    private final AtomicInteger chunkQueries = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Map<Integer, Object> parameters = new HashMap<>();
+        PreparedStatement statement = mock(PreparedStatement.class);
+        doAnswer(invocation -> parameters.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(statement).setTimestamp(anyInt(), any());
+        doAnswer(invocation -> parameters.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(statement).setLong(anyInt(), anyLong());
+        doAnswer(invocation -> parameters.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(statement).setInt(anyInt(), anyInt());
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class))).thenAnswer(invocation -> {
+            parameters.clear();
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            chunkQueries.incrementAndGet();
+            return invocation.<ResultSetExtractor<?>>getArgument(1).extractData(resultSet(chunkRows(parameters)));
+        });
+    }
+
+    @Test
+    void textIsQuotedWhenNeededAndFormulasAreDefused() throws Exception {
+        FakeOrder order = order(1L, false, LUNCH, "Patio, 2");
+        order.items.add(new FakeItem(10L, 100L, "Dal \"Makhani\"", 2, "180.00"));
+        order.items.add(new FakeItem(11L, 101L, "=HYPERLINK(\"http://x\")", 1, "99.50"));
+        order.items.add(new FakeItem(12L, 102L, "@SUM(A1)", 1, "10"));
+        order.items.add(new FakeItem(13L, 103L, "Masala Dosa", 3, "120.00"));
+
+        List<String> lines = export(DAY, DAY, 500);
+
+        assertThat(lines).containsExactly(
+                "order_id,public_tracking_id,invoice_number,order_time,status,table_number,order_total,item_id,dish_id,dish_name,quantity,unit_price,line_total",
+                "1,track-1,INV-1,2025-06-14T13:05:30,COMPLETED,\"Patio, 2\",450.00,10,100,\"Dal \"\"Makhani\"\"\",2,180.00,360.00",
+                "1,track-1,INV-1,2025-06-14T13:05:30,COMPLETED,\"Patio, 2\",450.00,11,101,\"'=HYPERLINK(\"\"http://x\"\")\",1,99.50,99.50",
+                "1,track-1,INV-1,2025-06-14T13:05:30,COMPLETED,\"Patio, 2\",450.00,12,102,'@SUM(A1),1,10,10",
+                "1,track-1,INV-1,2025-06-14T13:05:30,COMPLETED,\"Patio, 2\",450.00,13,103,Masala Dosa,3,120.00,360.00");
+    }
+
+    @Test
+    void ordersSharingAnOrderTimeAcrossChunkBoundariesAreExportedOnce() throws Exception {
+        // Five orders at the same instant, split over live and archive, read two orders per chunk
+        order(4L, false, LUNCH, "T4").items.add(new FakeItem(40L, 100L, "Idli", 1, "60.00"));
+        order(1L, true, LUNCH, "T1").items.add(new FakeItem(10L, 100L, "Idli", 2, "60.00"));
+        order(3L, true, LUNCH, "T3").items.add(new FakeItem(30L, 101L, "Vada", 1, "50.00"));
+        order(2L, false, LUNCH, "T2");   // No items yet
+        order(5L, false, LUNCH, "T5").items.add(new FakeItem(50L, 101L, "Vada", 1, "50.00"));
+        order(6L, true, LUNCH.plusHours(8), "T6").items.add(new FakeItem(60L, 101L, "Vada", 4, "50.00"));
+
+        List<String> lines = export(DAY, DAY, 2);
+
+        assertThat(orderIds(lines)).containsExactly("1", "2", "3", "4", "5", "6");
+        assertThat(lines.get(2)).endsWith(",T2,450.00,,,,,,"); // The order without items still gets its row
+        assertThat(chunkQueries.get()).isEqualTo(4);           // Three full chunks, then an empty one ends it
+    }
+
+    @Test
+    void anOrderWithManyItemsStaysInOneChunkAndTheRangeIsHalfOpen() throws Exception {
+        FakeOrder big = order(1L, false, LUNCH, "T1");
+        for (long item = 1; item <= 5; item++) {
+            big.items.add(new FakeItem(item, 100L, "Idli", 1, "60.00"));
+        }
+        order(2L, true, LUNCH.plusMinutes(1), "T2").items.add(new FakeItem(20L, 100L, "Idli", 1, "60.00"));
+        order(3L, false, DAY.plusDays(1).atStartOfDay(), "T3"); // Midnight after the last day: outside the range
+        order(4L, true, DAY.atStartOfDay().minusNanos(1_000), "T4");
+
+        List<String> lines = export(DAY, DAY, 1);
+
+        assertThat(orderIds(lines)).containsExactly("1", "1", "1", "1", "1", "2");
+        assertThat(chunkQueries.get()).isEqualTo(3); // One order per chunk, however many lines it has
+    }
+
+    private List<String> export(LocalDate from, LocalDate to, int chunkOrders) throws Exception {
+        OrderExportService service = new OrderExportService(jdbcTemplate, new ResourcelessTransactionManager(), chunkOrders, 366);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.exportCsv(from, to, false, out);
+        List<String> lines = Arrays.asList(out.toString(StandardCharsets.UTF_8).split("\n"));
+        assertThat(rows).isEqualTo(lines.size() - 1);
+        return lines;
+    }
+
+    private static List<String> orderIds(List<String> lines) {
+        return lines.stream().skip(1).map(line -> line.substring(0, line.indexOf(','))).toList();
+    }
+
+    private FakeOrder order(long id, boolean archived, LocalDateTime orderTime, String tableNumber) {
+        FakeOrder order = new FakeOrder(id, archived, orderTime, tableNumber);
+        orders.add(order);
+        return order;
+    }
+
+    // Parameters 1-5 bound the live source, 6-10 the archive (start, end, after time, after id, limit), 11 the union.
+    private List<Object[]> chunkRows(Map<Integer, Object> parameters) {
+        Comparator<FakeOrder> byCursor = Comparator.comparing((FakeOrder o) -> o.orderTime).thenComparingLong(o -> o.id);
+        List<FakeOrder> chunk = new ArrayList<>();
+        for (boolean archived : new boolean[]{false, true}) {
+            int base = archived ? 6 : 1;
+            LocalDateTime start = ((Timestamp) parameters.get(base)).toLocalDateTime();
+            LocalDateTime end = ((Timestamp) parameters.get(base + 1)).toLocalDateTime();
+            LocalDateTime afterTime = ((Timestamp) parameters.get(base + 2)).toLocalDateTime();
+            long afterId = (Long) parameters.get(base + 3);
+            orders.stream()
+                    .filter(o -> o.archived == archived && !o.orderTime.isBefore(start) && o.orderTime.isBefore(end))
+                    .filter(o -> o.orderTime.isAfter(afterTime) || (o.orderTime.isEqual(afterTime) && o.id > afterId))
+                    .sorted(byCursor)
+                    .limit((Integer) parameters.get(base + 4))
+                    .forEach(chunk::add);
+        }
+        chunk.sort(byCursor);
+        List<Object[]> rows = new ArrayList<>();
+        for (FakeOrder order : chunk.subList(0, Math.min(chunk.size(), (Integer) parameters.get(11)))) {
+            Object[] head = {order.id, "track-" + order.id, "INV-" + order.id, Timestamp.valueOf(order.orderTime),
+                    "COMPLETED", order.tableNumber, new BigDecimal("450.00")};
+            if (order.items.isEmpty()) {
+                rows.add(Arrays.copyOf(head, 12));
+            }
+            order.items.stream().sorted(Comparator.comparingLong((FakeItem i) -> i.id)).forEach(item -> {
+                Object[] row = Arrays.copyOf(head, 12);
+                row[7] = item.id;
+                row[8] = item.dishId;
+                row[9] = item.dishName;
+                row[10] = item.quantity;
+                row[11] = item.price;
+                rows.add(row);
+            });
+        }
+        return rows;
+    }
+
+    // A forward-only ResultSet over 1-based columns, with JDBC's null handling (0 plus wasNull for primitives).
+    private static ResultSet resultSet(List<Object[]> rows) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        AtomicInteger cursor = new AtomicInteger(-1);
+        AtomicBoolean lastNull = new AtomicBoolean();
+        when(rs.next()).thenAnswer(invocation -> cursor.incrementAndGet() < rows.size());
+        when(rs.wasNull()).thenAnswer(invocation -> lastNull.get());
+        when(rs.getLong(anyInt())).thenAnswer(invocation -> {
+            Object value = column(rows, cursor, lastNull, invocation.getArgument(0));
+            return value == null ? 0L : ((Number) value).longValue();
+        });
+        when(rs.getInt(anyInt())).thenAnswer(invocation -> {
+            Object value = column(rows, cursor, lastNull, invocation.getArgument(0));
+            return value == null ? 0 : ((Number) value).intValue();
+        });
+        when(rs.getString(anyInt())).thenAnswer(invocation -> column(rows, cursor, lastNull, invocation.getArgument(0)));
+        when(rs.getTimestamp(anyInt())).thenAnswer(invocation -> column(rows, cursor, lastNull, invocation.getArgument(0)));
+        when(rs.getBigDecimal(anyInt())).thenAnswer(invocation -> column(rows, cursor, lastNull, invocation.getArgument(0)));
+        return rs;
+    }
+
+    private static Object column(List<Object[]> rows, AtomicInteger cursor, AtomicBoolean lastNull, int index) {
+        Object value = rows.get(cursor.get())[index - 1];
+        lastNull.set(value == null);
+        return value;
+    }
+
+    private static final class FakeOrder {
+        private final long id;
+        private final boolean archived;
+        private final LocalDateTime orderTime;
+        private final String tableNumber;
+        private final List<FakeItem> items = new ArrayList<>();
+
+        private FakeOrder(long id, boolean archived, LocalDateTime orderTime, String tableNumber) {
+            this.id = id;
+            this.archived = archived;
+            this.orderTime = orderTime;
+            this.tableNumber = tableNumber;
+        }
+    }
+
+    private static final class FakeItem {
+        private final long id;
+        private final long dishId;
+        private final String dishName;
+        private final int quantity;
+        private final BigDecimal price;
+
+        private FakeItem(long id, long dishId, String dishName, int quantity, String price) {
+            this.id = id;
+            this.dishId = dishId;
+            this.dishName = dishName;
+            this.quantity = quantity;
+            this.price = new BigDecimal(price);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.OrderResponseDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.ArchivedOrderRepository;
+import com.restaurant.restaurantapp.Repository.DishRepository;
+import com.restaurant.restaurantapp.Repository.OrderItemRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.event.OrderChangesEvent;
+import com.restaurant.restaurantapp.event.OrderItemStatusEvent;
+import com.restaurant.restaurantapp.model.Dish;
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderItem;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.RestaurantTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Order and item status changes through OrderService, with orders kept in an in-memory map behind mocked repositories.
+ */
+class OrderServiceTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+    private final ArchivedOrderRepository archivedOrderRepository = mock(ArchivedOrderRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final BillService billService = mock(BillService.class);
+    private final InvoiceService invoiceService = mock(InvoiceService.class);
+    private final Map<Long, Order> orders = new HashMap<>();
+
+    private OrderService service;
+
+    @BeforeEach
+    void setUp() {
+        when(orderRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(orders.get(invocation.<Long>getArgument(0))));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new OrderService(orderRepository, mock(DishRepository.class), mock(RestaurantTableRepository.class),
+                orderItemRepository, eventPublisher, billService, invoiceService, archivedOrderRepository);
+    }
+
+    @Test
+    void cancelledOrderCannotBeCompletedAndTakesNoInvoiceNumber() {
+        order(1L, OrderStatus.CANCELLED);
+
+        assertThatThrownBy(() -> service.updateOrderStatus(1L, OrderStatus.COMPLETED)).isInstanceOf(InvalidRequestException.class);
+
+        assertThat(orders.get(1L).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(invoiceService, never()).assignInvoiceNumber(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void completingABillAssignsTheInvoiceNumber() {
+        Order order = order(2L, OrderStatus.AWAITING_PAYMENT);
+
+        service.updateOrderStatus(2L, OrderStatus.COMPLETED);
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        verify(invoiceService).assignInvoiceNumber(order);
+        verify(billService, never()).freeze(any()); // Already billed when it went to AWAITING_PAYMENT
+    }
+
+    @Test
+    void settingAnItemToItsCurrentStatusChangesNothing() {
+        LocalDateTime startedAt = LocalDateTime.now().minusMinutes(7);
+        OrderItem item = item(5L, order(3L, OrderStatus.OPEN));
+        item.transitionTo(OrderItemStatus.IN_PROGRESS, startedAt);
+        when(orderItemRepository.findById(5L)).thenReturn(Optional.of(item));
+
+        assertThat(service.updateOrderItemStatus(5L, OrderItemStatus.IN_PROGRESS).getItemStatus()).isEqualTo(OrderItemStatus.IN_PROGRESS);
+
+        assertThat(item.getStartedAt()).isEqualTo(startedAt); // Not re-stamped, so the prep time still runs from the first tap
+        verify(orderItemRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void changingAnItemStatusStampsAndPublishesIt() {
+        OrderItem item = item(6L, order(4L, OrderStatus.OPEN));
+        when(orderItemRepository.findById(6L)).thenReturn(Optional.of(item));
+        when(orderItemRepository.save(item)).thenReturn(item);
+
+        service.updateOrderItemStatus(6L, OrderItemStatus.IN_PROGRESS);
+
+        assertThat(item.getStartedAt()).isNotNull();
+        verify(eventPublisher).publishEvent(any(OrderItemStatusEvent.class));
+        verify(eventPublisher).publishEvent(any(OrderChangesEvent.class));
+    }
+
+    @Test
+    void unpagedHistoryIsRejectedRatherThanSilentlySkippingTheArchive() {
+        assertThatThrownBy(() -> service.getOrders(null, null, Pageable.unpaged())).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.getOrders(1L, OrderStatus.COMPLETED, Pageable.unpaged())).isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(archivedOrderRepository);
+    }
+
+    @Test
+    void unpagedOpenOrdersComeFromTheLiveTableOnly() {
+        Order open = order(7L, OrderStatus.OPEN);
+        when(orderRepository.findByStatus(OrderStatus.OPEN, Pageable.unpaged())).thenReturn(new PageImpl<>(List.of(open)));
+
+        assertThat(service.getOrders(null, OrderStatus.OPEN, Pageable.unpaged()).getContent())
+                .extracting(OrderResponseDTO::getId).containsExactly(7L);
+        verifyNoInteractions(archivedOrderRepository); // Open tabs are never archived
+    }
+
+    private OrderItem item(Long id, Order order) {
+        Dish dish = new Dish();
+        dish.setId(20L);
+        dish.setName("Masala Dosa");
+        OrderItem item = new OrderItem();
+        item.setId(id);
+        item.setOrder(order);
+        item.setDish(dish);
+        item.setQuantity(1);
+        item.setPrice(new BigDecimal("120.00"));
+        return item;
+    }
+
+    private Order order(Long id, OrderStatus status) {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(10L + id);
+        table.setTableNumber("T" + id);
+        Order order = new Order();
+        order.setId(id);
+        order.setPublicTrackingId("track-" + id);
+        order.setRestaurantTable(table);
+        order.setStatus(status);
+        order.setOrderTime(LocalDateTime.now().minusHours(1));
+        order.setTotalPrice(new BigDecimal("300.00"));
+        orders.put(id, order);
+        return order;
+    }
+}
@@ -0,0 +1,131 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.OrderPaymentRow;
+import com.restaurant.restaurantapp.DTO.PaymentDiscrepancyDTO;
+import com.restaurant.restaurantapp.DTO.ReconciliationReportDTO;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.model.DiscrepancyType;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.payment.PaymentGateway;
+import com.restaurant.restaurantapp.payment.PaymentProviderBulkhead;
+import com.restaurant.restaurantapp.payment.ProviderSettlement;
+import com.restaurant.restaurantapp.payment.SettlementPage;
+import com.restaurant.restaurantapp.payment.SimulatedPaymentGateway;
+import com.restaurant.restaurantapp.support.ResourcelessTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the reconciliation job against the simulator's settlement export and a streamed order cursor.
+ */
+class PaymentReconciliationServiceTest {
+
+    private final SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(0, 0, 0.0, "key", "webhook");
+    private final PaymentProviderBulkhead bulkhead = new PaymentProviderBulkhead(2, 4, 2_000, 5, 30_000);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.destroy();
+    }
+
+    @Test
+    void reportsEachKindOfMismatch() {
+        List<OrderPaymentRow> rows = new ArrayList<>();
+        // Clean: paid and completed with the captured payment.
+        rows.add(paid(1L, OrderStatus.COMPLETED, "100.00", 10_000, true));
+        // Customer paid, browser never came back.
+        rows.add(paid(2L, OrderStatus.AWAITING_PAYMENT, "200.00", 20_000, false));
+        // Captured less than the bill.
+        rows.add(paid(3L, OrderStatus.COMPLETED, "300.00", 29_000, true));
+        // Completed online but the provider never captured it.
+        rows.add(new OrderPaymentRow(4L, OrderStatus.COMPLETED, new BigDecimal("400.00"), "order_ghost", "pay_ghost", null));
+        // Paid at the counter: nothing to reconcile.
+        rows.add(new OrderPaymentRow(5L, OrderStatus.COMPLETED, new BigDecimal("500.00"), null, null, null));
+        // Capture nobody links to.
+        gateway.addSettlement(new ProviderSettlement("pay_orphan", "order_orphan", null, 5_000, "INR", LocalDateTime.now()));
+        when(orderRepository.streamPaymentRows(any(), any())).thenAnswer(invocation -> rows.stream());
+
+        ReconciliationReportDTO report = newService(2).reconcile(LocalDate.now());
+
+        assertThat(report.getOrdersScanned()).isEqualTo(5);
+        assertThat(report.getSettlementsScanned()).isEqualTo(4);
+        assertThat(report.getMatched()).isEqualTo(1);
+        Map<DiscrepancyType, List<Long>> byType = report.getDiscrepancies().stream().collect(Collectors.groupingBy(
+                PaymentDiscrepancyDTO::getType, Collectors.mapping(PaymentDiscrepancyDTO::getOrderId, Collectors.toList())));
+        assertThat(byType).containsOnlyKeys(DiscrepancyType.PAID_BUT_AWAITING_PAYMENT, DiscrepancyType.AMOUNT_MISMATCH,
+                DiscrepancyType.COMPLETED_WITHOUT_SETTLEMENT, DiscrepancyType.SETTLEMENT_WITHOUT_ORDER);
+        assertThat(byType.get(DiscrepancyType.PAID_BUT_AWAITING_PAYMENT)).containsExactly(2L);
+        assertThat(byType.get(DiscrepancyType.AMOUNT_MISMATCH)).containsExactly(3L);
+        assertThat(byType.get(DiscrepancyType.COMPLETED_WITHOUT_SETTLEMENT)).containsExactly(4L);
+        assertThat(report.getDiscrepancyCount()).isEqualTo(4);
+    }
+
+    @Test
+    void largeDayIsStreamedAndReportIsCapped() {
+        int orders = 50_000;
+        // Every order is awaiting payment and nothing was captured: lots of rows, no discrepancies, nothing retained per row.
+        when(orderRepository.streamPaymentRows(any(), any())).thenAnswer(invocation -> LongStream.rangeClosed(1, orders)
+                .mapToObj(id -> new OrderPaymentRow(id, OrderStatus.AWAITING_PAYMENT, new BigDecimal("10.00"), "order_" + id, null, null)));
+        for (int i = 0; i < 30; i++) {
+            gateway.addSettlement(new ProviderSettlement("pay_x" + i, "order_x" + i, null, 1_000, "INR", LocalDateTime.now()));
+        }
+
+        ReconciliationReportDTO report = new PaymentReconciliationService(orderRepository, gateway, bulkhead,
+                new ResourcelessTransactionManager(), 7, 10).reconcile(LocalDate.now());
+
+        assertThat(report.getOrdersScanned()).isEqualTo(orders);
+        assertThat(report.getSettlementsScanned()).isEqualTo(30);
+        assertThat(report.getDiscrepancyCount()).isEqualTo(30);
+        assertThat(report.getDiscrepancies()).hasSize(10);
+    }
+
+    @Test
+    void pagesThinnedByUncapturedPaymentsDoNotEndTheExport() {
+        // The provider returned a full page of 3 payments each time, but only one per page was captured.
+        PaymentGateway provider = mock(PaymentGateway.class);
+        LocalDate day = LocalDate.now();
+        when(provider.fetchSettlements(day, 0, 3)).thenReturn(new SettlementPage(List.of(capture(1L)), true));
+        when(provider.fetchSettlements(day, 3, 3)).thenReturn(new SettlementPage(List.of(capture(2L)), true));
+        when(provider.fetchSettlements(day, 6, 3)).thenReturn(new SettlementPage(List.of(), false));
+        when(orderRepository.streamPaymentRows(any(), any())).thenAnswer(invocation -> Stream.of(
+                new OrderPaymentRow(1L, OrderStatus.COMPLETED, new BigDecimal("100.00"), "order_1", "pay_1", 10_000L),
+                new OrderPaymentRow(2L, OrderStatus.COMPLETED, new BigDecimal("100.00"), "order_2", "pay_2", 10_000L)));
+
+        ReconciliationReportDTO report = new PaymentReconciliationService(orderRepository, provider, bulkhead,
+                new ResourcelessTransactionManager(), 3, 1_000).reconcile(day);
+
+        assertThat(report.getSettlementsScanned()).isEqualTo(2);
+        assertThat(report.getMatched()).isEqualTo(2);
+        assertThat(report.getDiscrepancyCount()).isZero();
+    }
+
+    private static ProviderSettlement capture(Long orderId) {
+        return new ProviderSettlement("pay_" + orderId, "order_" + orderId, null, 10_000, "INR", LocalDateTime.now());
+    }
+
+    private OrderPaymentRow paid(Long orderId, OrderStatus status, String total, long capturedPaise, boolean recorded) {
+        String providerOrderId = "order_" + orderId;
+        gateway.addSettlement(new ProviderSettlement("pay_" + orderId, providerOrderId, orderId.toString(), capturedPaise, "INR", LocalDateTime.now()));
+        return new OrderPaymentRow(orderId, status, new BigDecimal(total), providerOrderId, recorded ? "pay_" + orderId : null, null);
+    }
+
+    private PaymentReconciliationService newService(int pageSize) {
+        return new PaymentReconciliationService(orderRepository, gateway, bulkhead, new ResourcelessTransactionManager(), pageSize, 1_000);
+    }
+}
@@ -0,0 +1,282 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.CreateRazorpayOrderRequestDTO;
+import com.restaurant.restaurantapp.DTO.CreateRazorpayOrderResponseDTO;
+import com.restaurant.restaurantapp.Exception.PaymentProviderException;
+import com.restaurant.restaurantapp.Repository.BillSnapshotRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.ProviderOrderRepository;
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.payment.PaymentGateway;
+import com.restaurant.restaurantapp.payment.PaymentProviderBulkhead;
+import com.restaurant.restaurantapp.payment.SettlementPage;
+import com.restaurant.restaurantapp.util.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives PaymentService against a slow local stub provider and a transaction manager that
+ * counts open transactions the way Hikari would count borrowed connections.
+ */
+class PaymentServiceBulkheadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentServiceBulkheadTest.class);
+
+    private static final int POOL_SIZE = 5; // spring.datasource.hikari.maximum-pool-size
+    private static final long PROVIDER_LATENCY_MS = 300;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final CountingTransactionManager connectionPool = new CountingTransactionManager();
+    private final StubProvider provider = new StubProvider();
+    private PaymentProviderBulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        if (bulkhead != null) {
+            bulkhead.destroy();
+        }
+    }
+
+    @Test
+    void providerLatencyDoesNotHoldConnections() throws Exception {
+        bulkhead = new PaymentProviderBulkhead(8, 32, 2_000, 5, 30_000);
+        PaymentService paymentService = newPaymentService();
+        stubAwaitingPaymentOrders();
+
+        int checkouts = 20;
+        ExecutorService requests = Executors.newFixedThreadPool(checkouts);
+        List<Future<CreateRazorpayOrderResponseDTO>> results = new ArrayList<>();
+        for (long id = 1; id <= checkouts; id++) {
+            long orderId = id;
+            results.add(requests.submit(() -> paymentService.createRazorpayOrder(request(orderId))));
+        }
+        for (Future<CreateRazorpayOrderResponseDTO> result : results) {
+            assertThat(result.get().getRazorpayOrderId()).startsWith("order_stub_");
+        }
+        requests.shutdown();
+
+        // While 8 provider calls were in flight at a time, connections were only borrowed for the short read/write steps.
+        assertThat(provider.maxConnectionsHeldDuringCall.get()).isLessThan(POOL_SIZE);
+        long providerTimeMs = checkouts * PROVIDER_LATENCY_MS;
+        assertThat(connectionPool.totalHeldNanos.get() / 1_000_000).isLessThan(providerTimeMs / 10);
+        log.info("Provider time: {} ms, connection time: {} ms, peak connections: {}",
+                providerTimeMs, connectionPool.totalHeldNanos.get() / 1_000_000, connectionPool.peak.get());
+    }
+
+    @Test
+    void fullBulkheadShedsLoadInsteadOfQueueing() throws Exception {
+        bulkhead = new PaymentProviderBulkhead(2, 0, 2_000, 50, 30_000);
+        PaymentService paymentService = newPaymentService();
+        stubAwaitingPaymentOrders();
+
+        ExecutorService requests = Executors.newFixedThreadPool(10);
+        List<Callable<Boolean>> calls = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            long orderId = id;
+            calls.add(() -> {
+                try {
+                    paymentService.createRazorpayOrder(request(orderId));
+                    return true;
+                } catch (PaymentProviderException e) {
+                    return false;
+                }
+            });
+        }
+        long succeeded = requests.invokeAll(calls).stream().filter(f -> {
+            try {
+                return f.get();
+            } catch (Exception e) {
+                return false;
+            }
+        }).count();
+        requests.shutdown();
+
+        assertThat(succeeded).isBetween(2L, 9L);
+        assertThat(provider.calls.get()).isEqualTo((int) succeeded);
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndFailsFast() {
+        bulkhead = new PaymentProviderBulkhead(2, 4, 2_000, 3, 60_000);
+        PaymentService paymentService = newPaymentService();
+        stubAwaitingPaymentOrders();
+        provider.failing = true;
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> paymentService.createRazorpayOrder(request(1L)))
+                    .isInstanceOf(PaymentProviderException.class);
+        }
+        assertThat(bulkhead.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int callsBefore = provider.calls.get();
+        assertThatThrownBy(() -> paymentService.createRazorpayOrder(request(1L)))
+                .isInstanceOf(PaymentProviderException.class)
+                .hasMessageContaining("temporarily unavailable");
+        assertThat(provider.calls.get()).isEqualTo(callsBefore);
+    }
+
+    @Test
+    void repeatedAndConcurrentClicksShareOneIntent() throws Exception {
+        bulkhead = new PaymentProviderBulkhead(4, 16, 2_000, 5, 30_000);
+        PaymentService paymentService = newPaymentService();
+        Map<Long, String> linkedIds = new ConcurrentHashMap<>();
+        AtomicReference<BigDecimal> total = new AtomicReference<>(new BigDecimal("450.00"));
+        when(orderRepository.findById(any())).thenAnswer(invocation -> {
+            Order order = new Order();
+            order.setId(invocation.getArgument(0));
+            order.setStatus(OrderStatus.AWAITING_PAYMENT);
+            order.setTotalPrice(total.get());
+            order.setRazorpayOrderId(linkedIds.get(order.getId()));
+            return Optional.of(order);
+        });
+        when(orderRepository.linkRazorpayOrderIfAwaitingPayment(anyLong(), anyString())).thenAnswer(invocation -> {
+            linkedIds.put(invocation.getArgument(0), invocation.getArgument(1));
+            return 1;
+        });
+
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        List<Future<CreateRazorpayOrderResponseDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(requests.submit(() -> paymentService.createRazorpayOrder(request(1L))));
+        }
+        for (Future<CreateRazorpayOrderResponseDTO> result : results) {
+            assertThat(result.get().getAmountInPaise()).isEqualTo(45_000L);
+        }
+        requests.shutdown();
+        assertThat(provider.calls.get()).isEqualTo(1);
+
+        // A reload with the same bill reuses the intent; a changed bill gets a new one.
+        paymentService.createRazorpayOrder(request(1L));
+        assertThat(provider.calls.get()).isEqualTo(1);
+        total.set(new BigDecimal("500.00"));
+        assertThat(paymentService.createRazorpayOrder(request(1L)).getAmountInPaise()).isEqualTo(50_000L);
+        assertThat(provider.calls.get()).isEqualTo(2);
+    }
+
+    private PaymentService newPaymentService() {
+        return new PaymentService(orderRepository, mock(BillSnapshotRepository.class), mock(ProviderOrderRepository.class), mock(InvoiceService.class),
+                mock(OrderService.class), mock(ApplicationEventPublisher.class), provider, bulkhead, connectionPool);
+    }
+
+    private void stubAwaitingPaymentOrders() {
+        when(orderRepository.findById(any())).thenAnswer(invocation -> {
+            Order order = new Order();
+            order.setId(invocation.getArgument(0));
+            order.setStatus(OrderStatus.AWAITING_PAYMENT);
+            order.setTotalPrice(new BigDecimal("450.00"));
+            return Optional.of(order);
+        });
+        when(orderRepository.linkRazorpayOrderIfAwaitingPayment(anyLong(), anyString())).thenReturn(1);
+    }
+
+    private static CreateRazorpayOrderRequestDTO request(long orderId) {
+        CreateRazorpayOrderRequestDTO dto = new CreateRazorpayOrderRequestDTO();
+        dto.setAmount(new BigDecimal("450.00"));
+        dto.setCurrency("INR");
+        dto.setReceipt(Long.toString(orderId));
+        return dto;
+    }
+
+    /** Local stand-in for the payment provider with fixed latency. */
+    private class StubProvider implements PaymentGateway {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger maxConnectionsHeldDuringCall = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public String getKeyId() {
+            return "rzp_test_stub";
+        }
+
+        @Override
+        public String createOrder(long amountInPaise, String currency, String receipt) {
+            calls.incrementAndGet();
+            maxConnectionsHeldDuringCall.accumulateAndGet(connectionPool.active.get(), Math::max);
+            try {
+                Thread.sleep(PROVIDER_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                throw new PaymentProviderException("stub provider failure");
+            }
+            return "order_stub_" + receipt;
+        }
+
+        @Override
+        public boolean verifyPaymentSignature(String providerOrderId, String providerPaymentId, String signature) {
+            return true;
+        }
+
+        @Override
+        public boolean verifyWebhookSignature(String payload, String signature) {
+            return true;
+        }
+
+        @Override
+        public SettlementPage fetchSettlements(LocalDate businessDate, int skip, int count) {
+            return new SettlementPage(List.of(), false);
+        }
+    }
+
+    /** Counts open transactions as borrowed connections and how long they were held. */
+    private static class CountingTransactionManager implements PlatformTransactionManager {
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final AtomicLong totalHeldNanos = new AtomicLong();
+        private final ThreadLocal<Long> openedAt = new ThreadLocal<>();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            openedAt.set(System.nanoTime());
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            release();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            release();
+        }
+
+        private void release() {
+            totalHeldNanos.addAndGet(System.nanoTime() - openedAt.get());
+            active.decrementAndGet();
+        }
+    }
+}
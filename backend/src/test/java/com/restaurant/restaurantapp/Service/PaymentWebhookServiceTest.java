@@ -0,0 +1,211 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.BillSnapshotRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.PaymentWebhookEventRepository;
+import com.restaurant.restaurantapp.Repository.ProviderOrderRepository;
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.PaymentWebhookEvent;
+import com.restaurant.restaurantapp.model.ProviderOrder;
+import com.restaurant.restaurantapp.model.WebhookEventStatus;
+import com.restaurant.restaurantapp.payment.PaymentGateway;
+import com.restaurant.restaurantapp.payment.PaymentProviderBulkhead;
+import com.restaurant.restaurantapp.support.ResourcelessTransactionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Webhook ingest and the inbox worker, applied through a real PaymentService to orders held by
+ * mocked repositories. The inbox is an in-memory list.
+ */
+class PaymentWebhookServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final PaymentWebhookEventRepository inboxRepository = mock(PaymentWebhookEventRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final BillSnapshotRepository billSnapshotRepository = mock(BillSnapshotRepository.class);
+    private final ProviderOrderRepository providerOrderRepository = mock(ProviderOrderRepository.class);
+    private final InvoiceService invoiceService = mock(InvoiceService.class);
+    private final PaymentGateway gateway = mock(PaymentGateway.class);
+    private final List<PaymentWebhookEvent> inbox = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private Order order;
+    private PaymentWebhookService service;
+
+    @BeforeEach
+    void setUp() {
+        when(gateway.verifyWebhookSignature(anyString(), eq("good"))).thenReturn(true);
+        when(inboxRepository.existsByEventId(anyString()))
+                .thenAnswer(invocation -> inbox.stream().anyMatch(e -> e.getEventId().equals(invocation.getArgument(0))));
+        when(inboxRepository.saveAndFlush(any(PaymentWebhookEvent.class))).thenAnswer(invocation -> {
+            PaymentWebhookEvent event = invocation.getArgument(0);
+            event.setId(ids.incrementAndGet());
+            inbox.add(event);
+            return event;
+        });
+        when(inboxRepository.findByStatusOrderByIdAsc(eq(WebhookEventStatus.PENDING), any())).thenAnswer(invocation ->
+                inbox.stream().filter(e -> e.getStatus() == WebhookEventStatus.PENDING).collect(Collectors.toList()));
+
+        order = new Order();
+        order.setId(7L);
+        order.setPublicTrackingId("track-7");
+        order.setStatus(OrderStatus.AWAITING_PAYMENT);
+        order.setTotalPrice(new BigDecimal("500.00"));
+        order.setRazorpayOrderId("order_current");
+        when(orderRepository.findByRazorpayOrderId(anyString())).thenReturn(Optional.empty());
+        when(orderRepository.findByRazorpayOrderId("order_current")).thenReturn(Optional.of(order));
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(billSnapshotRepository.findFirstByOrderIdOrderByIdDesc(anyLong())).thenReturn(Optional.empty());
+        when(providerOrderRepository.findByProviderOrderId(anyString())).thenReturn(Optional.empty());
+
+        PaymentService paymentService = new PaymentService(orderRepository, billSnapshotRepository, providerOrderRepository,
+                invoiceService, mock(OrderService.class), mock(ApplicationEventPublisher.class), gateway,
+                mock(PaymentProviderBulkhead.class), new ResourcelessTransactionManager());
+        service = new PaymentWebhookService(inboxRepository, paymentService, gateway, 100, MAX_ATTEMPTS);
+    }
+
+    @Test
+    void badSignatureIsRejectedAndNothingIsStored() {
+        assertThatThrownBy(() -> service.ingest(captured("pay_1", "order_current"), "forged", "evt_1"))
+                .isInstanceOf(InvalidRequestException.class);
+
+        assertThat(inbox).isEmpty();
+    }
+
+    @Test
+    void duplicateEventIdIsANoOp() {
+        service.ingest(captured("pay_1", "order_current"), "good", "evt_1");
+        service.ingest(captured("pay_1", "order_current"), "good", "evt_1");
+        assertThat(inbox).hasSize(1);
+
+        // A redelivery racing the first insert loses on the unique key and is acknowledged all the same
+        when(inboxRepository.saveAndFlush(any(PaymentWebhookEvent.class))).thenThrow(new DataIntegrityViolationException("event_id"));
+        assertThatCode(() -> service.ingest(captured("pay_1", "order_current"), "good", "evt_2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void eventsForOnePaymentAreAppliedOnceAndOthersIgnored() {
+        service.ingest(captured("pay_1", "order_current"), "good", "evt_1");
+        service.ingest(orderPaid("pay_1", "order_current"), "good", "evt_2");
+        service.ingest("{\"event\":\"refund.created\",\"payload\":{}}", "good", "evt_3");
+
+        service.drainInbox();
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(order.getRazorpayPaymentId()).isEqualTo("pay_1");
+        verify(invoiceService).assignInvoiceNumber(order);
+        assertThat(inbox).extracting(PaymentWebhookEvent::getStatus)
+                .containsExactly(WebhookEventStatus.PROCESSED, WebhookEventStatus.PROCESSED, WebhookEventStatus.IGNORED);
+    }
+
+    @Test
+    void failedApplyIsRetriedOnTheNextDrain() {
+        when(orderRepository.findByRazorpayOrderId("order_current"))
+                .thenThrow(new QueryTimeoutException("statement timeout"))
+                .thenReturn(Optional.of(order));
+        service.ingest(captured("pay_1", "order_current"), "good", "evt_1");
+
+        service.drainInbox();
+        PaymentWebhookEvent event = inbox.get(0);
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.PENDING);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).contains("statement timeout");
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.AWAITING_PAYMENT);
+
+        service.drainInbox();
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.PROCESSED);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        verify(invoiceService).assignInvoiceNumber(order);
+    }
+
+    @Test
+    void eventForAnUnknownProviderOrderEndsAsFailed() {
+        service.ingest(captured("pay_9", "order_unknown"), "good", "evt_9");
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            assertThat(inbox.get(0).getStatus()).isEqualTo(WebhookEventStatus.PENDING);
+            service.drainInbox();
+        }
+
+        assertThat(inbox.get(0).getStatus()).isEqualTo(WebhookEventStatus.FAILED);
+        assertThat(inbox.get(0).getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(inbox.get(0).getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    void paymentOnAReplacedIntentIsAppliedWhenTheAmountStillMatches() {
+        when(providerOrderRepository.findByProviderOrderId("order_before_restart"))
+                .thenReturn(Optional.of(providerOrder("order_before_restart", 50_000)));
+        service.ingest(captured("pay_1", "order_before_restart"), "good", "evt_1");
+
+        service.drainInbox();
+
+        assertThat(inbox.get(0).getStatus()).isEqualTo(WebhookEventStatus.PROCESSED);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.COMPLETED);
+        assertThat(order.getRazorpayPaymentId()).isEqualTo("pay_1");
+    }
+
+    @Test
+    void paymentOnAReplacedIntentForAnOldAmountIsNotApplied() {
+        when(providerOrderRepository.findByProviderOrderId("order_old_bill"))
+                .thenReturn(Optional.of(providerOrder("order_old_bill", 42_000)));
+        service.ingest(captured("pay_1", "order_old_bill"), "good", "evt_1");
+
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            service.drainInbox();
+        }
+
+        assertThat(inbox.get(0).getStatus()).isEqualTo(WebhookEventStatus.FAILED);
+        assertThat(inbox.get(0).getLastError()).contains("42000 paise", "50000 paise");
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.AWAITING_PAYMENT);
+        verify(invoiceService, never()).assignInvoiceNumber(any());
+    }
+
+    private static ProviderOrder providerOrder(String providerOrderId, long amountInPaise) {
+        ProviderOrder record = new ProviderOrder();
+        record.setProviderOrderId(providerOrderId);
+        record.setOrderId(7L);
+        record.setAmountInPaise(amountInPaise);
+        return record;
+    }
+
+    private static String captured(String paymentId, String providerOrderId) {
+        return webhook("payment.captured", paymentId, providerOrderId);
+    }
+
+    private static String orderPaid(String paymentId, String providerOrderId) {
+        return webhook("order.paid", paymentId, providerOrderId);
+    }
+
+    private static String webhook(String type, String paymentId, String providerOrderId) {
+        return "{\"event\":\"" + type + "\",\"payload\":{\"payment\":{\"entity\":{\"id\":\"" + paymentId
+                + "\",\"order_id\":\"" + providerOrderId + "\",\"amount\":50000}}}}";
+    }
+}
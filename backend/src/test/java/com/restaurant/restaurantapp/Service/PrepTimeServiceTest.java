@@ -0,0 +1,105 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.Repository.PrepTimeHistogramRepository;
+import com.restaurant.restaurantapp.event.OrderItemStatusEvent;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import com.restaurant.restaurantapp.model.PrepStage;
+import com.restaurant.restaurantapp.model.PrepTimeHistogram;
+import com.restaurant.restaurantapp.model.PrepTimeScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recording, persisting and restoring prep-time histograms, with the saved rows kept in an
+ * in-memory map behind a mocked repository.
+ */
+class PrepTimeServiceTest {
+
+    private static final LocalDateTime QUEUED = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private final PrepTimeHistogramRepository repository = mock(PrepTimeHistogramRepository.class);
+    private final Map<Long, PrepTimeHistogram> rows = new LinkedHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        when(repository.save(any(PrepTimeHistogram.class))).thenAnswer(invocation -> {
+            PrepTimeHistogram row = invocation.getArgument(0);
+            if (row.getId() == null) {
+                row.setId(ids.incrementAndGet());
+            }
+            rows.put(row.getId(), row);
+            return row;
+        });
+        when(repository.findAll()).thenAnswer(invocation -> List.copyOf(rows.values()));
+    }
+
+    @Test
+    void statsSurviveAPersistAndRestore() {
+        PrepTimeService before = new PrepTimeService(repository);
+        for (int seconds = 60; seconds <= 600; seconds += 60) {
+            before.onItemStatusChanged(cooked(1L, "Soup", 10L, "Stove", seconds));
+        }
+        before.onItemStatusChanged(cooked(2L, "Salad", null, null, 90));
+        before.persistHistograms();
+
+        PrepTimeService after = new PrepTimeService(repository);
+        after.loadHistograms();
+
+        assertThat(rows).hasSize(3); // Soup, Salad, and the Stove station
+        assertThat(after.getStats(PrepTimeScope.DISH)).isEqualTo(before.getStats(PrepTimeScope.DISH));
+        assertThat(after.getStats(PrepTimeScope.STATION)).isEqualTo(before.getStats(PrepTimeScope.STATION));
+        assertThat(after.getMedian(1L, PrepStage.COOKING)).isEqualTo(before.getMedian(1L, PrepStage.COOKING));
+        assertThat(after.getStats(PrepTimeScope.DISH).get(1).getMaxSeconds()).isEqualTo(600);
+    }
+
+    @Test
+    void onlyChangedHistogramsAreWrittenAndRestoredRowsAreUpdatedInPlace() {
+        PrepTimeService before = new PrepTimeService(repository);
+        before.onItemStatusChanged(cooked(1L, "Soup", null, null, 120));
+        before.persistHistograms();
+        before.persistHistograms(); // Nothing changed since the last run
+        verify(repository, times(1)).save(any(PrepTimeHistogram.class));
+
+        PrepTimeService after = new PrepTimeService(repository);
+        after.loadHistograms();
+        after.onItemStatusChanged(cooked(1L, "Soup", null, null, 240));
+        after.persistHistograms();
+
+        assertThat(rows).hasSize(1);
+        PrepTimeHistogram row = rows.values().iterator().next();
+        assertThat(row.getTotalCount()).isEqualTo(2);
+        assertThat(row.getStage()).isEqualTo(PrepStage.COOKING);
+        assertThat(after.getStats(PrepTimeScope.DISH).get(0).getMaxSeconds()).isEqualTo(240);
+    }
+
+    @Test
+    void skippedStagesAreNotTimed() {
+        PrepTimeService service = new PrepTimeService(repository);
+        service.onItemStatusChanged(new OrderItemStatusEvent(1L, 1L, "track", 1L, "Soup", null, null, 1,
+                OrderItemStatus.NEEDS_PREPARATION, OrderItemStatus.READY, QUEUED, null, QUEUED.plusMinutes(5), null));
+
+        assertThat(service.getStats(PrepTimeScope.DISH)).isEmpty();
+        assertThat(service.getMedian(1L, PrepStage.COOKING)).isNull();
+    }
+
+    private static OrderItemStatusEvent cooked(Long dishId, String dishName, Long categoryId, String categoryName, int seconds) {
+        LocalDateTime started = QUEUED.plusMinutes(1);
+        return new OrderItemStatusEvent(dishId * 100 + seconds, 1L, "track", dishId, dishName, categoryId, categoryName, 1,
+                OrderItemStatus.IN_PROGRESS, OrderItemStatus.READY, QUEUED, started, started.plus(Duration.ofSeconds(seconds)), null);
+    }
+}
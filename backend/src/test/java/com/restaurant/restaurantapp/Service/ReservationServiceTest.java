@@ -0,0 +1,218 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.AvailableTableDTO;
+import com.restaurant.restaurantapp.DTO.ReservationDTO;
+import com.restaurant.restaurantapp.DTO.ReservationRequestDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.ReservationRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.Repository.WaitlistEntryRepository;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.Reservation;
+import com.restaurant.restaurantapp.model.ReservationStatus;
+import com.restaurant.restaurantapp.model.RestaurantTable;
+import com.restaurant.restaurantapp.model.WaitlistEntry;
+import com.restaurant.restaurantapp.model.WaitlistStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Availability, seating and waitlist promotion through ReservationService, with reservations kept
+ * in an in-memory map behind a mocked repository.
+ */
+class ReservationServiceTest {
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final WaitlistEntryRepository waitlistRepository = mock(WaitlistEntryRepository.class);
+    private final RestaurantTableRepository tableRepository = mock(RestaurantTableRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final Map<Long, Reservation> reservations = new HashMap<>();
+    private final Map<Long, RestaurantTable> tables = new HashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private ReservationService service;
+
+    @BeforeEach
+    void setUp() {
+        table(1L, "T1", 2);
+        table(2L, "T2", 4);
+        table(3L, "T3", 6);
+        when(tableRepository.findAll()).thenAnswer(invocation -> List.copyOf(tables.values()));
+        when(tableRepository.getReferenceById(anyLong())).thenAnswer(invocation -> tables.get(invocation.<Long>getArgument(0)));
+        when(reservationRepository.findByStatusInAndEndTimeAfter(any(), any())).thenReturn(List.of());
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            if (reservation.getId() == null) {
+                reservation.setId(ids.incrementAndGet());
+            }
+            reservations.put(reservation.getId(), reservation);
+            return reservation;
+        });
+        when(reservationRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(reservations.get(invocation.<Long>getArgument(0))));
+        when(reservationRepository.findByRestaurantTableIdAndStatus(anyLong(), any())).thenAnswer(invocation -> reservations.values().stream()
+                .filter(r -> r.getRestaurantTable().getId().equals(invocation.getArgument(0)) && r.getStatus() == invocation.getArgument(1))
+                .collect(Collectors.toList()));
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service = new ReservationService(reservationRepository, waitlistRepository, tableRepository, orderRepository, 90);
+        service.loadAgendas();
+    }
+
+    @Test
+    void bookedTableIsUnavailableUntilCancelled() {
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        ReservationDTO booked = service.createReservation(request(4, start, 2L));
+
+        assertThat(tableIds(service.findAvailableTables(4, start.plusMinutes(30), null))).containsExactly(3L);
+        assertThat(tableIds(service.findAvailableTables(4, start.plusMinutes(90), null))).containsExactly(2L, 3L); // End is exclusive
+        assertThatThrownBy(() -> service.createReservation(request(2, start.minusMinutes(60), 2L)))
+                .isInstanceOf(InvalidRequestException.class);
+
+        service.cancelReservation(booked.getId());
+        assertThat(tableIds(service.findAvailableTables(4, start.plusMinutes(30), null))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void smallestFittingTableIsBookedFirst() {
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        assertThat(service.createReservation(request(2, start, null)).getTableId()).isEqualTo(1L);
+        assertThat(service.createReservation(request(2, start, null)).getTableId()).isEqualTo(2L);
+        assertThat(service.createReservation(request(2, start, null)).getTableId()).isEqualTo(3L);
+        assertThatThrownBy(() -> service.createReservation(request(2, start, null))).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void closingTheTabReleasesTheSeatedSlotAndPromotesTheWaitlist() {
+        LocalDateTime start = LocalDateTime.now().minusMinutes(30);
+        ReservationDTO booked = service.createReservation(request(4, start, 2L));
+        service.seatReservation(booked.getId());
+        assertThat(reservations.get(booked.getId()).getStatus()).isEqualTo(ReservationStatus.SEATED);
+        assertThat(tableIds(service.findAvailableTables(4, LocalDateTime.now(), null))).containsExactly(3L);
+
+        WaitlistEntry waiting = new WaitlistEntry();
+        waiting.setId(50L);
+        waiting.setPartySize(3);
+        waiting.setStatus(WaitlistStatus.WAITING);
+        when(waitlistRepository.findFirstByStatusAndPartySizeLessThanEqualOrderByRequestedAtAsc(WaitlistStatus.WAITING, 4))
+                .thenReturn(Optional.of(waiting));
+
+        service.onOrderLifecycle(closed(2L));
+
+        assertThat(reservations.get(booked.getId()).getStatus()).isEqualTo(ReservationStatus.COMPLETED);
+        assertThat(tableIds(service.findAvailableTables(4, LocalDateTime.now(), null))).containsExactly(2L, 3L);
+        assertThat(waiting.getStatus()).isEqualTo(WaitlistStatus.PROMOTED);
+        assertThat(waiting.getAssignedTable().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void slotIsHeldButLookupsAreNotBlockedWhileTheReservationIsSaved() {
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            // Another host looking at the same time from another thread: not blocked, and T2 is already taken
+            List<AvailableTableDTO> seen = CompletableFuture
+                    .supplyAsync(() -> service.findAvailableTables(4, start, null))
+                    .get(1, TimeUnit.SECONDS);
+            assertThat(tableIds(seen)).containsExactly(3L);
+            Reservation reservation = invocation.getArgument(0);
+            reservation.setId(ids.incrementAndGet());
+            return reservation;
+        });
+
+        service.createReservation(request(4, start, 2L));
+
+        assertThat(tableIds(service.findAvailableTables(4, start, null))).containsExactly(3L);
+    }
+
+    @Test
+    void failedSaveReleasesTheSlot() {
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        when(reservationRepository.save(any(Reservation.class))).thenThrow(new IllegalStateException("connection lost"));
+
+        assertThatThrownBy(() -> service.createReservation(request(4, start, 2L))).isInstanceOf(IllegalStateException.class);
+
+        assertThat(tableIds(service.findAvailableTables(4, start, null))).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void partySizeMustBePositive() {
+        LocalDateTime start = LocalDateTime.now().plusHours(2);
+        assertThatThrownBy(() -> service.findAvailableTables(0, start, null)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.createReservation(request(-1, start, null))).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void waitlistIsNotPromotedWhileAnotherOrderIsActiveOnTheTable() {
+        when(orderRepository.existsByRestaurantTableIdAndStatusIn(eq(2L), any())).thenReturn(true);
+
+        service.onOrderLifecycle(closed(2L));
+
+        verify(waitlistRepository, never()).findFirstByStatusAndPartySizeLessThanEqualOrderByRequestedAtAsc(any(), anyInt());
+    }
+
+    @Test
+    void waitlistIsNotPromotedOntoATableReservedSoon() {
+        service.createReservation(request(2, LocalDateTime.now().plusMinutes(45), 2L));
+
+        service.onOrderLifecycle(closed(2L));
+
+        verify(waitlistRepository, never()).findFirstByStatusAndPartySizeLessThanEqualOrderByRequestedAtAsc(any(), anyInt());
+    }
+
+    @Test
+    void openOrderEventsLeaveTheWaitlistAlone() {
+        service.onOrderLifecycle(new OrderLifecycleEvent(9L, "track", 2L, null, OrderStatus.OPEN,
+                BigDecimal.ZERO, LocalDateTime.now(), LocalDateTime.now()));
+
+        verify(waitlistRepository, never()).findFirstByStatusAndPartySizeLessThanEqualOrderByRequestedAtAsc(eq(WaitlistStatus.WAITING), anyInt());
+    }
+
+    private void table(Long id, String number, int capacity) {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(id);
+        table.setTableNumber(number);
+        table.setCapacity(capacity);
+        tables.put(id, table);
+    }
+
+    private static ReservationRequestDTO request(int partySize, LocalDateTime start, Long tableId) {
+        ReservationRequestDTO request = new ReservationRequestDTO();
+        request.setCustomerName("Guest");
+        request.setPartySize(partySize);
+        request.setStartTime(start);
+        request.setTableId(tableId);
+        return request;
+    }
+
+    private static OrderLifecycleEvent closed(Long tableId) {
+        return new OrderLifecycleEvent(9L, "track", tableId, OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED,
+                BigDecimal.TEN, LocalDateTime.now().minusHours(1), LocalDateTime.now());
+    }
+
+    private static List<Long> tableIds(List<AvailableTableDTO> available) {
+        return available.stream().map(AvailableTableDTO::getTableId).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.RollupBackfillStatusDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.SalesRollupHourlyDishRepository;
+import com.restaurant.restaurantapp.Repository.SalesRollupHourlyRepository;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.support.ResourcelessTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * When SalesRollupService adds an order to the rollups or takes it back out, and how a backfill
+ * walks its days, against mocked repositories. The SQL itself needs Postgres and is not run here.
+ */
+class SalesRollupServiceTest {
+
+    private static final LocalDateTime ORDER_TIME = LocalDateTime.of(2025, 6, 14, 19, 42);
+
+    private final SalesRollupHourlyRepository hourlyRepository = mock(SalesRollupHourlyRepository.class);
+    private final SalesRollupHourlyDishRepository hourlyDishRepository = mock(SalesRollupHourlyDishRepository.class);
+    private final SalesRollupService service = new SalesRollupService(hourlyRepository, hourlyDishRepository,
+            new ResourcelessTransactionManager(), 400);
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void reopenTakesTheOrderBackOutAndRecompletingAddsItOnce() {
+        service.onOrderLifecycle(event(OrderStatus.OPEN, OrderStatus.AWAITING_PAYMENT));
+        verify(hourlyRepository, never()).applyOrder(anyLong(), anyInt());
+
+        service.onOrderLifecycle(event(OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED));
+        service.onOrderLifecycle(event(OrderStatus.COMPLETED, OrderStatus.OPEN));
+        service.onOrderLifecycle(event(OrderStatus.OPEN, OrderStatus.COMPLETED));
+        service.onOrderLifecycle(event(OrderStatus.COMPLETED, OrderStatus.COMPLETED)); // Repeated status: no change
+
+        InOrder order = inOrder(hourlyRepository, hourlyDishRepository);
+        for (int sign : new int[]{1, -1, 1}) {
+            // The day's shared lock comes first, so a rebuild of that day can't interleave
+            order.verify(hourlyRepository).lockDayShared(anyInt(), eq((int) ORDER_TIME.toLocalDate().toEpochDay()));
+            order.verify(hourlyRepository).applyOrder(9L, sign);
+            order.verify(hourlyDishRepository).applyOrder(9L, sign);
+        }
+        verify(hourlyRepository, times(3)).applyOrder(anyLong(), anyInt());
+    }
+
+    @Test
+    void backfillRebuildsEachDayUnderItsExclusiveLock() throws Exception {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        service.startBackfill(from, from.plusDays(2));
+        RollupBackfillStatusDTO status = awaitBackfill();
+
+        assertThat(status.getError()).isNull();
+        assertThat(status.getDaysDone()).isEqualTo(3);
+        assertThat(status.getLastCompletedDay()).isEqualTo(from.plusDays(2));
+        InOrder order = inOrder(hourlyRepository, hourlyDishRepository);
+        for (LocalDate day = from; !day.isAfter(from.plusDays(2)); day = day.plusDays(1)) {
+            order.verify(hourlyRepository).lockDay(anyInt(), eq((int) day.toEpochDay()));
+            order.verify(hourlyDishRepository).deleteRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            order.verify(hourlyRepository).deleteRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            order.verify(hourlyDishRepository).rebuildRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            order.verify(hourlyRepository).rebuildRange(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        }
+        verify(hourlyRepository, never()).lockDayShared(anyInt(), anyInt());
+    }
+
+    @Test
+    void failedBackfillDayStopsTheRunAndCanBeResumedAfterTheLastCompletedDay() throws Exception {
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        LocalDateTime failingDay = from.plusDays(1).atStartOfDay();
+        when(hourlyRepository.rebuildRange(eq(failingDay), any())).thenThrow(new IllegalStateException("deadlock detected"));
+
+        service.startBackfill(from, from.plusDays(2));
+        RollupBackfillStatusDTO status = awaitBackfill();
+
+        assertThat(status.getError()).isEqualTo("deadlock detected");
+        assertThat(status.getLastCompletedDay()).isEqualTo(from);
+        verify(hourlyRepository, never()).rebuildRange(eq(from.plusDays(2).atStartOfDay()), any());
+    }
+
+    @Test
+    void onlyOneBackfillRunsAtATime() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(hourlyRepository.rebuildRange(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 24;
+        });
+        LocalDate from = LocalDate.of(2025, 6, 1);
+        service.startBackfill(from, from);
+
+        assertThatThrownBy(() -> service.startBackfill(from, from)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> service.startBackfill(from, from.minusDays(1))).isInstanceOf(InvalidRequestException.class);
+        release.countDown();
+        assertThat(awaitBackfill().getDaysDone()).isEqualTo(1);
+    }
+
+    private RollupBackfillStatusDTO awaitBackfill() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        RollupBackfillStatusDTO status = service.getBackfillStatus();
+        while (status.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = service.getBackfillStatus();
+        }
+        assertThat(status.isRunning()).as("backfill finished").isFalse();
+        return status;
+    }
+
+    private static OrderLifecycleEvent event(OrderStatus previous, OrderStatus next) {
+        return new OrderLifecycleEvent(9L, "track-9", 1L, previous, next, new BigDecimal("450.00"), ORDER_TIME, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,126 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.SeatSuggestionDTO;
+import com.restaurant.restaurantapp.Exception.InvalidRequestException;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.event.OrderLifecycleEvent;
+import com.restaurant.restaurantapp.event.TableChangedEvent;
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.RestaurantTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Walk-in suggestions from SeatAssignmentService's in-memory index, built from mocked repositories
+ * and kept current by order lifecycle events.
+ */
+class SeatAssignmentServiceTest {
+
+    private final RestaurantTableRepository tableRepository = mock(RestaurantTableRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final List<RestaurantTable> tables = new ArrayList<>();
+    private final List<Order> activeOrders = new ArrayList<>();
+
+    private SeatAssignmentService service;
+
+    @BeforeEach
+    void setUp() {
+        table(1L, "T1", 2);
+        table(2L, "T2", 2);
+        table(3L, "T3", 4);
+        table(4L, "B1", 6);
+        when(tableRepository.findByCapacityGreaterThanEqual(anyInt())).thenAnswer(invocation -> List.copyOf(tables));
+        when(orderRepository.findByStatusIn(any())).thenAnswer(invocation -> List.copyOf(activeOrders));
+
+        service = new SeatAssignmentService(tableRepository, orderRepository);
+        service.rebuildIndex();
+    }
+
+    @Test
+    void tightestSingleTableComesFirst() {
+        assertThat(numbers(service.suggestSeating(3, 5))).containsExactly("T3", "T1+T2", "B1");
+        assertThat(numbers(service.suggestSeating(6, 1))).containsExactly("B1");
+        assertThat(service.suggestSeating(9, 5)).isEmpty();
+        assertThatThrownBy(() -> service.suggestSeating(0, 5)).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void adjacentTablesInAZoneAreCombined() {
+        List<SeatSuggestionDTO> suggestions = service.suggestSeating(4, 5);
+
+        // T3 and T1+T2 both fit exactly; the single table wins the tie. T2+T3 is left out as T3 seats the party alone.
+        assertThat(numbers(suggestions)).containsExactly("T3", "T1+T2", "B1");
+        assertThat(suggestions.get(1).isCombined()).isTrue();
+        assertThat(suggestions.get(1).getSpareSeats()).isZero();
+
+        service.onOrderLifecycle(event(10L, 2L, null, OrderStatus.OPEN));
+        assertThat(numbers(service.suggestSeating(4, 5))).containsExactly("T3", "B1"); // The run is broken at T2
+        assertThat(numbers(service.suggestSeating(5, 5))).containsExactly("B1");
+    }
+
+    @Test
+    void tableStaysTakenUntilItsLastActiveOrderEnds() {
+        service.onOrderLifecycle(event(10L, 3L, OrderStatus.OPEN, OrderStatus.AWAITING_PAYMENT));
+        service.onOrderLifecycle(event(11L, 3L, null, OrderStatus.OPEN)); // New tab while the bill is being paid
+        service.onOrderLifecycle(event(10L, 3L, OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED));
+        assertThat(numbers(service.suggestSeating(4, 5))).doesNotContain("T3");
+
+        service.onOrderLifecycle(event(11L, 3L, OrderStatus.OPEN, OrderStatus.OPEN)); // Repeated event
+        service.onOrderLifecycle(event(11L, 3L, OrderStatus.OPEN, OrderStatus.CANCELLED));
+        assertThat(numbers(service.suggestSeating(4, 5))).contains("T3");
+    }
+
+    @Test
+    void rebuildCountsEveryActiveOrderAndTableChangesKeepThem() {
+        activeOrders.add(order(20L, 4L, OrderStatus.AWAITING_PAYMENT));
+        activeOrders.add(order(21L, 4L, OrderStatus.OPEN));
+        service.rebuildIndex();
+
+        service.onOrderLifecycle(event(20L, 4L, OrderStatus.AWAITING_PAYMENT, OrderStatus.COMPLETED));
+        service.onTableChanged(new TableChangedEvent(4L, "B1", 10, false));
+        assertThat(service.suggestSeating(9, 5)).isEmpty();
+
+        service.onOrderLifecycle(event(21L, 4L, OrderStatus.OPEN, OrderStatus.COMPLETED));
+        assertThat(service.suggestSeating(9, 5)).extracting(SeatSuggestionDTO::getTotalCapacity).containsExactly(10);
+    }
+
+    private void table(Long id, String number, int capacity) {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(id);
+        table.setTableNumber(number);
+        table.setCapacity(capacity);
+        tables.add(table);
+    }
+
+    private Order order(Long id, Long tableId, OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(status);
+        order.setRestaurantTable(tables.stream().filter(t -> t.getId().equals(tableId)).findFirst().orElseThrow());
+        return order;
+    }
+
+    private static OrderLifecycleEvent event(Long orderId, Long tableId, OrderStatus previous, OrderStatus next) {
+        return new OrderLifecycleEvent(orderId, "track-" + orderId, tableId, previous, next,
+                BigDecimal.ZERO, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private static List<String> numbers(List<SeatSuggestionDTO> suggestions) {
+        return suggestions.stream().map(s -> String.join("+", s.getTableNumbers())).collect(Collectors.toList());
+    }
+}
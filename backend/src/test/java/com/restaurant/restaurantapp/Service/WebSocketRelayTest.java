@@ -0,0 +1,140 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.OrderChangeDTO;
+import com.restaurant.restaurantapp.event.OrderChangesEvent;
+import com.restaurant.restaurantapp.event.StaffUpdateEvent;
+import com.restaurant.restaurantapp.support.ResourcelessTransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * WebSocketRelay wired as in the application: its @TransactionalEventListener methods only hand an
+ * update to WebSocketService once the publishing transaction has committed.
+ */
+class WebSocketRelayTest {
+
+    private static final List<OrderChangeDTO> CHANGES = List.of(
+            OrderChangeDTO.item(OrderChangeDTO.ITEM_STATUS, 9001L, "Paneer Tikka", "READY"));
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableTransactionManagement
+    @Import(WebSocketRelay.class)
+    static class RelayOnly {
+
+        @Bean
+        WebSocketService webSocketService() {
+            return mock(WebSocketService.class);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new ResourcelessTransactionManager();
+        }
+    }
+
+    private AnnotationConfigApplicationContext context;
+    private WebSocketService webSocketService;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(RelayOnly.class);
+        webSocketService = context.getBean(WebSocketService.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void committedUpdatesAreSentAfterTheCommit() {
+        transaction.executeWithoutResult(status -> {
+            context.publishEvent(new OrderChangesEvent("track-1", 1L, CHANGES));
+            context.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_KITCHEN, 9001L, "item"));
+            verifyNoInteractions(webSocketService); // Nothing is queued before the commit
+        });
+
+        verify(webSocketService, timeout(1_000)).publishOrderDelta("track-1", 1L, CHANGES);
+        verify(webSocketService, timeout(1_000)).sendStaffUpdate(WebSocketService.STAFF_KITCHEN, 9001L, "item");
+    }
+
+    @Test
+    void rolledBackUpdatesAreNeverSent() {
+        transaction.executeWithoutResult(status -> {
+            context.publishEvent(new OrderChangesEvent("track-1", 1L, CHANGES));
+            context.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_KITCHEN, 9001L, "item"));
+            status.setRollbackOnly();
+        });
+        // A later committed update goes through the same single thread, so once it has arrived
+        // anything queued for the rolled-back transaction would have too
+        transaction.executeWithoutResult(status -> context.publishEvent(new OrderChangesEvent("track-2", 2L, CHANGES)));
+
+        verify(webSocketService, timeout(1_000)).publishOrderDelta("track-2", 2L, CHANGES);
+        verify(webSocketService, never()).publishOrderDelta(eq("track-1"), anyLong(), any());
+        verify(webSocketService, never()).sendStaffUpdate(anyString(), any(), any());
+    }
+
+    @Test
+    void anOrderUpdateDroppedFromAFullQueueLeavesAGapOnItsChannel() throws Exception {
+        WebSocketService service = mock(WebSocketService.class);
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            busy.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(service).sendStaffUpdate(WebSocketService.STAFF_KITCHEN, 1L, "item");
+        WebSocketRelay relay = new WebSocketRelay(service, 1);
+        try {
+            relay.onStaffUpdate(new StaffUpdateEvent(WebSocketService.STAFF_KITCHEN, 1L, "item")); // Holds the relay thread
+            assertThat(busy.await(1, TimeUnit.SECONDS)).isTrue();
+            relay.onStaffUpdate(new StaffUpdateEvent(WebSocketService.STAFF_KITCHEN, 2L, "item")); // Fills the queue
+            relay.onOrderChanges(new OrderChangesEvent("track-3", 3L, CHANGES));
+            relay.onStaffUpdate(new StaffUpdateEvent(WebSocketService.STAFF_KITCHEN, 4L, "item"));
+
+            verify(service).markGap("track-3"); // Before the drop returns, so no later message can go out without the gap
+            release.countDown();
+            verify(service, timeout(1_000)).sendStaffUpdate(WebSocketService.STAFF_KITCHEN, 2L, "item");
+        } finally {
+            release.countDown();
+            relay.destroy();
+        }
+        verify(service, never()).publishOrderDelta(eq("track-3"), anyLong(), any());
+        verify(service, never()).sendStaffUpdate(WebSocketService.STAFF_KITCHEN, 4L, "item");
+        verify(service, times(1)).markGap(anyString()); // Staff screens poll, so a dropped staff update marks nothing
+    }
+
+    @Test
+    void updatesOutsideATransactionAreSentRightAway() {
+        context.publishEvent(new StaffUpdateEvent(WebSocketService.STAFF_ASSISTANCE, 4L, "table"));
+
+        verify(webSocketService, timeout(1_000)).sendStaffUpdate(WebSocketService.STAFF_ASSISTANCE, 4L, "table");
+    }
+}
@@ -0,0 +1,74 @@
+package com.restaurant.restaurantapp.Service;
+
+import com.restaurant.restaurantapp.DTO.CustomerOrderStatusDto;
+import com.restaurant.restaurantapp.DTO.OrderChangeDTO;
+import com.restaurant.restaurantapp.DTO.OrderTopicMessage;
+import com.restaurant.restaurantapp.config.PayloadFormatNegotiation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sequence numbers on an order's channel and what a re-syncing client gets back, with a mocked broker.
+ */
+class WebSocketServiceTest {
+
+    private static final String DESTINATION = "/topic/orders/track-3";
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final WebSocketService service = new WebSocketService(messagingTemplate, mock(PayloadFormatNegotiation.class), 100, 32, 1);
+    private final Supplier<CustomerOrderStatusDto> state = () -> {
+        CustomerOrderStatusDto snapshot = new CustomerOrderStatusDto();
+        snapshot.setPublicTrackingId("track-3");
+        snapshot.setInternalOrderId(3L);
+        return snapshot;
+    };
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void aMarkedGapSkipsASeqAndForcesASnapshotForClientsBehindIt() {
+        OrderTopicMessage first = publish(1, "IN_PROGRESS");
+        assertThat(first.getSeq()).isEqualTo(1);
+        long epoch = first.getEpoch();
+
+        service.markGap("track-3");
+        OrderTopicMessage next = publish(2, "READY");
+
+        assertThat(next.getSeq()).isEqualTo(3); // Seq 2 was the lost update
+        OrderTopicMessage behindGap = service.orderSync("track-3", epoch, 1L, state);
+        assertThat(behindGap.getKind()).isEqualTo(OrderTopicMessage.SNAPSHOT); // Not a replay that lacks seq 2
+        OrderTopicMessage pastGap = service.orderSync("track-3", epoch, 2L, state);
+        assertThat(pastGap.getKind()).isEqualTo(OrderTopicMessage.REPLAY);
+        assertThat(pastGap.getMessages()).extracting(OrderTopicMessage::getSeq).containsExactly(3L);
+    }
+
+    @Test
+    void aGapBeforeTheFirstMessageStillShows() {
+        // A client that took the seq 0 snapshot must not read seq 1 as the next message after it
+        service.markGap("track-3");
+
+        assertThat(publish(1, "READY").getSeq()).isEqualTo(2);
+    }
+
+    // Publishes one item status change and returns the message that reached the broker for it.
+    private OrderTopicMessage publish(int sent, String itemStatus) {
+        service.publishOrderDelta("track-3", 3L, List.of(OrderChangeDTO.item(OrderChangeDTO.ITEM_STATUS, 9001L, "Paneer Tikka", itemStatus)));
+        ArgumentCaptor<OrderTopicMessage> message = ArgumentCaptor.forClass(OrderTopicMessage.class);
+        verify(messagingTemplate, timeout(1_000).times(sent)).convertAndSend(eq(DESTINATION), message.capture());
+        return message.getValue();
+    }
+}
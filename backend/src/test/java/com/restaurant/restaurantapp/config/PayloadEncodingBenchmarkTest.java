@@ -0,0 +1,162 @@
+package com.restaurant.restaurantapp.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.restaurant.restaurantapp.DTO.CustomerOrderStatusDto;
+import com.restaurant.restaurantapp.DTO.KitchenOrderItemDTO;
+import com.restaurant.restaurantapp.DTO.OrderChangeDTO;
+import com.restaurant.restaurantapp.DTO.OrderTopicMessage;
+import com.restaurant.restaurantapp.model.OrderItemStatus;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JSON vs CBOR for the payloads the broker actually carries: an order delta, an order snapshot
+ * and a batch of kitchen updates. Checks CBOR round-trips to the same objects and is smaller;
+ * the bytes and CPU time per message comparison only runs with {@code -Dloadtest=true}.
+ */
+class PayloadEncodingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PayloadEncodingBenchmarkTest.class);
+
+    private static final int ITERATIONS = 20_000;
+
+    private final MappingJackson2MessageConverter json = jsonConverter();
+    private final CborMessageConverter cbor = new CborMessageConverter(mapper(new CBORFactory()));
+    private final MessageHeaders cborHeaders = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, CborMessageConverter.APPLICATION_CBOR));
+
+    @Test
+    void cborIsSmallerAndRoundTrips() throws Exception {
+        OrderTopicMessage delta = delta();
+        OrderTopicMessage snapshot = snapshot();
+        List<KitchenOrderItemDTO> kitchenBatch = kitchenBatch();
+
+        ObjectMapper cborMapper = cbor.getObjectMapper();
+        assertThat(cborMapper.readValue(encode(cbor, delta), OrderTopicMessage.class)).isEqualTo(delta);
+        assertThat(cborMapper.readValue(encode(cbor, snapshot), OrderTopicMessage.class)).isEqualTo(snapshot);
+        assertThat(cborMapper.readValue(encode(cbor, kitchenBatch), new TypeReference<List<KitchenOrderItemDTO>>() { }))
+                .isEqualTo(kitchenBatch);
+
+        for (Object payload : List.of(delta, snapshot, kitchenBatch)) {
+            assertThat(encode(cbor, payload).length).isLessThan(encode(json, payload).length);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "loadtest", matches = "true")
+    void bytesAndCpuPerMessage() {
+        report("order delta", delta());
+        report("order snapshot", snapshot());
+        report("kitchen batch", kitchenBatch());
+    }
+
+    private void report(String name, Object payload) {
+        int jsonBytes = encode(json, payload).length;
+        int cborBytes = encode(cbor, payload).length;
+        long jsonCpu = cpuNanosPerMessage(json, payload);
+        long cborCpu = cpuNanosPerMessage(cbor, payload);
+        log.info("{} JSON: {} bytes, {} ns CPU | CBOR: {} bytes ({}%), {} ns CPU",
+                name, jsonBytes, jsonCpu, cborBytes, cborBytes * 100 / jsonBytes, cborCpu);
+    }
+
+    private long cpuNanosPerMessage(MessageConverter converter, Object payload) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) { // Warm-up
+            sink += encode(converter, payload).length;
+        }
+        long began = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += encode(converter, payload).length;
+        }
+        long nanos = threads.getCurrentThreadCpuTime() - began;
+        assertThat(sink).isPositive();
+        return nanos / ITERATIONS;
+    }
+
+    private byte[] encode(MessageConverter converter, Object payload) {
+        MessageHeaders headers = converter == cbor ? cborHeaders : null;
+        return (byte[]) converter.toMessage(payload, headers).getPayload();
+    }
+
+    private static OrderTopicMessage delta() {
+        OrderTopicMessage message = new OrderTopicMessage();
+        message.setEpoch(1_760_000_000_000L);
+        message.setSeq(42);
+        message.setKind(OrderTopicMessage.DELTA);
+        message.setOrderId(1234L);
+        message.setChanges(List.of(
+                OrderChangeDTO.item(OrderChangeDTO.ITEM_STATUS, 9001L, "Paneer Tikka", "READY"),
+                OrderChangeDTO.item(OrderChangeDTO.ITEM_STATUS, 9002L, "Garlic Naan", "IN_PROGRESS"),
+                OrderChangeDTO.item(OrderChangeDTO.ITEM_QUANTITY, 9003L, "Masala Chai", 3)));
+        return message;
+    }
+
+    private static OrderTopicMessage snapshot() {
+        List<CustomerOrderStatusDto.OrderItemSimpleDto> items = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            BigDecimal price = new BigDecimal("249.00").add(BigDecimal.valueOf(i * 10L));
+            items.add(new CustomerOrderStatusDto.OrderItemSimpleDto("Dish number " + i, 1 + i % 3, price,
+                    price.multiply(BigDecimal.valueOf(1 + i % 3)), 9000L + i, OrderItemStatus.values()[i % 4]));
+        }
+        CustomerOrderStatusDto status = new CustomerOrderStatusDto("3f2b8c1e-5d4a-4e7b-9c2d-1a2b3c4d5e6f", 1234L,
+                OrderStatus.OPEN, LocalDateTime.of(2025, 6, 14, 19, 42, 7), new BigDecimal("2712.00"), null, items);
+        OrderTopicMessage message = new OrderTopicMessage();
+        message.setEpoch(1_760_000_000_000L);
+        message.setSeq(42);
+        message.setKind(OrderTopicMessage.SNAPSHOT);
+        message.setOrderId(1234L);
+        message.setSnapshot(status);
+        return message;
+    }
+
+    private static List<KitchenOrderItemDTO> kitchenBatch() {
+        List<KitchenOrderItemDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            KitchenOrderItemDTO item = new KitchenOrderItemDTO();
+            item.setOrderItemId(9000L + i);
+            item.setDishName("Dish number " + i);
+            item.setQuantity(1 + i % 3);
+            item.setItemStatus(i % 2 == 0 ? OrderItemStatus.NEEDS_PREPARATION : OrderItemStatus.IN_PROGRESS);
+            item.setTableNumber("T" + (i % 5 + 1));
+            item.setOrderId(1200L + i % 4);
+            batch.add(item);
+        }
+        return batch;
+    }
+
+    private static MappingJackson2MessageConverter jsonConverter() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(mapper(null));
+        return converter;
+    }
+
+    // Configured like Spring Boot's mapper: ISO dates rather than timestamp arrays
+    private static ObjectMapper mapper(CBORFactory factory) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+}
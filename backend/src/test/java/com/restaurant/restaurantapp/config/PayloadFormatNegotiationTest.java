@@ -0,0 +1,138 @@
+package com.restaurant.restaurantapp.config;
+
+import com.restaurant.restaurantapp.security.JwtUtil;
+import com.restaurant.restaurantapp.security.StompAuthChannelInterceptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.sockjs.transport.session.AbstractSockJsSession;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Subscription rewriting, the access check on the CBOR twins and the subscriber probe of
+ * PayloadFormatNegotiation. Interceptors run in the order WebSocketConfig registers them.
+ */
+class PayloadFormatNegotiationTest {
+
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<SimpleBrokerMessageHandler> brokerProvider = mock(ObjectProvider.class);
+    private final PayloadFormatNegotiation negotiation = new PayloadFormatNegotiation(Jackson2ObjectMapperBuilder.json(), brokerProvider);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final StompAuthChannelInterceptor auth = new StompAuthChannelInterceptor(jwtUtil, userDetailsService);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final Map<String, Object> session = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jwtUtil.extractUsername("staff-token")).thenReturn("sam");
+        when(userDetailsService.loadUserByUsername("sam")).thenReturn(User.withUsername("sam").password("x").roles("STAFF").build());
+        when(jwtUtil.isTokenValid(eq("staff-token"), any())).thenReturn(true);
+    }
+
+    @Test
+    void webSocketSubscriptionAskingForCborMovesToTheBinaryTwin() throws Exception {
+        open(mock(WebSocketSession.class));
+
+        assertThat(subscribe("/topic/orders/abc", "application/json;q=0.5, application/cbor")).isEqualTo("/topic/cbor/orders/abc");
+        assertThat(subscribe("/topic/orders/abc", null)).isEqualTo("/topic/orders/abc");
+        assertThat(subscribe("/topic/orders/abc", "not a mime type")).isEqualTo("/topic/orders/abc");
+        assertThat(subscribe("/app/orders/abc", "application/cbor")).isEqualTo("/app/orders/abc");
+    }
+
+    @Test
+    void sockJsSessionsStayOnJson() throws Exception {
+        open(mock(AbstractSockJsSession.class));
+
+        assertThat(subscribe("/topic/orders/abc", "application/cbor")).isEqualTo("/topic/orders/abc");
+    }
+
+    @Test
+    void cborTwinsOfStaffTopicsNeedTheStaffRole() throws Exception {
+        open(mock(WebSocketSession.class));
+        auth.preSend(frame(StompCommand.CONNECT, null, null), channel);
+
+        // Anonymous: denied whether the twin is asked for directly or reached through the rewrite
+        assertThatThrownBy(() -> subscribe("/topic/cbor/staff/bills", null)).isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> subscribe("/topic/staff/bills", "application/cbor")).isInstanceOf(AccessDeniedException.class);
+
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.addNativeHeader("Authorization", "Bearer staff-token");
+        auth.preSend(message(connect), channel);
+
+        assertThat(subscribe("/topic/staff/bills", "application/cbor")).isEqualTo("/topic/cbor/staff/bills");
+        assertThat(subscribe("/topic/cbor/staff/bills", null)).isEqualTo("/topic/cbor/staff/bills");
+    }
+
+    @Test
+    void hasSubscribersLooksAtTheBrokerRegistry() {
+        assertThat(negotiation.hasSubscribers("/topic/cbor/orders/abc")).isFalse(); // No broker yet
+
+        DefaultSubscriptionRegistry registry = new DefaultSubscriptionRegistry();
+        SimpleBrokerMessageHandler broker = mock(SimpleBrokerMessageHandler.class);
+        when(broker.getSubscriptionRegistry()).thenReturn(registry);
+        when(brokerProvider.getIfAvailable()).thenReturn(broker);
+        assertThat(negotiation.hasSubscribers("/topic/cbor/orders/abc")).isFalse();
+
+        StompHeaderAccessor subscription = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        subscription.setSubscriptionId("sub-0");
+        subscription.setDestination("/topic/cbor/orders/abc");
+        registry.registerSubscription(message(subscription));
+
+        assertThat(negotiation.hasSubscribers("/topic/cbor/orders/abc")).isTrue();
+        assertThat(negotiation.hasSubscribers("/topic/orders/abc")).isFalse();
+    }
+
+    private void open(WebSocketSession webSocketSession) throws Exception {
+        when(webSocketSession.getAttributes()).thenReturn(session);
+        negotiation.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(webSocketSession);
+    }
+
+    // Runs a SUBSCRIBE through both interceptors and returns the destination the broker would see.
+    private String subscribe(String destination, String accept) {
+        Message<?> message = frame(StompCommand.SUBSCRIBE, destination, accept);
+        message = negotiation.preSend(auth.preSend(message, channel), channel);
+        return MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class).getDestination();
+    }
+
+    private Message<byte[]> frame(StompCommand command, String destination, String accept) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        if (accept != null) {
+            accessor.addNativeHeader("accept", accept);
+        }
+        return message(accessor);
+    }
+
+    private Message<byte[]> message(StompHeaderAccessor accessor) {
+        accessor.setSessionId("s1");
+        accessor.setSessionAttributes(session);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,168 @@
+package com.restaurant.restaurantapp.config;
+
+import com.restaurant.restaurantapp.security.JwtUtil;
+import com.restaurant.restaurantapp.security.StompAuthChannelInterceptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.RestTemplateXhrTransport;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The same STOMP broker (our WebSocketConfig, no database) reached over each transport a client can
+ * end up on: plain WebSocket, SockJS over WebSocket, and SockJS XHR streaming. For each it opens a
+ * batch of subscribed sessions, checks WebSocketMetrics attributes them to the right transport, and
+ * logs heap per connection (client and server side together, as both run in this JVM) and
+ * broadcast latency percentiles. Only runs with {@code -Dloadtest=true}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(classes = WebSocketTransportBenchmarkTest.BrokerOnly.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebSocketTransportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketTransportBenchmarkTest.class);
+
+    private static final int SESSIONS = 50;
+    private static final int MESSAGES = 200;
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, SecurityAutoConfiguration.class})
+    @Import({WebSocketConfig.class, WebSocketMetrics.class, PayloadFormatNegotiation.class, StompAuthChannelInterceptor.class})
+    static class BrokerOnly {
+    }
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private WebSocketMetrics webSocketMetrics;
+
+    @Test
+    void compareTransports() throws Exception {
+        run(WebSocketMetrics.TRANSPORT_WEBSOCKET, new StandardWebSocketClient(), "ws://localhost:" + port + "/ws-native");
+        run(WebSocketMetrics.TRANSPORT_SOCKJS_WEBSOCKET,
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))),
+                "http://localhost:" + port + "/ws");
+        run(WebSocketMetrics.TRANSPORT_SOCKJS_STREAMING,
+                new SockJsClient(List.of(new RestTemplateXhrTransport())),
+                "http://localhost:" + port + "/ws");
+    }
+
+    private void run(String transport, WebSocketClient webSocketClient, String url) throws Exception {
+        ThreadPoolTaskScheduler heartbeats = new ThreadPoolTaskScheduler();
+        heartbeats.initialize();
+        WebSocketStompClient stompClient = new WebSocketStompClient(webSocketClient);
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setTaskScheduler(heartbeats);
+
+        String destination = "/topic/bench/" + transport;
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicReference<CountDownLatch> delivered = new AtomicReference<>(new CountDownLatch(0));
+        StompFrameHandler handler = new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Long.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                latencies.add(System.nanoTime() - (Long) payload);
+                delivered.get().countDown();
+            }
+        };
+
+        long heapBefore = usedHeap();
+        List<StompSession> sessions = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            StompSession session = stompClient.connectAsync(url, new StompSessionHandlerAdapter() { }).get(10, TimeUnit.SECONDS);
+            session.subscribe(destination, handler);
+            sessions.add(session);
+        }
+        awaitSubscribers(destination);
+        long bytesPerConnection = (usedHeap() - heapBefore) / SESSIONS;
+        assertThat(webSocketMetrics.snapshot().getLiveSessionsByTransport().get(transport)).isEqualTo(SESSIONS);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            CountDownLatch latch = new CountDownLatch(SESSIONS);
+            delivered.set(latch);
+            messagingTemplate.convertAndSend(destination, System.nanoTime());
+            assertThat(latch.await(10, TimeUnit.SECONDS)).as("all sessions received message %d", i).isTrue();
+        }
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        log.info("{} {} sessions: ~{} bytes heap/connection, broadcast latency p50 {} us, p99 {} us, max {} us",
+                transport, SESSIONS, bytesPerConnection,
+                percentile(sorted, 50) / 1000, percentile(sorted, 99) / 1000, sorted.get(sorted.size() - 1) / 1000);
+
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+        heartbeats.shutdown();
+    }
+
+    // Subscriptions are processed asynchronously; wait until the broker has them all before timing.
+    private void awaitSubscribers(String destination) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (webSocketMetrics.snapshot().getSubscribersByDestination().getOrDefault(destination, 0) < SESSIONS) {
+            assertThat(System.currentTimeMillis()).as("subscriptions to %s", destination).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index));
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,240 @@
+package com.restaurant.restaurantapp.payment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.restaurantapp.DTO.CreateRazorpayOrderRequestDTO;
+import com.restaurant.restaurantapp.DTO.CreateRazorpayOrderResponseDTO;
+import com.restaurant.restaurantapp.DTO.PaymentVerificationRequestDTO;
+import com.restaurant.restaurantapp.DTO.PaymentVerificationResponseDto;
+import com.restaurant.restaurantapp.Repository.ArchivedOrderRepository;
+import com.restaurant.restaurantapp.Repository.BillSnapshotRepository;
+import com.restaurant.restaurantapp.Repository.DishRepository;
+import com.restaurant.restaurantapp.Repository.OrderItemRepository;
+import com.restaurant.restaurantapp.Repository.OrderRepository;
+import com.restaurant.restaurantapp.Repository.ProviderOrderRepository;
+import com.restaurant.restaurantapp.Repository.RestaurantTableRepository;
+import com.restaurant.restaurantapp.Service.BillService;
+import com.restaurant.restaurantapp.Service.InvoiceService;
+import com.restaurant.restaurantapp.Service.OrderService;
+import com.restaurant.restaurantapp.Service.PaymentService;
+import com.restaurant.restaurantapp.model.BillSnapshot;
+import com.restaurant.restaurantapp.model.Dish;
+import com.restaurant.restaurantapp.model.Order;
+import com.restaurant.restaurantapp.model.OrderItem;
+import com.restaurant.restaurantapp.model.OrderStatus;
+import com.restaurant.restaurantapp.model.RestaurantTable;
+import com.restaurant.restaurantapp.support.ResourcelessTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load suite for the billing flow: request-bill, create-order and verify against the simulated provider,
+ * at a fixed arrival rate, with latency percentiles per step.
+ * Orders live in an in-memory repository so the numbers show our own code plus provider latency.
+ * <p>
+ * Run with {@code mvn test -Dtest=PaymentFlowLoadTest -Dloadtest=true}; tune with
+ * {@code -Dloadtest.checkouts=600 -Dloadtest.per-minute=600 -Dloadtest.latency-ms=150 -Dloadtest.error-rate=0.01}.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PaymentFlowLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentFlowLoadTest.class);
+
+    private final Map<Long, Order> orders = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Test
+    void checkoutsAtTargetRate() throws Exception {
+        int checkouts = Integer.getInteger("loadtest.checkouts", 600);
+        int perMinute = Integer.getInteger("loadtest.per-minute", 600);
+        long latencyMs = Long.getLong("loadtest.latency-ms", 150);
+        double errorRate = Double.parseDouble(System.getProperty("loadtest.error-rate", "0.0"));
+
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(latencyMs, latencyMs / 2, errorRate, "load_key", "load_webhook");
+        PaymentProviderBulkhead bulkhead = new PaymentProviderBulkhead(16, 64, 5_000, 1_000, 30_000);
+        OrderRepository orderRepository = inMemoryOrderRepository();
+        BillSnapshotRepository billRepository = inMemoryBillRepository();
+        BillService billService = new BillService(billRepository, new ObjectMapper(), new BigDecimal("0.05"), "INR");
+        InvoiceService invoiceService = mock(InvoiceService.class);
+        OrderService orderService = new OrderService(orderRepository, mock(DishRepository.class), mock(RestaurantTableRepository.class),
+                mock(OrderItemRepository.class), mock(ApplicationEventPublisher.class), billService,
+                invoiceService, mock(ArchivedOrderRepository.class));
+        PaymentService paymentService = new PaymentService(orderRepository, billRepository, mock(ProviderOrderRepository.class), invoiceService, orderService,
+                mock(ApplicationEventPublisher.class), gateway, bulkhead, new ResourcelessTransactionManager());
+
+        StepTimer requestBill = new StepTimer();
+        StepTimer createOrder = new StepTimer();
+        StepTimer verify = new StepTimer();
+        StepTimer endToEnd = new StepTimer();
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(checkouts);
+
+        ExecutorService customers = Executors.newFixedThreadPool(64);
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger started = new AtomicInteger();
+        long periodMicros = 60_000_000L / perMinute;
+        arrivals.scheduleAtFixedRate(() -> {
+            if (started.getAndIncrement() >= checkouts) {
+                return;
+            }
+            customers.submit(() -> {
+                long t0 = System.nanoTime();
+                try {
+                    Long orderId = openTab();
+                    requestBill.time(() -> orderService.requestBill(orderId));
+
+                    CreateRazorpayOrderRequestDTO createRequest = new CreateRazorpayOrderRequestDTO();
+                    createRequest.setAmount(orders.get(orderId).getTotalPrice());
+                    createRequest.setCurrency("INR");
+                    createRequest.setReceipt(orderId.toString());
+                    CreateRazorpayOrderResponseDTO intent = createOrder.time(() -> paymentService.createRazorpayOrder(createRequest));
+
+                    SimulatedPayment payment = gateway.capture(intent.getRazorpayOrderId());
+                    PaymentVerificationRequestDTO verifyRequest = new PaymentVerificationRequestDTO();
+                    verifyRequest.setRazorpay_order_id(payment.getProviderOrderId());
+                    verifyRequest.setRazorpay_payment_id(payment.getProviderPaymentId());
+                    verifyRequest.setRazorpay_signature(payment.getSignature());
+                    verifyRequest.setInternalOrderId(orderId);
+                    PaymentVerificationResponseDto result = verify.time(() -> paymentService.verifyPaymentAndUpdateOrder(verifyRequest));
+                    if (!result.isSuccess()) {
+                        failures.incrementAndGet();
+                    }
+                    endToEnd.record(System.nanoTime() - t0);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }, 0, periodMicros, TimeUnit.MICROSECONDS);
+
+        boolean finished = done.await(checkouts * periodMicros / 1000 + 60_000, TimeUnit.MILLISECONDS);
+        arrivals.shutdownNow();
+        customers.shutdownNow();
+        bulkhead.destroy();
+
+        log.info("{} checkouts at {}/min against {} ms provider latency, error rate {}: {} failed",
+                checkouts, perMinute, latencyMs, errorRate, failures.get());
+        requestBill.report("request-bill");
+        createOrder.report("create-order");
+        verify.report("verify");
+        endToEnd.report("end-to-end");
+
+        assertThat(finished).isTrue();
+        long completed = orders.values().stream().filter(o -> o.getStatus() == OrderStatus.COMPLETED).count();
+        assertThat(completed).isEqualTo(checkouts - failures.get());
+        if (errorRate == 0.0) {
+            assertThat(failures.get()).isZero();
+        }
+    }
+
+    private Long openTab() {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(1L);
+        table.setTableNumber("T1");
+        Order order = new Order();
+        order.setId(ids.incrementAndGet());
+        order.setRestaurantTable(table);
+        order.setStatus(OrderStatus.OPEN);
+        Dish dish = new Dish();
+        dish.setId(order.getId() % 20 + 1);
+        dish.setName("Dish " + dish.getId());
+        OrderItem item = new OrderItem();
+        item.setDish(dish);
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("125.00").add(BigDecimal.valueOf(order.getId() % 50)));
+        order.addItem(item);
+        order.recalculateTotalPrice();
+        orders.put(order.getId(), order);
+        return order.getId();
+    }
+
+    private OrderRepository inMemoryOrderRepository() {
+        OrderRepository repository = mock(OrderRepository.class);
+        when(repository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(orders.get((Long) invocation.getArgument(0))));
+        when(repository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.linkRazorpayOrderIfAwaitingPayment(anyLong(), anyString())).thenAnswer(invocation -> {
+            Order order = orders.get((Long) invocation.getArgument(0));
+            synchronized (order) {
+                if (order.getStatus() != OrderStatus.AWAITING_PAYMENT) {
+                    return 0;
+                }
+                order.setRazorpayOrderId(invocation.getArgument(1));
+                return 1;
+            }
+        });
+        when(repository.findByRazorpayOrderId(anyString())).thenAnswer(invocation -> orders.values().stream()
+                .filter(o -> invocation.getArgument(0).equals(o.getRazorpayOrderId())).findFirst());
+        return repository;
+    }
+
+    private BillSnapshotRepository inMemoryBillRepository() {
+        Map<Long, BillSnapshot> bills = new ConcurrentHashMap<>();
+        AtomicLong billIds = new AtomicLong();
+        BillSnapshotRepository repository = mock(BillSnapshotRepository.class);
+        when(repository.save(any(BillSnapshot.class))).thenAnswer(invocation -> {
+            BillSnapshot bill = invocation.getArgument(0);
+            bill.setId(billIds.incrementAndGet());
+            bills.put(bill.getOrderId(), bill);
+            return bill;
+        });
+        when(repository.findFirstByOrderIdOrderByIdDesc(any())).thenAnswer(invocation -> Optional.ofNullable(bills.get((Long) invocation.getArgument(0))));
+        return repository;
+    }
+
+    /** Collects per-call latencies and prints percentiles. */
+    private static class StepTimer {
+        private final ConcurrentLinkedQueue<Long> samples = new ConcurrentLinkedQueue<>();
+
+        <T> T time(Supplier<T> step) {
+            long t0 = System.nanoTime();
+            try {
+                return step.get();
+            } finally {
+                record(System.nanoTime() - t0);
+            }
+        }
+
+        void record(long nanos) {
+            samples.add(nanos);
+        }
+
+        void report(String name) {
+            long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                log.info("{}: no samples", name);
+                return;
+            }
+            log.info(String.format("%-13s n=%-5d p50=%7.1f ms  p95=%7.1f ms  p99=%7.1f ms  max=%7.1f ms", name, sorted.length,
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+    }
+}
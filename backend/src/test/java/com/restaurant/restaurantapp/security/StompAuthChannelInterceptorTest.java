@@ -0,0 +1,106 @@
+package com.restaurant.restaurantapp.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StompAuthChannelInterceptorTest {
+
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final StompAuthChannelInterceptor interceptor = new StompAuthChannelInterceptor(jwtUtil, userDetailsService);
+    private final Map<String, Object> session = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        UserDetails staff = User.withUsername("sam").password("x").roles("STAFF").build();
+        when(jwtUtil.extractUsername("staff-token")).thenReturn("sam");
+        when(userDetailsService.loadUserByUsername("sam")).thenReturn(staff);
+        when(jwtUtil.isTokenValid(eq("staff-token"), any())).thenReturn(true);
+    }
+
+    @Test
+    void staffTokenMaySubscribeToStaffTopics() {
+        interceptor.preSend(connect("staff-token"), channel);
+
+        assertThatCode(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/staff/kitchen"), channel))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/dashboard/snapshot"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void anonymousSessionsOnlyReachPublicTopics() {
+        interceptor.preSend(connect(null), channel);
+
+        assertThatCode(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/orders/abc"), channel))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/staff/bills"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/cbor/staff/bills"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void subscriptionsAfterTheTokenExpiredAreRejected() {
+        interceptor.preSend(connect("staff-token"), channel);
+        when(jwtUtil.isTokenValid(eq("staff-token"), any())).thenReturn(false);
+
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SUBSCRIBE, "/topic/staff/kitchen"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void clientsMayOnlySendToApplicationDestinations() {
+        interceptor.preSend(connect("staff-token"), channel);
+
+        assertThatCode(() -> interceptor.preSend(frame(StompCommand.SEND, "/app/orders/abc/ping"), channel))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, "/topic/orders/abc"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, "/topic/staff/bills"), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.SEND, "/app/dashboard/refresh"), channel))
+                .isInstanceOf(AccessDeniedException.class); // Admin only
+    }
+
+    private Message<byte[]> connect(String token) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (token != null) {
+            accessor.addNativeHeader("Authorization", "Bearer " + token);
+        }
+        return message(accessor);
+    }
+
+    private Message<byte[]> frame(StompCommand command, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        return message(accessor);
+    }
+
+    private Message<byte[]> message(StompHeaderAccessor accessor) {
+        accessor.setSessionId("s1");
+        accessor.setSessionAttributes(session);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,113 @@
+package com.restaurant.restaurantapp.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batching through CoalescingBuffer, with scheduled flushes captured and run by hand.
+ */
+class CoalescingBufferTest {
+
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<String> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(invocation.getArgument(0));
+            return null;
+        });
+    }
+
+    @Test
+    void laterValueForAKeyReplacesTheEarlierOneInPlace() {
+        CoalescingBuffer<String, Long, String> buffer = buffer(Duration.ofMillis(25));
+        buffer.add("orders/a", 1L, "item1:queued");
+        buffer.add("orders/a", 2L, "item2:queued");
+        buffer.add("orders/a", 1L, "item1:ready");
+
+        runScheduled();
+
+        assertThat(delivered).containsExactly("orders/a=[item1:ready, item2:queued]");
+    }
+
+    @Test
+    void eachDestinationIsFlushedOncePerWindow() {
+        CoalescingBuffer<String, Long, String> buffer = buffer(Duration.ofMillis(25));
+        buffer.add("orders/a", 1L, "a1");
+        buffer.add("orders/b", 1L, "b1");
+        buffer.add("orders/a", 2L, "a2");
+        assertThat(scheduled).hasSize(2); // One flush per destination, not per value
+
+        runScheduled();
+        assertThat(delivered).containsExactly("orders/a=[a1, a2]", "orders/b=[b1]");
+
+        buffer.add("orders/a", 3L, "a3"); // A new window opens after the flush
+        assertThat(scheduled).hasSize(1);
+        runScheduled();
+        assertThat(delivered).containsExactly("orders/a=[a1, a2]", "orders/b=[b1]", "orders/a=[a3]");
+    }
+
+    @Test
+    void zeroWindowDeliversEachValueImmediately() {
+        CoalescingBuffer<String, Long, String> buffer = buffer(Duration.ZERO);
+        buffer.add("orders/a", 1L, "a1");
+        buffer.add("orders/a", 1L, "a1-again");
+
+        assertThat(delivered).containsExactly("orders/a=[a1]", "orders/a=[a1-again]");
+        verify(scheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void flushAllDeliversWhatIsWaitingAndTheScheduledFlushThenDoesNothing() {
+        CoalescingBuffer<String, Long, String> buffer = buffer(Duration.ofMillis(25));
+        buffer.add("orders/a", 1L, "a1");
+        buffer.add("orders/b", 1L, "b1");
+
+        buffer.flushAll();
+        assertThat(delivered).containsExactlyInAnyOrder("orders/a=[a1]", "orders/b=[b1]");
+
+        runScheduled();
+        assertThat(delivered).hasSize(2);
+    }
+
+    @Test
+    void aFailingDeliveryDoesNotStopOtherDestinations() {
+        CoalescingBuffer<String, Long, String> buffer = new CoalescingBuffer<>(scheduler, Duration.ofMillis(25), (destination, batch) -> {
+            if (destination.equals("orders/bad")) {
+                throw new IllegalStateException("broker said no");
+            }
+            delivered.add(destination + "=" + batch);
+        });
+        buffer.add("orders/bad", 1L, "x");
+        buffer.add("orders/a", 1L, "a1");
+
+        runScheduled();
+
+        assertThat(delivered).containsExactly("orders/a=[a1]");
+    }
+
+    private CoalescingBuffer<String, Long, String> buffer(Duration window) {
+        return new CoalescingBuffer<>(scheduler, window, (destination, batch) -> delivered.add(destination + "=" + batch));
+    }
+
+    private void runScheduled() {
+        List<Runnable> due = new ArrayList<>(scheduled);
+        scheduled.clear();
+        due.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,130 @@
+package com.restaurant.restaurantapp.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Free-slot search over a busy day: 400 tables, ~6,000 reservations, checked against a brute-force scan.
+ * The timing comparison only runs with {@code -Dloadtest=true}.
+ */
+class IntervalTreeBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IntervalTreeBenchmarkTest.class);
+
+    private static final int TABLES = 400;
+    private static final int DAY_MINUTES = 14 * 60; // 10:00 - 24:00
+    private static final int SEARCHES = 50_000;
+
+    @Test
+    void freeSlotSearchMatchesBruteForce() {
+        Random random = new Random(42);
+        Day day = busyDay(random);
+        assertThat(day.reservations).isGreaterThan(5_000);
+
+        for (int i = 0; i < 2_000; i++) {
+            int table = random.nextInt(TABLES);
+            long start = random.nextInt(DAY_MINUTES);
+            long end = start + 30 + random.nextInt(120);
+            boolean expected = day.flat.get(table).stream().anyMatch(b -> b[0] < end && b[1] > start);
+            assertThat(day.trees.get(table).overlaps(start, end)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "loadtest", matches = "true")
+    void freeSlotSearchTiming() {
+        Random random = new Random(42);
+        Day day = busyDay(random);
+
+        // Each search checks every table for the window, as ReservationService does
+        int free = 0;
+        long began = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            long start = random.nextInt(DAY_MINUTES);
+            long end = start + 90;
+            if (!day.trees.get(i % TABLES).overlaps(start, end)) {
+                free++;
+            }
+        }
+        long treeNanos = System.nanoTime() - began;
+
+        began = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++) {
+            long start = random.nextInt(DAY_MINUTES);
+            long end = start + 90;
+            if (day.flat.get(i % TABLES).stream().noneMatch(b -> b[0] < end && b[1] > start)) {
+                free++;
+            }
+        }
+        long scanNanos = System.nanoTime() - began;
+
+        assertThat(free).isPositive();
+        log.info("Reservations: {} across {} tables. Interval tree: {} ns/check, linear scan: {} ns/check",
+                day.reservations, TABLES, treeNanos / SEARCHES, scanNanos / SEARCHES);
+    }
+
+    @Test
+    void removeKeepsTreeConsistent() {
+        IntervalTree tree = new IntervalTree();
+        for (long i = 0; i < 1_000; i++) {
+            tree.insert(i * 10, i * 10 + 15, i);
+        }
+        for (long i = 0; i < 1_000; i += 2) {
+            assertThat(tree.remove(i * 10, i)).isTrue();
+        }
+        assertThat(tree.size()).isEqualTo(500);
+        assertThat(tree.remove(0, 0)).isFalse();
+        assertThat(tree.overlaps(0, 10)).isFalse();   // [0,15) removed
+        assertThat(tree.overlaps(10, 11)).isTrue();   // [10,25) still there
+        assertThat(tree.findOverlapping(5, 35)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void removeEndedByDropsOnlyFinishedIntervals() {
+        IntervalTree tree = new IntervalTree();
+        for (long i = 0; i < 100; i++) {
+            tree.insert(i * 10, i * 10 + 15, i); // [0,15), [10,25), ... [990,1005)
+        }
+        assertThat(tree.removeEndedBy(505)).isEqualTo(50); // Ends 15 .. 505
+        assertThat(tree.size()).isEqualTo(50);
+        assertThat(tree.findOverlapping(0, 510)).containsExactly(50L); // [500,515) is still running
+        assertThat(tree.removeEndedBy(505)).isZero();
+        assertThat(tree.removeEndedBy(Long.MAX_VALUE)).isEqualTo(50);
+        assertThat(tree.size()).isZero();
+        assertThat(tree.overlaps(Long.MIN_VALUE, Long.MAX_VALUE)).isFalse();
+    }
+
+    private static Day busyDay(Random random) {
+        Day day = new Day();
+        long id = 0;
+        for (int t = 0; t < TABLES; t++) {
+            IntervalTree tree = new IntervalTree();
+            List<long[]> bookings = new ArrayList<>();
+            long cursor = random.nextInt(30);
+            while (cursor < DAY_MINUTES - 60) {
+                long length = 60 + random.nextInt(61);
+                tree.insert(cursor, cursor + length, id++);
+                bookings.add(new long[]{cursor, cursor + length});
+                day.reservations++;
+                cursor += length + random.nextInt(20);
+            }
+            day.trees.add(tree);
+            day.flat.add(bookings);
+        }
+        return day;
+    }
+
+    private static final class Day {
+        private final List<IntervalTree> trees = new ArrayList<>(TABLES);
+        private final List<List<long[]>> flat = new ArrayList<>(TABLES);
+        private int reservations;
+    }
+}
@@ -0,0 +1,124 @@
+package com.restaurant.restaurantapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyHistogramTest {
+
+    private static final long HIGHEST = 3_600_000;
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (long value = 0; value < 128; value++) {
+            assertThat(LatencyHistogram.indexFor(value)).isEqualTo((int) value);
+            assertThat(LatencyHistogram.highestEquivalentValue((int) value)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void largerValuesShareLinearSubBuckets() {
+        assertThat(LatencyHistogram.indexFor(128)).isEqualTo(128);
+        assertThat(LatencyHistogram.indexFor(129)).isEqualTo(128);
+        assertThat(LatencyHistogram.indexFor(130)).isEqualTo(129);
+        assertThat(LatencyHistogram.highestEquivalentValue(128)).isEqualTo(129);
+        assertThat(LatencyHistogram.highestEquivalentValue(191)).isEqualTo(255);
+        assertThat(LatencyHistogram.indexFor(256)).isEqualTo(192);
+        assertThat(LatencyHistogram.highestEquivalentValue(192)).isEqualTo(259);
+    }
+
+    @Test
+    void bucketsAreContiguousAndWithinTheRelativeError() {
+        int previous = -1;
+        for (long value = 0; value <= HIGHEST; value++) {
+            int index = LatencyHistogram.indexFor(value);
+            assertThat(index).isBetween(previous, previous + 1);
+            long top = LatencyHistogram.highestEquivalentValue(index);
+            assertThat(top).isGreaterThanOrEqualTo(value);
+            assertThat(top - value).isLessThanOrEqualTo(value / 64);
+            previous = index;
+        }
+    }
+
+    @Test
+    void percentilesOfExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getTotalCount()).isEqualTo(100);
+        assertThat(histogram.getValueAtPercentile(0)).isEqualTo(1);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(50);
+        assertThat(histogram.getValueAtPercentile(99)).isEqualTo(99);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(100);
+        assertThat(histogram.getMean()).isEqualTo(50.5);
+    }
+
+    @Test
+    void percentilesOfLargeValuesStayWithinTheirBucketAndBelowTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        Random random = new Random(7);
+        long[] values = new long[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + random.nextInt(600_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertThat(reported).isGreaterThanOrEqualTo(exact);
+            assertThat(reported - exact).isLessThanOrEqualTo(exact / 64);
+        }
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(values[values.length - 1]);
+    }
+
+    @Test
+    void outOfRangeValuesAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        histogram.record(-5);
+        histogram.record(HIGHEST * 10);
+
+        assertThat(histogram.getValueAtPercentile(50)).isZero();
+        assertThat(histogram.getMax()).isEqualTo(HIGHEST);
+        assertThat(new LatencyHistogram(HIGHEST).getValueAtPercentile(50)).isZero();
+        assertThatThrownBy(() -> new LatencyHistogram(127)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        histogram.recordCount(42, 3);
+        histogram.record(1_234);
+        histogram.record(98_765);
+
+        LatencyHistogram restored = LatencyHistogram.decode(histogram.encode(), HIGHEST);
+
+        assertThat(restored.encode()).isEqualTo(histogram.encode());
+        assertThat(restored.getTotalCount()).isEqualTo(5);
+        assertThat(restored.getMax()).isEqualTo(98_765);
+        for (double percentile : new double[]{10, 50, 70, 90, 100}) {
+            assertThat(restored.getValueAtPercentile(percentile)).isEqualTo(histogram.getValueAtPercentile(percentile));
+        }
+        assertThat(LatencyHistogram.decode("", HIGHEST).getTotalCount()).isZero();
+    }
+
+    @Test
+    void decodingIntoASmallerRangeFoldsTheTail() {
+        LatencyHistogram histogram = new LatencyHistogram(HIGHEST);
+        histogram.record(10);
+        histogram.record(500_000);
+
+        LatencyHistogram restored = LatencyHistogram.decode(histogram.encode(), 1_000);
+
+        assertThat(restored.getTotalCount()).isEqualTo(2);
+        assertThat(restored.getMax()).isEqualTo(1_000);
+        assertThat(restored.getValueAtPercentile(50)).isEqualTo(10);
+    }
+}
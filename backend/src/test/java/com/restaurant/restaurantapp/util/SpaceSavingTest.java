@@ -0,0 +1,94 @@
+package com.restaurant.restaurantapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpaceSavingTest {
+
+    @Test
+    void countsAreExactWhileEveryKeyFits() {
+        SpaceSaving sketch = new SpaceSaving(3);
+        sketch.offer(1, 2);
+        sketch.offer(2, 5);
+        sketch.offer(1, 4);
+        sketch.offer(3, 0); // Ignored
+        sketch.offer(3, -1);
+
+        List<SpaceSaving.Entry> entries = sketch.entries();
+        assertThat(entries).extracting(SpaceSaving.Entry::getKey).containsExactly(1L, 2L);
+        assertThat(entries).extracting(SpaceSaving.Entry::getCount).containsExactly(6L, 5L);
+        assertThat(entries).extracting(SpaceSaving.Entry::getError).containsOnly(0L);
+        assertThat(sketch.getTotal()).isEqualTo(11);
+    }
+
+    @Test
+    void newcomerEvictsTheSmallestCounterAndInheritsItsCountAsError() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.offer(1, 5);
+        sketch.offer(2, 3);
+        sketch.offer(3, 1);
+
+        List<SpaceSaving.Entry> entries = sketch.entries();
+        assertThat(entries).extracting(SpaceSaving.Entry::getKey).containsExactly(1L, 3L);
+        assertThat(entries.get(1).getCount()).isEqualTo(4);
+        assertThat(entries.get(1).getError()).isEqualTo(3);
+        assertThat(sketch.getTotal()).isEqualTo(9);
+    }
+
+    @Test
+    void estimatesStayWithinTheirErrorAndHeavyKeysAreAlwaysTracked() {
+        int capacity = 20;
+        SpaceSaving sketch = new SpaceSaving(capacity);
+        Map<Long, Long> truth = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            // Skewed stream: a few keys dominate, a long tail of keys shows up rarely
+            long key = random.nextDouble() < 0.6 ? random.nextInt(5) : 5 + random.nextInt(2_000);
+            long count = 1 + random.nextInt(3);
+            sketch.offer(key, count);
+            truth.merge(key, count, Long::sum);
+        }
+
+        long total = sketch.getTotal();
+        assertThat(total).isEqualTo(truth.values().stream().mapToLong(Long::longValue).sum());
+        Map<Long, SpaceSaving.Entry> tracked = sketch.entries().stream()
+                .collect(Collectors.toMap(SpaceSaving.Entry::getKey, e -> e));
+        assertThat(tracked).hasSize(capacity);
+        for (SpaceSaving.Entry entry : tracked.values()) {
+            long actual = truth.get(entry.getKey());
+            assertThat(entry.getCount()).isGreaterThanOrEqualTo(actual);
+            assertThat(entry.getCount() - entry.getError()).isLessThanOrEqualTo(actual);
+            assertThat(entry.getError()).isLessThanOrEqualTo(total / capacity);
+        }
+        truth.forEach((key, actual) -> {
+            if (actual > total / capacity) {
+                assertThat(tracked).containsKey(key);
+            }
+        });
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.offer(1, 5);
+        sketch.clear();
+
+        assertThat(sketch.entries()).isEmpty();
+        assertThat(sketch.getTotal()).isZero();
+        sketch.offer(2, 1);
+        assertThat(sketch.entries().get(0).getError()).isZero();
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThatThrownBy(() -> new SpaceSaving(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
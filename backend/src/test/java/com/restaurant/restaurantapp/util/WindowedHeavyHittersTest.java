@@ -0,0 +1,77 @@
+package com.restaurant.restaurantapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WindowedHeavyHittersTest {
+
+    // 1 s window in four 250 ms buckets
+    private final WindowedHeavyHitters hitters = new WindowedHeavyHitters(1_000, 4, 8);
+
+    @Test
+    void countsAreMergedAcrossLiveBuckets() {
+        hitters.add(1, 2, 0);
+        hitters.add(1, 3, 260);
+        hitters.add(2, 4, 510);
+
+        assertThat(hitters.counts(999)).isEqualTo(Map.of(1L, 5L, 2L, 4L));
+        assertThat(hitters.top(1, 999)).extracting(SpaceSaving.Entry::getKey).containsExactly(1L);
+    }
+
+    @Test
+    void bucketsDropOutAsTheWindowSlides() {
+        hitters.add(1, 5, 0);    // Bucket [0, 250)
+        hitters.add(2, 3, 300);  // Bucket [250, 500)
+
+        assertThat(hitters.counts(999)).containsOnlyKeys(1L, 2L);
+        assertThat(hitters.counts(1_000)).containsOnlyKeys(2L);   // First bucket has left the window
+        assertThat(hitters.counts(1_250)).isEmpty();
+    }
+
+    @Test
+    void aReusedSlotStartsFromZero() {
+        hitters.add(1, 5, 100);
+        hitters.add(2, 1, 1_100); // Same ring slot, four buckets later
+
+        assertThat(hitters.counts(1_100)).isEqualTo(Map.of(2L, 1L));
+        assertThat(hitters.top(10, 1_100).get(0).getError()).isZero();
+    }
+
+    @Test
+    void errorsAreSummedAlongWithCounts() {
+        WindowedHeavyHitters small = new WindowedHeavyHitters(1_000, 2, 1);
+        small.add(1, 4, 0);
+        small.add(2, 1, 0);   // Evicts key 1: count 5, error 4
+        small.add(2, 2, 600);
+
+        SpaceSaving.Entry entry = small.top(1, 900).get(0);
+        assertThat(entry.getKey()).isEqualTo(2L);
+        assertThat(entry.getCount()).isEqualTo(7);
+        assertThat(entry.getError()).isEqualTo(4);
+    }
+
+    @Test
+    void aKeyEvictedFromOneBucketIsStillNeverUndercounted() {
+        WindowedHeavyHitters small = new WindowedHeavyHitters(1_000, 2, 2);
+        small.add(1, 3, 0);
+        small.add(2, 5, 0);
+        small.add(3, 4, 0);   // Evicts key 1 (count 3) from the first bucket
+        small.add(1, 6, 600); // Key 1 is tracked again only in the second bucket
+
+        // True count of key 1 is 9; the first bucket could hold up to 5 more than it shows (its smallest counter is key 2 at 5)
+        SpaceSaving.Entry entry = small.top(10, 900).stream().filter(e -> e.getKey() == 1L).findFirst().orElseThrow();
+        assertThat(entry.getCount()).isGreaterThanOrEqualTo(9).isEqualTo(11);
+        assertThat(entry.getCount() - entry.getError()).isLessThanOrEqualTo(9);
+        // A key the second bucket (not full) never saw gets nothing from it
+        assertThat(small.counts(900)).containsEntry(2L, 5L);
+    }
+
+    @Test
+    void windowMustCoverEveryBucket() {
+        assertThatThrownBy(() -> new WindowedHeavyHitters(3, 4, 8)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
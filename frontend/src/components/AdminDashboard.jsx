@@ -1,6 +1,7 @@
 // src/components/AdminDashboard.jsx
 import React, { useState, useEffect } from 'react';
 import apiClient from '../services/apiService';
+import { useStompTopic } from '../hooks/useWebSocket';
 
 // A reusable component for each statistic card
 const StatCard = ({ title, value, icon, color }) => (
@@ -19,6 +20,16 @@ const AdminDashboard = () => {
     const [stats, setStats] = useState(null);
     const [isLoading, setIsLoading] = useState(true);
     const [error, setError] = useState(null);
+    // The server pushes a fresh snapshot whenever the numbers change; no polling needed.
+    const snapshot = useStompTopic('/topic/dashboard/snapshot', '/app/dashboard/snapshot');
+
+    useEffect(() => {
+        if (snapshot?.stats) {
+            setStats(snapshot.stats);
+            setError(null);
+            setIsLoading(false);
+        }
+    }, [snapshot]);
 
     useEffect(() => {
         const fetchStats = async () => {
@@ -34,17 +34,28 @@ function CustomerMenuPage() {
 
     // This new useEffect runs ONLY when a new message arrives from the WebSocket.
     useEffect(() => {
-        if (lastMessage && lastMessage.itemStatus) { // Check if it's an item status update
-            toast.info(`Update: Your ${lastMessage.dishName} is now ${formatStatus(lastMessage.itemStatus)}!`);
-            
+        if (lastMessage && lastMessage.itemUpdates && lastMessage.itemUpdates.length > 0) {
+            // Snapshots just resync the list; only live changes deserve a toast
+            if (lastMessage.kind === 'DELTA') {
+                lastMessage.itemUpdates
+                    .filter(update => update.itemStatus)
+                    .forEach(update => toast.info(`Update: Your ${update.dishName} is now ${formatStatus(update.itemStatus)}!`));
+            }
+
             // Update the local state to show the new status instantly
             setActiveOrder(currentOrder => {
                 if (!currentOrder) return null; // Safety check
-                
-                const updatedItems = currentOrder.items.map(item =>
-                    item.id === lastMessage.id ? { ...item, itemStatus: lastMessage.itemStatus } : item
-                );
-                
+
+                const updatedItems = currentOrder.items.map(item => {
+                    const update = lastMessage.itemUpdates.find(u => u.id === item.id);
+                    if (!update) return item;
+                    return {
+                        ...item,
+                        itemStatus: update.itemStatus ?? item.itemStatus,
+                        quantity: update.quantity ?? item.quantity,
+                    };
+                });
+
                 return { ...currentOrder, items: updatedItems };
             });
         }
@@ -5,12 +5,26 @@ import { toast } from 'react-toastify';
 import apiClient from '../services/apiService';
 import { useWebSocket } from '../hooks/useWebSocket';// Import the WebSocket hook
 
+// Subtotal and tax lines, only when the bill actually carries tax.
+function BillTax({ bill, formatMoney }) {
+  if (!bill.taxAmount || Number(bill.taxAmount) === 0) return null;
+  return (
+    <div className="space-y-1 mb-4 text-slate-600">
+      <div className="flex justify-between"><span>Subtotal</span><span>{formatMoney.format(bill.subtotal)}</span></div>
+      <div className="flex justify-between">
+        <span>Tax ({(Number(bill.taxRate) * 100).toFixed(2)}%)</span><span>{formatMoney.format(bill.taxAmount)}</span>
+      </div>
+    </div>
+  );
+}
+
 function FinalBillPage() {
   const { publicTrackingId } = useParams();
   const navigate = useNavigate();
 
   // --- STATE MANAGEMENT ---
   const [order, setOrder] = useState(null);
+  const [bill, setBill] = useState(null); // Frozen when the customer asked to pay; what they are charged
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState(null);
   const [isProcessingPayment, setIsProcessingPayment] = useState(false);
@@ -48,8 +62,12 @@ function FinalBillPage() {
       setIsLoading(true);
       setError(null);
       try {
-        const res = await apiClient.get(`/orders/status/${publicTrackingId}`);
-        setOrder(res.data);
+        const [statusRes, billRes] = await Promise.all([
+          apiClient.get(`/orders/status/${publicTrackingId}`),
+          apiClient.get(`/orders/status/${publicTrackingId}/bill`),
+        ]);
+        setOrder(statusRes.data);
+        setBill(billRes.data);
       } catch (err) {
         setError(err.response?.data?.message || 'This bill could not be found or has expired.');
       } finally {
@@ -61,13 +79,13 @@ function FinalBillPage() {
 
   // --- EVENT HANDLERS ---
   const handlePayOnline = async () => {
-    if (!order) return;
+    if (!order || !bill) return;
     setIsProcessingPayment(true);
     setPaymentError(null);
     try {
       const createRazorpayOrderRequest = {
-        amount: order.totalPrice,
-        currency: 'INR',
+        amount: bill.total,
+        currency: bill.currency,
         receipt: order.internalOrderId?.toString(),
       };
       const razorpayOrderResponse = await apiClient.post('/payments/create-razorpay-order', createRazorpayOrderRequest);
@@ -132,6 +150,8 @@ function FinalBillPage() {
 
   // --- RENDER LOGIC ---
 
+  const formatMoney = new Intl.NumberFormat('en-IN', { style: 'currency', currency: bill?.currency || 'INR' });
+
   if (isLoading) {
     return (
       <div className="flex items-center justify-center min-h-screen bg-slate-100">
@@ -140,7 +160,7 @@ function FinalBillPage() {
     );
   }
 
-  if (error || !order) {
+  if (error || !order || !bill) {
     return (
       <div className="flex items-center justify-center min-h-screen bg-slate-100 p-4">
         <div className="bg-white p-8 rounded-lg shadow-lg text-center">
@@ -163,20 +183,21 @@ function FinalBillPage() {
           <main className="bg-white p-6 sm:p-8 rounded-lg shadow-xl">
             <h2 className="text-xl font-semibold text-gray-800 mb-6 border-b pb-4">Order Summary</h2>
             <div className="space-y-4 mb-6">
-              {order.items?.map((item, index) => (
+              {bill.items.map((item, index) => (
                 <div key={index} className="flex items-baseline justify-between">
                   <div>
                     <p className="font-medium text-slate-700">{item.dishName}</p>
                     <p className="text-sm text-slate-500">Qty: {item.quantity}</p>
                   </div>
-                  <p className="text-slate-800 font-medium">{new Intl.NumberFormat('en-IN', { style: 'currency', currency: 'INR' }).format(item.lineItemTotal)}</p>
+                  <p className="text-slate-800 font-medium">{formatMoney.format(item.lineTotal)}</p>
                 </div>
               ))}
             </div>
             <div className="border-t-2 border-dashed border-gray-200 mt-6 pt-6">
+              <BillTax bill={bill} formatMoney={formatMoney} />
               <div className="flex justify-between items-center text-lg font-semibold text-slate-800 mb-6">
                 <span>Total Amount</span>
-                <span className="text-2xl font-bold text-indigo-700">{new Intl.NumberFormat('en-IN', { style: 'currency', currency: 'INR' }).format(order.totalPrice)}</span>
+                <span className="text-2xl font-bold text-indigo-700">{formatMoney.format(bill.total)}</span>
               </div>
             </div>
             <div className="mt-8 text-center">
@@ -198,20 +219,21 @@ function FinalBillPage() {
         <main className="bg-white p-6 sm:p-8 rounded-lg shadow-xl">
           <h2 className="text-xl font-semibold text-gray-800 mb-6 border-b pb-4">Order Summary</h2>
           <div className="space-y-4 mb-6">
-            {order.items?.map((item, index) => (
+            {bill.items.map((item, index) => (
               <div key={index} className="flex items-baseline justify-between">
                 <div>
                   <p className="font-medium text-slate-700">{item.dishName}</p>
                   <p className="text-sm text-slate-500">Qty: {item.quantity}</p>
                 </div>
-                <p className="text-slate-800 font-medium">{new Intl.NumberFormat('en-IN', { style: 'currency', currency: 'INR' }).format(item.lineItemTotal)}</p>
+                <p className="text-slate-800 font-medium">{formatMoney.format(item.lineTotal)}</p>
               </div>
             ))}
           </div>
           <div className="border-t-2 border-dashed border-gray-200 mt-6 pt-6">
+            <BillTax bill={bill} formatMoney={formatMoney} />
             <div className="flex justify-between items-center text-lg font-semibold text-slate-800 mb-6">
               <span>Total Amount</span>
-              <span className="text-2xl font-bold text-indigo-700">{new Intl.NumberFormat('en-IN', { style: 'currency', currency: 'INR' }).format(order.totalPrice)}</span>
+              <span className="text-2xl font-bold text-indigo-700">{formatMoney.format(bill.total)}</span>
             </div>
             {!offlineConfirmed ? (
               <div className="space-y-3">
@@ -2,6 +2,7 @@
 import React, { useState, useEffect, useCallback } from 'react';
 import { toast } from 'react-toastify';
 import { getKitchenOrders, updateOrderItemStatus } from '../services/apiService';
+import { useStompSubscriptions } from '../hooks/useWebSocket';
 
 // We define ONLY the columns that will be displayed on this KDS screen.
 const KDS_COLUMNS = [
@@ -28,13 +29,22 @@ function OrderManagementPage() {
     }
   }, []);
 
-  // Fetch data on initial mount and set up polling.
+  // Fetch data on initial mount. Live changes arrive on /topic/staff/kitchen; the slow poll only
+  // catches anything missed, e.g. while the broker was unreachable.
   useEffect(() => {
     fetchKitchenItems();
-    const intervalId = setInterval(fetchKitchenItems, 20000); // Poll for new orders
+    const intervalId = setInterval(fetchKitchenItems, 120000);
     return () => clearInterval(intervalId);
   }, [fetchKitchenItems]);
 
+  // Each message is one item's current state: keep it while it belongs on a KDS column, drop it otherwise.
+  useStompSubscriptions(['/topic/staff/kitchen'], (destination, update) => {
+    setKitchenItems(prevItems => {
+      const others = prevItems.filter(item => item.orderItemId !== update.orderItemId);
+      return KDS_COLUMNS.some(col => col.status === update.itemStatus) ? [...others, update] : others;
+    });
+  }, fetchKitchenItems);
+
 
   // --- THIS IS THE NEW, CORRECT, INSTANTANEOUS LOGIC ---
   const handleUpdateStatus = async (itemId, currentStatus, newStatus) => {
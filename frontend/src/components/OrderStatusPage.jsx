@@ -1,6 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useParams, useLocation, Link } from 'react-router-dom';
 import apiClient from '../services/apiService';
+import { useWebSocket } from '../hooks/useWebSocket';
 
 const OrderStatusPage = () => {
   const { publicTrackingId } = useParams();
@@ -9,6 +10,8 @@ const OrderStatusPage = () => {
   const [orderData, setOrderData] = useState(null);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState(null);
+  const [eta, setEta] = useState(null);
+  const lastMessage = useWebSocket(publicTrackingId);
 
   const fetchOrderStatus = async () => {
     try {
@@ -25,6 +28,19 @@ const OrderStatusPage = () => {
     }
   };
 
+  // Wait-time estimates are pushed over the socket; fetch one up front for the first paint.
+  useEffect(() => {
+    apiClient.get(`/orders/status/${publicTrackingId}/eta`)
+      .then((response) => setEta(response.data))
+      .catch((err) => console.error('Failed to fetch wait-time estimate:', err));
+  }, [publicTrackingId]);
+
+  useEffect(() => {
+    if (lastMessage && lastMessage.type === 'ETA') {
+      setEta(lastMessage);
+    }
+  }, [lastMessage]);
+
   useEffect(() => {
     // Initial fetch
     fetchOrderStatus();
@@ -110,6 +126,19 @@ const OrderStatusPage = () => {
           </div>
         </div>
 
+        {/* Wait-time estimate */}
+        {eta && eta.estimatedReadyAt && (
+          <div className="bg-sky-50 p-4 rounded-lg mb-6 text-center">
+            <div className="text-sm text-slate-600 mb-1">Estimated Wait</div>
+            <div className="text-2xl font-semibold text-sky-700">
+              {eta.minutesRemaining <= 1 ? 'Any moment now' : `About ${eta.minutesRemaining} min`}
+            </div>
+            {eta.itemsAhead > 0 && (
+              <div className="text-sm text-slate-500 mt-1">{eta.itemsAhead} dish(es) ahead of yours in the kitchen</div>
+            )}
+          </div>
+        )}
+
         {/* Order Time */}
         <div className="bg-slate-50 p-4 rounded-lg mb-6">
           <div className="text-sm text-slate-600 mb-1">Order Placed</div>
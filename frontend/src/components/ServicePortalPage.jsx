@@ -2,6 +2,7 @@
 import React, { useState, useEffect, useCallback } from 'react';
 import { toast } from 'react-toastify';
 import { getServiceTasks, clearAssistanceRequest, updateOrderItemStatus, completeOfflineOrder } from '../services/apiService';
+import { useStompSubscriptions } from '../hooks/useWebSocket';
 
 function ServicePortalPage() {
   const [readyItems, setReadyItems] = useState([]);
@@ -32,10 +33,30 @@ function ServicePortalPage() {
 
   useEffect(() => {
     fetchServiceTasks(); // Initial fetch
-    const interval = setInterval(fetchServiceTasks, 12000); // Poll every 12 seconds
+    // Live changes arrive over the staff topics below; this slow poll only catches anything missed
+    const interval = setInterval(fetchServiceTasks, 120000);
     return () => clearInterval(interval); // Cleanup on unmount
   }, [fetchServiceTasks]);
 
+  // Each message is one entry's current state: it stays in (or joins) its list only while it still needs attention.
+  const upsert = (list, entry, sameAs, keep) => {
+    const others = list.filter(existing => !sameAs(existing));
+    return keep ? [...others, entry] : others;
+  };
+  useStompSubscriptions(
+    ['/topic/staff/ready', '/topic/staff/assistance', '/topic/staff/bills'],
+    (destination, entry) => {
+      if (destination === '/topic/staff/ready') {
+        setReadyItems(items => upsert(items, entry, item => item.orderItemId === entry.orderItemId, entry.itemStatus === 'READY'));
+      } else if (destination === '/topic/staff/assistance') {
+        setAssistanceTables(tables => upsert(tables, entry, table => table.id === entry.id, entry.assistanceRequested));
+      } else {
+        setPaymentOrders(orders => upsert(orders, entry, order => order.id === entry.id, entry.status === 'AWAITING_PAYMENT'));
+      }
+    },
+    fetchServiceTasks
+  );
+
   const handleMarkDelivered = async (itemId) => {
     setProcessingId(itemId);
     try {
@@ -1,8 +1,92 @@
 // src/hooks/useWebSocket.js
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 
+// Plain WebSocket first: one upgraded connection without SockJS framing. SockJS (which may fall back
+// to HTTP streaming or polling) is used only once the plain endpoint has failed to open a few times
+// in a row, e.g. behind a proxy that blocks upgrades. Shared by every hook on the page. Failures
+// during a server outage look the same, so once on SockJS the plain endpoint is tried again now and
+// then; one more failure goes straight back to SockJS.
+const NATIVE_URL = 'ws://localhost:8080/ws-native';
+const SOCKJS_URL = 'http://localhost:8080/ws';
+const NATIVE_ATTEMPTS = 2;
+const NATIVE_RETRY_MS = 60000;
+let nativeFailures = 0;
+let lastNativeFailure = 0;
+
+const createSocket = () => {
+  if (typeof WebSocket === 'undefined') {
+    return new SockJS(SOCKJS_URL);
+  }
+  if (nativeFailures >= NATIVE_ATTEMPTS) {
+    if (Date.now() - lastNativeFailure < NATIVE_RETRY_MS) {
+      return new SockJS(SOCKJS_URL);
+    }
+    nativeFailures = NATIVE_ATTEMPTS - 1;
+  }
+  const socket = new WebSocket(NATIVE_URL);
+  let opened = false;
+  socket.addEventListener('open', () => {
+    opened = true;
+    nativeFailures = 0;
+  });
+  socket.addEventListener('close', () => {
+    if (!opened) {
+      nativeFailures += 1;
+      lastNativeFailure = Date.now();
+    }
+  });
+  return socket;
+};
+
+// Staff and admin destinations only accept sessions that sent the login token on CONNECT.
+const authHeaders = () => {
+  const token = localStorage.getItem('jwtToken');
+  return token ? { Authorization: `Bearer ${token}` } : {};
+};
+
+// Turns an order-topic envelope into the flat message the pages read:
+// - order changes become { status, invoiceNumber, internalOrderId, publicTrackingId }
+// - item changes become itemUpdates: [{ id, dishName, itemStatus?, quantity? }]
+// - a snapshot is the full order status plus itemUpdates for every item
+// - an ETA is the estimate itself ({ type: 'ETA', ... })
+const toOrderMessage = (publicTrackingId, envelope) => {
+  if (envelope.kind === 'ETA') {
+    return envelope.eta;
+  }
+  if (envelope.kind === 'SNAPSHOT') {
+    const snapshot = envelope.snapshot;
+    return {
+      kind: 'SNAPSHOT',
+      ...snapshot,
+      itemUpdates: (snapshot.items || []).map((item) => ({
+        id: item.itemId, dishName: item.dishName, itemStatus: item.itemStatus, quantity: item.quantity,
+      })),
+    };
+  }
+  const message = { kind: 'DELTA', publicTrackingId, internalOrderId: envelope.orderId, itemUpdates: [] };
+  (envelope.changes || []).forEach((change) => {
+    switch (change.op) {
+      case 'ORDER_STATUS':
+        message.status = change.value;
+        break;
+      case 'INVOICE_NUMBER':
+        message.invoiceNumber = change.value;
+        break;
+      case 'ITEM_STATUS':
+        message.itemUpdates.push({ id: change.itemId, dishName: change.dishName, itemStatus: change.value });
+        break;
+      case 'ITEM_QUANTITY':
+        message.itemUpdates.push({ id: change.itemId, dishName: change.dishName, quantity: change.value });
+        break;
+      default:
+        break; // Newer server, unknown change: ignore it rather than break the page
+    }
+  });
+  return message;
+};
+
 export const useWebSocket = (publicTrackingId) => {
   // This state will hold the most recent message received from the server.
   const [lastMessage, setLastMessage] = useState(null);
@@ -15,35 +99,128 @@ export const useWebSocket = (publicTrackingId) => {
 
     // 1. Configure the STOMP client
     const client = new Client({
-      // The SockJS anction is what makes it compatible with our Spring Boot backend
-      webSocketFactory: () => new SockJS('http://localhost:8080/ws'),
-      
-      // You can add debug messages to see what's happening
-      debug: (str) => {
-        console.log('STOMP: ' + str);
-      },
+      // Plain WebSocket, or SockJS if that keeps failing (see createSocket)
+      webSocketFactory: createSocket,
 
       // Try to reconnect every 5 seconds if the connection is lost
       reconnectDelay: 5000,
     });
 
+    // Where we are in the order's message stream. Kept across reconnects, so that after a drop the
+    // server can replay just what was missed. Until a sync reply has arrived, incoming messages are
+    // held in pending: the reply covers those up to its seq, and the rest are applied after it.
+    let epoch = null;
+    let seq = null;
+    let resyncing = false;
+    let pending = [];
+
+    const apply = (envelope) => {
+      if (envelope.kind !== 'REPLAY') {
+        setLastMessage(toOrderMessage(publicTrackingId, envelope));
+        return;
+      }
+      // Only the last state set in one go is rendered, so the missed messages are folded into one
+      // delta (latest value per field) plus the newest ETA, which is shown right after it.
+      const changes = new Map();
+      let orderId = null;
+      let eta = null;
+      envelope.messages.forEach((missed) => {
+        if (missed.kind === 'ETA') {
+          eta = missed;
+          return;
+        }
+        orderId = missed.orderId ?? orderId;
+        (missed.changes || []).forEach((change) => {
+          const key = `${change.op}:${change.itemId}`;
+          changes.delete(key);
+          changes.set(key, change);
+        });
+      });
+      if (changes.size > 0) {
+        setLastMessage(toOrderMessage(publicTrackingId, { kind: 'DELTA', orderId, changes: [...changes.values()] }));
+      }
+      if (eta) {
+        setTimeout(() => setLastMessage(toOrderMessage(publicTrackingId, eta)), 0);
+      }
+    };
+
+    // Applies the held messages that follow on from the sync reply. A gap among them means more was
+    // missed, so the rest stay held for another resync; messages from another epoch mean the server
+    // restarted since the reply, so it is asked again.
+    const drain = () => {
+      const held = pending;
+      pending = [];
+      const following = held.filter((envelope) => envelope.epoch === epoch && envelope.seq > seq)
+        .sort((a, b) => a.seq - b.seq);
+      const run = [];
+      for (let i = 0; i < following.length; i += 1) {
+        if (following[i].seq === seq) {
+          continue; // The same message twice
+        }
+        if (following[i].seq !== seq + 1) {
+          pending = following.slice(i);
+          break;
+        }
+        seq = following[i].seq;
+        run.push(following[i]);
+      }
+      if (run.length > 0) {
+        // After the reply has been rendered; folded like a replay, since only the last state set in one go shows
+        setTimeout(() => apply({ kind: 'REPLAY', messages: run }), 0);
+      }
+      if (pending.length > 0 || held.some((envelope) => envelope.epoch !== epoch)) {
+        resync();
+      }
+    };
+
+    const resync = () => {
+      if (resyncing) {
+        return;
+      }
+      resyncing = true;
+      // Telling the server where we are lets it answer with a REPLAY instead of the whole order
+      const headers = epoch !== null && seq !== null ? { epoch: String(epoch), since: String(seq) } : {};
+      const subscription = client.subscribe(`/app/orders/${publicTrackingId}/snapshot`, (frame) => {
+        subscription.unsubscribe();
+        resyncing = false;
+        const envelope = JSON.parse(frame.body);
+        if (epoch !== envelope.epoch || seq === null || seq <= envelope.seq) {
+          epoch = envelope.epoch;
+          seq = envelope.seq;
+          apply(envelope);
+        }
+        drain();
+      }, headers);
+    };
+
     // 2. Define what happens when the connection is successful
-    client.onConnect = (frame) => {
-      console.log('Connected to WebSocket server:', frame);
-      
-      // This is where we subscribe to our specific channel.
+    client.onConnect = () => {
+      resyncing = false;
+
       // The channel name must exactly match what the backend is sending to.
-      const destination = `/topic/orders/${publicTrackingId}`;
-      
-      client.subscribe(destination, (message) => {
-        // This function is called every time a message arrives on our channel.
-        if (message.body) {
-          const receivedData = JSON.parse(message.body);
-          console.log('Received WebSocket message:', receivedData);
-          // We update our state with the new message data.
-          setLastMessage(receivedData);
+      client.subscribe(`/topic/orders/${publicTrackingId}`, (frame) => {
+        if (!frame.body) {
+          return;
+        }
+        const envelope = JSON.parse(frame.body);
+        if (epoch === envelope.epoch && seq !== null && envelope.seq <= seq) {
+          return; // Already covered by the last sync reply
+        }
+        if (resyncing || epoch !== envelope.epoch || seq === null || envelope.seq !== seq + 1) {
+          // Missed something (or the server restarted): hold this until the sync reply has caught us up.
+          // ETAs are complete on their own, so they can still be shown meanwhile.
+          if (envelope.kind === 'ETA') {
+            setLastMessage(toOrderMessage(publicTrackingId, envelope));
+          }
+          pending.push(envelope);
+          resync();
+          return;
         }
+        seq = envelope.seq;
+        apply(envelope);
       });
+      // Also on reconnect: replays whatever was published while we were away
+      resync();
     };
 
     // Define what happens on an error
@@ -59,7 +236,6 @@ export const useWebSocket = (publicTrackingId) => {
     // This runs when the component unmounts to prevent memory leaks.
     return () => {
       if (client.active) {
-        console.log('Deactivating WebSocket client...');
         client.deactivate();
       }
     };
@@ -70,3 +246,109 @@ export const useWebSocket = (publicTrackingId) => {
   return lastMessage;
 };
 
+
+// Subscribes to a broadcast topic and returns its latest message.
+// If snapshotDestination is given (an /app/... @SubscribeMapping), its one-off reply is used as the
+// first value, so a late joiner doesn't wait for the next publish. Messages carrying a "version"
+// never replace a newer one, whichever of the two arrives first.
+export const useStompTopic = (topic, snapshotDestination) => {
+  const [message, setMessage] = useState(null);
+
+  useEffect(() => {
+    if (!topic) {
+      return;
+    }
+
+    const client = new Client({
+      webSocketFactory: createSocket,
+      reconnectDelay: 5000,
+    });
+    // Read on every (re)connect, so a token from a fresh login is picked up
+    client.beforeConnect = () => {
+      client.connectHeaders = authHeaders();
+    };
+
+    const handle = (frame) => {
+      if (!frame.body) {
+        return;
+      }
+      const received = JSON.parse(frame.body);
+      setMessage((current) =>
+        current && current.version != null && received.version != null && received.version < current.version
+          ? current
+          : received);
+    };
+
+    client.onConnect = () => {
+      client.subscribe(topic, handle);
+      if (snapshotDestination) {
+        client.subscribe(snapshotDestination, handle);
+      }
+    };
+
+    client.activate();
+
+    return () => {
+      if (client.active) {
+        client.deactivate();
+      }
+    };
+  }, [topic, snapshotDestination]);
+
+  return message;
+};
+
+
+// Subscribes to several topics on one connection and calls onMessage(destination, body) for every
+// message, unlike useStompTopic which only keeps the latest. Meant for lists kept in sync by
+// per-entry updates, e.g. the /topic/staff/... channels; frames holding a batch (JSON array)
+// are unpacked and passed on one entry at a time. onConnect runs after every (re)connect,
+// so the caller can refetch whatever it missed while disconnected.
+export const useStompSubscriptions = (destinations, onMessage, onConnect) => {
+  const onMessageRef = useRef(onMessage);
+  const onConnectRef = useRef(onConnect);
+  onMessageRef.current = onMessage;
+  onConnectRef.current = onConnect;
+  const key = destinations.join('|');
+
+  useEffect(() => {
+    if (!key) {
+      return;
+    }
+
+    const client = new Client({
+      webSocketFactory: createSocket,
+      reconnectDelay: 5000,
+    });
+    client.beforeConnect = () => {
+      client.connectHeaders = authHeaders();
+    };
+
+    client.onConnect = () => {
+      key.split('|').forEach((destination) => {
+        client.subscribe(destination, (frame) => {
+          if (!frame.body) {
+            return;
+          }
+          const body = JSON.parse(frame.body);
+          (Array.isArray(body) ? body : [body]).forEach((entry) => onMessageRef.current(destination, entry));
+        });
+      });
+      if (onConnectRef.current) {
+        onConnectRef.current();
+      }
+    };
+
+    client.onStompError = (frame) => {
+      console.error('Broker reported error: ' + frame.headers['message']);
+    };
+
+    client.activate();
+
+    return () => {
+      if (client.active) {
+        client.deactivate();
+      }
+    };
+  }, [key]);
+};